@@ -20,6 +20,7 @@
 package org.apache.isis.applib;
 
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.base.Predicate;
 
@@ -27,6 +28,8 @@
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.applib.filter.Filter;
 import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryIterationPolicy;
+import org.apache.isis.applib.query.QueryVisitor;
 import org.apache.isis.applib.security.UserMemento;
 
 /**
@@ -658,4 +661,98 @@ public interface DomainObjectContainer {
 
     //endregion
 
+    //region > count
+
+    /**
+     * Returns the number of instances of the specified type (including subtypes),
+     * without loading them.
+     */
+    @Programmatic
+    <T> long count(Class<T> ofType);
+
+    /**
+     * Returns the number of instances that match the supplied query, without loading
+     * them (if supported by the object store for the type of query).
+     *
+     * <p>
+     * Any range specified by the query is ignored; the intention is to obtain the
+     * total number of matches, for example to support paging.
+     */
+    @Programmatic
+    <T> long count(Query<T> query);
+
+    //endregion
+
+    //region > removeAllMatches, updateAllMatches
+
+    /**
+     * Deletes all the instances that match the supplied query in a single set-based operation,
+     * without loading them.
+     *
+     * <p>
+     * Intended for housekeeping, such as purging old records.  Because the instances are never
+     * loaded, no lifecycle callbacks or domain events are fired for them and no per-object audit
+     * entries are created; instead a single summarising audit entry (and, if the type is published,
+     * a single published event) is emitted for the operation as a whole.  Any instances already in
+     * memory are discarded, and will be reloaded if subsequently accessed.
+     *
+     * <p>
+     * Any pending changes are flushed first.  Only {@link org.apache.isis.applib.query.QueryFindAllInstances all instances}
+     * and {@link org.apache.isis.applib.query.QueryDefault named} queries are supported; the named query
+     * must select the instances themselves (it may not have a result clause).  Any range is ignored.
+     *
+     * @return the number of instances deleted.
+     */
+    @Programmatic
+    <T> long removeAllMatches(Query<T> query);
+
+    /**
+     * Updates the specified properties of all the instances that match the supplied query
+     * in a single set-based operation, without loading them.
+     *
+     * <p>
+     * As for {@link #removeAllMatches(Query)}, no callbacks, domain events or per-object
+     * audit entries result; a single summarising audit entry (and published event) is emitted instead.
+     *
+     * @param newValueByPropertyId - the new values, keyed by the id of the (persisted) property to set.
+     * @return the number of instances updated.
+     */
+    @Programmatic
+    <T> long updateAllMatches(Query<T> query, Map<String, Object> newValueByPropertyId);
+
+    //endregion
+
+    //region > iterate
+
+    /**
+     * Iterates over all the instances that match the supplied query, passing each in turn to the
+     * visitor, using the {@link QueryIterationPolicy#DEFAULT default} iteration policy.
+     *
+     * @see #iterate(Query, QueryIterationPolicy, QueryVisitor)
+     */
+    @Programmatic
+    <T> void iterate(Query<T> query, QueryVisitor<? super T> visitor);
+
+    /**
+     * Iterates over all the instances that match the supplied query, passing each in turn to the
+     * visitor until either it returns <tt>false</tt> or the instances are exhausted.
+     *
+     * <p>
+     * Unlike {@link #allMatches(Query)}, the instances are fetched a chunk at a time, and (unless modified)
+     * are released from the session once each chunk has been processed; memory use is therefore bounded
+     * by the chunk size rather than the number of instances.  This makes it suitable for batch processing
+     * of large extents.
+     *
+     * <p>
+     * The {@link QueryIterationPolicy policy} determines the chunk size, and whether pending changes are
+     * flushed after each chunk.  It may also opt in to each chunk being committed in a transaction of its
+     * own, though only if called outside of any transaction (so not from within an action).  Note that chunks are fetched using successive ranges of the
+     * query, so the visitor should not modify instances in a way that changes whether (or in what order)
+     * they match the query.
+     */
+    @Programmatic
+    <T> void iterate(Query<T> query, QueryIterationPolicy policy, QueryVisitor<? super T> visitor);
+
+    //endregion
+
 }
@@ -0,0 +1,66 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Hints to the object store which parts of an object graph should be loaded eagerly, so that rendering an entity
+ * (or a table of entities) does not trigger a lazy load per reference or collection.
+ *
+ * <p>
+ * On a type, applies whenever instances of that type are loaded, queried (including by named queries) or
+ * refreshed.  On a collection, applies whenever the owning object is so loaded: the collection is fetched along
+ * with its owner, along with the listed members of its elements.  (There is no separate hint for when a
+ * collection is lazily loaded on its own, for example because its owner was loaded by some other means.)
+ *
+ * <p>
+ * For the JDO/DataNucleus object store, these are applied as the query's or persistence manager's
+ * <tt>FetchPlan</tt>.
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Prefetch {
+
+    /**
+     * The names of the members (properties or collections) to load eagerly.
+     *
+     * <p>
+     * On a type these are members of the type itself; on a collection they are members of the collection's
+     * element type (the collection itself is always loaded along with its owner).
+     */
+    String[] members() default {};
+
+    /**
+     * The names of any fetch groups already defined by the object store (eg JDO <tt>@FetchGroup</tt>s) to
+     * include.
+     */
+    String[] fetchGroups() default {};
+
+    /**
+     * How many levels of references to traverse; <tt>0</tt> (the default) leaves the object store's default
+     * unchanged.
+     */
+    int maxFetchDepth() default 0;
+}
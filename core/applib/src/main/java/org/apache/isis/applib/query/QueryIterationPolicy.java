@@ -0,0 +1,101 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.query;
+
+import java.io.Serializable;
+
+/**
+ * Determines how {@link org.apache.isis.applib.DomainObjectContainer#iterate(Query, QueryIterationPolicy, QueryVisitor)}
+ * walks over the instances matching a {@link Query}: how many instances are fetched at a time, and
+ * whether pending changes are flushed after each chunk or each chunk is committed in its own transaction.
+ *
+ * <p>
+ * Immutable; use the <tt>with...</tt> methods to obtain a modified copy, for example:
+ * <pre>
+ * QueryIterationPolicy.DEFAULT.withChunkSize(1000).withCommitPerChunk()
+ * </pre>
+ */
+public final class QueryIterationPolicy implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Uses the framework's default chunk size, neither flushing nor committing between chunks.
+     */
+    public static final QueryIterationPolicy DEFAULT = new QueryIterationPolicy(0, false, false);
+
+    private final int chunkSize;
+    private final boolean flushPerChunk;
+    private final boolean commitPerChunk;
+
+    private QueryIterationPolicy(final int chunkSize, final boolean flushPerChunk, final boolean commitPerChunk) {
+        this.chunkSize = chunkSize;
+        this.flushPerChunk = flushPerChunk;
+        this.commitPerChunk = commitPerChunk;
+    }
+
+    /**
+     * The number of instances to fetch at a time, or <tt>0</tt> to use the framework's default.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Whether pending changes are flushed to the object store once each chunk has been visited.
+     */
+    public boolean isFlushPerChunk() {
+        return flushPerChunk;
+    }
+
+    /**
+     * Whether each chunk is fetched and visited in a transaction of its own, committed once the chunk
+     * has been visited.
+     *
+     * <p>
+     * Only instances that are unmodified can be released from the session, so this should be used if
+     * the visitor modifies the instances and the memory used is to remain bounded.  It is only allowed
+     * if no transaction is in progress when the iteration begins (so not from within an action, for example);
+     * otherwise an {@link IllegalStateException} is thrown rather than committing that transaction part way
+     * through.
+     */
+    public boolean isCommitPerChunk() {
+        return commitPerChunk;
+    }
+
+    public QueryIterationPolicy withChunkSize(final int chunkSize) {
+        if(chunkSize <= 0) {
+            throw new IllegalArgumentException("require chunkSize>0");
+        }
+        return new QueryIterationPolicy(chunkSize, flushPerChunk, commitPerChunk);
+    }
+
+    public QueryIterationPolicy withFlushPerChunk() {
+        return new QueryIterationPolicy(chunkSize, true, commitPerChunk);
+    }
+
+    public QueryIterationPolicy withCommitPerChunk() {
+        return new QueryIterationPolicy(chunkSize, flushPerChunk, true);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryIterationPolicy[chunkSize=" + chunkSize + ", flushPerChunk=" + flushPerChunk + ", commitPerChunk=" + commitPerChunk + "]";
+    }
+}
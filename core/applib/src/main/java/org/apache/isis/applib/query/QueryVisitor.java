@@ -0,0 +1,37 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.query;
+
+/**
+ * Callback for {@link org.apache.isis.applib.DomainObjectContainer#iterate(Query, QueryVisitor) iterating}
+ * over the instances matching a {@link Query}, one instance at a time.
+ */
+public interface QueryVisitor<T> {
+
+    /**
+     * Visits the next matching instance.
+     *
+     * <p>
+     * The instance should not be held onto beyond this call; it may be released from the
+     * session once the chunk that it was fetched in has been processed.
+     *
+     * @return <tt>true</tt> to continue with the next instance, <tt>false</tt> to stop iterating.
+     */
+    boolean visit(T instance);
+}
@@ -0,0 +1,112 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.audit;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+
+/**
+ * The change to a single property of an auditable entity, as passed to a {@link BatchAuditingService}.
+ *
+ * <p>
+ * Holds the same information as the arguments to {@link AuditingService3#audit(UUID, String, Bookmark, String, String, String, String, String, Timestamp)}.
+ * All values are already stringified, so an entry can safely be held onto after the transaction that
+ * created it has completed.
+ */
+public class AuditEntry {
+
+    private final UUID transactionId;
+    private final String targetClassName;
+    private final Bookmark target;
+    private final String memberIdentifier;
+    private final String propertyName;
+    private final String preValue;
+    private final String postValue;
+    private final String user;
+    private final Timestamp timestamp;
+
+    public AuditEntry(
+            final UUID transactionId, final String targetClassName, final Bookmark target,
+            final String memberIdentifier, final String propertyName,
+            final String preValue, final String postValue,
+            final String user, final Timestamp timestamp) {
+        this.transactionId = transactionId;
+        this.targetClassName = targetClassName;
+        this.target = target;
+        this.memberIdentifier = memberIdentifier;
+        this.propertyName = propertyName;
+        this.preValue = preValue;
+        this.postValue = postValue;
+        this.user = user;
+        this.timestamp = timestamp;
+    }
+
+    @Programmatic
+    public UUID getTransactionId() {
+        return transactionId;
+    }
+
+    @Programmatic
+    public String getTargetClassName() {
+        return targetClassName;
+    }
+
+    @Programmatic
+    public Bookmark getTarget() {
+        return target;
+    }
+
+    @Programmatic
+    public String getMemberIdentifier() {
+        return memberIdentifier;
+    }
+
+    @Programmatic
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    @Programmatic
+    public String getPreValue() {
+        return preValue;
+    }
+
+    @Programmatic
+    public String getPostValue() {
+        return postValue;
+    }
+
+    @Programmatic
+    public String getUser() {
+        return user;
+    }
+
+    @Programmatic
+    public Timestamp getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return target + " by " + user + ", " + propertyName + ": " + preValue + " -> " + postValue;
+    }
+}
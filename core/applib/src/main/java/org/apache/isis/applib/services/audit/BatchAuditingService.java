@@ -0,0 +1,77 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.audit;
+
+import java.util.List;
+
+import org.apache.isis.applib.annotation.Programmatic;
+
+/**
+ * Will be called once per transaction with all of the changes made to auditable entities within that transaction.
+ *
+ * <p>
+ * An alternative to {@link AuditingService3}, allowing the implementation to process all of the entries in a 
+ * single operation (eg a single batched insert).  If registered, it is used in preference to any 
+ * {@link AuditingService3}.  If only an {@link AuditingService3} is registered, then the framework wraps it in an
+ * {@link Adapter}, calling it once per entry as before.
+ *
+ * <p>
+ * To move auditing off the request thread entirely, register the <tt>BatchAuditingServiceBackground</tt> 
+ * (part of the runtime) instead, which passes each batch to the registered {@link AuditingService3} from a 
+ * background thread.
+ */
+public interface BatchAuditingService {
+
+    /**
+     * The entries, in the order that they were captured.  Never called with an empty list.
+     */
+    @Programmatic
+    public void audit(final List<AuditEntry> entries);
+
+
+    /**
+     * Adapts an {@link AuditingService3}, passing each entry to it in turn.
+     */
+    public static class Adapter implements BatchAuditingService {
+
+        private final AuditingService3 auditingService3;
+
+        public Adapter(final AuditingService3 auditingService3) {
+            this.auditingService3 = auditingService3;
+        }
+
+        @Programmatic
+        @Override
+        public void audit(final List<AuditEntry> entries) {
+            for (final AuditEntry entry : entries) {
+                auditingService3.audit(
+                        entry.getTransactionId(), entry.getTargetClassName(), entry.getTarget(),
+                        entry.getMemberIdentifier(), entry.getPropertyName(),
+                        entry.getPreValue(), entry.getPostValue(),
+                        entry.getUser(), entry.getTimestamp());
+            }
+        }
+
+        @Programmatic
+        public AuditingService3 getAuditingService3() {
+            return auditingService3;
+        }
+    }
+
+}
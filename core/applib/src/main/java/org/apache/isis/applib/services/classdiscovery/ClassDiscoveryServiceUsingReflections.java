@@ -27,9 +27,6 @@
 import java.util.List;
 import java.util.Set;
 import com.google.common.collect.Lists;
-import org.reflections.Reflections;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.util.ClasspathHelper;
 import org.reflections.vfs.SystemDir;
 import org.reflections.vfs.Vfs;
 import org.apache.isis.applib.AbstractService;
@@ -42,6 +39,10 @@
  * is the <tt>FixtureScripts</tt> domain service.
  *
  * <p>
+ * The classpath is scanned only once, shared with the Isis runtime; see {@link ClasspathScan}.
+ * </p>
+ *
+ * <p>
  * This service has no UI and there is only one implementation (this class) in applib, so it is annotated with
  * {@link org.apache.isis.applib.annotation.DomainService}.  This means that it is automatically registered and
  * available for use; no further configuration is required.
@@ -58,28 +59,13 @@
     @Programmatic
     @Override
     public <T> Set<Class<? extends T>> findSubTypesOfClasses(Class<T> type) {
-        Vfs.setDefaultURLTypes(getUrlTypes());
-
-        final Reflections reflections = new Reflections(
-                ClasspathHelper.forClassLoader(Thread.currentThread().getContextClassLoader()),
-                ClasspathHelper.forClass(Object.class),
-                new SubTypesScanner(false)
-        );
-        return reflections.getSubTypesOf(type);
+        return ClasspathScan.findSubTypesOf(type);
     }
 
     @Programmatic
     @Override
     public <T> Set<Class<? extends T>> findSubTypesOfClasses(Class<T> type, String packagePrefix) {
-        Vfs.setDefaultURLTypes(getUrlTypes());
-
-        final Reflections reflections = new Reflections(
-                ClasspathHelper.forClassLoader(Thread.currentThread().getContextClassLoader()),
-                ClasspathHelper.forClass(Object.class),
-                ClasspathHelper.forPackage(packagePrefix),
-                new SubTypesScanner(false)
-        );
-        return reflections.getSubTypesOf(type);
+        return ClasspathScan.findSubTypesOf(type, Collections.singletonList(packagePrefix));
     }
 
     // //////////////////////////////////////
@@ -0,0 +1,251 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.classdiscovery;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanner;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.scanners.TypeAnnotationsScanner;
+import org.reflections.serializers.XmlSerializer;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.vfs.Vfs;
+
+/**
+ * A single, shared scan of the classpath, used by {@link ClassDiscoveryServiceUsingReflections} and also by the
+ * Isis runtime (to locate domain services and entities).
+ *
+ * <p>
+ * Each classpath root (jar or directory) is scanned at most once, whichever package prefixes are subsequently
+ * queried.  If a jar contains an {@link #INDEX_RESOURCE index} (as written at build time by the
+ * <tt>index</tt> goal of the Isis Maven plugin) then that is read instead of scanning the jar.  An index in a
+ * directory root is ignored, because the classes in a directory (eg an IDE's output folder) may have been
+ * recompiled since the index was written.
+ * </p>
+ *
+ * <p>
+ * The scans are held until {@link #clear() cleared}, which the Isis runtime does when the system is shut down.
+ * </p>
+ */
+public final class ClasspathScan {
+
+    /**
+     * The location, relative to each classpath root, of the (optional) pre-computed index of that root.
+     */
+    public static final String INDEX_RESOURCE = "META-INF/isis/classpath-index.xml";
+
+    private static final Map<URL, Reflections> reflectionsByRoot = Maps.newHashMap();
+
+    private ClasspathScan() {}
+
+    //region > find
+
+    /**
+     * Those types within any of the packages that are annotated with the specified annotation (or are subtypes
+     * of such types).
+     */
+    public static Set<Class<?>> findTypesAnnotatedWith(
+            final Class<? extends Annotation> annotation,
+            final List<String> packagePrefixes) {
+        final Reflections reflections = reflectionsFor(rootsOf(packagePrefixes));
+        if(reflections == null) {
+            return Collections.emptySet();
+        }
+        return withinPackages(reflections.getTypesAnnotatedWith(annotation), packagePrefixes);
+    }
+
+    /**
+     * All subtypes of the specified type within the packages; the whole classpath is searched so that
+     * intermediate supertypes in other packages (or jars) are traversed.
+     */
+    public static <T> Set<Class<? extends T>> findSubTypesOf(final Class<T> type, final List<String> packagePrefixes) {
+        return withinPackages(findSubTypesOf(type), packagePrefixes);
+    }
+
+    /**
+     * All subtypes of the specified type on the classpath (of the thread's context class loader).
+     */
+    public static <T> Set<Class<? extends T>> findSubTypesOf(final Class<T> type) {
+        final Reflections reflections = reflectionsFor(
+                ClasspathHelper.forClassLoader(Thread.currentThread().getContextClassLoader()));
+        if(reflections == null) {
+            return Collections.emptySet();
+        }
+        return reflections.getSubTypesOf(type);
+    }
+
+    private static <T> Set<Class<? extends T>> withinPackages(
+            final Set<Class<? extends T>> types,
+            final List<String> packagePrefixes) {
+        final Set<Class<? extends T>> withinPackages = Sets.newLinkedHashSet();
+        for (final Class<? extends T> type : types) {
+            if(type != null && isWithin(type.getName(), packagePrefixes)) {
+                withinPackages.add(type);
+            }
+        }
+        return withinPackages;
+    }
+
+    private static boolean isWithin(final String className, final List<String> packagePrefixes) {
+        for (final String packagePrefix : packagePrefixes) {
+            if(className.startsWith(packagePrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //endregion
+
+    //region > scan
+
+    /**
+     * Scans the classpath root (ignoring any index it might contain); used to write the index at build time.
+     */
+    public static Reflections scan(final URL root) {
+        Vfs.setDefaultURLTypes(ClassDiscoveryServiceUsingReflections.getUrlTypes());
+        return new Reflections(new ConfigurationBuilder()
+                .setUrls(root)
+                .setScanners(scanners()));
+    }
+
+    private static Scanner[] scanners() {
+        return new Scanner[] { new SubTypesScanner(false), new TypeAnnotationsScanner() };
+    }
+
+    /**
+     * Discards all scans, so that the classpath is rescanned on next use; called by the Isis runtime when the
+     * system is shut down.
+     */
+    public static synchronized void clear() {
+        reflectionsByRoot.clear();
+    }
+
+    /**
+     * The scans of each of the roots, merged; or <tt>null</tt> if there are no roots.
+     */
+    private static synchronized Reflections reflectionsFor(final Collection<URL> roots) {
+        Reflections merged = null;
+        for (final URL root : roots) {
+            Reflections reflections = reflectionsByRoot.get(root);
+            if(reflections == null) {
+                reflections = readIndex(root);
+                if(reflections == null) {
+                    reflections = scan(root);
+                }
+                reflectionsByRoot.put(root, reflections);
+            }
+            if(merged == null) {
+                // an empty instance (no urls), into which the scans are merged, leaving the cached scans untouched
+                merged = new Reflections(new ConfigurationBuilder().setScanners(scanners()));
+            }
+            merged.merge(reflections);
+        }
+        return merged;
+    }
+
+    private static Reflections readIndex(final URL root) {
+        final URL indexUrl = indexUrlFor(root);
+        if(indexUrl == null) {
+            return null;
+        }
+        InputStream inputStream = null;
+        try {
+            inputStream = indexUrl.openStream();
+            return new XmlSerializer().read(inputStream);
+        } catch (final IOException ex) {
+            // no index (or unreadable); scan instead
+            return null;
+        } finally {
+            closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * Only jars are indexed; a directory is always scanned, since its classes may be newer than its index.
+     */
+    private static URL indexUrlFor(final URL root) {
+        final String externalForm = root.toExternalForm();
+        if(!externalForm.endsWith(".jar")) {
+            return null;
+        }
+        try {
+            return new URL("jar:" + externalForm + "!/" + INDEX_RESOURCE);
+        } catch (final MalformedURLException ex) {
+            return null;
+        }
+    }
+
+    private static void closeQuietly(final InputStream inputStream) {
+        if(inputStream == null) {
+            return;
+        }
+        try {
+            inputStream.close();
+        } catch (final IOException ex) {
+            // ignore
+        }
+    }
+
+    //endregion
+
+    //region > roots
+
+    private static Set<URL> rootsOf(final List<String> packagePrefixes) {
+        final Set<URL> roots = Sets.newLinkedHashSet();
+        for (final String packagePrefix : packagePrefixes) {
+            for (final URL url : ClasspathHelper.forPackage(packagePrefix)) {
+                roots.add(normalized(url));
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * {@link ClasspathHelper#forPackage(String, ClassLoader...)} returns <tt>jar:file:/x.jar!/</tt> whereas
+     * {@link ClasspathHelper#forClassLoader(ClassLoader...)} returns <tt>file:/x.jar</tt>; normalized to the
+     * latter so that each jar is scanned only once.
+     */
+    private static URL normalized(final URL url) {
+        final String externalForm = url.toExternalForm();
+        if(externalForm.startsWith("jar:") && externalForm.endsWith("!/")) {
+            try {
+                return new URL(externalForm.substring("jar:".length(), externalForm.length() - "!/".length()));
+            } catch (final MalformedURLException ex) {
+                return url;
+            }
+        }
+        return url;
+    }
+
+    //endregion
+
+}
@@ -0,0 +1,96 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.publish;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.isis.applib.annotation.NotPersistable;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.annotation.PublishedObject.ChangeKind;
+
+/**
+ * An immutable pojo summarising a set-based (bulk) update or delete of the instances of some
+ * type, for example as performed by
+ * {@link org.apache.isis.applib.DomainObjectContainer#removeAllMatches(org.apache.isis.applib.query.Query)}.
+ *
+ * <p>
+ * The affected instances are never loaded, so (unlike {@link EventPayloadForObjectChanged}) this
+ * payload does not reference them; it describes the query that selected them and the number affected.
+ */
+@NotPersistable
+public class EventPayloadForBulkChange implements EventPayload {
+
+    private final String className;
+    private final ChangeKind changeKind;
+    private final String queryDescription;
+    private final long count;
+    private final Map<String, String> newValueByPropertyId;
+
+    public EventPayloadForBulkChange(
+            final String className,
+            final ChangeKind changeKind,
+            final String queryDescription,
+            final long count,
+            final Map<String, String> newValueByPropertyId) {
+        this.className = className;
+        this.changeKind = changeKind;
+        this.queryDescription = queryDescription;
+        this.count = count;
+        this.newValueByPropertyId = Collections.unmodifiableMap(new LinkedHashMap<String, String>(newValueByPropertyId));
+    }
+
+    /**
+     * Not required; all values are already stringified.
+     */
+    @Programmatic
+    @Override
+    public void withStringifier(final ObjectStringifier stringifier) {
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public ChangeKind getChangeKind() {
+        return changeKind;
+    }
+
+    public String getQueryDescription() {
+        return queryDescription;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * The new (stringified) values of the updated properties; empty for a delete.
+     */
+    public Map<String, String> getNewValueByPropertyId() {
+        return newValueByPropertyId;
+    }
+
+    @Override
+    public String toString() {
+        return changeKind + " " + count + " x " + className + " matching " + queryDescription
+                + (newValueByPropertyId.isEmpty() ? "" : " set " + newValueByPropertyId);
+    }
+}
@@ -24,4 +24,16 @@ public enum EventType {
     OBJECT_CREATED,
     OBJECT_UPDATED,
     OBJECT_DELETED,
+    /**
+     * Many instances of a type updated in a single set-based operation.
+     *
+     * @see EventPayloadForBulkChange
+     */
+    OBJECTS_BULK_UPDATED,
+    /**
+     * Many instances of a type deleted in a single set-based operation.
+     *
+     * @see EventPayloadForBulkChange
+     */
+    OBJECTS_BULK_DELETED,
 }
\ No newline at end of file
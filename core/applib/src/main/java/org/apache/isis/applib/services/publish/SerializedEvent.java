@@ -0,0 +1,55 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.publish;
+
+/**
+ * An event that has been published and {@link EventSerializer serialized} within the transaction in which
+ * it originated, so that it can subsequently be delivered by a {@link SerializedEventSink} independently of
+ * that transaction (and on a different thread).
+ * 
+ * <p>
+ * Unlike an {@link EventPayload}, which may reference domain objects, a serialized event holds only
+ * the {@link EventMetadata metadata} and the serialized form of the event.
+ */
+public class SerializedEvent {
+
+    private final EventMetadata metadata;
+    private final Object serializedForm;
+
+    public SerializedEvent(final EventMetadata metadata, final Object serializedForm) {
+        this.metadata = metadata;
+        this.serializedForm = serializedForm;
+    }
+
+    public EventMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * As returned by {@link EventSerializer#serialize(EventMetadata, EventPayload)}.
+     */
+    public Object getSerializedForm() {
+        return serializedForm;
+    }
+
+    @Override
+    public String toString() {
+        return metadata.getId() + ": " + serializedForm;
+    }
+}
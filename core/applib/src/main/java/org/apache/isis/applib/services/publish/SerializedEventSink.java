@@ -0,0 +1,90 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.publish;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.apache.isis.applib.annotation.Programmatic;
+
+/**
+ * The destination of events published through the outbox (<tt>PublishingServiceOutbox</tt>), which
+ * delivers them in batches on a background thread.
+ * 
+ * <p>
+ * Implementations are called without any Isis session or transaction, and so must not attempt to access 
+ * domain objects; everything required is in the {@link SerializedEvent}s.  If delivery fails, the
+ * implementation should throw an exception, in which case the same batch will be redelivered.
+ * 
+ * <p>
+ * To use, register the implementation as a service.
+ */
+public interface SerializedEventSink {
+
+    /**
+     * Delivers the events, in the order that they were published.
+     */
+    @Programmatic
+    public void deliver(List<SerializedEvent> events);
+
+    /**
+     * Simply collects the events that it is given; intended as a stand-in for tests.
+     */
+    public static class InMemory implements SerializedEventSink {
+
+        private final List<SerializedEvent> events = Lists.newArrayList();
+
+        @Programmatic
+        @Override
+        public synchronized void deliver(final List<SerializedEvent> events) {
+            this.events.addAll(events);
+            notifyAll();
+        }
+
+        /**
+         * A copy of the events delivered so far.
+         */
+        @Programmatic
+        public synchronized List<SerializedEvent> getEvents() {
+            return Collections.unmodifiableList(Lists.newArrayList(events));
+        }
+
+        /**
+         * Waits (up to the specified timeout) until at least the specified number of events have been delivered,
+         * returning a copy of those delivered.
+         */
+        @Programmatic
+        public synchronized List<SerializedEvent> awaitEvents(final int count, final long timeoutMillis) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + timeoutMillis;
+            long remaining = timeoutMillis;
+            while(events.size() < count && remaining > 0) {
+                wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            return getEvents();
+        }
+
+        @Programmatic
+        public synchronized void clear() {
+            events.clear();
+        }
+    }
+}
@@ -0,0 +1,358 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.queryresultscache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache.Key;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache.Value;
+
+/**
+ * An application-scoped sibling of the (request-scoped) {@link QueryResultsCache}, for the results of expensive
+ * queries that rarely change - the bookmarks of reference data, totals and the like - to be shared across
+ * interactions rather than recomputed by each.
+ *
+ * <p>
+ * Because a result is shared by every thread (and so every persistence session), it should be a value, or
+ * {@link org.apache.isis.applib.services.bookmark.Bookmark bookmark}s or detached copies of entities, but never
+ * the entities themselves: an entity belongs to the persistence session that loaded it, and would be read (and
+ * possibly modified) by other sessions concurrently, outside of their transactions.
+ *
+ * <p>
+ * Results are evicted once they have been held for longer than a configured time-to-live, or when the cache
+ * exceeds its maximum size (least recently used first).  In addition, a result can declare the entity types that
+ * it depends upon; the framework then invalidates it when a transaction that created, updated or deleted any
+ * instance of those types (or of their subtypes) completes.  This is done whether the transaction commits or is
+ * aborted, because a result computed within the transaction may reflect its changes, which are discarded if it
+ * is aborted.  Results that declare no types are only ever evicted by size or time.
+ *
+ * <p>
+ * The service is safe for concurrent use; concurrent requests for the same missing key result in a single
+ * evaluation of the query, the other callers waiting for its result.
+ *
+ * <p>
+ * It is configured using:
+ * <ul>
+ * <li><tt>isis.services.queryResultsCache.maxSize</tt> (default 1000 entries)</li>
+ * <li><tt>isis.services.queryResultsCache.ttlSeconds</tt> (default 300)</li>
+ * </ul>
+ *
+ * <p>
+ * Being a {@link org.apache.isis.applib.annotation.DomainService domain service} (with no UI), it is registered
+ * automatically; the framework looks it up in order to invalidate dependent results as transactions complete.
+ */
+@DomainService(nature = NatureOfService.DOMAIN)
+public class QueryResultsCacheApplicationScoped {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryResultsCacheApplicationScoped.class);
+
+    //region > constants
+
+    private static final String KEY_PREFIX = "isis.services.queryResultsCache.";
+
+    public static final String MAX_SIZE_KEY = KEY_PREFIX + "maxSize";
+    public static final int MAX_SIZE_DEFAULT = 1000;
+
+    public static final String TTL_SECONDS_KEY = KEY_PREFIX + "ttlSeconds";
+    public static final int TTL_SECONDS_DEFAULT = 300;
+
+    private static final Class<?>[] NO_TYPES = new Class<?>[0];
+
+    //endregion
+
+    private static class Entry {
+        private final Value<?> value;
+        private final Class<?>[] dependsOnTypes;
+
+        Entry(final Value<?> value, final Class<?>[] dependsOnTypes) {
+            this.value = value;
+            this.dependsOnTypes = dependsOnTypes;
+        }
+
+        boolean dependsOnAnyOf(final Collection<Class<?>> changedTypes) {
+            for (final Class<?> dependsOnType : dependsOnTypes) {
+                if(isSupertypeOfAny(dependsOnType, changedTypes)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private Cache<Key, Entry> cache;
+
+    /**
+     * Every type that any cached result has declared a dependency upon, so that transactions that change none
+     * of them can skip scanning the cache.
+     */
+    private final Set<Class<?>> dependedOnTypes = Sets.newConcurrentHashSet();
+
+    /**
+     * Incremented on every invalidation, so that a result computed concurrently with an invalidation (and so
+     * possibly already stale) is not retained.
+     */
+    private final AtomicLong invalidationGeneration = new AtomicLong();
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    //region > init
+
+    public QueryResultsCacheApplicationScoped() {
+        init(null);
+    }
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String,String> props) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(intFrom(props, MAX_SIZE_KEY, MAX_SIZE_DEFAULT))
+                .expireAfterWrite(intFrom(props, TTL_SECONDS_KEY, TTL_SECONDS_DEFAULT), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        dependedOnTypes.clear();
+    }
+
+    private static int intFrom(final Map<String, String> props, final String key, final int defaultValue) {
+        final String value = props != null ? props.get(key) : null;
+        if(value == null) {
+            return defaultValue;
+        }
+        try {
+            final int intValue = Integer.parseInt(value.trim());
+            return intValue > 0 ? intValue : defaultValue;
+        } catch(final NumberFormatException ex) {
+            LOG.warn("invalid value for '{}': '{}'; using default of {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    //endregion
+
+    //region > execute, get, put
+
+    /**
+     * As {@link #execute(Callable, Key, Class[])}, for a result that is evicted only by size or time.
+     */
+    @Programmatic
+    public <T> T execute(final Callable<T> callable, final Class<?> callingClass, final String methodName, final Object... keys) {
+        return execute(callable, new Key(callingClass, methodName, keys));
+    }
+
+    /**
+     * Returns the cached result for the key, otherwise calls the callable and caches its result.
+     *
+     * @param dependsOnTypes - the (entity) types whose instances the result is derived from; the result is
+     *                       invalidated whenever a transaction that changes an instance of any of these commits
+     *                       or is aborted.
+     */
+    @Programmatic
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final Callable<T> callable, final Key cacheKey, final Class<?>... dependsOnTypes) {
+        final Class<?>[] types = typesOrNone(dependsOnTypes);
+        registerDependencies(types);
+        final long generation = invalidationGeneration.get();
+        try {
+            final boolean[] loaded = new boolean[]{false};
+            final Entry entry = cache.get(cacheKey, new Callable<Entry>() {
+                @Override
+                public Entry call() throws Exception {
+                    loaded[0] = true;
+                    return new Entry(new Value<T>(callable.call()), types);
+                }
+            });
+            logHitOrMiss(cacheKey, !loaded[0]);
+            if(loaded[0]) {
+                discardIfInvalidatedSince(generation, cacheKey, entry);
+            }
+            return (T) entry.value.getResult();
+        } catch (final ExecutionException e) {
+            throw asRuntimeException(e.getCause());
+        } catch (final UncheckedExecutionException e) {
+            throw asRuntimeException(e.getCause());
+        }
+    }
+
+    @Programmatic
+    public <T> Value<T> get(final Class<?> callingClass, final String methodName, final Object... keys) {
+        return get(new Key(callingClass, methodName, keys));
+    }
+
+    /**
+     * @return the cached value, or <tt>null</tt> if there is none (or it has expired).
+     */
+    @Programmatic
+    @SuppressWarnings("unchecked")
+    public <T> Value<T> get(final Key cacheKey) {
+        final Entry entry = cache.getIfPresent(cacheKey);
+        logHitOrMiss(cacheKey, entry != null);
+        return entry != null ? (Value<T>) entry.value : null;
+    }
+
+    /**
+     * @param dependsOnTypes - as for {@link #execute(Callable, Key, Class[])}.
+     */
+    @Programmatic
+    public <T> void put(final Key cacheKey, final T result, final Class<?>... dependsOnTypes) {
+        if(LOG.isDebugEnabled()) {
+            LOG.debug("PUT: " + cacheKey);
+        }
+        final Class<?>[] types = typesOrNone(dependsOnTypes);
+        registerDependencies(types);
+        cache.put(cacheKey, new Entry(new Value<T>(result), types));
+    }
+
+    //endregion
+
+    //region > invalidate
+
+    @Programmatic
+    public void invalidate(final Key cacheKey) {
+        cache.invalidate(cacheKey);
+    }
+
+    @Programmatic
+    public void invalidateAll() {
+        invalidationGeneration.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Invalidates every cached result that depends on any of the specified types (or any of their supertypes).
+     *
+     * <p>
+     * Called by the framework when a transaction that changed instances of these types commits or is aborted; can
+     * also be called by application code, for example if the underlying data is changed by some other process.
+     */
+    @Programmatic
+    public void invalidateDependentsOf(final Collection<Class<?>> changedTypes) {
+        if(changedTypes.isEmpty() || !anyDependedOn(changedTypes)) {
+            return;
+        }
+        invalidationGeneration.incrementAndGet();
+        int invalidated = 0;
+        final Iterator<Entry> iterator = cache.asMap().values().iterator();
+        while (iterator.hasNext()) {
+            if(iterator.next().dependsOnAnyOf(changedTypes)) {
+                iterator.remove();
+                invalidated++;
+            }
+        }
+        invalidationCount.addAndGet(invalidated);
+        if(LOG.isDebugEnabled()) {
+            LOG.debug("INVALIDATED: " + invalidated + " result(s) depending on " + changedTypes);
+        }
+    }
+
+    private boolean anyDependedOn(final Collection<Class<?>> changedTypes) {
+        for (final Class<?> dependedOnType : dependedOnTypes) {
+            if(isSupertypeOfAny(dependedOnType, changedTypes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void discardIfInvalidatedSince(final long generation, final Key cacheKey, final Entry entry) {
+        if(entry.dependsOnTypes.length > 0 && invalidationGeneration.get() != generation) {
+            cache.asMap().remove(cacheKey, entry);
+        }
+    }
+
+    private void registerDependencies(final Class<?>[] types) {
+        dependedOnTypes.addAll(Arrays.asList(types));
+    }
+
+    private static boolean isSupertypeOfAny(final Class<?> type, final Collection<Class<?>> candidates) {
+        for (final Class<?> candidate : candidates) {
+            if(type.isAssignableFrom(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //endregion
+
+    //region > statistics
+
+    /**
+     * Hit, miss, load and (size- or time-based) eviction counts, since the cache was created.
+     */
+    @Programmatic
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    @Programmatic
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * Number of results invalidated because a transaction changed instances of a type they depend on.
+     */
+    @Programmatic
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    @Programmatic
+    public long getSize() {
+        return cache.size();
+    }
+
+    //endregion
+
+    //region > helpers
+
+    private static Class<?>[] typesOrNone(final Class<?>[] dependsOnTypes) {
+        return dependsOnTypes != null ? dependsOnTypes : NO_TYPES;
+    }
+
+    private static RuntimeException asRuntimeException(final Throwable cause) {
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+    }
+
+    private static void logHitOrMiss(final Key cacheKey, final boolean hit) {
+        if(!LOG.isDebugEnabled()) {
+            return;
+        }
+        LOG.debug((hit ? "HIT" : "MISS") + ": " + cacheKey.toString());
+    }
+
+    //endregion
+}
@@ -0,0 +1,76 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.classdiscovery;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Test;
+import org.apache.isis.applib.annotation.DomainService;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ClasspathScanTest {
+
+    private static final List<String> PACKAGE_PREFIXES =
+            Collections.singletonList(ClasspathScanTest.class.getPackage().getName());
+
+    @After
+    public void tearDown() throws Exception {
+        ClasspathScan.clear();
+    }
+
+    @Test
+    public void typesAnnotatedWith() throws Exception {
+        final Set<Class<?>> types = ClasspathScan.findTypesAnnotatedWith(DomainService.class, PACKAGE_PREFIXES);
+
+        assertThat(types.contains(ClassDiscoveryServiceUsingReflections.class), is(true));
+    }
+
+    @Test
+    public void typesAnnotatedWith_excludesOtherPackages() throws Exception {
+        final Set<Class<?>> types = ClasspathScan.findTypesAnnotatedWith(DomainService.class, PACKAGE_PREFIXES);
+
+        for (final Class<?> type : types) {
+            assertThat(type.getName(), type.getName().startsWith(PACKAGE_PREFIXES.get(0)), is(true));
+        }
+    }
+
+    @Test
+    public void subTypesOf() throws Exception {
+        final Set<Class<? extends ClassDiscoveryService>> types =
+                ClasspathScan.findSubTypesOf(ClassDiscoveryService.class, PACKAGE_PREFIXES);
+
+        assertThat(types.contains(ClassDiscoveryService2.class), is(true));
+        assertThat(types.contains(ClassDiscoveryServiceUsingReflections.class), is(true));
+    }
+
+    @Test
+    public void subsequentLookupsUseSameScan() throws Exception {
+        final Set<Class<? extends ClassDiscoveryService>> first =
+                ClasspathScan.findSubTypesOf(ClassDiscoveryService.class, PACKAGE_PREFIXES);
+        final Set<Class<? extends ClassDiscoveryService>> second =
+                ClasspathScan.findSubTypesOf(ClassDiscoveryService.class, PACKAGE_PREFIXES);
+
+        assertThat(second, is(first));
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.queryresultscache;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class QueryResultsCacheApplicationScopedTest {
+
+    public static class Country {}
+    public static class Region extends Country {}
+    public static class Customer {}
+
+    private QueryResultsCacheApplicationScoped queryResultsCache;
+
+    private int[] calls;
+    private Callable<String> callable;
+
+    @Before
+    public void setUp() throws Exception {
+        queryResultsCache = new QueryResultsCacheApplicationScoped();
+        calls = new int[]{0};
+        callable = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                calls[0]++;
+                return "foo";
+            }
+        };
+    }
+
+    @Test
+    public void caching() {
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(getClass(), "caching", "a", 1);
+
+        assertThat(queryResultsCache.execute(callable, key, Country.class), is("foo"));
+        assertThat(calls[0], is(1));
+
+        // should be a cache hit
+        assertThat(queryResultsCache.execute(callable, key, Country.class), is("foo"));
+        assertThat(calls[0], is(1));
+
+        assertThat(queryResultsCache.getStats().hitCount(), is(1L));
+        assertThat(queryResultsCache.getStats().missCount(), is(1L));
+    }
+
+    @Test
+    public void invalidatedWhenDependedOnTypeChanges() {
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(getClass(), "countries");
+        queryResultsCache.execute(callable, key, Country.class);
+
+        queryResultsCache.invalidateDependentsOf(Collections.<Class<?>>singleton(Region.class));
+
+        assertThat(queryResultsCache.get(key), is(nullValue()));
+        assertThat(queryResultsCache.getInvalidationCount(), is(1L));
+
+        queryResultsCache.execute(callable, key, Country.class);
+        assertThat(calls[0], is(2));
+    }
+
+    @Test
+    public void notInvalidatedWhenOtherTypeChanges() {
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(getClass(), "regions");
+        queryResultsCache.execute(callable, key, Region.class);
+
+        // a change to a supertype does not affect results depending only on the subtype
+        queryResultsCache.invalidateDependentsOf(Collections.<Class<?>>singleton(Country.class));
+        queryResultsCache.invalidateDependentsOf(Collections.<Class<?>>singleton(Customer.class));
+
+        queryResultsCache.execute(callable, key, Region.class);
+        assertThat(calls[0], is(1));
+        assertThat(queryResultsCache.getInvalidationCount(), is(0L));
+    }
+
+    @Test
+    public void resultsWithoutDependenciesAreNotInvalidated() {
+        queryResultsCache.execute(callable, getClass(), "config", "x");
+
+        queryResultsCache.invalidateDependentsOf(Collections.<Class<?>>singleton(Customer.class));
+
+        queryResultsCache.execute(callable, getClass(), "config", "x");
+        assertThat(calls[0], is(1));
+    }
+
+    @Test
+    public void nullResultsAreCached() {
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(getClass(), "none");
+        final Callable<String> returnsNull = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                calls[0]++;
+                return null;
+            }
+        };
+        assertThat(queryResultsCache.execute(returnsNull, key), is(nullValue()));
+        assertThat(queryResultsCache.execute(returnsNull, key), is(nullValue()));
+        assertThat(calls[0], is(1));
+    }
+
+    @Test
+    public void evictedWhenMaxSizeExceeded() {
+        queryResultsCache.init(Collections.singletonMap(QueryResultsCacheApplicationScoped.MAX_SIZE_KEY, "1"));
+
+        queryResultsCache.execute(callable, getClass(), "evicted", 1);
+        queryResultsCache.execute(callable, getClass(), "evicted", 2);
+
+        assertThat(queryResultsCache.getSize(), is(1L));
+        assertThat(queryResultsCache.getStats().evictionCount(), is(1L));
+    }
+
+}
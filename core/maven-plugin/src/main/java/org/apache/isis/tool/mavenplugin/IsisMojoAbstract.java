@@ -62,31 +62,34 @@ protected IsisMojoAbstract(final MetaModelProcessor metaModelProcessor) {
     public void execute() throws MojoExecutionException, MojoFailureException {
 
         final Plugin plugin = MavenProjects.lookupPlugin(mavenProject, CURRENT_PLUGIN_KEY);
-        final List<Object> serviceList = plugin != null ? serviceListFor(plugin) : null;
+        if(plugin == null) {
+            return;
+        }
+        final IsisConfiguration isisConfiguration = getIsisConfiguration();
+        final List<Object> serviceList = serviceListFor(isisConfiguration);
         if(serviceList == null || serviceList.size() == 0) {
             return;
         }
         getLog().info("Found " + serviceList.size() + " services");
 
-        usingIsisMetaModel(serviceList, metaModelProcessor);
+        usingIsisMetaModel(isisConfiguration, serviceList, metaModelProcessor);
     }
 
     private void usingIsisMetaModel(
+            final IsisConfiguration isisConfiguration,
             final List<Object> serviceList,
             final MetaModelProcessor metaModelProcessor) throws MojoExecutionException, MojoFailureException {
 
         IsisMetaModel isisMetaModel = null;
         try {
-            isisMetaModel = bootstrapIsis(serviceList);
+            isisMetaModel = bootstrapIsis(isisConfiguration, serviceList);
             metaModelProcessor.process(isisMetaModel, context);
         } finally {
             IsisMetaModels.disposeSafely(isisMetaModel);
         }
     }
 
-    private List<Object> serviceListFor(Plugin plugin) throws MojoFailureException {
-        IsisConfiguration isisConfiguration = getIsisConfiguration();
-
+    private static List<Object> serviceListFor(final IsisConfiguration isisConfiguration) {
         final ServicesInstaller servicesInstaller;
         if(isisConfiguration == null) {
             servicesInstaller = new ServicesInstallerFromAnnotation();
@@ -123,11 +126,15 @@ private File getIsisConfigDir() {
         return file;
     }
 
-    private static IsisMetaModel bootstrapIsis(List<Object> serviceList) {
+    private static IsisMetaModel bootstrapIsis(final IsisConfiguration isisConfiguration, List<Object> serviceList) {
         IsisMetaModel isisMetaModel = new IsisMetaModel(
                                             new RuntimeContextNoRuntime(),
                                             new ProgrammingModelFacetsJava5(),
                                             serviceList);
+        if(isisConfiguration != null) {
+            // as at runtime, so that (eg) the snapshot's checksum is of the same configuration
+            isisMetaModel.setConfiguration(isisConfiguration);
+        }
         isisMetaModel.init();
         return isisMetaModel;
     }
@@ -0,0 +1,67 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.tool.mavenplugin;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.project.MavenProject;
+import org.reflections.Reflections;
+import org.apache.isis.applib.services.classdiscovery.ClasspathScan;
+
+/**
+ * Scans the project's compiled classes and writes an index of them into the build output directory, so that
+ * {@link ClasspathScan} need not scan them at runtime.  The index is packaged into the project's jar; it is
+ * honoured only there (never in the output directory itself, whose classes may be recompiled without it).
+ */
+@Mojo(
+        name = "index",
+        defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresProject = true
+)
+public class IsisMojoIndex extends AbstractMojo {
+
+    @Component
+    private MavenProject mavenProject;
+
+    public void execute() throws MojoExecutionException {
+        final File outputDirectory = new File(mavenProject.getBuild().getOutputDirectory());
+        if(!outputDirectory.isDirectory()) {
+            return;
+        }
+        final File indexFile = new File(outputDirectory, ClasspathScan.INDEX_RESOURCE);
+        if(indexFile.exists() && !indexFile.delete()) {
+            throw new MojoExecutionException("Unable to delete existing classpath index " + indexFile);
+        }
+
+        final Reflections reflections;
+        try {
+            reflections = ClasspathScan.scan(outputDirectory.toURI().toURL());
+        } catch (final MalformedURLException e) {
+            throw new MojoExecutionException("Unable to scan " + outputDirectory, e);
+        }
+        reflections.save(indexFile.getPath());
+        getLog().info("Wrote classpath index to " + indexFile);
+    }
+
+}
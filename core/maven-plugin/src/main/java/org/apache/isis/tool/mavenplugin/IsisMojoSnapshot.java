@@ -0,0 +1,77 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.tool.mavenplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.isis.core.metamodel.app.IsisMetaModel;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.specloader.snapshot.MetaModelSnapshot;
+import org.apache.isis.core.metamodel.specloader.snapshot.MetaModelSnapshots;
+import org.apache.isis.core.metamodel.specloader.validator.ValidationFailures;
+
+/**
+ * Validates the metamodel and then writes a {@link MetaModelSnapshot snapshot} of it into the build output
+ * directory, for use at bootstrap if <tt>isis.reflector.snapshot</tt> is enabled.
+ */
+@Mojo(
+        name = "snapshot",
+        defaultPhase = LifecyclePhase.PREPARE_PACKAGE,
+        requiresProject = true,
+        requiresDependencyResolution = ResolutionScope.COMPILE,
+        requiresDependencyCollection = ResolutionScope.COMPILE
+)
+public class IsisMojoSnapshot extends IsisMojoAbstract {
+
+    protected IsisMojoSnapshot() {
+        super(new SnapshotMetaModelProcessor());
+    }
+
+    static class SnapshotMetaModelProcessor implements MetaModelProcessor {
+        @Override
+        public void process(final IsisMetaModel isisMetaModel, final Context context) throws MojoFailureException, MojoExecutionException {
+            final ValidationFailures validationFailures = isisMetaModel.getValidationFailures();
+            if (validationFailures.occurred()) {
+                context.throwFailureException(validationFailures.getNumberOfMessages() + " problems found.", validationFailures.getMessages());
+            }
+
+            final Collection<ObjectSpecification> objectSpecifications = isisMetaModel.getSpecificationLoader().allSpecifications();
+            final MetaModelSnapshot snapshot = MetaModelSnapshots.create(
+                    objectSpecifications,
+                    isisMetaModel.getProgrammingModelFacets(),
+                    isisMetaModel.getConfiguration());
+
+            final File outputDirectory = new File(context.getMavenProject().getBuild().getOutputDirectory());
+            final File file = new File(outputDirectory, MetaModelSnapshot.RESOURCE);
+            try {
+                MetaModelSnapshots.write(snapshot, file);
+            } catch (final IOException e) {
+                context.throwExecutionException("Unable to write metamodel snapshot to " + file, e);
+            }
+            context.getLog().info("Wrote metamodel snapshot of " + objectSpecifications.size() + " specifications to " + file);
+        }
+    }
+
+}
@@ -16,6 +16,8 @@
  */
 package org.apache.isis.core.metamodel.adapter;
 
+import java.util.Map;
+import org.apache.isis.applib.query.Query;
 import org.apache.isis.core.commons.components.Injectable;
 
 public interface ObjectPersistor extends Injectable {
@@ -38,4 +40,28 @@ public interface ObjectPersistor extends Injectable {
      */
     void remove(ObjectAdapter adapter);
 
+    /**
+     * Provided by the <tt>PersistenceSession</tt> when used by framework.
+     * 
+     * <p>
+     * Deletes all instances matching the query in a single set-based operation,
+     * returning the number deleted.
+     * 
+     * <p>
+     * Called by <tt>DomainObjectContainerDefault</tt>.
+     */
+    <T> long removeAllMatchingQuery(Query<T> query);
+
+    /**
+     * Provided by the <tt>PersistenceSession</tt> when used by framework.
+     * 
+     * <p>
+     * Updates the specified properties of all instances matching the query in a single
+     * set-based operation, returning the number updated.
+     * 
+     * <p>
+     * Called by <tt>DomainObjectContainerDefault</tt>.
+     */
+    <T> long updateAllMatchingQuery(Query<T> query, Map<String, Object> newValueByPropertyId);
+
 }
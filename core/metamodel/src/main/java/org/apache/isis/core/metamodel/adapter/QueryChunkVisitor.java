@@ -0,0 +1,42 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.adapter;
+
+import java.util.List;
+
+/**
+ * Callback for {@link QuerySubmitter#visitMatchingQuery(org.apache.isis.applib.query.Query, org.apache.isis.applib.query.QueryIterationPolicy, QueryChunkVisitor)},
+ * called for each chunk of instances matching a query.
+ */
+public interface QueryChunkVisitor {
+
+    /**
+     * Visits the next chunk of matching instances.
+     *
+     * @return those adapters of the chunk that the visitor will hold onto; all other adapters of the chunk
+     *         are released from the session (if the object store supports it) once this method returns.
+     */
+    List<ObjectAdapter> visit(List<ObjectAdapter> chunk);
+
+    /**
+     * Whether the visitor requires no further chunks; checked after each chunk has been visited.
+     */
+    boolean isComplete();
+
+}
@@ -19,6 +19,7 @@
 import java.util.List;
 
 import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryIterationPolicy;
 import org.apache.isis.core.commons.components.Injectable;
 
 public interface QuerySubmitter extends Injectable {
@@ -40,4 +41,43 @@ public interface QuerySubmitter extends Injectable {
      */
     public <T> ObjectAdapter firstMatchingQuery(Query<T> query);
 
+    /**
+     * Provided by <tt>PersistenceSession</tt> when used by framework.
+     *
+     * <p>
+     * Returns no more than two matching instances, sufficient for the caller to
+     * determine whether the query matched a single instance uniquely.
+     *
+     * <p>
+     * Called by <tt>DomainObjectContainerDefault</tt>.
+     */
+    public <T> List<ObjectAdapter> uniqueMatchingQuery(Query<T> query);
+
+    /**
+     * Provided by <tt>PersistenceSession</tt> when used by framework.
+     *
+     * <p>
+     * Returns the number of instances matching the query (ignoring any range), ideally
+     * without loading them.
+     *
+     * <p>
+     * Called by <tt>DomainObjectContainerDefault</tt>.
+     */
+    public <T> long countMatchingQuery(Query<T> query);
+
+    /**
+     * Provided by <tt>PersistenceSession</tt> when used by framework.
+     *
+     * <p>
+     * Fetches the instances matching the query a chunk at a time (as per the {@link QueryIterationPolicy policy}),
+     * passing each chunk to the {@link QueryChunkVisitor visitor} until it
+     * {@link QueryChunkVisitor#isComplete() is complete} or the matching instances are exhausted.  Instances not retained by the visitor are released
+     * from the session as the iteration proceeds, so that memory use is bounded by the chunk size
+     * rather than by the number of instances matched.
+     *
+     * <p>
+     * Called by <tt>DomainObjectContainerDefault</tt>.
+     */
+    public <T> void visitMatchingQuery(Query<T> query, QueryIterationPolicy policy, QueryChunkVisitor visitor);
+
 }
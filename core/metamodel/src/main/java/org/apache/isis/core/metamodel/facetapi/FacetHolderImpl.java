@@ -19,6 +19,7 @@
 
 package org.apache.isis.core.metamodel.facetapi;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +33,15 @@ public class FacetHolderImpl implements FacetHolder {
 
     private final Map<Class<? extends Facet>, Facet> facetsByClass = new HashMap<Class<? extends Facet>, Facet>();
 
+    /**
+     * Mirrors {@link #facetsByClass}, indexed by {@link FacetTypeRegistry#slotFor(Class) slot}, for fast
+     * {@link #getFacet(Class) lookup}.
+     *
+     * <p>
+     * Only ever as long as the highest slot of any facet held; replaced (rather than mutated) when grown.
+     */
+    private Facet[] facetsBySlot = new Facet[0];
+
     @Override
     public boolean containsFacet(final Class<? extends Facet> facetType) {
         return getFacet(facetType) != null;
@@ -59,7 +69,7 @@ public void addFacet(final MultiTypedFacet facet) {
     private void addFacet(final Class<? extends Facet> facetType, final Facet facet) {
         final Facet existingFacet = getFacet(facetType);
         if (existingFacet == null || existingFacet.isNoop()) {
-            facetsByClass.put(facetType, facet);
+            putFacet(facetType, facet);
             return;
         }
         if (!facet.alwaysReplace()) {
@@ -69,23 +79,46 @@ private void addFacet(final Class<? extends Facet> facetType, final Facet facet)
             return;
         }
         facet.setUnderlyingFacet(existingFacet);
+        putFacet(facetType, facet);
+    }
+
+    private void putFacet(final Class<? extends Facet> facetType, final Facet facet) {
         facetsByClass.put(facetType, facet);
+
+        final int slot = FacetTypeRegistry.slotFor(facetType);
+        Facet[] facetsBySlot = this.facetsBySlot;
+        if (slot >= facetsBySlot.length) {
+            facetsBySlot = Arrays.copyOf(facetsBySlot, slot + 1);
+        }
+        facetsBySlot[slot] = facet;
+        this.facetsBySlot = facetsBySlot;
+    }
+
+    private void clearSlot(final Class<? extends Facet> facetType) {
+        final int slot = FacetTypeRegistry.slotFor(facetType);
+        if (slot < facetsBySlot.length) {
+            facetsBySlot[slot] = null;
+        }
     }
 
     @Override
     public void removeFacet(final Facet facet) {
         FacetUtil.removeFacet(facetsByClass, facet);
+        clearSlot(facet.facetType());
     }
 
     @Override
     public void removeFacet(final Class<? extends Facet> facetType) {
         FacetUtil.removeFacet(facetsByClass, facetType);
+        clearSlot(facetType);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Facet> T getFacet(final Class<T> facetType) {
-        return (T) facetsByClass.get(facetType);
+        final int slot = FacetTypeRegistry.slotFor(facetType);
+        final Facet[] facetsBySlot = this.facetsBySlot;
+        return slot < facetsBySlot.length ? (T) facetsBySlot[slot] : null;
     }
 
     @Override
@@ -0,0 +1,58 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facetapi;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns each {@link Facet} type a small, dense, integer slot, so that {@link FacetHolderImpl} can store its
+ * facets in an array indexed by slot rather than a map keyed by type.
+ *
+ * <p>
+ * Slots are allocated on first use of each facet type, which in practice means while the metamodel is
+ * being built; thereafter looking up a slot is just a (per-class cached) read.
+ */
+public final class FacetTypeRegistry {
+
+    private FacetTypeRegistry() {
+    }
+
+    private static final AtomicInteger nextSlot = new AtomicInteger();
+
+    private static final ClassValue<Integer> slotByFacetType = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(final Class<?> facetType) {
+            // if computed concurrently then a slot may go unused; this is harmless.
+            return nextSlot.getAndIncrement();
+        }
+    };
+
+    public static int slotFor(final Class<? extends Facet> facetType) {
+        return slotByFacetType.get(facetType);
+    }
+
+    /**
+     * The number of slots allocated so far.
+     */
+    public static int size() {
+        return nextSlot.get();
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.facets.all.prefetch;
+
+import java.util.List;
+import org.apache.isis.core.metamodel.facetapi.Facet;
+
+/**
+ * Indicates which members (or object store fetch groups) should be loaded eagerly, either for instances of a
+ * class or for the elements of a collection.
+ *
+ * <p>
+ * Corresponds to annotating the class or collection with {@link org.apache.isis.applib.annotation.Prefetch}.
+ */
+public interface PrefetchFacet extends Facet {
+
+    /**
+     * Names of members to load eagerly.
+     */
+    List<String> members();
+
+    /**
+     * Names of fetch groups defined by the object store to include.
+     */
+    List<String> fetchGroups();
+
+    /**
+     * Maximum fetch depth, or <tt>0</tt> if unchanged.
+     */
+    int maxFetchDepth();
+
+}
@@ -0,0 +1,67 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.facets.all.prefetch;
+
+import java.util.List;
+import com.google.common.collect.ImmutableList;
+import org.apache.isis.core.metamodel.facetapi.Facet;
+import org.apache.isis.core.metamodel.facetapi.FacetAbstract;
+import org.apache.isis.core.metamodel.facetapi.FacetHolder;
+
+public abstract class PrefetchFacetAbstract extends FacetAbstract implements PrefetchFacet {
+
+    public static Class<? extends Facet> type() {
+        return PrefetchFacet.class;
+    }
+
+    private final List<String> members;
+    private final List<String> fetchGroups;
+    private final int maxFetchDepth;
+
+    public PrefetchFacetAbstract(
+            final String[] members,
+            final String[] fetchGroups,
+            final int maxFetchDepth,
+            final FacetHolder holder) {
+        super(type(), holder, Derivation.NOT_DERIVED);
+        this.members = ImmutableList.copyOf(members);
+        this.fetchGroups = ImmutableList.copyOf(fetchGroups);
+        this.maxFetchDepth = maxFetchDepth;
+    }
+
+    @Override
+    public List<String> members() {
+        return members;
+    }
+
+    @Override
+    public List<String> fetchGroups() {
+        return fetchGroups;
+    }
+
+    @Override
+    public int maxFetchDepth() {
+        return maxFetchDepth;
+    }
+
+    @Override
+    protected String toStringValues() {
+        return "members=" + members + ",fetchGroups=" + fetchGroups + ",maxFetchDepth=" + maxFetchDepth;
+    }
+}
@@ -21,8 +21,10 @@
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.apache.isis.applib.profiles.Localization;
 import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryIterationPolicy;
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.authentication.AuthenticationSessionProvider;
@@ -182,6 +184,16 @@ public void remove(final ObjectAdapter adapter) {
             public void makePersistent(final ObjectAdapter adapter) {
                 throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
             }
+
+            @Override
+            public <T> long removeAllMatchingQuery(final Query<T> query) {
+                throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
+            }
+
+            @Override
+            public <T> long updateAllMatchingQuery(final Query<T> query, final Map<String, Object> newValueByPropertyId) {
+                throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
+            }
         };
         domainObjectServices = new DomainObjectServicesAbstract() {
 
@@ -283,10 +295,25 @@ public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
                 throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
             }
 
+            @Override
+            public <T> List<ObjectAdapter> uniqueMatchingQuery(final Query<T> query) {
+                throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
+            }
+
             @Override
             public <T> List<ObjectAdapter> allMatchingQuery(final Query<T> query) {
                 throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
             }
+
+            @Override
+            public <T> long countMatchingQuery(final Query<T> query) {
+                throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
+            }
+
+            @Override
+            public <T> void visitMatchingQuery(final Query<T> query, final QueryIterationPolicy policy, final QueryChunkVisitor visitor) {
+                throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
+            }
         };
     }
 
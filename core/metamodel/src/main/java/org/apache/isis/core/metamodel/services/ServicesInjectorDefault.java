@@ -58,6 +58,11 @@ public class ServicesInjectorDefault implements ServicesInjectorSpi, Specificati
      */
     private final Map<Class<?>, List<Object>> servicesByType = Maps.newHashMap();
 
+    /**
+     * Keyed by the class of the object being injected into; invalidated whenever the set of services changes.
+     */
+    private final Map<Class<?>, InjectionPlan> injectionPlanByClass = Maps.newConcurrentMap();
+
     public ServicesInjectorDefault() {
         this(null);
     }
@@ -93,6 +98,7 @@ public void shutdown() {
     @Override
     public void setServices(final List<Object> services) {
         this.services.clear();
+        invalidateInjectionPlans();
         addServices(services);
         autowireServicesAndContainer();
     }
@@ -110,8 +116,9 @@ public <T> void replaceService(final T existingService, final T replacementServi
         }
 
         services.add(replacementService);
-        // invalidate cache
+        // invalidate caches
         servicesByType.clear();
+        invalidateInjectionPlans();
 
         autowireServicesAndContainer();
     }
@@ -178,12 +185,47 @@ private void injectServices(final Object object, final List<Object> services) {
 
         final Class<?> cls = object.getClass();
 
-        autowireViaFields(object, services, cls);
-        autowireViaPrefixedMethods(object, services, cls, "set");
-        autowireViaPrefixedMethods(object, services, cls, "inject");
+        final InjectionPlan injectionPlan = injectionPlanFor(cls, services);
+        injectionPlan.injectInto(object);
+    }
+
+    /**
+     * Looks up (or lazily computes) the {@link InjectionPlan} for the class.
+     *
+     * <p>
+     *     The plan resolves every <tt>@Inject</tt> field and every <tt>set</tt>/<tt>inject</tt> method to its
+     *     corresponding service once, so that subsequent injections into instances of the same class (eg as each
+     *     entity is loaded by the object store) do not need to reflect over the class hierarchy again.
+     * </p>
+     */
+    private InjectionPlan injectionPlanFor(final Class<?> cls, final List<Object> services) {
+        InjectionPlan injectionPlan = injectionPlanByClass.get(cls);
+        if(injectionPlan == null) {
+            injectionPlan = new InjectionPlan();
+            autowireViaFields(injectionPlan, services, cls);
+            autowireViaPrefixedMethods(injectionPlan, services, cls, "set");
+            autowireViaPrefixedMethods(injectionPlan, services, cls, "inject");
+            // if computed concurrently by another thread, then either plan will do.
+            injectionPlanByClass.put(cls, injectionPlan);
+        }
+        return injectionPlan;
     }
 
-    private void autowireViaFields(final Object object, final List<Object> services, final Class<?> cls) {
+    @Override
+    public void invalidateInjectionPlanFor(final Class<?> cls) {
+        // also any subclasses (eg proxies) that were planned for separately
+        for (final Class<?> plannedClass : Lists.newArrayList(injectionPlanByClass.keySet())) {
+            if(cls.isAssignableFrom(plannedClass)) {
+                injectionPlanByClass.remove(plannedClass);
+            }
+        }
+    }
+
+    private void invalidateInjectionPlans() {
+        injectionPlanByClass.clear();
+    }
+
+    private void autowireViaFields(final InjectionPlan injectionPlan, final List<Object> services, final Class<?> cls) {
         final List<Field> fields = Arrays.asList(cls.getDeclaredFields());
         final Iterable<Field> injectFields = Iterables.filter(fields, new Predicate<Field>() {
             @Override
@@ -194,29 +236,29 @@ public boolean apply(Field input) {
         });
 
         for (final Field field : injectFields) {
-            autowire(object, field, services);
+            autowire(injectionPlan, field, services);
         }
         
         // recurse up the hierarchy
         final Class<?> superclass = cls.getSuperclass();
         if(superclass != null) {
-            autowireViaFields(object, services, superclass);
+            autowireViaFields(injectionPlan, services, superclass);
         }
     }
 
-    private void autowire(Object object, Field field, List<Object> services) {
+    private void autowire(InjectionPlan injectionPlan, Field field, List<Object> services) {
         for (final Object service : services) {
             final Class<?> serviceClass = service.getClass();
             boolean canInject = isInjectorFieldFor(field, serviceClass);
             if(canInject) {
                 field.setAccessible(true);
-                invokeInjectorField(field, object, service);
+                injectionPlan.addField(field, service);
                 return;
             }
         }
     }
 
-    private void autowireViaPrefixedMethods(final Object object, final List<Object> services, final Class<?> cls, final String prefix) {
+    private void autowireViaPrefixedMethods(final InjectionPlan injectionPlan, final List<Object> services, final Class<?> cls, final String prefix) {
         final List<Method> methods = Arrays.asList(cls.getMethods());
         final Iterable<Method> prefixedMethods = Iterables.filter(methods, new Predicate<Method>(){
             public boolean apply(Method method) {
@@ -226,17 +268,17 @@ public boolean apply(Method method) {
         });
         
         for (final Method prefixedMethod : prefixedMethods) {
-            autowire(object, prefixedMethod, services);
+            autowire(injectionPlan, prefixedMethod, services);
         }
     }
 
-    private void autowire(Object object, Method prefixedMethod, List<Object> services) {
+    private void autowire(InjectionPlan injectionPlan, Method prefixedMethod, List<Object> services) {
         for (final Object service : services) {
             final Class<?> serviceClass = service.getClass();
             boolean isInjectorMethod = injectorMethodEvaluator.isInjectorMethodFor(prefixedMethod, serviceClass);
             if(isInjectorMethod) {
                 prefixedMethod.setAccessible(true);
-                invokeInjectorMethod(prefixedMethod, object, service);
+                injectionPlan.addMethod(prefixedMethod, service);
                 return;
             }
         }
@@ -294,6 +336,48 @@ private void autowireServicesAndContainer() {
     }
 
 
+    //endregion
+
+    //region > InjectionPlan
+
+    /**
+     * The fields and methods of a class that are to be injected, each already bound to its service.
+     *
+     * <p>
+     *     Immutable once built (and published via a concurrent map), so safe for use by multiple threads.
+     * </p>
+     */
+    static class InjectionPlan {
+
+        private final List<Field> fields = Lists.newArrayList();
+        private final List<Object> fieldServices = Lists.newArrayList();
+        private final List<Method> methods = Lists.newArrayList();
+        private final List<Object> methodServices = Lists.newArrayList();
+
+        void addField(final Field field, final Object service) {
+            fields.add(field);
+            fieldServices.add(service);
+        }
+
+        void addMethod(final Method method, final Object service) {
+            methods.add(method);
+            methodServices.add(service);
+        }
+
+        void injectInto(final Object object) {
+            for (int i = 0; i < fields.size(); i++) {
+                invokeInjectorField(fields.get(i), object, fieldServices.get(i));
+            }
+            for (int i = 0; i < methods.size(); i++) {
+                invokeInjectorMethod(methods.get(i), object, methodServices.get(i));
+            }
+        }
+
+        int size() {
+            return fields.size() + methods.size();
+        }
+    }
+
     //endregion
 
     //region > lookupService, lookupServices
@@ -345,6 +429,7 @@ public boolean apply(Object input) {
     @Override
     public void setSpecificationLookup(SpecificationLoader specificationLookup) {
         injectorMethodEvaluator = specificationLookup;
+        invalidateInjectionPlans();
     }
 
     //endregion
@@ -51,4 +51,13 @@ public interface ServicesInjectorSpi extends ApplicationScopedComponent, Injecta
      * @param replacementService
      */
     <T> void replaceService(T originalService, T replacementService);
+
+
+    /**
+     * Discard any cached knowledge of how to inject services into instances of the specified class.
+     *
+     * <p>
+     * Called when the metamodel for the class is invalidated (eg by the JRebel plugin after the class is reloaded).
+     */
+    void invalidateInjectionPlanFor(Class<?> cls);
 }
@@ -20,6 +20,7 @@
 package org.apache.isis.core.metamodel.services.container;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.PostConstruct;
@@ -36,6 +37,8 @@
 import org.apache.isis.applib.filter.Filters;
 import org.apache.isis.applib.query.Query;
 import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryIterationPolicy;
+import org.apache.isis.applib.query.QueryVisitor;
 import org.apache.isis.applib.security.RoleMemento;
 import org.apache.isis.applib.security.UserMemento;
 import org.apache.isis.applib.services.exceprecog.ExceptionRecognizer;
@@ -413,14 +416,7 @@ public <T> List<T> allInstances(final Class<T> type, long... range) {
     @Programmatic
     @Override
     public <T> List<T> allMatches(final Class<T> cls, final Predicate<? super T> predicate, long... range) {
-        final List<T> allInstances = allInstances(cls, range);
-        final List<T> filtered = new ArrayList<T>();
-        for (final T instance : allInstances) {
-            if (predicate.apply(instance)) {
-                filtered.add(instance);
-            }
-        }
-        return filtered;
+        return streamMatches(cls, predicate, range);
     }
 
     @Programmatic
@@ -456,13 +452,8 @@ public <T> List<T> allMatches(final Query<T> query) {
     @Programmatic
     @Override
     public <T> T firstMatch(final Class<T> cls, final Predicate<T> predicate) {
-        final List<T> allInstances = allInstances(cls); // Have to fetch all, as matching is done in next loop
-        for (final T instance : allInstances) {
-            if (predicate.apply(instance)) {
-                return instance;
-            }
-        }
-        return null;
+        final List<T> instances = streamMatches(cls, predicate, 0, 1); // stops as soon as a match is found
+        return firstInstanceElseNull(instances);
     }
 
     @Programmatic
@@ -541,7 +532,9 @@ public <T> T uniqueMatch(final Class<T> type, final String title) {
     @Programmatic
     @Override
     public <T> T uniqueMatch(final Query<T> query) {
-        final List<T> instances = allMatches(query); // No need to fetch more than 2. 
+        flush(); // auto-flush any pending changes
+        final List<ObjectAdapter> uniqueMatching = getQuerySubmitter().uniqueMatchingQuery(query); // No need to fetch more than 2.
+        final List<T> instances = ObjectAdapter.Util.unwrapT(uniqueMatching);
         if (instances.size() > 1) {
             throw new RepositoryException("Found more that one instance for query:" + query.getDescription());
         }
@@ -552,6 +545,128 @@ private static <T> T firstInstanceElseNull(final List<T> instances) {
         return instances.size() == 0 ? null : instances.get(0);
     }
 
+    /**
+     * Iterates over all instances of the type a chunk at a time, applying the predicate, and stopping
+     * as soon as enough matches have been found.
+     *
+     * <p>
+     * The range (if any) applies to the <i>matching</i> instances.  Instances that are not matched
+     * (or fall outside the range) are released from the session as the iteration proceeds, so memory
+     * use is bounded by the chunk size and the number of matches rather than the size of the extent.
+     */
+    private <T> List<T> streamMatches(final Class<T> cls, final Predicate<? super T> predicate, final long... range) {
+        final long start = range.length > 0 ? range[0] : 0;
+        final long count = range.length > 1 ? range[1] : 0;
+        final List<T> matches = new ArrayList<T>();
+
+        flush(); // auto-flush any pending changes
+        getQuerySubmitter().visitMatchingQuery(new QueryFindAllInstances<T>(cls), QueryIterationPolicy.DEFAULT, new QueryChunkVisitor() {
+
+            private long skipped;
+
+            @Override
+            public List<ObjectAdapter> visit(final List<ObjectAdapter> chunk) {
+                final List<ObjectAdapter> retained = new ArrayList<ObjectAdapter>();
+                for (final ObjectAdapter adapter : chunk) {
+                    if (isComplete()) {
+                        break;
+                    }
+                    @SuppressWarnings("unchecked")
+                    final T instance = (T) adapter.getObject();
+                    if (!predicate.apply(instance)) {
+                        continue;
+                    }
+                    if (skipped < start) {
+                        skipped++;
+                        continue;
+                    }
+                    matches.add(instance);
+                    retained.add(adapter);
+                }
+                return retained;
+            }
+
+            @Override
+            public boolean isComplete() {
+                return count != 0 && matches.size() >= count;
+            }
+        });
+        return matches;
+    }
+
+    //endregion
+
+    //region > count
+
+    @Programmatic
+    @Override
+    public <T> long count(final Class<T> ofType) {
+        return count(new QueryFindAllInstances<T>(ofType));
+    }
+
+    @Programmatic
+    @Override
+    public <T> long count(final Query<T> query) {
+        flush(); // auto-flush any pending changes
+        return getQuerySubmitter().countMatchingQuery(query);
+    }
+
+    //endregion
+
+    //region > removeAllMatches, updateAllMatches
+
+    @Programmatic
+    @Override
+    public <T> long removeAllMatches(final Query<T> query) {
+        flush(); // auto-flush any pending changes
+        return getObjectPersistor().removeAllMatchingQuery(query);
+    }
+
+    @Programmatic
+    @Override
+    public <T> long updateAllMatches(final Query<T> query, final Map<String, Object> newValueByPropertyId) {
+        flush(); // auto-flush any pending changes
+        return getObjectPersistor().updateAllMatchingQuery(query, newValueByPropertyId);
+    }
+
+    //endregion
+
+    //region > iterate
+
+    @Programmatic
+    @Override
+    public <T> void iterate(final Query<T> query, final QueryVisitor<? super T> visitor) {
+        iterate(query, QueryIterationPolicy.DEFAULT, visitor);
+    }
+
+    @Programmatic
+    @Override
+    public <T> void iterate(final Query<T> query, final QueryIterationPolicy policy, final QueryVisitor<? super T> visitor) {
+        flush(); // auto-flush any pending changes
+        getQuerySubmitter().visitMatchingQuery(query, policy, new QueryChunkVisitor() {
+
+            private boolean stopped;
+
+            @Override
+            public List<ObjectAdapter> visit(final List<ObjectAdapter> chunk) {
+                for (final ObjectAdapter adapter : chunk) {
+                    @SuppressWarnings("unchecked")
+                    final T instance = (T) adapter.getObject();
+                    if (!visitor.visit(instance)) {
+                        stopped = true;
+                        break;
+                    }
+                }
+                return Collections.emptyList();
+            }
+
+            @Override
+            public boolean isComplete() {
+                return stopped;
+            }
+        });
+    }
+
     //endregion
 
     //region > ExceptionRecognizer
@@ -16,16 +16,45 @@
  *  specific language governing permissions and limitations
  *  under the License.
  */
-
 package org.apache.isis.core.metamodel.services.container.query;
 
 public enum QueryCardinality {
     /**
      * Query can return multiple instances.
      */
-    MULTIPLE,
+    MULTIPLE(0),
     /**
      * Query should return only a single instance (or possible none).
      */
-    SINGLE
-}
\ No newline at end of file
+    SINGLE(1),
+    /**
+     * Query should return only a single instance (or possibly none), but
+     * enough rows are fetched to detect if that is not the case.
+     */
+    UNIQUE(2);
+
+    private final int maxResults;
+
+    private QueryCardinality(final int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * The maximum number of rows that need to be fetched to satisfy this
+     * cardinality, or <tt>0</tt> if unbounded.
+     */
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Narrows the provided count (as per {@link org.apache.isis.applib.query.Query#getCount()},
+     * where <tt>0</tt> means unbounded) so that no more than {@link #getMaxResults()} rows are fetched.
+     */
+    public long narrow(final long count) {
+        if (maxResults == 0) {
+            return count;
+        }
+        return count == 0 ? maxResults : Math.min(count, maxResults);
+    }
+}
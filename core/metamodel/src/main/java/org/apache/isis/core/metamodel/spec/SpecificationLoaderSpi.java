@@ -37,4 +37,11 @@ public interface SpecificationLoaderSpi extends ApplicationScopedComponent, Debu
     void invalidateCache(Class<?> domainClass);
     
     boolean isInitialized();
+
+    /**
+     * Called once the system has bootstrapped, that is, once the services have been initialized and any types
+     * registered by the object store (eg the JDO entities) have been loaded; any resources used only to load
+     * specifications in bulk can then be released.
+     */
+    void bootstrapped();
 }
@@ -39,6 +39,10 @@ public interface ObjectAssociationContainer {
     /**
      * Return all the fields that exist in an object of this specification,
      * although they need not all be accessible or visible.
+     * 
+     * <p>
+     * The list is unmodifiable (it may be shared with other callers); copy it
+     * if it needs to be changed.
      */
     List<ObjectAssociation> getAssociations(Contributed contributed);
 
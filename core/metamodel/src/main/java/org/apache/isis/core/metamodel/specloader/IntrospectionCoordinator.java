@@ -0,0 +1,318 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.specloader.specimpl.ObjectSpecificationAbstract;
+import org.apache.isis.core.metamodel.specloader.specimpl.ObjectSpecificationAbstract.IntrospectionState;
+
+/**
+ * Used by {@link ObjectReflectorDefault} to ensure that each specification is introspected only once when
+ * specifications are loaded by several threads concurrently, and to record how long each took.
+ *
+ * <p>
+ * A thread that re-enters the introspection of a spec that it is already introspecting is returned the
+ * partially introspected spec, breaking the cycle in the same way that single-threaded introspection always has.
+ * A thread that needs a spec being introspected by some other thread waits for it to complete, unless doing
+ * so would deadlock (the other thread is itself waiting, directly or indirectly, for a spec that this thread
+ * is introspecting).  In that case an {@link IntrospectionConflictException} is thrown instead, so that this
+ * thread abandons (and releases to the other threads) the specs it is introspecting; the type it was loading
+ * is then loaded again once the other threads have completed.  A partially introspected spec is therefore
+ * never handed to another thread.
+ * 
+ * <p>
+ * A spec being introspected other than through this coordinator (by the single-threaded path, holding the
+ * global lock) is waited for by acquiring that same lock.
+ */
+final class IntrospectionCoordinator {
+
+    /**
+     * Thrown by {@link #introspectOrAwait(ObjectSpecificationAbstract, Introspection)} if waiting for the spec
+     * being introspected by some other thread would deadlock.
+     */
+    static final class IntrospectionConflictException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        IntrospectionConflictException(final ObjectSpecification spec) {
+            super("Introspection of " + spec.getFullIdentifier() + " conflicts with that of another thread");
+        }
+    }
+
+    interface Introspection {
+        void introspect(ObjectSpecificationAbstract spec);
+    }
+
+    /**
+     * Guards {@link #introspectingThreadBySpec} and {@link #awaitedSpecByThread}, and is notified whenever
+     * the introspection of a spec completes.
+     */
+    private final Object monitor = new Object();
+    private final Map<ObjectSpecification, Thread> introspectingThreadBySpec = Maps.newHashMap();
+    private final Map<Thread, ObjectSpecification> awaitedSpecByThread = Maps.newHashMap();
+
+    private final Map<String, Long> nanosByClassName = Maps.newConcurrentMap();
+
+    /**
+     * The lock held by the single-threaded path while introspecting.
+     */
+    private final Object globalLock;
+
+    IntrospectionCoordinator(final Object globalLock) {
+        this.globalLock = globalLock;
+    }
+
+    /**
+     * For the current thread, the depth of nested introspection, and the time spent (so far) in nested
+     * introspections or waiting for other threads, so that this is excluded from the time recorded for the
+     * enclosing spec.
+     */
+    private final ThreadLocal<long[]> depthAndExcludedNanos = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[2];
+        }
+    };
+
+    /**
+     * For the current thread, the classes of the specs being introspected, innermost first.
+     */
+    private final ThreadLocal<Deque<Class<?>>> introspectedClasses = new ThreadLocal<Deque<Class<?>>>() {
+        @Override
+        protected Deque<Class<?>> initialValue() {
+            return new ArrayDeque<Class<?>>();
+        }
+    };
+
+    //region > introspect
+
+    /**
+     * Introspects the spec (using the provided {@link Introspection}) if no other thread is doing so, otherwise
+     * waits for that other thread to complete.
+     * 
+     * @throws IntrospectionConflictException if waiting would deadlock
+     */
+    ObjectSpecification introspectOrAwait(final ObjectSpecificationAbstract spec, final Introspection introspection) {
+        final Thread currentThread = Thread.currentThread();
+        for(;;) {
+            final Thread introspectingThread;
+            final AwaitIntrospection awaitIntrospection;
+            synchronized (monitor) {
+                final IntrospectionState state = spec.getIntrospectionState();
+                if (state == IntrospectionState.INTROSPECTED) {
+                    return spec;
+                }
+                if (state == IntrospectionState.NOT_INTROSPECTED) {
+                    spec.setIntrospectionState(IntrospectionState.BEING_INTROSPECTED);
+                    introspectingThreadBySpec.put(spec, currentThread);
+                    introspectingThread = currentThread;
+                    awaitIntrospection = null;
+                } else {
+                    introspectingThread = introspectingThreadBySpec.get(spec);
+                    if (introspectingThread == currentThread) {
+                        // re-entering
+                        return spec;
+                    }
+                    if (introspectingThread != null) {
+                        if (wouldDeadlock(currentThread, introspectingThread)) {
+                            throw new IntrospectionConflictException(spec);
+                        }
+                        awaitedSpecByThread.put(currentThread, spec);
+                        awaitIntrospection = new AwaitIntrospection(spec);
+                    } else {
+                        awaitIntrospection = null;
+                    }
+                }
+            }
+            if(introspectingThread == currentThread) {
+                introspectAndRelease(spec, introspection);
+                return spec;
+            }
+            if(awaitIntrospection != null) {
+                await(awaitIntrospection);
+            } else {
+                // being introspected by the single-threaded path, so wait for it by acquiring its lock
+                if(Thread.holdsLock(globalLock)) {
+                    // ... which this thread already holds, so is re-entering
+                    return spec;
+                }
+                synchronized (globalLock) {
+                    // nothing to do
+                }
+            }
+            // and loop round; the other thread may have failed, in which case this thread will try
+        }
+    }
+
+    private void introspectAndRelease(final ObjectSpecificationAbstract spec, final Introspection introspection) {
+        try {
+            timed(spec, introspection);
+            spec.setIntrospectionState(IntrospectionState.INTROSPECTED);
+        } finally {
+            synchronized (monitor) {
+                if(spec.getIntrospectionState() != IntrospectionState.INTROSPECTED) {
+                    spec.setIntrospectionState(IntrospectionState.NOT_INTROSPECTED);
+                }
+                introspectingThreadBySpec.remove(spec);
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Whether the (other) thread introspecting a spec is (transitively) waiting on a spec being introspected by
+     * the current thread.
+     */
+    private boolean wouldDeadlock(final Thread currentThread, final Thread introspectingThread) {
+        final Set<Thread> visited = Sets.newHashSet();
+        Thread thread = introspectingThread;
+        while(thread != null) {
+            if(thread == currentThread) {
+                return true;
+            }
+            if(!visited.add(thread)) {
+                return false;
+            }
+            final ObjectSpecification awaitedSpec = awaitedSpecByThread.get(thread);
+            if(awaitedSpec == null) {
+                return false;
+            }
+            thread = introspectingThreadBySpec.get(awaitedSpec);
+        }
+        return false;
+    }
+
+    private void await(final AwaitIntrospection awaitIntrospection) {
+        final long start = System.nanoTime();
+        try {
+            // allows a fork/join pool to compensate for the blocked worker thread
+            ForkJoinPool.managedBlock(awaitIntrospection);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + awaitIntrospection.spec.getFullIdentifier() + " to be introspected", e);
+        } finally {
+            synchronized (monitor) {
+                awaitedSpecByThread.remove(Thread.currentThread());
+            }
+            depthAndExcludedNanos.get()[1] += System.nanoTime() - start;
+        }
+    }
+
+    private final class AwaitIntrospection implements ForkJoinPool.ManagedBlocker {
+        private final ObjectSpecificationAbstract spec;
+
+        AwaitIntrospection(final ObjectSpecificationAbstract spec) {
+            this.spec = spec;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            synchronized (monitor) {
+                if(!isReleasable()) {
+                    monitor.wait();
+                }
+            }
+            return isReleasable();
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return spec.getIntrospectionState() != IntrospectionState.BEING_INTROSPECTED;
+        }
+    }
+
+    //endregion
+
+    //region > timings
+
+    /**
+     * Performs the introspection, recording the time taken (excluding that of any nested introspections).
+     */
+    void timed(final ObjectSpecificationAbstract spec, final Introspection introspection) {
+        final long[] frame = depthAndExcludedNanos.get();
+        final long outerExcludedNanos = frame[1];
+        frame[0]++;
+        frame[1] = 0;
+        introspectedClasses.get().push(spec.getCorrespondingClass());
+        final long start = System.nanoTime();
+        try {
+            introspection.introspect(spec);
+        } finally {
+            introspectedClasses.get().pop();
+            final long elapsedNanos = System.nanoTime() - start;
+            nanosByClassName.put(spec.getFullIdentifier(), elapsedNanos - frame[1]);
+            frame[0]--;
+            frame[1] = outerExcludedNanos + elapsedNanos;
+        }
+    }
+
+    /**
+     * Whether the current thread is introspecting a spec.
+     */
+    boolean isIntrospecting() {
+        return depthAndExcludedNanos.get()[0] > 0;
+    }
+
+    /**
+     * The class of the spec that the current thread is (innermost) introspecting, or <tt>null</tt> if none.
+     */
+    Class<?> getIntrospectedClass() {
+        return introspectedClasses.get().peek();
+    }
+
+    /**
+     * The time taken to introspect each spec (excluding that of the specs it caused to be loaded), slowest first.
+     */
+    List<Map.Entry<String, Long>> getNanosByClassName() {
+        final List<Map.Entry<String, Long>> entries = Lists.newArrayList(nanosByClassName.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(final Map.Entry<String, Long> o1, final Map.Entry<String, Long> o2) {
+                final int compare = o2.getValue().compareTo(o1.getValue());
+                return compare != 0 ? compare : o1.getKey().compareTo(o2.getKey());
+            }
+        });
+        return entries;
+    }
+
+    long getTotalNanos() {
+        long total = 0;
+        for (final Long nanos : nanosByClassName.values()) {
+            total += nanos;
+        }
+        return total;
+    }
+
+    void clear() {
+        nanosByClassName.clear();
+    }
+
+    //endregion
+
+}
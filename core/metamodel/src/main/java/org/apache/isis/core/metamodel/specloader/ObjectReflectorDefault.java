@@ -19,13 +19,22 @@
 
 package org.apache.isis.core.metamodel.specloader;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.isis.applib.annotation.Value;
 import org.apache.isis.core.commons.authentication.AuthenticationSessionProvider;
 import org.apache.isis.core.commons.components.ApplicationScopedComponent;
 import org.apache.isis.core.commons.config.IsisConfiguration;
@@ -55,6 +64,8 @@
 import org.apache.isis.core.metamodel.spec.feature.ObjectMemberContext;
 import org.apache.isis.core.metamodel.specloader.classsubstitutor.ClassSubstitutor;
 import org.apache.isis.core.metamodel.specloader.facetprocessor.FacetProcessor;
+import org.apache.isis.core.metamodel.specloader.snapshot.MetaModelSnapshot;
+import org.apache.isis.core.metamodel.specloader.snapshot.MetaModelSnapshots;
 import org.apache.isis.core.metamodel.specloader.specimpl.CreateObjectContext;
 import org.apache.isis.core.metamodel.specloader.specimpl.FacetedMethodsBuilderContext;
 import org.apache.isis.core.metamodel.specloader.specimpl.ObjectSpecificationAbstract;
@@ -145,9 +156,30 @@ public final class ObjectReflectorDefault implements SpecificationLoaderSpi, App
 
     private final MetaModelValidator metaModelValidator;
     private final SpecificationCacheDefault cache = new SpecificationCacheDefault();
+    private final IntrospectionCoordinator introspectionCoordinator = new IntrospectionCoordinator(cache);
+    /**
+     * Created when initializing only if {@link ReflectorConstants#INTROSPECTION_PARALLEL parallel introspection}
+     * is enabled.  Following {@link #init()} it is kept until the system has {@link #bootstrapped() bootstrapped},
+     * so that the types registered while bootstrapping (eg the JDO entities) are also loaded in parallel;
+     * following {@link #initAndValidate()} on its own it is shut down straight away.  Volatile because it is
+     * read by threads loading specs subsequently.
+     */
+    private volatile ForkJoinPool introspectionPool;
+    /**
+     * Set in {@link #init()} if {@link ReflectorConstants#INTROSPECTION_LAZY lazy introspection} is enabled
+     * (but not for {@link #initAndValidate()} on its own, as used by <tt>IsisMetaModel</tt>, which requires
+     * the entire metamodel).
+     */
+    private volatile boolean lazy;
+    private Thread warmUpThread;
+    /**
+     * Set in {@link #init()} if the warm-up is to be started only once {@link #bootstrapped()}, so that it
+     * does not overlap with the (parallel) loading of the types registered while bootstrapping.
+     */
+    private boolean warmUpOnceBootstrapped;
     private final List<LayoutMetadataReader> layoutMetadataReaders;
 
-    private boolean initialized = false;
+    private volatile boolean initialized = false;
     /**
      * Populated in {@link SpecificationLoaderSpi#setServiceInjector(org.apache.isis.core.metamodel.services.ServicesInjectorSpi)}.
      */
@@ -202,13 +234,42 @@ protected void finalize() throws Throwable {
     @Override
     public void init() {
 
-        ValidationFailures validationFailures = initAndValidate();
-        
-        validationFailures.assertNone();
+        lazy = configuration.getBoolean(ReflectorConstants.INTROSPECTION_LAZY, ReflectorConstants.INTROSPECTION_LAZY_DEFAULT);
+
+        final ValidationFailures validationFailures;
+        try {
+            validationFailures = doInitAndValidate();
+            validationFailures.assertNone();
+        } catch(final RuntimeException ex) {
+            shutdownIntrospectionPool();
+            throw ex;
+        }
         
         cacheBySpecId();
         
         initialized = true;
+
+        if(lazy) {
+            if(introspectionPool != null) {
+                warmUpOnceBootstrapped = true;
+            } else {
+                startWarmUpIfConfigured();
+            }
+        }
+    }
+
+    /**
+     * Shuts down the pool used to {@link ReflectorConstants#INTROSPECTION_PARALLEL introspect in parallel}
+     * (any specs loaded subsequently are introspected by the calling thread), and starts the
+     * {@link ReflectorConstants#INTROSPECTION_LAZY_WARM_UP warm-up} if that was deferred until now.
+     */
+    @Override
+    public void bootstrapped() {
+        shutdownIntrospectionPool();
+        if(warmUpOnceBootstrapped) {
+            warmUpOnceBootstrapped = false;
+            startWarmUpIfConfigured();
+        }
     }
 
     @Override
@@ -220,6 +281,15 @@ public boolean isInitialized() {
      * For benefit of <tt>IsisMetaModel</tt>.
      */
     public ValidationFailures initAndValidate() {
+        try {
+            return doInitAndValidate();
+        } finally {
+            // there is no bootstrapping to follow, so any specs loaded subsequently are introspected by the calling thread
+            shutdownIntrospectionPool();
+        }
+    }
+
+    private ValidationFailures doInitAndValidate() {
         if (LOG.isDebugEnabled()) {
             LOG.debug("initialising " + this);
         }
@@ -241,16 +311,66 @@ public ValidationFailures initAndValidate() {
         facetProcessor.init();
         metaModelValidator.init();
 
+        initIntrospectionPoolIfParallel();
+        return loadAndValidate();
+    }
+
+    private ValidationFailures loadAndValidate() {
         primeCache();
-        
+
         ValidationFailures validationFailures = new ValidationFailures();
+        if(isValidatedBySnapshot()) {
+            // validated when the snapshot was taken, of this same metamodel
+            return validationFailures;
+        }
+        if(lazy) {
+            // validated once warmed up (or at build time, by the Maven plugin)
+            return validationFailures;
+        }
         metaModelValidator.validate(validationFailures);
         return validationFailures;
     }
 
+    /**
+     * Whether a {@link MetaModelSnapshot snapshot} is {@link ReflectorConstants#SNAPSHOT configured} and still
+     * current, that is, whether the metamodel was validated when it was taken (otherwise it is validated as normal).
+     */
+    private boolean isValidatedBySnapshot() {
+        if(!configuration.getBoolean(ReflectorConstants.SNAPSHOT, ReflectorConstants.SNAPSHOT_DEFAULT)) {
+            return false;
+        }
+        final String resource = configuration.getString(ReflectorConstants.SNAPSHOT_RESOURCE, ReflectorConstants.SNAPSHOT_RESOURCE_DEFAULT);
+        final MetaModelSnapshot snapshot;
+        try {
+            snapshot = MetaModelSnapshots.readFromClasspath(resource);
+        } catch (final IOException ex) {
+            LOG.warn("unable to read metamodel snapshot '" + resource + "'; validating instead", ex);
+            return false;
+        }
+        if(snapshot == null) {
+            LOG.warn("no metamodel snapshot (version " + MetaModelSnapshot.VERSION + ") found at '" + resource + "'; validating instead");
+            return false;
+        }
+        final Set<String> classNames = Sets.newHashSet(snapshot.getClassNames());
+        for (final Class<?> serviceClass : getServiceClasses()) {
+            classNames.add(serviceClass.getName());
+        }
+        final String checksum = MetaModelSnapshots.checksumOf(classNames, programmingModel, configuration);
+        if(!snapshot.getChecksum().equals(checksum)) {
+            LOG.warn("metamodel snapshot '" + resource + "' is out of date (checksum mismatch); validating instead");
+            return false;
+        }
+        LOG.info("metamodel validated when snapshot '" + resource + "' was taken, " + snapshot.getClassNames().size() + " specifications");
+        return true;
+    }
+
 	private void cacheBySpecId() {
 		final Map<ObjectSpecId, ObjectSpecification> specById = Maps.newHashMap();
         for (final ObjectSpecification objSpec : allSpecifications()) {
+            if (!isIntrospected(objSpec)) {
+                // not yet known; see lookupBySpecId(...)
+                continue;
+            }
             final ObjectSpecId objectSpecId = objSpec.getSpecId();
             if (objectSpecId == null) {
                 continue;
@@ -261,12 +381,96 @@ private void cacheBySpecId() {
         getCache().setCacheBySpecId(specById);
 	}
 
+    private void initIntrospectionPoolIfParallel() {
+        if(introspectionPool != null ||
+           !configuration.getBoolean(ReflectorConstants.INTROSPECTION_PARALLEL, ReflectorConstants.INTROSPECTION_PARALLEL_DEFAULT)) {
+            return;
+        }
+        final int availableProcessors = Runtime.getRuntime().availableProcessors();
+        final int parallelism = configuration.getInteger(ReflectorConstants.INTROSPECTION_PARALLELISM, availableProcessors);
+        introspectionPool = new ForkJoinPool(parallelism > 0 ? parallelism : availableProcessors);
+        LOG.info("introspecting specifications in parallel, parallelism: " + introspectionPool.getParallelism());
+    }
+
+    private void shutdownIntrospectionPool() {
+        final ForkJoinPool pool = introspectionPool;
+        if(pool != null) {
+            introspectionPool = null;
+            pool.shutdown();
+        }
+    }
+
     /**
      * load the service specifications.
      */
     private void primeCache() {
-        for (final Class<?> serviceClass : getServiceClasses()) {
-            internalLoadSpecification(serviceClass);
+        loadSpecifications(getServiceClasses());
+    }
+
+    private void startWarmUpIfConfigured() {
+        if(!configuration.getBoolean(ReflectorConstants.INTROSPECTION_LAZY_WARM_UP, ReflectorConstants.INTROSPECTION_LAZY_WARM_UP_DEFAULT)) {
+            LOG.info("introspecting specifications lazily, without warm-up; the metamodel is not validated at runtime");
+            return;
+        }
+        LOG.info("introspecting specifications lazily, warming up in the background");
+        warmUpThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                warmUp();
+            }
+        }, "isis-metamodel-warm-up");
+        warmUpThread.setDaemon(true);
+        warmUpThread.setPriority(Thread.MIN_PRIORITY);
+        warmUpThread.start();
+    }
+
+    /**
+     * Introspects all specs not yet introspected, and then validates the metamodel (logging any failures).
+     */
+    private void warmUp() {
+        try {
+            introspectPending();
+            if(!initialized || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            final ValidationFailures validationFailures = new ValidationFailures();
+            metaModelValidator.validate(validationFailures);
+            if(validationFailures.occurred()) {
+                LOG.error("metamodel warmed up, with " + validationFailures.getNumberOfMessages() + " validation problems:");
+                for (final String message : validationFailures.getMessages()) {
+                    LOG.error("  " + message);
+                }
+            } else {
+                LOG.info("metamodel warmed up and validated; " + getCache().allSpecifications().size() + " specifications");
+            }
+        } catch(final RuntimeException ex) {
+            if(initialized) {
+                LOG.warn("failed to warm up metamodel", ex);
+            }
+        }
+    }
+
+    /**
+     * Introspects any specs that have been {@link #isDeferred(Class) deferred}, along with those that they in turn
+     * reference, until there are none left (or no further progress can be made).
+     */
+    private void introspectPending() {
+        List<Class<?>> previouslyPending = null;
+        while(initialized && !Thread.currentThread().isInterrupted()) {
+            final List<Class<?>> pending = Lists.newArrayList();
+            for (final ObjectSpecification spec : getCache().allSpecifications()) {
+                if (!isIntrospected(spec)) {
+                    pending.add(spec.getCorrespondingClass());
+                }
+            }
+            if(pending.isEmpty() || pending.equals(previouslyPending)) {
+                return;
+            }
+            loadSpecifications(pending);
+            for (final Class<?> type : pending) {
+                loadSpecification(type); // ensures each can also be looked up by its spec Id
+            }
+            previouslyPending = pending;
         }
     }
 
@@ -276,8 +480,15 @@ public void shutdown() {
         LOG.info("shutting down " + this);
 
         initialized = false;
+        warmUpOnceBootstrapped = false;
+        if(warmUpThread != null) {
+            warmUpThread.interrupt();
+            warmUpThread = null;
+        }
         
         getCache().clear();
+        introspectionCoordinator.clear();
+        shutdownIntrospectionPool();
         facetDecoratorSet.shutdown();
     }
 
@@ -306,6 +517,9 @@ public void invalidateCache(final Class<?> cls) {
         while(spec != null) {
             final Class<?> type = spec.getCorrespondingClass();
             getCache().remove(type.getName());
+            if(servicesInjector != null) {
+                servicesInjector.invalidateInjectionPlanFor(type);
+            }
             if(spec.containsDoOpFacet(ObjectSpecIdFacet.class)) {
                 // umm.  Some specs do not have an ObjectSpecIdFacet...
                 recache(spec);
@@ -360,7 +574,8 @@ public ObjectSpecification loadSpecification(final Class<?> type) {
         if(spec == null) {
             return null;
         }
-        if(getCache().isInitialized()) {
+        // the spec Id of a deferred spec is only known once it has been introspected
+        if(getCache().isInitialized() && isIntrospected(spec)) {
             // umm.  It turns out that anonymous inner classes (eg org.estatio.dom.WithTitleGetter$ToString$1)
             // don't have an ObjectSpecId; hence the guard.
             if(spec.containsDoOpFacet(ObjectSpecIdFacet.class)) {
@@ -378,10 +593,50 @@ private ObjectSpecification internalLoadSpecification(final Class<?> type) {
         return substitutedType != null ? loadSpecificationForSubstitutedClass(substitutedType) : null;
     }
 
+    /**
+     * Once a specification has been introspected, it is returned from the cache without locking.
+     *
+     * <p>
+     * Otherwise, creation and introspection is done while holding a lock on the cache.  This ensures that each
+     * specification is introspected only once, and that another thread does not see a spec that is still being
+     * introspected.  A single lock is used (rather than one per class) because introspecting one class may
+     * require others to be loaded, and vice versa; the same thread can re-enter, but two threads each holding
+     * the lock for one class of such a cycle would deadlock.
+     */
     private ObjectSpecification loadSpecificationForSubstitutedClass(final Class<?> type) {
         Assert.assertNotNull(type);
         final String typeName = type.getName();
 
+        final SpecificationCacheDefault specificationCache = getCache();
+        final ObjectSpecification cachedSpec = specificationCache.get(typeName);
+        if (cachedSpec != null && isIntrospected(cachedSpec)) {
+            return cachedSpec;
+        }
+        if (isDeferred(type)) {
+            final ObjectSpecification specification = createAndCacheIfRequired(type);
+            if (!isIntrospected(specification)) {
+                // introspected on first access, if not loaded (or warmed up) before then
+                ((ObjectSpecificationAbstract) specification).deferIntrospection();
+            }
+            return specification;
+        }
+        if (introspectionPool != null) {
+            return loadSpecificationForSubstitutedClassConcurrently(type);
+        }
+        synchronized (specificationCache) {
+            final ObjectSpecification specification = createAndCacheIfRequired(type);
+
+            // does nothing if already being introspected (by this thread), preventing infinite loops
+            return introspectIfRequired(specification);
+        }
+    }
+
+    /**
+     * Returns the spec from the cache, otherwise creates (but does not introspect) it and puts it into the cache;
+     * it is cached prior to introspecting, to prevent infinite loops.
+     */
+    private ObjectSpecification createAndCacheIfRequired(final Class<?> type) {
+        final String typeName = type.getName();
         final SpecificationCacheDefault specificationCache = getCache();
         synchronized (specificationCache) {
             final ObjectSpecification spec = specificationCache.get(typeName);
@@ -392,23 +647,96 @@ private ObjectSpecification loadSpecificationForSubstitutedClass(final Class<?>
             if (specification == null) {
                 throw new IsisException("Failed to create specification for class " + typeName);
             }
-
-            // put into the cache prior to introspecting, to prevent
-            // infinite loops
             specificationCache.cache(typeName, specification);
+            return specification;
+        }
+    }
 
-            introspectIfRequired(specification);
+    /**
+     * With {@link ReflectorConstants#INTROSPECTION_LAZY lazy introspection}, a type loaded while introspecting some
+     * other spec (typically the type of one of its members) is only created, its introspection being deferred
+     * until it is itself loaded, its facets or members are first accessed (for example when navigating to it
+     * through an association of another spec), or the metamodel is warmed up.
+     * 
+     * <p>
+     * Supertypes of the spec being introspected are not deferred, nor are values, built-ins, collections and
+     * other JDK types; these are cheap to introspect, and may be relied upon by facet factories.
+     */
+    private boolean isDeferred(final Class<?> type) {
+        if (!lazy) {
+            return false;
+        }
+        final Class<?> introspectedClass = introspectionCoordinator.getIntrospectedClass();
+        if (introspectedClass == null || type.isAssignableFrom(introspectedClass)) {
+            return false;
+        }
+        return !isAlwaysIntrospectedEagerly(type);
+    }
 
-            return specification;
+    private static boolean isAlwaysIntrospectedEagerly(final Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isEnum() || type.isAnnotation()) {
+            return true;
+        }
+        if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type) || FreeStandingList.class.isAssignableFrom(type)) {
+            return true;
+        }
+        if (type.isAnnotationPresent(Value.class)) {
+            return true;
         }
+        final String typeName = type.getName();
+        return ClassUtil.getBuiltIn(typeName) != null ||
+               typeName.startsWith("java.") ||
+               typeName.startsWith("javax.") ||
+               typeName.startsWith("org.joda.") ||
+               typeName.startsWith("org.apache.isis.applib.value.");
+    }
+
+    /**
+     * With {@link ReflectorConstants#INTROSPECTION_PARALLEL parallel introspection}, only the creation of the
+     * spec is done while holding the lock on the cache; the (expensive) introspection is done without, the
+     * {@link IntrospectionCoordinator} ensuring that each spec is still only introspected once.
+     */
+    private ObjectSpecification loadSpecificationForSubstitutedClassConcurrently(final Class<?> type) {
+        final ObjectSpecification specification = createAndCacheIfRequired(type);
+        return introspectConcurrently((ObjectSpecificationAbstract) specification);
+    }
+
+    private ObjectSpecification introspectConcurrently(final ObjectSpecificationAbstract specification) {
+        return introspectionCoordinator.introspectOrAwait(
+                specification, new IntrospectionCoordinator.Introspection() {
+                    @Override
+                    public void introspect(final ObjectSpecificationAbstract spec) {
+                        introspectTypeHierarchyAndMembers(spec);
+                    }
+                });
     }
 
     /**
      * Loads the specifications of the specified types except the one specified
      * (to prevent an infinite loop).
+     * 
+     * <p>
+     * If called other than while introspecting a spec (ie at bootstrap, for the services or some other set of
+     * types), then the specs are introspected in parallel if so {@link ReflectorConstants#INTROSPECTION_PARALLEL configured}.
+     * Types loaded while introspecting are always loaded by the same thread, so that one thread never waits for
+     * (the fork/join task of) another other than through the {@link IntrospectionCoordinator}. 
      */
     @Override
     public boolean loadSpecifications(final List<Class<?>> typesToLoad, final Class<?> typeToIgnore) {
+        if (introspectionCoordinator.isIntrospecting()) {
+            return loadSequentially(typesToLoad, typeToIgnore);
+        }
+        // read once, as the pool is shut down once bootstrapped
+        final ForkJoinPool pool = introspectionPool;
+        final boolean anyLoadedAsNull =
+                pool != null && !(Thread.currentThread() instanceof ForkJoinWorkerThread)
+                    ? loadInParallel(pool, typesToLoad, typeToIgnore)
+                    : loadSequentially(typesToLoad, typeToIgnore);
+        reportIntrospectionTimings();
+        return anyLoadedAsNull;
+    }
+
+    private boolean loadSequentially(final List<Class<?>> typesToLoad, final Class<?> typeToIgnore) {
         boolean anyLoadedAsNull = false;
         for (final Class<?> typeToLoad : typesToLoad) {
             if (typeToLoad != typeToIgnore) {
@@ -420,6 +748,74 @@ public boolean loadSpecifications(final List<Class<?>> typesToLoad, final Class<
         return anyLoadedAsNull;
     }
 
+    /**
+     * Any type whose load {@link IntrospectionCoordinator.IntrospectionConflictException conflicted} with that
+     * of another thread is loaded again, sequentially, once all the others have completed.  If the pool has been
+     * shut down in the meantime then all are loaded sequentially.
+     */
+    private boolean loadInParallel(final ForkJoinPool pool, final List<Class<?>> typesToLoad, final Class<?> typeToIgnore) {
+        final List<Class<?>> conflictingTypes = Collections.synchronizedList(Lists.<Class<?>>newArrayList());
+        final List<Callable<ObjectSpecification>> loads = Lists.newArrayList();
+        for (final Class<?> typeToLoad : typesToLoad) {
+            if (typeToLoad != typeToIgnore) {
+                loads.add(new Callable<ObjectSpecification>() {
+                    @Override
+                    public ObjectSpecification call() {
+                        try {
+                            return internalLoadSpecification(typeToLoad);
+                        } catch(final IntrospectionCoordinator.IntrospectionConflictException ex) {
+                            conflictingTypes.add(typeToLoad);
+                            return createAndCacheIfRequired(typeToLoad);
+                        }
+                    }
+                });
+            }
+        }
+        final List<Future<ObjectSpecification>> futures;
+        try {
+            futures = pool.invokeAll(loads);
+        } catch(final RejectedExecutionException ex) {
+            return loadSequentially(typesToLoad, typeToIgnore);
+        }
+        boolean anyLoadedAsNull = false;
+        for (final Future<ObjectSpecification> future : futures) {
+            try {
+                anyLoadedAsNull = future.get() == null || anyLoadedAsNull;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IsisException("Interrupted while loading specifications", e);
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if(cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if(cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IsisException(cause);
+            }
+        }
+        if(!conflictingTypes.isEmpty()) {
+            LOG.debug("reloading " + conflictingTypes.size() + " specifications whose introspection conflicted");
+            anyLoadedAsNull = loadSequentially(Lists.newArrayList(conflictingTypes), typeToIgnore) || anyLoadedAsNull;
+        }
+        return anyLoadedAsNull;
+    }
+
+    private void reportIntrospectionTimings() {
+        final int reportSlowest = configuration.getInteger(
+                ReflectorConstants.INTROSPECTION_REPORT_SLOWEST, ReflectorConstants.INTROSPECTION_REPORT_SLOWEST_DEFAULT);
+        if(reportSlowest <= 0 || !LOG.isInfoEnabled()) {
+            return;
+        }
+        final List<Map.Entry<String, Long>> nanosByClassName = introspectionCoordinator.getNanosByClassName();
+        LOG.info(String.format("introspected %d specifications in %dms (in total, excluding any waiting)",
+                nanosByClassName.size(), introspectionCoordinator.getTotalNanos() / 1000000));
+        for (final Map.Entry<String, Long> entry : nanosByClassName.subList(0, Math.min(reportSlowest, nanosByClassName.size()))) {
+            LOG.info(String.format("  %6dms  %s", entry.getValue() / 1000000, entry.getKey()));
+        }
+    }
+
     /**
      * Loads the specifications of the specified types.
      */
@@ -489,24 +885,34 @@ public boolean loaded(final String fullyQualifiedClassName) {
         return getCache().get(fullyQualifiedClassName) != null;
     }
 
+    private static boolean isIntrospected(final ObjectSpecification spec) {
+        return !(spec instanceof ObjectSpecificationAbstract) ||
+               ((ObjectSpecificationAbstract) spec).getIntrospectionState() == IntrospectionState.INTROSPECTED;
+    }
+
     public ObjectSpecification introspectIfRequired(final ObjectSpecification spec) {
+        if (introspectionPool != null) {
+            // while introspecting in parallel, every spec is introspected through the coordinator
+            return introspectConcurrently((ObjectSpecificationAbstract) spec);
+        }
         final ObjectSpecificationAbstract specSpi = (ObjectSpecificationAbstract)spec;
         final IntrospectionState introspectionState = specSpi.getIntrospectionState();
 
         if (introspectionState == IntrospectionState.NOT_INTROSPECTED) {
             specSpi.setIntrospectionState(IntrospectionState.BEING_INTROSPECTED);
             
-            specSpi.introspectTypeHierarchyAndMembers();
-            facetDecoratorSet.decorate(spec);
-            specSpi.updateFromFacetValues();
+            introspectionCoordinator.timed(specSpi, new IntrospectionCoordinator.Introspection() {
+                @Override
+                public void introspect(final ObjectSpecificationAbstract spec) {
+                    introspectTypeHierarchyAndMembers(spec);
+                }
+            });
             
             specSpi.setIntrospectionState(IntrospectionState.INTROSPECTED);
         } else if (introspectionState == IntrospectionState.BEING_INTROSPECTED) {
             // nothing to do
 
-            specSpi.introspectTypeHierarchyAndMembers();
-            facetDecoratorSet.decorate(spec);
-            specSpi.updateFromFacetValues();
+            introspectTypeHierarchyAndMembers(specSpi);
             
             specSpi.setIntrospectionState(IntrospectionState.INTROSPECTED);
 
@@ -516,8 +922,27 @@ public ObjectSpecification introspectIfRequired(final ObjectSpecification spec)
         return spec;
     }
 
+    /**
+     * The time taken to introspect each spec, slowest first.
+     */
+    List<Map.Entry<String, Long>> getIntrospectionNanosByClassName() {
+        return introspectionCoordinator.getNanosByClassName();
+    }
+
+    private void introspectTypeHierarchyAndMembers(final ObjectSpecificationAbstract specSpi) {
+        specSpi.introspectTypeHierarchyAndMembers();
+        facetDecoratorSet.decorate(specSpi);
+        specSpi.updateFromFacetValues();
+    }
+
     @Override
     public ObjectSpecification lookupBySpecId(ObjectSpecId objectSpecId) {
+        final ObjectSpecification spec = getCache().getByObjectType(objectSpecId);
+        if(spec != null || !lazy) {
+            return spec;
+        }
+        // the spec Id of a spec is only known once introspected
+        introspectPending();
         return getCache().getByObjectType(objectSpecId);
     }
 
@@ -577,6 +1002,12 @@ public void debugData(final DebugBuilder debug) {
             
             debug.appendPreformatted(spec.getShortIdentifier(), str.toString());
         }
+
+        debug.appendln();
+        debug.appendTitle("Introspection timings (slowest first)");
+        for (final Map.Entry<String, Long> entry : introspectionCoordinator.getNanosByClassName()) {
+            debug.appendln(entry.getKey(), (entry.getValue() / 1000) + "us");
+        }
     }
     
     @Override
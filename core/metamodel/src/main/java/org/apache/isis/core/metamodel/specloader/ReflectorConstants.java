@@ -26,6 +26,7 @@
 import org.apache.isis.core.metamodel.layoutmetadata.json.LayoutMetadataReaderFromJson;
 import org.apache.isis.core.metamodel.metamodelvalidator.dflt.MetaModelValidatorDefault;
 import org.apache.isis.core.metamodel.progmodel.ProgrammingModel;
+import org.apache.isis.core.metamodel.specloader.snapshot.MetaModelSnapshot;
 import org.apache.isis.core.metamodel.specloader.validator.MetaModelValidator;
 import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
 
@@ -80,6 +81,66 @@ public final class ReflectorConstants {
     public static final String LAYOUT_METADATA_READER_LIST = ConfigurationConstants.ROOT + "reflector.layoutMetadataReaders";
     public static final String LAYOUT_METADATA_READER_LIST_DEFAULT = LayoutMetadataReaderFromJson.class.getName();
 
+    /**
+     * Key used to determine whether specifications loaded while the metamodel is initialized (the services, and
+     * those of any snapshot) are introspected in parallel, using a fork/join pool.  The pool is shut down once
+     * the metamodel has been initialized; any specs loaded subsequently are introspected by the calling thread.
+     * 
+     * @see #INTROSPECTION_PARALLELISM
+     */
+    public static final String INTROSPECTION_PARALLEL = ConfigurationConstants.ROOT + "reflector.introspection.parallel";
+    public static final boolean INTROSPECTION_PARALLEL_DEFAULT = false;
+
+    /**
+     * Key used to lookup the number of threads used for {@link #INTROSPECTION_PARALLEL parallel introspection};
+     * defaults to the number of available processors.
+     */
+    public static final String INTROSPECTION_PARALLELISM = ConfigurationConstants.ROOT + "reflector.introspection.parallelism";
+
+    /**
+     * Key used to lookup the number of specifications, slowest first, whose introspection time is logged once
+     * specifications have been loaded at bootstrap; none by default.
+     */
+    public static final String INTROSPECTION_REPORT_SLOWEST = ConfigurationConstants.ROOT + "reflector.introspection.reportSlowest";
+    public static final int INTROSPECTION_REPORT_SLOWEST_DEFAULT = 0;
+
+    /**
+     * Key used to determine whether specifications are introspected lazily at runtime.
+     * 
+     * <p>
+     * If enabled, then at bootstrap only the specs of services (and any other types loaded explicitly, such as
+     * entities) are introspected; the types referenced by their members are introspected on first access, or in
+     * the background if {@link #INTROSPECTION_LAZY_WARM_UP warm-up} is enabled.  Metamodel validation is then
+     * performed once warmed-up (failures being logged rather than preventing bootstrap), or otherwise should be
+     * performed at build time using the <tt>validate</tt> goal of the Maven plugin.
+     */
+    public static final String INTROSPECTION_LAZY = ConfigurationConstants.ROOT + "reflector.introspection.lazy";
+    public static final boolean INTROSPECTION_LAZY_DEFAULT = false;
+
+    /**
+     * Key used to determine whether, with {@link #INTROSPECTION_LAZY lazy introspection}, any remaining specs are
+     * introspected (and the metamodel validated) by a low-priority background thread.
+     */
+    public static final String INTROSPECTION_LAZY_WARM_UP = ConfigurationConstants.ROOT + "reflector.introspection.lazy.warmUp";
+    public static final boolean INTROSPECTION_LAZY_WARM_UP_DEFAULT = true;
+
+    /**
+     * Key used to determine whether the {@link MetaModelSnapshot} written at build time (by the <tt>snapshot</tt>
+     * goal of the Maven plugin) is used at bootstrap, in which case the metamodel (still introspected as normal) is
+     * not validated again; it is ignored if the classes, the services or the (metamodel) configuration have changed
+     * since.
+     * 
+     * @see #SNAPSHOT_RESOURCE
+     */
+    public static final String SNAPSHOT = ConfigurationConstants.ROOT + "reflector.snapshot";
+    public static final boolean SNAPSHOT_DEFAULT = false;
+
+    /**
+     * Key used to lookup the location of the {@link #SNAPSHOT snapshot} on the classpath.
+     */
+    public static final String SNAPSHOT_RESOURCE = ConfigurationConstants.ROOT + "reflector.snapshot.resource";
+    public static final String SNAPSHOT_RESOURCE_DEFAULT = MetaModelSnapshot.RESOURCE;
+
 
     private ReflectorConstants() {
     }
@@ -30,10 +30,17 @@
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.specloader.validator.MetaModelValidator;
 
+/**
+ * Safe for concurrent use; reads do not lock.
+ *
+ * <p>
+ * Note that it is the responsibility of {@link ObjectReflectorDefault} to ensure that each specification is only
+ * created (and introspected) once.
+ */
 class SpecificationCacheDefault {
     
-    private final Map<String, ObjectSpecification> specByClassName = Maps.newHashMap();
-    private Map<ObjectSpecId, ObjectSpecification> specById;
+    private final Map<String, ObjectSpecification> specByClassName = Maps.newConcurrentMap();
+    private volatile Map<ObjectSpecId, ObjectSpecification> specById;
 
     public ObjectSpecification get(final String className) {
         return specByClassName.get(className);
@@ -63,8 +70,9 @@ public ObjectSpecification getByObjectType(ObjectSpecId objectSpecID) {
      * Populated as a result of running {@link MetaModelValidator#validate() validation} after xxxallxxx most specs have been loaded. 
      */
     void setCacheBySpecId(Map<ObjectSpecId, ObjectSpecification> specById) {
-        this.specById = Maps.newHashMap();
-        this.specById.putAll(specById);
+        final Map<ObjectSpecId, ObjectSpecification> map = Maps.newConcurrentMap();
+        map.putAll(specById);
+        this.specById = map;
     }
 
     public ObjectSpecification remove(String typeName) {
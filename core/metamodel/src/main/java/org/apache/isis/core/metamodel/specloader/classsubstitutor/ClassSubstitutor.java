@@ -20,12 +20,16 @@
 package org.apache.isis.core.metamodel.specloader.classsubstitutor;
 
 import java.util.Set;
+import com.google.common.base.Optional;
 import com.google.common.collect.Sets;
 import org.apache.isis.applib.DomainObjectContainer;
 import org.apache.isis.core.commons.lang.ClassUtil;
 
 /**
  * Provides capability to translate or ignore classes.
+ *
+ * <p>
+ * The substitution for any given class never changes, so is memoized; this is safe for concurrent use.
  */
 public class ClassSubstitutor {
 
@@ -49,6 +53,10 @@ public ClassSubstitutor() {
     //region > getClass(Class)
 
     public Class<?> getClass(final Class<?> cls) {
+        return substitutedByClass.get(cls).orNull();
+    }
+
+    private Class<?> substitute(final Class<?> cls) {
 
         // ignore datanucleus proxies
         if(cls.getName().startsWith("org.datanucleus")) {
@@ -72,6 +80,18 @@ public Class<?> getClass(final Class<?> cls) {
 
     //region > helpers
 
+    /**
+     * Each substitution is held by the class itself (rather than in a map keyed by the class), so does not prevent
+     * (eg proxy or reloaded) classes from being unloaded even though the substitution is often the class itself.
+     * If computed concurrently by another thread, then either will do.
+     */
+    private final ClassValue<Optional<Class<?>>> substitutedByClass = new ClassValue<Optional<Class<?>>>() {
+        @Override
+        protected Optional<Class<?>> computeValue(final Class<?> cls) {
+            return Optional.<Class<?>>fromNullable(substitute(cls));
+        }
+    };
+
     private final Set<Class<?>> classesToIgnore = Sets.newHashSet();
     private final Set<String> classNamesToIgnore = Sets.newHashSet();
 
@@ -0,0 +1,133 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader.snapshot;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * A versioned record that a metamodel was validated: the classes of its specifications, and a
+ * {@link #getChecksum() checksum} of them (and of their layout files) along with the programming model and
+ * configuration used.
+ *
+ * <p>
+ * Written at build time by the <tt>snapshot</tt> goal of the Isis Maven plugin, once it has validated the
+ * metamodel, and (if so configured) read by {@link org.apache.isis.core.metamodel.specloader.ObjectReflectorDefault}
+ * at bootstrap.  If the checksum of those classes (and of any services not among them) at runtime matches, then
+ * the metamodel is not validated again; it is still introspected as normal.
+ *
+ * <p>
+ * The format is line-based and tab-separated, so that snapshots from successive builds can be diffed.
+ */
+public final class MetaModelSnapshot {
+
+    /**
+     * The location (on the classpath) to which the snapshot is written, and from which it is read.
+     */
+    public static final String RESOURCE = "META-INF/isis/metamodel.snapshot";
+
+    /**
+     * Incremented whenever the format changes; a snapshot of a different version is ignored.
+     */
+    public static final int VERSION = 2;
+
+    private static final String HEADER = "isis-metamodel-snapshot";
+
+    private static final char SEPARATOR = '\t';
+    private static final Joiner JOINER = Joiner.on(SEPARATOR);
+    private static final Splitter SPLITTER = Splitter.on(SEPARATOR);
+
+    private final String checksum;
+    private final List<String> classNames;
+
+    public MetaModelSnapshot(final String checksum, final List<String> classNames) {
+        this.checksum = checksum;
+        this.classNames = ImmutableList.copyOf(classNames);
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public List<String> getClassNames() {
+        return classNames;
+    }
+
+    //region > write, read
+
+    public void writeTo(final Writer writer) throws IOException {
+        writeLine(writer, HEADER, "" + VERSION);
+        writeLine(writer, "checksum", checksum);
+        for (final String className : classNames) {
+            writeLine(writer, "class", className);
+        }
+        writer.flush();
+    }
+
+    /**
+     * @return the snapshot, or <tt>null</tt> if it was written in some other {@link #VERSION version} of the format.
+     */
+    public static MetaModelSnapshot readFrom(final Reader reader) throws IOException {
+        final BufferedReader bufferedReader = new BufferedReader(reader);
+        final List<String> header = readLine(bufferedReader);
+        if(header == null || header.size() != 2 || !HEADER.equals(header.get(0))) {
+            throw new IOException("Not a metamodel snapshot");
+        }
+        if(!("" + VERSION).equals(header.get(1))) {
+            return null;
+        }
+        final List<String> checksumLine = readLine(bufferedReader);
+        if(checksumLine == null || checksumLine.size() != 2 || !"checksum".equals(checksumLine.get(0))) {
+            throw new IOException("Metamodel snapshot has no checksum");
+        }
+
+        final List<String> classNames = Lists.newArrayList();
+        List<String> line;
+        while((line = readLine(bufferedReader)) != null) {
+            if(line.size() != 2 || !"class".equals(line.get(0))) {
+                throw new IOException("Metamodel snapshot is corrupt; expected a class, got: " + line.get(0));
+            }
+            classNames.add(line.get(1));
+        }
+        return new MetaModelSnapshot(checksumLine.get(1), classNames);
+    }
+
+    private static void writeLine(final Writer writer, final String... fields) throws IOException {
+        writer.write(JOINER.join(fields));
+        writer.write('\n');
+    }
+
+    private static List<String> readLine(final BufferedReader reader) throws IOException {
+        final String line = reader.readLine();
+        if(line == null) {
+            return null;
+        }
+        return Lists.newArrayList(SPLITTER.split(line));
+    }
+
+    //endregion
+
+}
@@ -0,0 +1,221 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader.snapshot;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.commons.lang.ClassUtil;
+import org.apache.isis.core.metamodel.facets.FacetFactory;
+import org.apache.isis.core.metamodel.progmodel.ProgrammingModel;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+
+/**
+ * Creates, checksums, writes and reads {@link MetaModelSnapshot}s.
+ */
+public final class MetaModelSnapshots {
+
+    /**
+     * The configuration properties (by prefix) that influence the metamodel, and so are included in the
+     * {@link #checksumOf(Collection, ProgrammingModel, IsisConfiguration) checksum}.
+     *
+     * <p>
+     * Other properties (of the object store, say, or of the viewers) do not, and are typically different at build
+     * time anyway.
+     */
+    private static final List<String> METAMODEL_PROPERTY_PREFIXES = ImmutableList.of(
+            "isis.reflector.",
+            "isis.core.progmodel.",
+            "isis.value.",
+            "isis.objects.",
+            "isis.services",
+            "isis.viewers.paged.",
+            "isis.locale");
+
+    /**
+     * ... except those that only tune how (rather than what) is introspected.
+     */
+    private static final List<String> NON_METAMODEL_PROPERTY_PREFIXES = ImmutableList.of(
+            "isis.reflector.snapshot",
+            "isis.reflector.introspection.");
+
+    private MetaModelSnapshots() {
+    }
+
+    //region > create
+
+    /**
+     * Records that the (already introspected and) validated specifications were so.
+     */
+    public static MetaModelSnapshot create(
+            final Collection<ObjectSpecification> specifications,
+            final ProgrammingModel programmingModel,
+            final IsisConfiguration configuration) {
+
+        final List<String> classNames = Lists.newArrayList();
+        for (final ObjectSpecification specification : specifications) {
+            classNames.add(specification.getCorrespondingClass().getName());
+        }
+        Collections.sort(classNames);
+        return new MetaModelSnapshot(checksumOf(classNames, programmingModel, configuration), classNames);
+    }
+
+    //endregion
+
+    //region > checksum
+
+    /**
+     * A checksum of the snapshot format, the facet factories of the programming model, those configuration
+     * properties that influence the metamodel, and the bytecode and <tt>.layout.json</tt> file (if any) of each of
+     * the classes.
+     *
+     * <p>
+     * At runtime the classes should be those of the snapshot along with any others known up-front (ie the
+     * services), so that a class not in the snapshot (eg a newly added service) is detected.
+     *
+     * @return the checksum, or <tt>null</tt> if any of the classes could not be loaded.
+     */
+    public static String checksumOf(
+            final Collection<String> classNames,
+            final ProgrammingModel programmingModel,
+            final IsisConfiguration configuration) {
+        final Hasher hasher = Hashing.sha1().newHasher();
+        hasher.putInt(MetaModelSnapshot.VERSION);
+        for (final FacetFactory facetFactory : programmingModel.getList()) {
+            hasher.putString(facetFactory.getClass().getName(), Charsets.UTF_8);
+        }
+        final Map<String, String> properties = configuration.asMap();
+        for (final String key : Ordering.natural().sortedCopy(properties.keySet())) {
+            if(!isMetaModelProperty(key)) {
+                continue;
+            }
+            hasher.putString(key, Charsets.UTF_8);
+            hasher.putString(Strings.nullToEmpty(properties.get(key)), Charsets.UTF_8);
+        }
+        final Set<String> uniqueClassNames = Sets.newTreeSet(classNames);
+        for (final String className : uniqueClassNames) {
+            final Class<?> cls = classFor(className);
+            if(cls == null) {
+                return null;
+            }
+            hasher.putString(className, Charsets.UTF_8);
+            if(cls.isPrimitive() || cls.isArray() || cls.getClassLoader() == null) {
+                // part of the JDK
+                continue;
+            }
+            final String resourceName = className.replace('.', '/');
+            putResource(hasher, cls.getClassLoader().getResource(resourceName + ".class"));
+            putResource(hasher, cls.getResource(cls.getSimpleName() + ".layout.json"));
+        }
+        return hasher.hash().toString();
+    }
+
+    private static boolean isMetaModelProperty(final String key) {
+        return startsWithAny(key, METAMODEL_PROPERTY_PREFIXES) && !startsWithAny(key, NON_METAMODEL_PROPERTY_PREFIXES);
+    }
+
+    private static boolean startsWithAny(final String key, final List<String> prefixes) {
+        for (final String prefix : prefixes) {
+            if(key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> classFor(final String className) {
+        final Class<?> builtIn = ClassUtil.getBuiltIn(className);
+        if(builtIn != null) {
+            return builtIn;
+        }
+        try {
+            return Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+        } catch (final ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static void putResource(final Hasher hasher, final URL url) {
+        if(url == null) {
+            hasher.putBoolean(false);
+            return;
+        }
+        hasher.putBoolean(true);
+        try {
+            hasher.putBytes(Resources.toByteArray(url));
+        } catch (final IOException e) {
+            // will not match, so the snapshot will not be used
+            hasher.putString(e.toString(), Charsets.UTF_8);
+        }
+    }
+
+    //endregion
+
+    //region > write, read
+
+    public static void write(final MetaModelSnapshot snapshot, final File file) throws IOException {
+        Files.createParentDirs(file);
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), Charsets.UTF_8);
+        try {
+            snapshot.writeTo(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * @return the snapshot, or <tt>null</tt> if there is none at the specified location (or it is of some other
+     *         {@link MetaModelSnapshot#VERSION version}).
+     */
+    public static MetaModelSnapshot readFromClasspath(final String resource) throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(resource);
+        if(url == null) {
+            return null;
+        }
+        final InputStreamReader reader = new InputStreamReader(url.openStream(), Charsets.UTF_8);
+        try {
+            return MetaModelSnapshot.readFrom(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    //endregion
+
+}
@@ -22,6 +22,7 @@
 import java.util.*;
 import com.google.common.base.Function;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -121,19 +122,102 @@ public List<ObjectSpecification> toList() {
 
     private final List<ObjectAssociation> associations = Lists.newArrayList();
     private final List<ObjectAction> objectActions = Lists.newArrayList();
-    // partitions and caches objectActions by type; updated in sortCacheAndUpdateActions()
-    private final Map<ActionType, List<ObjectAction>> objectActionsByType = createObjectActionsByType();
 
-    private static Map<ActionType, List<ObjectAction>> createObjectActionsByType() {
-        final Map<ActionType, List<ObjectAction>> map = Maps.newHashMap();
-        for (final ActionType type : ActionType.values()) {
-            map.put(type, Lists.<ObjectAction>newArrayList());
+    /**
+     * Immutable snapshot of {@link #associations}; republished in {@link #sortAndUpdateAssociations(java.util.List)}.
+     */
+    private volatile AssociationsSnapshot associationsSnapshot = new AssociationsSnapshot(Collections.<ObjectAssociation>emptyList());
+    /**
+     * Immutable snapshot of {@link #objectActions}, partitioned by type; republished in {@link #sortCacheAndUpdateActions(java.util.List)}.
+     */
+    private volatile ActionsSnapshot actionsSnapshot = new ActionsSnapshot(Collections.<ObjectAction>emptyList());
+
+    private volatile boolean contributeeAssociationsAdded;
+    private volatile boolean contributeeActionsAdded;
+
+    /**
+     * The associations, both regular only and also including contributee associations, along with an index by id.
+     */
+    private static class AssociationsSnapshot {
+        private final List<ObjectAssociation> regular;
+        private final List<ObjectAssociation> all;
+        private final Map<String, ObjectAssociation> allById;
+
+        AssociationsSnapshot(final List<ObjectAssociation> associations) {
+            this.all = ImmutableList.copyOf(associations);
+            this.regular = ImmutableList.copyOf(Iterables.filter(all, ContributeeMember.Predicates.<ObjectAssociation>regular()));
+            final Map<String, ObjectAssociation> allById = Maps.newHashMap();
+            for (final ObjectAssociation association : all) {
+                // as per a linear search, first match wins
+                if(!allById.containsKey(association.getId())) {
+                    allById.put(association.getId(), association);
+                }
+            }
+            this.allById = allById;
+        }
+
+        List<ObjectAssociation> get(final Contributed contributed) {
+            return contributed.isIncluded() ? all : regular;
+        }
+
+        ObjectAssociation getById(final String id) {
+            return allById.get(id);
         }
-        return map;
     }
 
-    private boolean contributeeAssociationsAdded;
-    private boolean contributeeActionsAdded;
+    /**
+     * The actions partitioned by {@link ActionType}, both regular only and also including contributee actions,
+     * along with an index (of all actions, regular and contributee) by id.
+     */
+    private static class ActionsSnapshot {
+        private final Map<ActionType, List<ObjectAction>> regularByType = Maps.newEnumMap(ActionType.class);
+        private final Map<ActionType, List<ObjectAction>> allByType = Maps.newEnumMap(ActionType.class);
+        private final Map<ActionType, Map<String, ObjectAction>> allByTypeAndId = Maps.newEnumMap(ActionType.class);
+        private final Map<String, ObjectAction> allById = Maps.newHashMap();
+
+        ActionsSnapshot(final List<ObjectAction> actions) {
+            for (final ActionType type : ActionType.values()) {
+                final List<ObjectAction> allOfType = ImmutableList.copyOf(Collections2.filter(actions, ObjectAction.Predicates.ofType(type)));
+                allByType.put(type, allOfType);
+                regularByType.put(type, ImmutableList.copyOf(Iterables.filter(allOfType, ContributeeMember.Predicates.<ObjectAction>regular())));
+
+                final Map<String, ObjectAction> byId = Maps.newHashMap();
+                index(allOfType, byId);
+                allByTypeAndId.put(type, byId);
+
+                index(allOfType, allById);
+            }
+        }
+
+        /**
+         * Indexes by both the name-and-parameters and the name-only identity strings; as per a linear search
+         * (in order of type and then of action), first match wins.
+         */
+        private static void index(final List<ObjectAction> actions, final Map<String, ObjectAction> byId) {
+            for (final ObjectAction action : actions) {
+                final String nameParmsId = action.getIdentifier().toNameParmsIdentityString();
+                if(!byId.containsKey(nameParmsId)) {
+                    byId.put(nameParmsId, action);
+                }
+                final String nameId = action.getIdentifier().toNameIdentityString();
+                if(!byId.containsKey(nameId)) {
+                    byId.put(nameId, action);
+                }
+            }
+        }
+
+        List<ObjectAction> get(final ActionType type, final Contributed contributed) {
+            return contributed.isIncluded() ? allByType.get(type) : regularByType.get(type);
+        }
+
+        ObjectAction getById(final ActionType type, final String id) {
+            return allByTypeAndId.get(type).get(id);
+        }
+
+        ObjectAction getById(final String id) {
+            return allById.get(id);
+        }
+    }
 
 
     private final List<ObjectSpecification> interfaces = Lists.newArrayList();
@@ -159,7 +243,17 @@ private static Map<ActionType, List<ObjectAction>> createObjectActionsByType() {
     private IconFacet iconFacet;
     private CssClassFacet cssClassFacet;
 
-    private IntrospectionState introspected = IntrospectionState.NOT_INTROSPECTED;
+    /**
+     * Volatile so that a spec read from the {@link org.apache.isis.core.metamodel.specloader.ObjectReflectorDefault reflector}'s
+     * cache without locking is seen to be fully introspected.
+     */
+    private volatile IntrospectionState introspected = IntrospectionState.NOT_INTROSPECTED;
+
+    /**
+     * Whether the {@link org.apache.isis.core.metamodel.specloader.ObjectReflectorDefault reflector} has deferred
+     * the introspection of this spec (lazy introspection); see {@link #introspectIfDeferred()}.
+     */
+    private volatile boolean introspectionDeferred;
 
     // //////////////////////////////////////////////////////////////////////
     // Constructor
@@ -267,6 +361,35 @@ protected boolean isNotIntrospected() {
         return !(getIntrospectionState() == IntrospectionState.INTROSPECTED);
     }
 
+    /**
+     * Called by the {@link org.apache.isis.core.metamodel.specloader.ObjectReflectorDefault reflector} if it has
+     * created this spec but deferred its introspection; the spec is then introspected on first access of its
+     * facets, hierarchy or members, rather than only when it is itself loaded.
+     */
+    public void deferIntrospection() {
+        this.introspectionDeferred = true;
+    }
+
+    /**
+     * If {@link #deferIntrospection() deferred}, then introspects this spec now, by loading it through the
+     * {@link #getSpecificationLookup() specification loader} (so that it is still introspected only once).
+     * 
+     * <p>
+     * Does nothing if this spec is already being introspected; nor will the loader introspect it if called
+     * while introspecting some other spec, in which case its introspection remains deferred.
+     */
+    protected void introspectIfDeferred() {
+        if (!introspectionDeferred) {
+            return;
+        }
+        if (getIntrospectionState() == IntrospectionState.NOT_INTROSPECTED) {
+            specificationLookup.loadSpecification(getCorrespondingClass());
+        }
+        if (getIntrospectionState() == IntrospectionState.INTROSPECTED) {
+            introspectionDeferred = false;
+        }
+    }
+
 
     // //////////////////////////////////////////////////////////////////////
     // Introspection (part 1)
@@ -333,6 +456,7 @@ protected void sortAndUpdateAssociations(final List<ObjectAssociation> associati
         synchronized (this.associations) {
             this.associations.clear();
             this.associations.addAll(orderedAssociations);
+            this.associationsSnapshot = new AssociationsSnapshot(orderedAssociations);
         }
     }
 
@@ -341,12 +465,7 @@ protected void sortCacheAndUpdateActions(final List<ObjectAction> objectActions)
         synchronized (this.objectActions){
             this.objectActions.clear();
             this.objectActions.addAll(orderedActions);
-
-            for (final ActionType type : ActionType.values()) {
-                final List<ObjectAction> objectActionForType = objectActionsByType.get(type);
-                objectActionForType.clear();
-                objectActionForType.addAll(Collections2.filter(objectActions, ObjectAction.Predicates.ofType(type)));
-            }
+            this.actionsSnapshot = new ActionsSnapshot(orderedActions);
         }
     }
 
@@ -401,6 +520,7 @@ public String getTitle(final ObjectAdapter targetAdapter, final Localization loc
 
     @Override
     public String getTitle(ObjectAdapter contextAdapterIfAny, ObjectAdapter targetAdapter, Localization localization) {
+        introspectIfDeferred();
         if (titleFacet != null) {
             final String titleString = titleFacet.title(contextAdapterIfAny, targetAdapter, localization);
             if (titleString != null && !titleString.equals("")) {
@@ -413,6 +533,7 @@ public String getTitle(ObjectAdapter contextAdapterIfAny, ObjectAdapter targetAd
 
     @Override
     public String getIconName(final ObjectAdapter reference) {
+        introspectIfDeferred();
         return iconFacet == null ? null : iconFacet.iconName(reference);
     }
 
@@ -424,6 +545,7 @@ public String getCssClass() {
 
     @Override
     public String getCssClass(final ObjectAdapter reference) {
+        introspectIfDeferred();
         return cssClassFacet == null ? null : cssClassFacet.cssClass(reference);
     }
 
@@ -525,6 +647,7 @@ public String getHelp() {
 
     @Override
     public Persistability persistability() {
+        introspectIfDeferred();
         return persistability;
     }
 
@@ -534,11 +657,13 @@ public Persistability persistability() {
 
     @Override
     public boolean isDirty(final ObjectAdapter object) {
+        introspectIfDeferred();
         return isDirtyObjectFacet == null ? false : isDirtyObjectFacet.invoke(object);
     }
 
     @Override
     public void clearDirty(final ObjectAdapter object) {
+        introspectIfDeferred();
         if (clearDirtyObjectFacet != null) {
             clearDirtyObjectFacet.invoke(object);
         }
@@ -546,6 +671,7 @@ public void clearDirty(final ObjectAdapter object) {
 
     @Override
     public void markDirty(final ObjectAdapter object) {
+        introspectIfDeferred();
         if (markDirtyObjectFacet != null) {
             markDirtyObjectFacet.invoke(object);
         }
@@ -557,6 +683,7 @@ public void markDirty(final ObjectAdapter object) {
 
     @Override
     public <Q extends Facet> Q getFacet(final Class<Q> facetType) {
+        introspectIfDeferred();
         final Q facet = super.getFacet(facetType);
         Q noopFacet = null;
         if (isNotANoopFacet(facet)) {
@@ -599,6 +726,18 @@ private boolean isNotANoopFacet(final Facet facet) {
         return facet != null && !facet.isNoop();
     }
 
+    @Override
+    public Class<? extends Facet>[] getFacetTypes() {
+        introspectIfDeferred();
+        return super.getFacetTypes();
+    }
+
+    @Override
+    public List<Facet> getFacets(final Filter<Facet> filter) {
+        introspectIfDeferred();
+        return super.getFacets(filter);
+    }
+
     // //////////////////////////////////////////////////////////////////////
     // DefaultValue
     // //////////////////////////////////////////////////////////////////////
@@ -632,24 +771,46 @@ public ObjectTitleContext createTitleInteractionContext(final AuthenticationSess
 
     @Override
     public ObjectSpecification superclass() {
+        introspectIfDeferred();
         return superclassSpec;
     }
 
     @Override
     public List<ObjectSpecification> interfaces() {
+        introspectIfDeferred();
         return Collections.unmodifiableList(interfaces);
     }
 
     @Override
     public List<ObjectSpecification> subclasses() {
+        introspectIfDeferred();
+        introspectDeferredSubclasses();
         return subclasses.toList();
     }
 
     @Override
     public boolean hasSubclasses() {
+        introspectIfDeferred();
+        introspectDeferredSubclasses();
         return subclasses.hasSubclasses();
     }
 
+    /**
+     * A subclass only registers itself with this spec once it has been introspected, so any loaded subclasses
+     * whose introspection has been {@link #deferIntrospection() deferred} are introspected now.
+     */
+    private void introspectDeferredSubclasses() {
+        for (final ObjectSpecification spec : specificationLookup.allSpecifications()) {
+            if (spec == this || !(spec instanceof ObjectSpecificationAbstract)) {
+                continue;
+            }
+            final ObjectSpecificationAbstract specAbstract = (ObjectSpecificationAbstract) spec;
+            if (specAbstract.introspectionDeferred && getCorrespondingClass().isAssignableFrom(specAbstract.getCorrespondingClass())) {
+                specAbstract.introspectIfDeferred();
+            }
+        }
+    }
+
     @Override
     public final boolean isAbstract() {
         return isAbstract;
@@ -659,21 +820,30 @@ public final boolean isAbstract() {
     // Associations
     // //////////////////////////////////////////////////////////////////////
 
+    /**
+     * Returns an immutable snapshot.
+     */
     @Override
     public List<ObjectAssociation> getAssociations(final Contributed contributed) {
+        introspectIfDeferred();
+        addContributeeAssociationsIfRequired(contributed);
+        return associationsSnapshot.get(contributed);
+    }
+
+    private void addContributeeAssociationsIfRequired(final Contributed contributed) {
         // the "contributed.isIncluded()" guard is required because we cannot do this too early;
         // there must be a session available
         if(contributed.isIncluded() && !contributeeAssociationsAdded) {
             synchronized (this.associations) {
+                if(contributeeAssociationsAdded) {
+                    return;
+                }
                 List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
                 associations.addAll(createContributeeAssociations());
                 sortAndUpdateAssociations(associations);
                 contributeeAssociationsAdded = true;
             }
         }
-        final List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
-        return Lists.newArrayList(Iterables.filter(
-                associations, ContributeeMember.Predicates.regularElse(contributed)));
     }
 
 
@@ -691,9 +861,6 @@ protected Boolean initialValue() {
      * simply returns <tt>null</tt>.
      * 
      * <p>
-     * TODO put fields into hash.
-     * 
-     * <p>
      * TODO: could this be made final? (ie does the framework ever call this
      * method for an {@link org.apache.isis.core.metamodel.specloader.specimpl.standalonelist.ObjectSpecificationOnStandaloneList})
      */
@@ -728,12 +895,9 @@ public ObjectAssociation getAssociation(final String id) {
     }
 
     private ObjectAssociation getAssociationWithId(final String id) {
-        for (final ObjectAssociation objectAssociation : getAssociations(Contributed.INCLUDED)) {
-            if (objectAssociation.getId().equals(id)) {
-                return objectAssociation;
-            }
-        }
-        return null;
+        introspectIfDeferred();
+        addContributeeAssociationsIfRequired(Contributed.INCLUDED);
+        return associationsSnapshot.getById(id);
     }
 
     @Deprecated
@@ -773,29 +937,68 @@ public List<ObjectAction> getObjectActions(
             final Contributed contributed, 
             final Filter<ObjectAction> filter) {
 
+        introspectIfDeferred();
+        addContributeeActionsIfRequired(contributed);
+
+        final ActionsSnapshot actionsSnapshot = this.actionsSnapshot;
+        final List<ObjectAction> actions = Lists.newArrayList();
+        for (final ActionType type : types) {
+            for (final ObjectAction action : actionsSnapshot.get(type, contributed)) {
+                if(filter.accept(action)) {
+                    actions.add(action);
+                }
+            }
+        }
+        return actions;
+    }
+
+    /**
+     * Returns an immutable snapshot of the actions of the specified type.
+     */
+    protected List<ObjectAction> getObjectActions(
+            final ActionType type,
+            final Contributed contributed) {
+        introspectIfDeferred();
+        addContributeeActionsIfRequired(contributed);
+        return actionsSnapshot.get(type, contributed);
+    }
+
+    /**
+     * The action (regular or contributee) of the specified type, whose id is either its
+     * {@link Identifier#toNameParmsIdentityString() name and parameters} or its
+     * {@link Identifier#toNameIdentityString() name}; else <tt>null</tt>.
+     */
+    protected ObjectAction getObjectActionWithId(final ActionType type, final String id) {
+        introspectIfDeferred();
+        addContributeeActionsIfRequired(Contributed.INCLUDED);
+        return actionsSnapshot.getById(type, id);
+    }
+
+    /**
+     * As per {@link #getObjectActionWithId(ActionType, String)}, but for actions of any type.
+     */
+    protected ObjectAction getObjectActionWithId(final String id) {
+        introspectIfDeferred();
+        addContributeeActionsIfRequired(Contributed.INCLUDED);
+        return actionsSnapshot.getById(id);
+    }
+
+    private void addContributeeActionsIfRequired(final Contributed contributed) {
         // update our list of actions if requesting for contributed actions
         // and they have not yet been added
         // the "contributed.isIncluded()" guard is required because we cannot do this too early;
         // there must be a session available
         if(contributed.isIncluded() && !contributeeActionsAdded) {
             synchronized (this.objectActions) {
+                if(contributeeActionsAdded) {
+                    return;
+                }
                 final List<ObjectAction> actions = Lists.newArrayList(this.objectActions);
                 actions.addAll(createContributeeActions());
                 sortCacheAndUpdateActions(actions);
                 contributeeActionsAdded = true;
             }
         }
-
-        final List<ObjectAction> actions = Lists.newArrayList();
-        for (final ActionType type : types) {
-            final Collection<ObjectAction> filterActions =
-                    Collections2.filter(objectActionsByType.get(type), Filters.asPredicate(filter));
-            actions.addAll(filterActions);
-        }
-        return Lists.newArrayList(
-                Iterables.filter(
-                        actions,
-                        ContributeeMember.Predicates.regularElse(contributed)));
     }
 
     @Override
@@ -925,7 +1128,14 @@ private void addIfReturnsSubtype(final ObjectAction serviceAction, final ObjectS
     // contributee associations (properties and collections)
     // //////////////////////////////////////////////////////////////////////
 
-    private List<ObjectAssociation> createContributeeAssociations() {
+    /**
+     * All contributee associations (each wrapping a service's contributed action) for this spec.
+     * 
+     * <p>
+     * If this specification {@link #isService() is actually for} a service,
+     * then returns an empty list.
+     */
+    protected List<ObjectAssociation> createContributeeAssociations() {
         if (isService()) {
             return Collections.emptyList();
         }
@@ -19,7 +19,10 @@
 
 package org.apache.isis.core.metamodel.specloader.validator;
 
-import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
 
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 
@@ -40,9 +43,14 @@ public MetaModelValidatorVisiting(final Visitor visitor) {
         this.visitor = visitor;
     }
         
+    /**
+     * The specs are visited in order of their class name, so that the failures reported do not depend on the
+     * order in which the specs were loaded (which may vary if introspected in parallel).
+     */
     @Override
     public final void validate(ValidationFailures validationFailures) {
-        final Collection<ObjectSpecification> objectSpecs = getSpecificationLoaderSpi().allSpecifications();
+        final List<ObjectSpecification> objectSpecs = Lists.newArrayList(getSpecificationLoaderSpi().allSpecifications());
+        Collections.sort(objectSpecs, ObjectSpecification.COMPARATOR_FULLY_QUALIFIED_CLASS_NAME);
         for (final ObjectSpecification objSpec : objectSpecs) {
             if(!visitor.visit(objSpec, validationFailures)) {
                 break;
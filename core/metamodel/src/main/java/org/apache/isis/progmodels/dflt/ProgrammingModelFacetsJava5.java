@@ -32,6 +32,7 @@
 import org.apache.isis.core.metamodel.facets.actions.notinservicemenu.derived.NotInServiceMenuFacetDerivedFromDomainServiceFacetFactory;
 import org.apache.isis.core.metamodel.facets.actions.notinservicemenu.method.NotInServiceMenuFacetViaMethodFactory;
 import org.apache.isis.core.metamodel.facets.actions.contributing.paged.PagedFacetOnActionFactory;
+import org.apache.isis.core.metamodel.facets.all.prefetch.annotation.PrefetchFacetForPrefetchAnnotationFactory;
 import org.apache.isis.core.metamodel.facets.actions.validate.method.ActionValidationFacetViaMethodFactory;
 import org.apache.isis.core.metamodel.facets.actions.contributing.maxlenannot.MaxLengthFacetOnActionAnnotationFactory;
 import org.apache.isis.core.metamodel.facets.collections.accessor.CollectionAccessorFacetViaAccessorFactory;
@@ -411,6 +412,7 @@ public ProgrammingModelFacetsJava5() {
         addFactory(PagedFacetOnTypeAnnotationFactory.class);
         addFactory(PagedFacetOnCollectionFactory.class);
         addFactory(PagedFacetOnActionFactory.class);
+        addFactory(PrefetchFacetForPrefetchAnnotationFactory.class);
 
 
         // must come after any facets that install titles
@@ -0,0 +1,108 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facetapi;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class FacetHolderImplTest {
+
+    public static interface FooFacet extends Facet {
+    }
+
+    public static interface BarFacet extends Facet {
+    }
+
+    public static interface NeverAddedFacet extends Facet {
+    }
+
+    public static class ConcreteFacet extends FacetAbstract {
+        public ConcreteFacet(final Class<? extends Facet> facetType, final FacetHolder holder) {
+            super(facetType, holder, Derivation.NOT_DERIVED);
+        }
+    }
+
+    private FacetHolderImpl facetHolder;
+    private ConcreteFacet fooFacet;
+    private ConcreteFacet barFacet;
+
+    @Before
+    public void setUp() throws Exception {
+        facetHolder = new FacetHolderImpl();
+        fooFacet = new ConcreteFacet(FooFacet.class, facetHolder);
+        barFacet = new ConcreteFacet(BarFacet.class, facetHolder);
+    }
+
+    @Test
+    public void getFacet_whenAdded() throws Exception {
+        facetHolder.addFacet(fooFacet);
+        facetHolder.addFacet(barFacet);
+
+        assertThat(facetHolder.getFacet(FooFacet.class), is(sameInstance((Facet)fooFacet)));
+        assertThat(facetHolder.getFacet(BarFacet.class), is(sameInstance((Facet)barFacet)));
+        assertThat(facetHolder.containsFacet(FooFacet.class), is(true));
+    }
+
+    @Test
+    public void getFacet_whenNeverAdded() throws Exception {
+        facetHolder.addFacet(fooFacet);
+
+        assertThat(facetHolder.getFacet(NeverAddedFacet.class), is(nullValue()));
+        assertThat(facetHolder.containsFacet(NeverAddedFacet.class), is(false));
+    }
+
+    @Test
+    public void getFacet_whenRemoved() throws Exception {
+        facetHolder.addFacet(fooFacet);
+        facetHolder.addFacet(barFacet);
+
+        facetHolder.removeFacet(FooFacet.class);
+
+        assertThat(facetHolder.getFacet(FooFacet.class), is(nullValue()));
+        assertThat(facetHolder.getFacet(BarFacet.class), is(sameInstance((Facet)barFacet)));
+        assertThat(facetHolder.getFacetTypes().length, is(1));
+    }
+
+    @Test
+    public void getFacet_whenReplaced() throws Exception {
+        facetHolder.addFacet(fooFacet);
+        final ConcreteFacet replacementFooFacet = new ConcreteFacet(FooFacet.class, facetHolder);
+
+        facetHolder.addFacet(replacementFooFacet);
+
+        assertThat(facetHolder.getFacet(FooFacet.class), is(sameInstance((Facet)replacementFooFacet)));
+        assertThat(replacementFooFacet.getUnderlyingFacet(), is(sameInstance((Facet)fooFacet)));
+    }
+
+    @Test
+    public void slotsAreStablePerFacetType() throws Exception {
+        final int fooSlot = FacetTypeRegistry.slotFor(FooFacet.class);
+        final int barSlot = FacetTypeRegistry.slotFor(BarFacet.class);
+
+        assertThat(FacetTypeRegistry.slotFor(FooFacet.class), is(fooSlot));
+        assertThat(fooSlot == barSlot, is(false));
+    }
+
+}
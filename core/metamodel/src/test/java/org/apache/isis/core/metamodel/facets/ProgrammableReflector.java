@@ -147,4 +147,8 @@ public boolean isInitialized() {
         return false;
     }
 
+    @Override
+    public void bootstrapped() {
+    }
+
 }
@@ -0,0 +1,109 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.facets.all.prefetch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.isis.applib.annotation.Prefetch;
+import org.apache.isis.core.metamodel.facetapi.Facet;
+import org.apache.isis.core.metamodel.facets.AbstractFacetFactoryTest;
+import org.apache.isis.core.metamodel.facets.FacetedMethod;
+import org.apache.isis.core.metamodel.facets.all.prefetch.annotation.PrefetchFacetForPrefetchAnnotation;
+import org.apache.isis.core.metamodel.facets.all.prefetch.annotation.PrefetchFacetForPrefetchAnnotationFactory;
+
+public class PrefetchFacetForPrefetchAnnotationFactoryTest extends AbstractFacetFactoryTest {
+
+    private PrefetchFacetForPrefetchAnnotationFactory facetFactory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        facetFactory = new PrefetchFacetForPrefetchAnnotationFactory();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        facetFactory = null;
+        super.tearDown();
+    }
+
+    @Prefetch(members={"customer", "product"}, fetchGroups="summary", maxFetchDepth=3)
+    static class Order {
+        @Prefetch(members="product")
+        public List<?> getLines() {
+            return null;
+        }
+    }
+
+    static class OrderWithoutPrefetchAnnotation {
+        public List<?> getLines() {
+            return null;
+        }
+    }
+
+    public void testAnnotationPickedUpOnType() {
+        final ProcessClassContext processClassContext = new ProcessClassContext(Order.class, methodRemover, facetHolder);
+        facetFactory.process(processClassContext);
+
+        final Facet facet = facetHolder.getFacet(PrefetchFacet.class);
+        assertNotNull(facet);
+        assertTrue(facet instanceof PrefetchFacetForPrefetchAnnotation);
+        final PrefetchFacet prefetchFacet = (PrefetchFacet) facet;
+        assertThat(prefetchFacet.members(), is(Arrays.asList("customer", "product")));
+        assertThat(prefetchFacet.fetchGroups(), is(Arrays.asList("summary")));
+        assertThat(prefetchFacet.maxFetchDepth(), is(3));
+    }
+
+    public void testNoAnnotationOnType() {
+        final ProcessClassContext processClassContext = new ProcessClassContext(OrderWithoutPrefetchAnnotation.class, methodRemover, facetHolder);
+        facetFactory.process(processClassContext);
+
+        assertNull(facetHolder.getFacet(PrefetchFacet.class));
+    }
+
+    public void testAnnotationPickedUpOnCollection() {
+        facetedMethod = FacetedMethod.createForCollection(Order.class, "lines");
+        final Method method = facetedMethod.getMethod();
+        final ProcessMethodContext processMethodContext = new ProcessMethodContext(Order.class, null, null, method, methodRemover, facetedMethod);
+        facetFactory.process(processMethodContext);
+
+        final PrefetchFacet prefetchFacet = facetedMethod.getFacet(PrefetchFacet.class);
+        assertNotNull(prefetchFacet);
+        assertThat(prefetchFacet.members(), is(Arrays.asList("product")));
+        assertThat(prefetchFacet.fetchGroups(), is(Collections.<String>emptyList()));
+        assertThat(prefetchFacet.maxFetchDepth(), is(0));
+    }
+
+    public void testNoAnnotationOnCollection() {
+        facetedMethod = FacetedMethod.createForCollection(OrderWithoutPrefetchAnnotation.class, "lines");
+        final Method method = facetedMethod.getMethod();
+        final ProcessMethodContext processMethodContext = new ProcessMethodContext(OrderWithoutPrefetchAnnotation.class, null, null, method, methodRemover, facetedMethod);
+        facetFactory.process(processMethodContext);
+
+        assertNull(facetedMethod.getFacet(PrefetchFacet.class));
+    }
+
+}
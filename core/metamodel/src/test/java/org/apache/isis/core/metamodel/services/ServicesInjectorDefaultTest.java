@@ -43,6 +43,8 @@ public class ServicesInjectorDefaultTest {
     @Mock
     private Service2 mockService2;
     @Mock
+    private Service1 mockReplacementService1;
+    @Mock
     private SomeDomainObject mockDomainObject;
 
     private ServicesInjectorDefault injector;
@@ -92,4 +94,50 @@ public void shouldInjectContainer() {
         injector.injectServicesInto(mockDomainObject);
     }
 
+    @Test
+    public void shouldInjectAgainUsingSamePlan() {
+        final Object[] services = { mockContainer, mockService1, mockService2 };
+        injector.setServices(Arrays.asList(services));
+
+        context.checking(new Expectations() {
+            {
+                exactly(2).of(mockDomainObject).setContainer(mockContainer);
+                exactly(2).of(mockDomainObject).setMixin(mockContainer);
+                exactly(2).of(mockDomainObject).setService1(mockService1);
+                exactly(2).of(mockDomainObject).setService2(mockService2);
+            }
+        });
+
+        injector.injectServicesInto(mockDomainObject);
+        injector.injectServicesInto(mockDomainObject);
+    }
+
+    @Test
+    public void shouldInjectReplacementServiceAfterReplace() {
+        final Object[] services = { mockContainer, mockService1, mockService2 };
+        injector.setServices(Arrays.asList(services));
+
+        context.checking(new Expectations() {
+            {
+                one(mockDomainObject).setContainer(mockContainer);
+                one(mockDomainObject).setMixin(mockContainer);
+                one(mockDomainObject).setService1(mockService1);
+                one(mockDomainObject).setService2(mockService2);
+            }
+        });
+        injector.injectServicesInto(mockDomainObject);
+
+        injector.replaceService(mockService1, mockReplacementService1);
+
+        context.checking(new Expectations() {
+            {
+                one(mockDomainObject).setContainer(mockContainer);
+                one(mockDomainObject).setMixin(mockContainer);
+                one(mockDomainObject).setService1(mockReplacementService1);
+                one(mockDomainObject).setService2(mockService2);
+            }
+        });
+        injector.injectServicesInto(mockDomainObject);
+    }
+
 }
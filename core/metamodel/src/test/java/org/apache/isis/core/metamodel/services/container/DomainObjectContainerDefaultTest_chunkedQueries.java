@@ -0,0 +1,207 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.services.container;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryIterationPolicy;
+import org.apache.isis.applib.query.QueryVisitor;
+import org.apache.isis.core.metamodel.adapter.DomainObjectServices;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.QueryChunkVisitor;
+import org.apache.isis.core.metamodel.adapter.QuerySubmitterAbstract;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Ignoring;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class DomainObjectContainerDefaultTest_chunkedQueries {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Ignoring
+    @Mock
+    private DomainObjectServices mockDomainObjectServices;
+
+    private ChunkingQuerySubmitter querySubmitter;
+    private DomainObjectContainerDefault container;
+
+    /**
+     * Serves up the pre-canned chunks of adapters, recording those chunks fetched and the adapters retained.
+     */
+    static class ChunkingQuerySubmitter extends QuerySubmitterAbstract {
+
+        private final List<List<ObjectAdapter>> chunks;
+        QueryIterationPolicy policy;
+        int chunksFetched;
+        final List<ObjectAdapter> retained = Lists.newArrayList();
+
+        ChunkingQuerySubmitter(final List<List<ObjectAdapter>> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public <T> void visitMatchingQuery(final Query<T> query, final QueryIterationPolicy policy, final QueryChunkVisitor visitor) {
+            this.policy = policy;
+            for (final List<ObjectAdapter> chunk : chunks) {
+                chunksFetched++;
+                retained.addAll(visitor.visit(chunk));
+                if (visitor.isComplete()) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public <T> List<ObjectAdapter> allMatchingQuery(final Query<T> query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> List<ObjectAdapter> uniqueMatchingQuery(final Query<T> query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> long countMatchingQuery(final Query<T> query) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final Predicate<String> STARTS_WITH_A = new Predicate<String>() {
+        @Override
+        public boolean apply(final String input) {
+            return input.startsWith("a");
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        querySubmitter = new ChunkingQuerySubmitter(Arrays.asList(
+                Arrays.asList(adapterFor("b1"), adapterFor("a1"), adapterFor("b2")),
+                Arrays.asList(adapterFor("a2"), adapterFor("a3"), adapterFor("b3")),
+                Arrays.asList(adapterFor("a4"))));
+
+        container = new DomainObjectContainerDefault();
+        container.setDomainObjectServices(mockDomainObjectServices);
+        container.setQuerySubmitter(querySubmitter);
+    }
+
+    private ObjectAdapter adapterFor(final String pojo) {
+        final ObjectAdapter mockAdapter = context.mock(ObjectAdapter.class, pojo);
+        context.checking(new Expectations() {{
+            allowing(mockAdapter).getObject();
+            will(returnValue(pojo));
+        }});
+        return mockAdapter;
+    }
+
+    @Test
+    public void firstMatch_stopsAtFirstChunkWithMatch() throws Exception {
+        assertThat(container.firstMatch(String.class, STARTS_WITH_A), is("a1"));
+        assertThat(querySubmitter.chunksFetched, is(1));
+        assertThat(querySubmitter.retained.size(), is(1));
+    }
+
+    @Test
+    public void firstMatch_whenNoneMatch() throws Exception {
+        final Predicate<String> none = new Predicate<String>() {
+            @Override
+            public boolean apply(final String input) {
+                return false;
+            }
+        };
+        assertThat(container.firstMatch(String.class, none), is(nullValue()));
+        assertThat(querySubmitter.chunksFetched, is(3));
+        assertThat(querySubmitter.retained.size(), is(0));
+    }
+
+    @Test
+    public void allMatches_rangeAppliesToMatches() throws Exception {
+        final List<String> matches = container.allMatches(String.class, STARTS_WITH_A, 1, 2);
+        assertThat(matches, is(Arrays.asList("a2", "a3")));
+        assertThat(querySubmitter.chunksFetched, is(2));
+    }
+
+    @Test
+    public void allMatches_unbounded() throws Exception {
+        final List<String> matches = container.allMatches(String.class, STARTS_WITH_A);
+        assertThat(matches, is(Arrays.asList("a1", "a2", "a3", "a4")));
+        assertThat(querySubmitter.chunksFetched, is(3));
+        assertThat(querySubmitter.retained.size(), is(4));
+    }
+
+    @Test
+    public void iterate_visitsAllInstancesAndRetainsNone() throws Exception {
+        final List<String> visited = Lists.newArrayList();
+        final QueryIterationPolicy policy = QueryIterationPolicy.DEFAULT.withChunkSize(3).withCommitPerChunk();
+
+        container.iterate(new QueryFindAllInstances<String>(String.class), policy, new QueryVisitor<String>() {
+            @Override
+            public boolean visit(final String instance) {
+                visited.add(instance);
+                return true;
+            }
+        });
+
+        assertThat(visited, is(Arrays.asList("b1", "a1", "b2", "a2", "a3", "b3", "a4")));
+        assertThat(querySubmitter.chunksFetched, is(3));
+        assertThat(querySubmitter.retained.size(), is(0));
+        assertThat(querySubmitter.policy, is(policy));
+    }
+
+    @Test
+    public void iterate_stopsWhenVisitorReturnsFalse() throws Exception {
+        final List<String> visited = Lists.newArrayList();
+
+        container.iterate(new QueryFindAllInstances<String>(String.class), new QueryVisitor<String>() {
+            @Override
+            public boolean visit(final String instance) {
+                visited.add(instance);
+                return !instance.equals("a2");
+            }
+        });
+
+        assertThat(visited, is(Arrays.asList("b1", "a1", "b2", "a2")));
+        assertThat(querySubmitter.chunksFetched, is(2));
+        assertThat(querySubmitter.policy, is(QueryIterationPolicy.DEFAULT));
+    }
+
+}
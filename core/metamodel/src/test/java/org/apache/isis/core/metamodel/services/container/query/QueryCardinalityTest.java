@@ -0,0 +1,47 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.services.container.query;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class QueryCardinalityTest {
+
+    @Test
+    public void multiple_doesNotNarrow() throws Exception {
+        assertThat(QueryCardinality.MULTIPLE.narrow(0), is(0L));
+        assertThat(QueryCardinality.MULTIPLE.narrow(10), is(10L));
+    }
+
+    @Test
+    public void single_narrowsToOne() throws Exception {
+        assertThat(QueryCardinality.SINGLE.narrow(0), is(1L));
+        assertThat(QueryCardinality.SINGLE.narrow(10), is(1L));
+    }
+
+    @Test
+    public void unique_narrowsToTwo() throws Exception {
+        assertThat(QueryCardinality.UNIQUE.narrow(0), is(2L));
+        assertThat(QueryCardinality.UNIQUE.narrow(10), is(2L));
+        assertThat(QueryCardinality.UNIQUE.narrow(1), is(1L));
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import com.google.common.collect.Lists;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.facetdecorator.FacetDecorator;
+import org.apache.isis.core.metamodel.layoutmetadata.LayoutMetadataReader;
+import org.apache.isis.core.metamodel.layoutmetadata.json.LayoutMetadataReaderFromJson;
+import org.apache.isis.core.metamodel.metamodelvalidator.dflt.MetaModelValidatorDefault;
+import org.apache.isis.core.metamodel.runtimecontext.noruntime.RuntimeContextNoRuntime;
+import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
+import org.apache.isis.core.metamodel.services.container.DomainObjectContainerDefault;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.specloader.specimpl.ObjectSpecificationAbstract;
+import org.apache.isis.core.metamodel.specloader.specimpl.ObjectSpecificationAbstract.IntrospectionState;
+import org.apache.isis.core.unittestsupport.jmocking.InjectIntoJMockAction;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ObjectReflectorDefaultTest_concurrency {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_ONLY);
+
+    @Mock
+    private IsisConfiguration mockConfiguration;
+
+    private ObjectReflectorDefault reflector;
+    private ExecutorService executorService;
+
+    public static class Customer {
+        private String name;
+        public String getName() {
+            return name;
+        }
+        public void setName(final String name) {
+            this.name = name;
+        }
+        private List<Order> orders = Lists.newArrayList();
+        public List<Order> getOrders() {
+            return orders;
+        }
+        public void setOrders(final List<Order> orders) {
+            this.orders = orders;
+        }
+    }
+
+    public static class Order {
+        private Customer customer;
+        public Customer getCustomer() {
+            return customer;
+        }
+        public void setCustomer(final Customer customer) {
+            this.customer = customer;
+        }
+    }
+
+    private static final int NUM_THREADS = 8;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockConfiguration).injectInto(with(anything()));
+                will(InjectIntoJMockAction.injectInto());
+
+                ignoring(mockConfiguration);
+            }
+        });
+
+        reflector = new ObjectReflectorDefault(
+                        mockConfiguration,
+                        new ProgrammingModelFacetsJava5(),
+                        new HashSet<FacetDecorator>(),
+                        new MetaModelValidatorDefault(),
+                        Lists.<LayoutMetadataReader>newArrayList(new LayoutMetadataReaderFromJson()));
+        reflector.setRuntimeContext(new RuntimeContextNoRuntime());
+        reflector.setServiceInjector(new ServicesInjectorDefault().withServices(Collections.<Object>singletonList(new DomainObjectContainerDefault())));
+        reflector.init();
+
+        executorService = Executors.newFixedThreadPool(NUM_THREADS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void whenLoadedConcurrently_thenIntrospectedOnce() throws Exception {
+        final List<ObjectSpecification> specs = loadConcurrently(Customer.class, NUM_THREADS, 1);
+
+        final ObjectSpecification spec = specs.get(0);
+        for (final ObjectSpecification other : specs) {
+            assertThat(other, is(sameInstance(spec)));
+        }
+        assertThat(((ObjectSpecificationAbstract) spec).getIntrospectionState(), is(IntrospectionState.INTROSPECTED));
+        // the (cyclic) reference back from the associated type resolves to the same spec
+        final ObjectSpecification orderSpec = reflector.loadSpecification(Order.class);
+        assertThat(orderSpec.getAssociation("customer").getSpecification(), is(sameInstance(spec)));
+    }
+
+    @Test
+    public void whenAlreadyIntrospected_thenSameSpecLookedUpConcurrently() throws Exception {
+        final ObjectSpecification spec = reflector.loadSpecification(Customer.class);
+
+        final List<ObjectSpecification> specs = loadConcurrently(Customer.class, NUM_THREADS, 1000);
+
+        for (final ObjectSpecification other : specs) {
+            assertThat(other, is(sameInstance(spec)));
+        }
+        assertThat(((ObjectSpecificationAbstract) spec).getIntrospectionState(), is(IntrospectionState.INTROSPECTED));
+    }
+
+    private List<ObjectSpecification> loadConcurrently(
+            final Class<?> cls, final int numThreads, final int lookupsPerThread) throws Exception {
+        final CountDownLatch startGate = new CountDownLatch(1);
+        final List<Future<ObjectSpecification>> futures = Lists.newArrayList();
+        for (int i = 0; i < numThreads; i++) {
+            futures.add(executorService.submit(new Callable<ObjectSpecification>() {
+                @Override
+                public ObjectSpecification call() throws Exception {
+                    startGate.await();
+                    ObjectSpecification spec = null;
+                    for (int j = 0; j < lookupsPerThread; j++) {
+                        spec = reflector.loadSpecification(cls);
+                    }
+                    return spec;
+                }
+            }));
+        }
+        startGate.countDown();
+        final List<ObjectSpecification> specs = Lists.newArrayList();
+        for (final Future<ObjectSpecification> future : futures) {
+            specs.add(future.get());
+        }
+        return specs;
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import com.google.common.collect.Lists;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.facetdecorator.FacetDecorator;
+import org.apache.isis.core.metamodel.facets.object.objectspecid.ObjectSpecIdFacet;
+import org.apache.isis.core.metamodel.layoutmetadata.LayoutMetadataReader;
+import org.apache.isis.core.metamodel.layoutmetadata.json.LayoutMetadataReaderFromJson;
+import org.apache.isis.core.metamodel.metamodelvalidator.dflt.MetaModelValidatorDefault;
+import org.apache.isis.core.metamodel.runtimecontext.noruntime.RuntimeContextNoRuntime;
+import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
+import org.apache.isis.core.metamodel.services.container.DomainObjectContainerDefault;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.metamodel.specloader.specimpl.ObjectSpecificationAbstract;
+import org.apache.isis.core.metamodel.specloader.specimpl.ObjectSpecificationAbstract.IntrospectionState;
+import org.apache.isis.core.unittestsupport.jmocking.InjectIntoJMockAction;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ObjectReflectorDefaultTest_lazy {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_ONLY);
+
+    @Mock
+    private IsisConfiguration mockConfiguration;
+
+    private ObjectReflectorDefault reflector;
+
+    public static class Customer {
+        private String name;
+        public String getName() {
+            return name;
+        }
+        public void setName(final String name) {
+            this.name = name;
+        }
+        private Order lastOrder;
+        public Order getLastOrder() {
+            return lastOrder;
+        }
+        public void setLastOrder(final Order lastOrder) {
+            this.lastOrder = lastOrder;
+        }
+        private PriorityOrder lastPriorityOrder;
+        public PriorityOrder getLastPriorityOrder() {
+            return lastPriorityOrder;
+        }
+        public void setLastPriorityOrder(final PriorityOrder lastPriorityOrder) {
+            this.lastPriorityOrder = lastPriorityOrder;
+        }
+    }
+
+    public static class Order {
+        private Customer customer;
+        public Customer getCustomer() {
+            return customer;
+        }
+        public void setCustomer(final Customer customer) {
+            this.customer = customer;
+        }
+    }
+
+    public static class PriorityOrder extends Order {
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockConfiguration).injectInto(with(anything()));
+                will(InjectIntoJMockAction.injectInto());
+
+                allowing(mockConfiguration).getBoolean(ReflectorConstants.INTROSPECTION_LAZY, ReflectorConstants.INTROSPECTION_LAZY_DEFAULT);
+                will(returnValue(true));
+
+                allowing(mockConfiguration).getBoolean(ReflectorConstants.INTROSPECTION_LAZY_WARM_UP, ReflectorConstants.INTROSPECTION_LAZY_WARM_UP_DEFAULT);
+                will(returnValue(false));
+
+                ignoring(mockConfiguration);
+            }
+        });
+
+        reflector = new ObjectReflectorDefault(
+                        mockConfiguration,
+                        new ProgrammingModelFacetsJava5(),
+                        new HashSet<FacetDecorator>(),
+                        new MetaModelValidatorDefault(),
+                        Lists.<LayoutMetadataReader>newArrayList(new LayoutMetadataReaderFromJson()));
+        reflector.setRuntimeContext(new RuntimeContextNoRuntime());
+        reflector.setServiceInjector(new ServicesInjectorDefault().withServices(Collections.<Object>singletonList(new DomainObjectContainerDefault())));
+        reflector.init();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        reflector.shutdown();
+    }
+
+    @Test
+    public void referencedTypesNotIntrospectedUntilLoaded() throws Exception {
+        final ObjectSpecification customerSpec = reflector.loadSpecification(Customer.class);
+
+        assertThat(introspectionStateOf(customerSpec), is(IntrospectionState.INTROSPECTED));
+        assertThat(reflector.loaded(Order.class), is(true));
+        assertThat(reflector.loaded(String.class), is(true));
+
+        final ObjectSpecification orderSpec = reflector.loadSpecification(Order.class);
+
+        assertThat(introspectionStateOf(orderSpec), is(IntrospectionState.INTROSPECTED));
+        assertThat(customerSpec.getAssociation("lastOrder").getSpecification(), is(sameInstance(orderSpec)));
+        assertThat(orderSpec.getAssociation("customer").getSpecification(), is(sameInstance(customerSpec)));
+    }
+
+    @Test
+    public void valueTypesIntrospectedEagerlyButNotOthers() throws Exception {
+        reflector.loadSpecification(Customer.class);
+
+        for (final ObjectSpecification spec : reflector.allSpecifications()) {
+            if(spec.getCorrespondingClass() == String.class) {
+                assertThat(introspectionStateOf(spec), is(IntrospectionState.INTROSPECTED));
+            }
+            if(spec.getCorrespondingClass() == Order.class) {
+                assertThat(introspectionStateOf(spec), is(IntrospectionState.NOT_INTROSPECTED));
+            }
+        }
+    }
+
+    @Test
+    public void referencedTypeIntrospectedWhenNavigatedTo() throws Exception {
+        final ObjectSpecification customerSpec = reflector.loadSpecification(Customer.class);
+
+        final ObjectSpecification orderSpec = customerSpec.getAssociation("lastOrder").getSpecification();
+        assertThat(introspectionStateOf(orderSpec), is(IntrospectionState.NOT_INTROSPECTED));
+
+        final List<ObjectAssociation> orderAssociations = orderSpec.getAssociations(Contributed.EXCLUDED);
+
+        assertThat(introspectionStateOf(orderSpec), is(IntrospectionState.INTROSPECTED));
+        assertThat(orderAssociations.size(), is(1));
+        assertThat(orderSpec.getAssociation("customer").getSpecification(), is(sameInstance(customerSpec)));
+        assertThat(reflector.loadSpecification(Order.class), is(sameInstance(orderSpec)));
+    }
+
+    @Test
+    public void referencedTypeIntrospectedWhenFacetAccessed() throws Exception {
+        final ObjectSpecification customerSpec = reflector.loadSpecification(Customer.class);
+        final ObjectSpecification orderSpec = customerSpec.getAssociation("lastOrder").getSpecification();
+
+        assertThat(orderSpec.getFacet(ObjectSpecIdFacet.class), is(notNullValue()));
+        assertThat(introspectionStateOf(orderSpec), is(IntrospectionState.INTROSPECTED));
+    }
+
+    @Test
+    public void lookupBySpecIdIntrospectsIfRequired() throws Exception {
+        reflector.loadSpecification(Customer.class);
+
+        final ObjectSpecification orderSpec = reflector.lookupBySpecId(ObjectSpecId.of(Order.class.getName()));
+
+        assertThat(orderSpec.getCorrespondingClass() == Order.class, is(true));
+        assertThat(introspectionStateOf(orderSpec), is(IntrospectionState.INTROSPECTED));
+    }
+
+    @Test
+    public void deferredSubclassesIntrospectedWhenSubclassesAccessed() throws Exception {
+        final ObjectSpecification customerSpec = reflector.loadSpecification(Customer.class);
+        final ObjectSpecification orderSpec = customerSpec.getAssociation("lastOrder").getSpecification();
+        final ObjectSpecification priorityOrderSpec = customerSpec.getAssociation("lastPriorityOrder").getSpecification();
+        assertThat(introspectionStateOf(priorityOrderSpec), is(IntrospectionState.NOT_INTROSPECTED));
+
+        assertThat(orderSpec.hasSubclasses(), is(true));
+        assertThat(orderSpec.subclasses(), is(Collections.singletonList(priorityOrderSpec)));
+        assertThat(introspectionStateOf(priorityOrderSpec), is(IntrospectionState.INTROSPECTED));
+    }
+
+    private static IntrospectionState introspectionStateOf(final ObjectSpecification spec) {
+        return ((ObjectSpecificationAbstract) spec).getIntrospectionState();
+    }
+
+}
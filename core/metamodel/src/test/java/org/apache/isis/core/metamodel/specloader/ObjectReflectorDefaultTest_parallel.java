@@ -0,0 +1,327 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinWorkerThread;
+import com.google.common.collect.Lists;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.facetapi.FeatureType;
+import org.apache.isis.core.metamodel.facetdecorator.FacetDecorator;
+import org.apache.isis.core.metamodel.facets.FacetFactoryAbstract;
+import org.apache.isis.core.metamodel.layoutmetadata.LayoutMetadataReader;
+import org.apache.isis.core.metamodel.layoutmetadata.json.LayoutMetadataReaderFromJson;
+import org.apache.isis.core.metamodel.metamodelvalidator.dflt.MetaModelValidatorDefault;
+import org.apache.isis.core.metamodel.runtimecontext.noruntime.RuntimeContextNoRuntime;
+import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
+import org.apache.isis.core.metamodel.services.container.DomainObjectContainerDefault;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.specloader.specimpl.ObjectSpecificationAbstract;
+import org.apache.isis.core.metamodel.specloader.specimpl.ObjectSpecificationAbstract.IntrospectionState;
+import org.apache.isis.core.unittestsupport.jmocking.InjectIntoJMockAction;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ObjectReflectorDefaultTest_parallel {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_ONLY);
+
+    @Mock
+    private IsisConfiguration mockConfiguration;
+
+    private ObjectReflectorDefault reflector;
+
+    private final ConcurrentMap<Class<?>, Thread> introspectedBy = new ConcurrentHashMap<Class<?>, Thread>();
+
+    public static class Customer {
+        private Order lastOrder;
+        public Order getLastOrder() {
+            return lastOrder;
+        }
+        public void setLastOrder(final Order lastOrder) {
+            this.lastOrder = lastOrder;
+        }
+    }
+
+    public static class Order {
+        private Customer customer;
+        public Customer getCustomer() {
+            return customer;
+        }
+        public void setCustomer(final Customer customer) {
+            this.customer = customer;
+        }
+        private Product product;
+        public Product getProduct() {
+            return product;
+        }
+        public void setProduct(final Product product) {
+            this.product = product;
+        }
+    }
+
+    public static class Product {
+        private Customer preferredBy;
+        public Customer getPreferredBy() {
+            return preferredBy;
+        }
+        public void setPreferredBy(final Customer preferredBy) {
+            this.preferredBy = preferredBy;
+        }
+        public Order placeOrder(final Customer customer) {
+            return null;
+        }
+    }
+
+    public static class Supplier {
+        private Product product;
+        public Product getProduct() {
+            return product;
+        }
+        public void setProduct(final Product product) {
+            this.product = product;
+        }
+    }
+
+    /**
+     * Not referenced by any service; registered once bootstrapping (as are JDO entities).
+     */
+    public static class Invoice {
+        private InvoiceLine firstLine;
+        public InvoiceLine getFirstLine() {
+            return firstLine;
+        }
+        public void setFirstLine(final InvoiceLine firstLine) {
+            this.firstLine = firstLine;
+        }
+    }
+
+    public static class InvoiceLine {
+        private Invoice invoice;
+        public Invoice getInvoice() {
+            return invoice;
+        }
+        public void setInvoice(final Invoice invoice) {
+            this.invoice = invoice;
+        }
+    }
+
+    public static class Customers {
+        public Customer findCustomer() {
+            return null;
+        }
+    }
+
+    public static class Orders {
+        public Order findOrder() {
+            return null;
+        }
+    }
+
+    public static class Products {
+        public Product findProduct() {
+            return null;
+        }
+    }
+
+    public static class Suppliers {
+        public Supplier findSupplier() {
+            return null;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockConfiguration).injectInto(with(anything()));
+                will(InjectIntoJMockAction.injectInto());
+
+                allowing(mockConfiguration).getBoolean(ReflectorConstants.INTROSPECTION_PARALLEL, ReflectorConstants.INTROSPECTION_PARALLEL_DEFAULT);
+                will(returnValue(true));
+
+                allowing(mockConfiguration).getInteger(with(ReflectorConstants.INTROSPECTION_PARALLELISM), with(any(Integer.class)));
+                will(returnValue(4));
+
+                ignoring(mockConfiguration);
+            }
+        });
+
+        final ProgrammingModelFacetsJava5 programmingModel = new ProgrammingModelFacetsJava5();
+        programmingModel.addFactory(new FacetFactoryAbstract(FeatureType.OBJECTS_ONLY) {
+            @Override
+            public void process(final ProcessClassContext processClassContext) {
+                introspectedBy.put(processClassContext.getCls(), Thread.currentThread());
+            }
+        });
+        reflector = new ObjectReflectorDefault(
+                        mockConfiguration,
+                        programmingModel,
+                        new HashSet<FacetDecorator>(),
+                        new MetaModelValidatorDefault(),
+                        Lists.<LayoutMetadataReader>newArrayList(new LayoutMetadataReaderFromJson()));
+        reflector.setRuntimeContext(new RuntimeContextNoRuntime());
+        // the services (and the types they reference) are loaded in parallel at bootstrap
+        reflector.setServiceInjector(new ServicesInjectorDefault().withServices(Arrays.<Object>asList(
+                new DomainObjectContainerDefault(), new Customers(), new Orders(), new Products(), new Suppliers())));
+        reflector.init();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        reflector.shutdown();
+    }
+
+    @Test(timeout = 30000)
+    public void cyclicTypesLoadedInParallel() throws Exception {
+        final List<Class<?>> types = Arrays.<Class<?>>asList(Customer.class, Order.class, Product.class, Supplier.class);
+
+        for (final Class<?> type : types) {
+            assertThat(reflector.loaded(type), is(true));
+            final ObjectSpecification spec = reflector.loadSpecification(type);
+            assertThat(((ObjectSpecificationAbstract) spec).getIntrospectionState(), is(IntrospectionState.INTROSPECTED));
+        }
+
+        final ObjectSpecification customerSpec = reflector.loadSpecification(Customer.class);
+        final ObjectSpecification orderSpec = reflector.loadSpecification(Order.class);
+        final ObjectSpecification productSpec = reflector.loadSpecification(Product.class);
+        assertThat(customerSpec.getAssociation("lastOrder").getSpecification(), is(sameInstance(orderSpec)));
+        assertThat(orderSpec.getAssociation("customer").getSpecification(), is(sameInstance(customerSpec)));
+        assertThat(orderSpec.getAssociation("product").getSpecification(), is(sameInstance(productSpec)));
+        assertThat(productSpec.getAssociation("preferredBy").getSpecification(), is(sameInstance(customerSpec)));
+    }
+
+    @Test(timeout = 30000)
+    public void typesRegisteredWhileBootstrappingLoadedInParallel() throws Exception {
+        reflector.loadSpecifications(Arrays.<Class<?>>asList(Invoice.class, InvoiceLine.class));
+
+        assertThat(introspectedBy.get(Invoice.class) instanceof ForkJoinWorkerThread, is(true));
+        assertThat(introspectedBy.get(InvoiceLine.class) instanceof ForkJoinWorkerThread, is(true));
+    }
+
+    @Test(timeout = 30000)
+    public void typesLoadedByCallingThreadOnceBootstrapped() throws Exception {
+        reflector.bootstrapped();
+
+        reflector.loadSpecifications(Arrays.<Class<?>>asList(Invoice.class, InvoiceLine.class));
+
+        assertThat(introspectedBy.get(Invoice.class), is(sameInstance(Thread.currentThread())));
+        assertThat(introspectedBy.get(InvoiceLine.class), is(sameInstance(Thread.currentThread())));
+    }
+
+    @Test(timeout = 30000)
+    public void timingsRecordedForEachType() throws Exception {
+        final List<String> timedClassNames = Lists.newArrayList();
+        long previousNanos = Long.MAX_VALUE;
+        for (final Map.Entry<String, Long> entry : reflector.getIntrospectionNanosByClassName()) {
+            timedClassNames.add(entry.getKey());
+            // slowest first
+            assertThat(entry.getValue() <= previousNanos, is(true));
+            previousNanos = entry.getValue();
+        }
+        for (final Class<?> type : Arrays.<Class<?>>asList(Customer.class, Order.class, Product.class, Supplier.class)) {
+            assertThat(timedClassNames.contains(type.getName()), is(true));
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void conflictingIntrospectionAbandonedRatherThanSharingPartialSpec() throws Exception {
+        final ObjectSpecificationAbstract customerSpec = (ObjectSpecificationAbstract) reflector.loadSpecification(Customer.class);
+        final ObjectSpecificationAbstract orderSpec = (ObjectSpecificationAbstract) reflector.loadSpecification(Order.class);
+        customerSpec.setIntrospectionState(IntrospectionState.NOT_INTROSPECTED);
+        orderSpec.setIntrospectionState(IntrospectionState.NOT_INTROSPECTED);
+
+        final IntrospectionCoordinator coordinator = new IntrospectionCoordinator(new Object());
+        final CountDownLatch bothIntrospecting = new CountDownLatch(2);
+        final List<IntrospectionState> statesSeen = Collections.synchronizedList(Lists.<IntrospectionState>newArrayList());
+        final List<Throwable> thrown = Collections.synchronizedList(Lists.<Throwable>newArrayList());
+
+        // each thread introspects one spec, which (once the other thread has started) requires the other spec
+        final Thread customerThread = introspectingThread(coordinator, customerSpec, orderSpec, bothIntrospecting, statesSeen, thrown);
+        final Thread orderThread = introspectingThread(coordinator, orderSpec, customerSpec, bothIntrospecting, statesSeen, thrown);
+        customerThread.start();
+        orderThread.start();
+        customerThread.join();
+        orderThread.join();
+
+        // one thread abandons its introspection, which the other then completes
+        assertThat(thrown.size(), is(1));
+        assertThat(thrown.get(0) instanceof IntrospectionCoordinator.IntrospectionConflictException, is(true));
+        assertThat(statesSeen, is(Collections.singletonList(IntrospectionState.INTROSPECTED)));
+        assertThat(customerSpec.getIntrospectionState(), is(IntrospectionState.INTROSPECTED));
+        assertThat(orderSpec.getIntrospectionState(), is(IntrospectionState.INTROSPECTED));
+    }
+
+    private static Thread introspectingThread(
+            final IntrospectionCoordinator coordinator,
+            final ObjectSpecificationAbstract spec,
+            final ObjectSpecificationAbstract requiredSpec,
+            final CountDownLatch bothIntrospecting,
+            final List<IntrospectionState> statesSeen,
+            final List<Throwable> thrown) {
+        final IntrospectionCoordinator.Introspection noop = new IntrospectionCoordinator.Introspection() {
+            @Override
+            public void introspect(final ObjectSpecificationAbstract spec) {
+            }
+        };
+        return new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    coordinator.introspectOrAwait(spec, new IntrospectionCoordinator.Introspection() {
+                        @Override
+                        public void introspect(final ObjectSpecificationAbstract spec) {
+                            bothIntrospecting.countDown();
+                            try {
+                                bothIntrospecting.await();
+                            } catch (final InterruptedException e) {
+                                throw new IllegalStateException(e);
+                            }
+                            final ObjectSpecificationAbstract required =
+                                    (ObjectSpecificationAbstract) coordinator.introspectOrAwait(requiredSpec, noop);
+                            statesSeen.add(required.getIntrospectionState());
+                        }
+                    });
+                } catch (final RuntimeException ex) {
+                    thrown.add(ex);
+                }
+            }
+        });
+    }
+
+}
@@ -21,8 +21,10 @@
 
 import org.junit.Before;
 import org.junit.Test;
+import org.apache.isis.applib.DomainObjectContainer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class ClassSubstitutorTest_getClass {
 
@@ -63,4 +65,17 @@ public void someAnonymousSubtypeOfEnum() throws Exception {
         assertEquals(SomeDomainObject.SomeEnum.class, cls);
     }
 
+    @Test
+    public void ignoredClass_whenRepeated() throws Exception {
+        assertNull(classSubstitutor.getClass(DomainObjectContainer.class));
+        assertNull(classSubstitutor.getClass(DomainObjectContainer.class));
+    }
+
+    @Test
+    public void regularDomainObject_whenRepeated() throws Exception {
+        classSubstitutor.getClass(SomeDomainObject.class);
+        Class<?> cls = classSubstitutor.getClass(SomeDomainObject.class);
+        assertEquals(SomeDomainObject.class, cls);
+    }
+
 }
@@ -0,0 +1,121 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader.snapshot;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.List;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.apache.isis.core.commons.config.IsisConfigurationDefault;
+import org.apache.isis.core.metamodel.progmodel.ProgrammingModel;
+import org.apache.isis.core.metamodel.specloader.ReflectorConstants;
+import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class MetaModelSnapshotTest {
+
+    private MetaModelSnapshot snapshot;
+
+    @Before
+    public void setUp() throws Exception {
+        snapshot = new MetaModelSnapshot("abc123", Lists.newArrayList("com.mycompany.Customer", "com.mycompany.Order"));
+    }
+
+    @Test
+    public void roundtrip() throws Exception {
+        final MetaModelSnapshot read = roundtrip(snapshot);
+
+        assertThat(read.getChecksum(), is("abc123"));
+        assertThat(read.getClassNames(), is((List<String>)Lists.newArrayList("com.mycompany.Customer", "com.mycompany.Order")));
+    }
+
+    @Test
+    public void roundtrip_withNoClasses() throws Exception {
+        final MetaModelSnapshot read = roundtrip(new MetaModelSnapshot("abc123", Collections.<String>emptyList()));
+
+        assertThat(read.getClassNames().isEmpty(), is(true));
+    }
+
+    @Test
+    public void otherVersion() throws Exception {
+        final String written = write(snapshot).replaceFirst("\t" + MetaModelSnapshot.VERSION + "\n", "\t" + (MetaModelSnapshot.VERSION + 1) + "\n");
+
+        assertThat(MetaModelSnapshot.readFrom(new StringReader(written)), is(nullValue()));
+    }
+
+    @Test(expected=IOException.class)
+    public void notASnapshot() throws Exception {
+        MetaModelSnapshot.readFrom(new StringReader("something else\n"));
+    }
+
+    @Test(expected=IOException.class)
+    public void corrupt() throws Exception {
+        final String written = write(snapshot) + "spec\tcom.mycompany.Product\tPRD\n";
+
+        MetaModelSnapshot.readFrom(new StringReader(written));
+    }
+
+    @Test
+    public void checksum_ofMetaModelConfigurationOnly() throws Exception {
+        final ProgrammingModel programmingModel = new ProgrammingModelFacetsJava5();
+        final List<String> classNames = Collections.singletonList(MetaModelSnapshotTest.class.getName());
+        final IsisConfigurationDefault configuration = new IsisConfigurationDefault();
+        final String checksum = MetaModelSnapshots.checksumOf(classNames, programmingModel, configuration);
+
+        configuration.add("isis.persistor.datanucleus.impl.javax.jdo.option.ConnectionURL", "jdbc:hsqldb:mem:test");
+        configuration.add(ReflectorConstants.SNAPSHOT, "true");
+        assertThat(MetaModelSnapshots.checksumOf(classNames, programmingModel, configuration), is(checksum));
+
+        configuration.add("isis.reflector.facets.exclude", "com.mycompany.SomeFacetFactory");
+        assertThat(MetaModelSnapshots.checksumOf(classNames, programmingModel, configuration), is(not(checksum)));
+    }
+
+    @Test
+    public void checksum_ofAdditionalClasses() throws Exception {
+        final ProgrammingModel programmingModel = new ProgrammingModelFacetsJava5();
+        final IsisConfigurationDefault configuration = new IsisConfigurationDefault();
+        final String checksum = MetaModelSnapshots.checksumOf(
+                Collections.singletonList(MetaModelSnapshotTest.class.getName()), programmingModel, configuration);
+
+        final String checksumWithService = MetaModelSnapshots.checksumOf(
+                Lists.newArrayList(MetaModelSnapshotTest.class.getName(), MetaModelSnapshots.class.getName()),
+                programmingModel, configuration);
+
+        assertThat(checksumWithService, is(not(checksum)));
+    }
+
+    private static MetaModelSnapshot roundtrip(final MetaModelSnapshot snapshot) throws IOException {
+        return MetaModelSnapshot.readFrom(new StringReader(write(snapshot)));
+    }
+
+    private static String write(final MetaModelSnapshot snapshot) throws IOException {
+        final StringWriter writer = new StringWriter();
+        snapshot.writeTo(writer);
+        return writer.toString();
+    }
+
+}
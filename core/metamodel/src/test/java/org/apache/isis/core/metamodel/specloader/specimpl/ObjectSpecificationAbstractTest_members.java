@@ -0,0 +1,270 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader.specimpl;
+
+import java.util.Collections;
+import java.util.List;
+import com.google.common.collect.Lists;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.applib.filter.Filters;
+import org.apache.isis.applib.profiles.Localization;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.deployment.DeploymentCategory;
+import org.apache.isis.core.metamodel.facets.members.order.MemberOrderFacet;
+import org.apache.isis.core.metamodel.spec.ActionType;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.SpecificationContext;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.metamodel.spec.feature.ObjectMemberContext;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ObjectSpecificationAbstractTest_members {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private OneToOneAssociation mockNameProperty;
+    @Mock
+    private OneToOneAssociationContributee mockContributedNameProperty;
+    @Mock
+    private OneToOneAssociationContributee mockContributedAgeProperty;
+
+    @Mock
+    private ObjectAction mockPlaceOrderAction;
+    @Mock
+    private ObjectActionContributee mockContributedPlaceOrderAction;
+    @Mock
+    private ObjectActionContributee mockContributedCancelAction;
+
+    private ObjectSpecificationForTesting specification;
+
+    public static class Customer {
+    }
+
+    static class ObjectSpecificationForTesting extends ObjectSpecificationAbstract {
+
+        private List<ObjectAssociation> contributeeAssociations = Collections.emptyList();
+        private List<ObjectAction> contributeeActions = Collections.emptyList();
+        private int contributeeAssociationsCreated;
+        private int contributeeActionsCreated;
+
+        ObjectSpecificationForTesting() {
+            super(Customer.class, "Customer",
+                    new SpecificationContext(DeploymentCategory.PRODUCTION, null, null, null, null, null),
+                    new ObjectMemberContext(DeploymentCategory.PRODUCTION, null, null, null, null, null));
+        }
+
+        void updateAssociations(final ObjectAssociation... associations) {
+            sortAndUpdateAssociations(Lists.newArrayList(associations));
+        }
+
+        void updateActions(final ObjectAction... actions) {
+            sortCacheAndUpdateActions(Lists.newArrayList(actions));
+        }
+
+        /**
+         * In the order provided.
+         */
+        @Override
+        protected List<ObjectAssociation> sortAssociations(final List<ObjectAssociation> associations) {
+            return associations;
+        }
+
+        @Override
+        protected List<ObjectAssociation> createContributeeAssociations() {
+            contributeeAssociationsCreated++;
+            return contributeeAssociations;
+        }
+
+        @Override
+        protected List<ObjectAction> createContributeeActions() {
+            contributeeActionsCreated++;
+            return contributeeActions;
+        }
+
+        @Override
+        public void introspectTypeHierarchyAndMembers() {
+        }
+
+        @Override
+        public void markAsService() {
+        }
+
+        @Override
+        public boolean isService() {
+            return false;
+        }
+
+        @Override
+        public boolean isViewModel() {
+            return false;
+        }
+
+        @Override
+        public boolean isViewModelCloneable(final ObjectAdapter targetAdapter) {
+            return false;
+        }
+
+        @Override
+        public boolean isWizard() {
+            return false;
+        }
+
+        @Override
+        public String getTitle(final ObjectAdapter object, final Localization localization) {
+            return null;
+        }
+
+        @Override
+        public String getIconName(final ObjectAdapter object) {
+            return null;
+        }
+
+        @Override
+        public ObjectAction getObjectAction(final ActionType type, final String id, final List<ObjectSpecification> parameters) {
+            return null;
+        }
+
+        @Override
+        public ObjectAction getObjectAction(final ActionType type, final String id) {
+            return getObjectActionWithId(type, id);
+        }
+
+        @Override
+        public ObjectAction getObjectAction(final String id) {
+            return getObjectActionWithId(id);
+        }
+
+        @Override
+        public List<ObjectAction> getServiceActionsReturning(final List<ActionType> types) {
+            return Collections.emptyList();
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockNameProperty).getId();
+                will(returnValue("name"));
+                allowing(mockContributedNameProperty).getId();
+                will(returnValue("name"));
+                allowing(mockContributedAgeProperty).getId();
+                will(returnValue("age"));
+
+                allowing(mockPlaceOrderAction).getIdentifier();
+                will(returnValue(Identifier.actionIdentifier("com.mycompany.Customer", "placeOrder")));
+                allowing(mockContributedPlaceOrderAction).getIdentifier();
+                will(returnValue(Identifier.actionIdentifier("com.mycompany.CustomerContributions", "placeOrder")));
+                allowing(mockContributedCancelAction).getIdentifier();
+                will(returnValue(Identifier.actionIdentifier("com.mycompany.CustomerContributions", "cancel")));
+
+                for (final ObjectAction action : Lists.newArrayList(mockPlaceOrderAction, mockContributedPlaceOrderAction, mockContributedCancelAction)) {
+                    allowing(action).getType();
+                    will(returnValue(ActionType.USER));
+                    allowing(action).getFacet(MemberOrderFacet.class);
+                    will(returnValue(null));
+                }
+            }
+        });
+
+        specification = new ObjectSpecificationForTesting();
+    }
+
+    @Test
+    public void associationsRepublishedOnceContributeeAssociationsAdded() throws Exception {
+        specification.updateAssociations(mockNameProperty);
+        specification.contributeeAssociations = Collections.<ObjectAssociation>singletonList(mockContributedAgeProperty);
+
+        assertThat(specification.getAssociations(Contributed.EXCLUDED), is(list(mockNameProperty)));
+        assertThat(specification.contributeeAssociationsCreated, is(0));
+
+        assertThat(specification.getAssociations(Contributed.INCLUDED), is(list(mockNameProperty, mockContributedAgeProperty)));
+        assertThat(specification.getAssociation("age"), is(sameInstance((ObjectAssociation) mockContributedAgeProperty)));
+        assertThat(specification.getAssociations(Contributed.EXCLUDED), is(list(mockNameProperty)));
+
+        specification.getAssociations(Contributed.INCLUDED);
+        assertThat(specification.contributeeAssociationsCreated, is(1));
+    }
+
+    @Test
+    public void associationWithDuplicateIdFirstMatchWins() throws Exception {
+        specification.updateAssociations(mockNameProperty);
+        specification.contributeeAssociations = Collections.<ObjectAssociation>singletonList(mockContributedNameProperty);
+
+        assertThat(specification.getAssociations(Contributed.INCLUDED), is(list(mockNameProperty, mockContributedNameProperty)));
+        assertThat(specification.getAssociation("name"), is(sameInstance((ObjectAssociation) mockNameProperty)));
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void associationsUnmodifiable() throws Exception {
+        specification.updateAssociations(mockNameProperty);
+
+        specification.getAssociations(Contributed.EXCLUDED).add(mockContributedAgeProperty);
+    }
+
+    @Test
+    public void actionsRepublishedOnceContributeeActionsAdded() throws Exception {
+        specification.updateActions(mockPlaceOrderAction);
+        specification.contributeeActions = Collections.<ObjectAction>singletonList(mockContributedCancelAction);
+
+        assertThat(specification.getObjectActions(Contributed.EXCLUDED), is(list(mockPlaceOrderAction)));
+        assertThat(specification.contributeeActionsCreated, is(0));
+
+        // sorted by identifier
+        assertThat(specification.getObjectActions(Contributed.INCLUDED), is(list(mockPlaceOrderAction, mockContributedCancelAction)));
+        assertThat(specification.getObjectAction("cancel"), is(sameInstance((ObjectAction) mockContributedCancelAction)));
+        assertThat(specification.getObjectAction(ActionType.USER, "cancel()"), is(sameInstance((ObjectAction) mockContributedCancelAction)));
+        assertThat(specification.getObjectActions(ActionType.USER, Contributed.EXCLUDED, Filters.<ObjectAction>any()), is(list(mockPlaceOrderAction)));
+
+        specification.getObjectActions(Contributed.INCLUDED);
+        assertThat(specification.contributeeActionsCreated, is(1));
+    }
+
+    @Test
+    public void actionWithDuplicateIdFirstMatchWins() throws Exception {
+        specification.updateActions(mockPlaceOrderAction);
+        specification.contributeeActions = Collections.<ObjectAction>singletonList(mockContributedPlaceOrderAction);
+
+        // sorted by identifier, so the regular action (of Customer) precedes the contributee (of CustomerContributions)
+        assertThat(specification.getObjectActions(Contributed.INCLUDED), is(list(mockPlaceOrderAction, mockContributedPlaceOrderAction)));
+        assertThat(specification.getObjectAction("placeOrder"), is(sameInstance(mockPlaceOrderAction)));
+        assertThat(specification.getObjectAction("placeOrder()"), is(sameInstance(mockPlaceOrderAction)));
+        assertThat(specification.getObjectAction(ActionType.USER, "placeOrder"), is(sameInstance(mockPlaceOrderAction)));
+    }
+
+    private static <T> List<T> list(final T... elements) {
+        return Lists.newArrayList(elements);
+    }
+
+}
@@ -20,8 +20,10 @@
 package org.apache.isis.core.objectstore;
 
 import java.text.MessageFormat;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 import com.google.common.collect.Lists;
 import org.slf4j.Logger;
@@ -30,6 +32,7 @@
 import org.apache.isis.core.commons.debug.DebugUtils;
 import org.apache.isis.core.commons.exceptions.IsisException;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.ResolveState;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.adapter.oid.Oid;
 import org.apache.isis.core.metamodel.adapter.oid.RootOid;
@@ -42,6 +45,7 @@
 import org.apache.isis.core.metamodel.spec.SpecificationLoader;
 import org.apache.isis.core.metamodel.spec.feature.Contributed;
 import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
 import org.apache.isis.core.objectstore.commands.InMemoryCreateObjectCommand;
 import org.apache.isis.core.objectstore.commands.InMemoryDestroyObjectCommand;
 import org.apache.isis.core.objectstore.commands.InMemorySaveObjectCommand;
@@ -285,6 +289,43 @@ public List<ObjectAdapter> loadInstancesAndAdapt(final PersistenceQuery persiste
         return resolved(instances);
     }
 
+    @Override
+    public long countInstances(final PersistenceQuery persistenceQuery) {
+        return loadInstancesAndAdapt(persistenceQuery).size();
+    }
+
+    /**
+     * Simply destroys each matching instance in turn; there is no set-based equivalent for in-memory objects.
+     * 
+     * <p>
+     * As for {@link PersistenceSession#destroyObject(ObjectAdapter)}, the destroy commands are added to the
+     * current transaction, so are executed when it commits and discarded if it aborts.
+     */
+    @Override
+    public long deleteInstances(final PersistenceQuery persistenceQuery) {
+        final List<ObjectAdapter> instances = loadInstancesAndAdapt(persistenceQuery);
+        for (final ObjectAdapter adapter : instances) {
+            getPersistenceSession().getTransactionManager().addCommand(createDestroyObjectCommand(adapter));
+        }
+        return instances.size();
+    }
+
+    /**
+     * Simply initializes the properties of each matching instance in turn; the pojos <i>are</i> the persisted state,
+     * so there is nothing further to save.
+     */
+    @Override
+    public long updateInstances(final PersistenceQuery persistenceQuery, final Map<String, ObjectAdapter> newValueAdapterByPropertyId) {
+        final List<ObjectAdapter> instances = loadInstancesAndAdapt(persistenceQuery);
+        for (final ObjectAdapter adapter : instances) {
+            for (final Map.Entry<String, ObjectAdapter> entry : newValueAdapterByPropertyId.entrySet()) {
+                final OneToOneAssociation property = (OneToOneAssociation) adapter.getSpecification().getAssociation(entry.getKey());
+                property.initAssociation(adapter, entry.getValue());
+            }
+        }
+        return instances.size();
+    }
+
     @Override
     public boolean hasInstances(final ObjectSpecification spec) {
         if (instancesFor(spec.getSpecId()).hasInstances()) {
@@ -302,6 +343,24 @@ public boolean hasInstances(final ObjectSpecification spec) {
         return false;
     }
 
+    /**
+     * Nothing is evicted: the pojos held by this object store <i>are</i> its persisted state, and an
+     * unmapped pojo, if subsequently accessed directly, could not be re-associated with its persistent adapter.
+     */
+    @Override
+    public List<ObjectAdapter> evictInstances(final List<ObjectAdapter> adapters) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Nothing is evicted: bulk changes are made to the pojos themselves (or, for deletes, enlisted with the
+     * transaction as for any other deleted object), so their adapters are never stale.
+     */
+    @Override
+    public List<ObjectAdapter> evictChangedInstances(final List<ObjectAdapter> adapters) {
+        return Collections.emptyList();
+    }
+
     private void findInstances(final ObjectSpecification spec, final PersistenceQueryBuiltIn persistenceQuery, final List<ObjectAdapter> foundInstances) {
 
         instancesFor(spec.getSpecId()).findInstancesAndAdd(persistenceQuery, foundInstances);
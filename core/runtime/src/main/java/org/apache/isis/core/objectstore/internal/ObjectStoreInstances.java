@@ -23,6 +23,7 @@
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,7 +50,7 @@
  */
 public class ObjectStoreInstances {
 
-    private final Map<Oid, Object> pojoByOidMap = new HashMap<Oid, Object>();
+    private final Map<Oid, Object> pojoByOidMap = new LinkedHashMap<Oid, Object>();
     private final Map<Oid, Version> versionByOidMap = new HashMap<Oid, Version>();
 
     @SuppressWarnings("unused")
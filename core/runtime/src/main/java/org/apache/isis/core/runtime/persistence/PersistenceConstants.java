@@ -33,6 +33,14 @@ public final class PersistenceConstants {
      */
     public static final boolean ENFORCE_SAFE_SEMANTICS_DEFAULT = false;
 
+    /**
+     * The number of instances fetched at a time when a query is iterated over in chunks (for example, when
+     * searching for instances matching a predicate).
+     */
+    public static final String QUERY_CHUNK_SIZE = "isis.persistor.queryChunkSize";
+
+    public static final int QUERY_CHUNK_SIZE_DEFAULT = 500;
+
     private PersistenceConstants() {
     }
 
@@ -20,6 +20,11 @@
 package org.apache.isis.core.runtime.persistence.adaptermanager;
 
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
@@ -87,6 +92,10 @@ public class AdapterManagerDefault implements AdapterManager, Iterable<ObjectAda
 
     private final PojoRecreator pojoRecreator;
 
+    /**
+     * @see #startRecordingNewlyMappedRootAdapters()
+     */
+    private final List<Set<ObjectAdapter>> newlyMappedRecorders = Lists.newArrayList();
 
     // //////////////////////////////////////////////////////////////////
     // constructor
@@ -465,6 +474,64 @@ public void removeAdapter(final ObjectAdapter adapter) {
         unmap(adapter);
     }
 
+    /**
+     * As {@link #removeAdapter(ObjectAdapter)}, but also removes any (already mapped) adapters
+     * for the root adapter's collections.
+     *
+     * <p>
+     * Used when releasing instances that have been iterated over, so that neither the root adapter
+     * nor its collection adapters accumulate in the maps.  Collection adapters are located by their
+     * {@link CollectionOid}, so the collections themselves are not loaded.
+     */
+    public void removeRootAdapterAndCollectionAdapters(final ObjectAdapter rootAdapter) {
+        final Oid oid = rootAdapter.getOid();
+        if (oid instanceof TypedOid) {
+            for (final ObjectAssociation association : rootAdapter.getSpecification().getAssociations(Contributed.EXCLUDED)) {
+                if (!association.isOneToManyAssociation()) {
+                    continue;
+                }
+                final CollectionOid collectionOid = new CollectionOid((TypedOid) oid, (OneToManyAssociation) association);
+                final ObjectAdapter collectionAdapter = oidAdapterMap.getAdapter(collectionOid);
+                if (collectionAdapter != null) {
+                    unmap(collectionAdapter);
+                }
+            }
+        }
+        removeAdapter(rootAdapter);
+    }
+
+    // //////////////////////////////////////////////////////////////////
+    // recording of newly mapped adapters
+    // //////////////////////////////////////////////////////////////////
+
+    /**
+     * Starts recording the root adapters that are mapped from now on, that is, those for pojos
+     * that did not already have an adapter.
+     *
+     * <p>
+     * Used when iterating over instances in chunks, so that only those adapters that were
+     * mapped by a chunk are released afterwards; adapters that were already in use before the
+     * iteration began are left alone.  Recordings may be nested.
+     *
+     * @return the (live) set of newly mapped root adapters; pass to
+     *         {@link #stopRecordingNewlyMappedRootAdapters(Set)} once done.
+     */
+    public Set<ObjectAdapter> startRecordingNewlyMappedRootAdapters() {
+        final Set<ObjectAdapter> recorder = Sets.newIdentityHashSet();
+        newlyMappedRecorders.add(recorder);
+        return recorder;
+    }
+
+    public void stopRecordingNewlyMappedRootAdapters(final Set<ObjectAdapter> recorder) {
+        final Iterator<Set<ObjectAdapter>> iterator = newlyMappedRecorders.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() == recorder) {
+                iterator.remove();
+                return;
+            }
+        }
+    }
+
     // //////////////////////////////////////////////////////////////////
     // Persist API
     // //////////////////////////////////////////////////////////////////
@@ -746,6 +813,12 @@ private ObjectAdapter mapAndInjectServices(final ObjectAdapter adapter) {
         // order is important - add to pojo map first, then identity map
         oidAdapterMap.add(adapter.getOid(), adapter);
 
+        if (!adapter.isParented()) {
+            for (final Set<ObjectAdapter> recorder : newlyMappedRecorders) {
+                recorder.add(adapter);
+            }
+        }
+
         // must inject after mapping, otherwise infinite loop
         getServicesInjector().injectServicesInto(pojo);
 
@@ -760,6 +833,9 @@ private void unmap(final ObjectAdapter adapter) {
             oidAdapterMap.remove(oid);
         }
         pojoAdapterMap.remove(adapter);
+        for (final Set<ObjectAdapter> recorder : newlyMappedRecorders) {
+            recorder.remove(adapter);
+        }
     }
 
     // //////////////////////////////////////////////////////////////////////////
@@ -20,9 +20,11 @@
 package org.apache.isis.core.runtime.persistence.internal;
 
 import java.util.List;
+import java.util.Map;
 import org.apache.isis.applib.RecoverableException;
 import org.apache.isis.applib.profiles.Localization;
 import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryIterationPolicy;
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.authentication.AuthenticationSessionProvider;
@@ -36,6 +38,7 @@
 import org.apache.isis.core.metamodel.adapter.ObjectDirtierAbstract;
 import org.apache.isis.core.metamodel.adapter.ObjectPersistor;
 import org.apache.isis.core.metamodel.adapter.ObjectPersistorAbstract;
+import org.apache.isis.core.metamodel.adapter.QueryChunkVisitor;
 import org.apache.isis.core.metamodel.adapter.QuerySubmitter;
 import org.apache.isis.core.metamodel.adapter.QuerySubmitterAbstract;
 import org.apache.isis.core.metamodel.adapter.ServicesProvider;
@@ -177,6 +180,16 @@ public void makePersistent(final ObjectAdapter adapter) {
             public void remove(final ObjectAdapter adapter) {
                 getPersistenceSession().destroyObject(adapter);
             }
+
+            @Override
+            public <T> long removeAllMatchingQuery(final Query<T> query) {
+                return getPersistenceSession().removeAllInstances(query);
+            }
+
+            @Override
+            public <T> long updateAllMatchingQuery(final Query<T> query, final Map<String, Object> newValueByPropertyId) {
+                return getPersistenceSession().updateAllInstances(query, newValueByPropertyId);
+            }
         };
         this.servicesProvider = new ServicesProviderAbstract() {
             @Override
@@ -289,6 +302,22 @@ public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
                 final List<ObjectAdapter> list = CollectionFacetUtils.convertToAdapterList(instances);
                 return list.size() > 0 ? list.get(0) : null;
             }
+
+            @Override
+            public <T> List<ObjectAdapter> uniqueMatchingQuery(final Query<T> query) {
+                final ObjectAdapter instances = getPersistenceSession().findInstances(query, QueryCardinality.UNIQUE);
+                return CollectionFacetUtils.convertToAdapterList(instances);
+            }
+
+            @Override
+            public <T> long countMatchingQuery(final Query<T> query) {
+                return getPersistenceSession().countInstances(query);
+            }
+
+            @Override
+            public <T> void visitMatchingQuery(final Query<T> query, final QueryIterationPolicy policy, final QueryChunkVisitor visitor) {
+                getPersistenceSession().visitInstances(query, policy, visitor);
+            }
         };
         this.localizationProvider = new LocalizationProviderAbstract() {
 
@@ -30,6 +30,7 @@
 import org.apache.isis.applib.annotation.PublishedObject.ChangeKind;
 import org.apache.isis.applib.services.publish.EventMetadata;
 import org.apache.isis.applib.services.publish.EventPayload;
+import org.apache.isis.applib.services.publish.EventPayloadForBulkChange;
 import org.apache.isis.applib.services.publish.ObjectStringifier;
 import org.apache.isis.applib.services.publish.PublishingService;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
@@ -113,6 +114,17 @@ public void publishAction(
         publishingService.publish(metadata, payload);
     }
 
+    /**
+     * Bulk changes have no payload factory; the affected objects were never loaded.
+     */
+    public void publishBulkChange(
+            final EventMetadata metadata, 
+            final EventPayloadForBulkChange payload, 
+            final ObjectStringifier stringifier) {
+        payload.withStringifier(stringifier);
+        publishingService.publish(metadata, payload);
+    }
+
     private static List<ObjectAdapter> undeletedElseEmpty(List<ObjectAdapter> parameters) {
         return Lists.newArrayList(Iterables.transform(parameters, NOT_DESTROYED_ELSE_EMPTY));
     }
@@ -0,0 +1,126 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.proxy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.isis.core.commons.exceptions.IsisException;
+
+/**
+ * Caches the proxy (sub)classes generated for domain classes, so that each class is enhanced only once
+ * (rather than every time an object is wrapped or executed in the background); only the handler of the proxy
+ * instance is then specific to the object being proxied.
+ *
+ * <p>
+ * Proxy classes are keyed by the class being proxied (held weakly, so that the cache does not prevent the
+ * class - or its class loader - from being unloaded, eg on redeploy of a webapp), and then by the
+ * {@link ProxyClassFactory factory} and auxiliary interfaces used to create them.  The proxy classes themselves
+ * are held softly, and the number of proxied classes is bounded.
+ */
+public class ProxyClassCache {
+
+    /**
+     * Creates the proxy class, on a cache miss.
+     */
+    public interface ProxyClassFactory {
+        Class<?> createProxyClass(Class<?> toProxyClass, Class<?>... auxiliaryTypes);
+    }
+
+    public static final int MAX_PROXIED_CLASSES_DEFAULT = 1000;
+
+    private static final ProxyClassCache INSTANCE = new ProxyClassCache(MAX_PROXIED_CLASSES_DEFAULT);
+
+    /**
+     * The cache shared by the wrapper factories and the background service.
+     */
+    public static ProxyClassCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final Cache<Class<?>, ConcurrentMap<List<Object>, Class<?>>> proxyClassesByProxiedClass;
+
+    public ProxyClassCache(final int maxProxiedClasses) {
+        proxyClassesByProxiedClass = CacheBuilder.newBuilder()
+                .weakKeys()
+                .softValues()
+                .maximumSize(maxProxiedClasses)
+                .build();
+    }
+
+    /**
+     * Returns the cached proxy class for the class and auxiliary types, creating (and caching) it using the
+     * factory if necessary.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Class<T> proxyClassFor(
+            final Class<T> toProxyClass,
+            final ProxyClassFactory factory,
+            final Class<?>... auxiliaryTypes) {
+
+        final ConcurrentMap<List<Object>, Class<?>> proxyClassByKey = proxyClassesFor(toProxyClass);
+
+        final List<Object> key = Lists.newArrayList();
+        key.add(factory.getClass());
+        key.addAll(Arrays.asList(auxiliaryTypes));
+
+        Class<?> proxyClass = proxyClassByKey.get(key);
+        if(proxyClass == null) {
+            proxyClass = factory.createProxyClass(toProxyClass, auxiliaryTypes);
+            final Class<?> existing = proxyClassByKey.putIfAbsent(key, proxyClass);
+            if(existing != null) {
+                // created concurrently by another thread; use theirs (ours will be garbage collected)
+                proxyClass = existing;
+            }
+        }
+        return (Class<T>) proxyClass;
+    }
+
+    private ConcurrentMap<List<Object>, Class<?>> proxyClassesFor(final Class<?> toProxyClass) {
+        try {
+            return proxyClassesByProxiedClass.get(toProxyClass, new Callable<ConcurrentMap<List<Object>, Class<?>>>() {
+                @Override
+                public ConcurrentMap<List<Object>, Class<?>> call() {
+                    return Maps.newConcurrentMap();
+                }
+            });
+        } catch (final ExecutionException e) {
+            throw new IsisException(e.getCause());
+        }
+    }
+
+    /**
+     * Number of classes for which proxy classes are currently cached.
+     */
+    public long size() {
+        return proxyClassesByProxiedClass.size();
+    }
+
+    public void clear() {
+        proxyClassesByProxiedClass.invalidateAll();
+    }
+
+}
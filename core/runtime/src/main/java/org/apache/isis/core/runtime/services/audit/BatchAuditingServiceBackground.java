@@ -0,0 +1,301 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.audit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.common.collect.Lists;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.audit.AuditEntry;
+import org.apache.isis.applib.services.audit.AuditingService3;
+import org.apache.isis.applib.services.audit.BatchAuditingService;
+import org.apache.isis.core.runtime.sessiontemplate.AbstractIsisSessionTemplate;
+import org.apache.isis.core.runtime.system.internal.InitialisationSession;
+
+/**
+ * An implementation of {@link BatchAuditingService} that hands each transaction's audit entries to a background
+ * thread, which then passes them on to the registered {@link AuditingService3}.
+ *
+ * <p>
+ * The entries are held until the transaction commits (or discarded if it aborts), and only then queued, so that
+ * the changes of a transaction that is rolled back are never audited.  The request thread therefore only pays for
+ * capturing the entries, not for writing them.  The background thread
+ * combines the entries of consecutive transactions (up to a configurable batch size), and writes them within a
+ * single Isis session and transaction of its own, so that {@link AuditingService3} implementations that persist
+ * entities (eg <tt>AuditingServiceJdo</tt>) continue to work.  If the queue of pending batches fills up then
+ * committing threads block until there is room.  A batch that cannot be written is logged and dropped.
+ *
+ * <p>
+ * This service is opt-in: to use, register it alongside the {@link AuditingService3} implementation.  It is
+ * configured using:
+ * <ul>
+ * <li><tt>isis.services.audit.background.queueCapacity</tt> (number of transactions, default 1000)</li>
+ * <li><tt>isis.services.audit.background.batchSize</tt> (number of entries, default 500)</li>
+ * <li><tt>isis.services.audit.background.shutdownTimeoutMillis</tt> (default 10000)</li>
+ * </ul>
+ */
+public class BatchAuditingServiceBackground implements BatchAuditingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchAuditingServiceBackground.class);
+
+    //region > constants
+
+    private static final String KEY_PREFIX = "isis.services.audit.background.";
+
+    public static final String QUEUE_CAPACITY_KEY = KEY_PREFIX + "queueCapacity";
+    public static final int QUEUE_CAPACITY_DEFAULT = 1000;
+
+    public static final String BATCH_SIZE_KEY = KEY_PREFIX + "batchSize";
+    public static final int BATCH_SIZE_DEFAULT = 500;
+
+    public static final String SHUTDOWN_TIMEOUT_MILLIS_KEY = KEY_PREFIX + "shutdownTimeoutMillis";
+    public static final int SHUTDOWN_TIMEOUT_MILLIS_DEFAULT = 10000;
+
+    //endregion
+
+    /**
+     * Entries audited within the current thread's transaction, not yet committed.
+     */
+    private final ThreadLocal<List<AuditEntry>> pendingEntries = new ThreadLocal<List<AuditEntry>>() {
+        @Override
+        protected List<AuditEntry> initialValue() {
+            return Lists.newArrayList();
+        }
+    };
+
+    private AuditingService3 auditingService3;
+
+    private BlockingQueue<List<AuditEntry>> queue;
+    private int batchSize;
+    private long shutdownTimeoutMillis;
+
+    private Thread writer;
+    private volatile boolean shuttingDown;
+
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    //region > init, shutdown
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String,String> props) {
+        queue = new ArrayBlockingQueue<List<AuditEntry>>(intFrom(props, QUEUE_CAPACITY_KEY, QUEUE_CAPACITY_DEFAULT));
+        batchSize = intFrom(props, BATCH_SIZE_KEY, BATCH_SIZE_DEFAULT);
+        shutdownTimeoutMillis = intFrom(props, SHUTDOWN_TIMEOUT_MILLIS_KEY, SHUTDOWN_TIMEOUT_MILLIS_DEFAULT);
+
+        if(auditingService3 == null) {
+            LOG.warn("no AuditingService3 registered; audit entries will be discarded");
+        }
+
+        shuttingDown = false;
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeQueued();
+            }
+        }, "BatchAuditingServiceBackground-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting entries, and waits (up to the configured timeout) for those already queued to be written.
+     */
+    @Programmatic
+    @PreDestroy
+    public void shutdown() {
+        if(writer == null) {
+            return;
+        }
+        shuttingDown = true;
+        try {
+            writer.join(shutdownTimeoutMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if(writer.isAlive()) {
+            LOG.warn("timed out waiting for audit entries to be written; {} batch(es) unwritten", queue.size());
+            writer.interrupt();
+        }
+        writer = null;
+    }
+
+    private static int intFrom(final Map<String, String> props, final String key, final int defaultValue) {
+        final String value = props != null ? props.get(key) : null;
+        if(value == null) {
+            return defaultValue;
+        }
+        try {
+            final int intValue = Integer.parseInt(value.trim());
+            return intValue > 0 ? intValue : defaultValue;
+        } catch(final NumberFormatException ex) {
+            LOG.warn("invalid value for '{}': '{}'; using default of {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    //endregion
+
+    //region > audit
+
+    /**
+     * Holds onto the entries until the transaction has {@link #releasePendingEntries() committed}.
+     */
+    @Programmatic
+    @Override
+    public void audit(final List<AuditEntry> entries) {
+        pendingEntries.get().addAll(entries);
+    }
+
+    /**
+     * Called by the framework once the transaction within which entries were {@link #audit(List) audited} has
+     * committed, to queue them to be written.
+     *
+     * <p>
+     * Blocks if the queue is full.
+     */
+    @Programmatic
+    public void releasePendingEntries() {
+        final List<AuditEntry> entries = pendingEntries.get();
+        if(entries.isEmpty()) {
+            return;
+        }
+        pendingEntries.remove();
+        if(auditingService3 == null || queue == null || shuttingDown) {
+            failedCount.addAndGet(entries.size());
+            return;
+        }
+        try {
+            queue.put(entries);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("interrupted while queuing audit entries; {} entries discarded", entries.size());
+            failedCount.addAndGet(entries.size());
+        }
+    }
+
+    /**
+     * Called by the framework if the transaction within which entries were {@link #audit(List) audited} is aborted.
+     */
+    @Programmatic
+    public void discardPendingEntries() {
+        pendingEntries.remove();
+    }
+
+    //endregion
+
+    //region > write
+
+    private void writeQueued() {
+        try {
+            while(true) {
+                final List<AuditEntry> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if(first == null) {
+                    if(shuttingDown) {
+                        return;
+                    }
+                    continue;
+                }
+                final List<AuditEntry> batch = Lists.newArrayList(first);
+                List<AuditEntry> next;
+                while(batch.size() < batchSize && (next = queue.poll()) != null) {
+                    batch.addAll(next);
+                }
+                write(batch);
+            }
+        } catch (final InterruptedException e) {
+            // shutting down
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(final List<AuditEntry> batch) {
+        try {
+            writeInSession(batch);
+            writtenCount.addAndGet(batch.size());
+        } catch(final RuntimeException ex) {
+            failedCount.addAndGet(batch.size());
+            LOG.error("failed to write " + batch.size() + " audit entries; discarding: " + batch, ex);
+        }
+    }
+
+    /**
+     * Writes the entries within an Isis session and transaction; overridable for testing.
+     */
+    protected void writeInSession(final List<AuditEntry> batch) {
+        final BatchAuditingService delegate = new BatchAuditingService.Adapter(auditingService3);
+        new AbstractIsisSessionTemplate() {
+            @Override
+            protected void doExecuteWithTransaction(final Object context) {
+                delegate.audit(batch);
+            }
+        }.execute(new InitialisationSession(), null);
+    }
+
+    //endregion
+
+    //region > metrics
+
+    /**
+     * The number of transactions whose entries are queued and not yet being written.
+     */
+    @Programmatic
+    public int getQueueDepth() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    @Programmatic
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    @Programmatic
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    //endregion
+
+    //region > injected services
+
+    @Programmatic
+    public void setAuditingService3(final AuditingService3 auditingService3) {
+        this.auditingService3 = auditingService3;
+    }
+
+    @Programmatic
+    public AuditingService3 getAuditingService3() {
+        return auditingService3;
+    }
+
+    //endregion
+}
@@ -48,6 +48,7 @@
 import org.apache.isis.core.metamodel.specloader.classsubstitutor.JavassistEnhanced;
 import org.apache.isis.core.metamodel.specloader.specimpl.dflt.ObjectSpecificationDefault;
 import org.apache.isis.core.metamodel.facets.actions.action.invocation.CommandUtil;
+import org.apache.isis.core.runtime.proxy.ProxyClassCache;
 import org.apache.isis.core.runtime.services.memento.MementoServiceDefault;
 import org.apache.isis.core.runtime.system.context.IsisContext;
 
@@ -117,21 +118,9 @@ public <T> T execute(final T domainObject) {
     }
 
 
-    @SuppressWarnings("unchecked")
     private <T> T newProxy(Class<? extends Object> cls, MethodHandler methodHandler) {
-        final ProxyFactory proxyFactory = new ProxyFactory();
-        proxyFactory.setSuperclass(cls);
-        proxyFactory.setInterfaces(ArrayExtensions.combine(cls.getInterfaces(), new Class<?>[] { JavassistEnhanced.class }));
-
-        proxyFactory.setFilter(new MethodFilter() {
-            @Override
-            public boolean isHandled(final Method m) {
-                // ignore finalize()
-                return !m.getName().equals("finalize");
-            }
-        });
-
-        final Class<T> proxySubclass = proxyFactory.createClass();
+        @SuppressWarnings("unchecked")
+        final Class<T> proxySubclass = (Class<T>) ProxyClassCache.getInstance().proxyClassFor(cls, PROXY_CLASS_FACTORY, JavassistEnhanced.class);
         try {
             final T newInstance = proxySubclass.newInstance();
             final ProxyObject proxyObject = (ProxyObject) newInstance;
@@ -145,6 +134,25 @@ public boolean isHandled(final Method m) {
         }
     }
 
+    private static final ProxyClassCache.ProxyClassFactory PROXY_CLASS_FACTORY = new ProxyClassCache.ProxyClassFactory() {
+        @Override
+        public Class<?> createProxyClass(final Class<?> cls, final Class<?>... auxiliaryTypes) {
+            final ProxyFactory proxyFactory = new ProxyFactory();
+            proxyFactory.setSuperclass(cls);
+            proxyFactory.setInterfaces(ArrayExtensions.combine(cls.getInterfaces(), auxiliaryTypes));
+
+            proxyFactory.setFilter(new MethodFilter() {
+                @Override
+                public boolean isHandled(final Method m) {
+                    // ignore finalize()
+                    return !m.getName().equals("finalize");
+                }
+            });
+
+            return proxyFactory.createClass();
+        }
+    };
+
     private <T> MethodHandler newMethodHandler(final T domainObject) {
         return new MethodHandler() {
             @Override
@@ -0,0 +1,375 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.publish;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.common.collect.Lists;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.publish.EventMetadata;
+import org.apache.isis.applib.services.publish.EventPayload;
+import org.apache.isis.applib.services.publish.EventSerializer;
+import org.apache.isis.applib.services.publish.PublishingService;
+import org.apache.isis.applib.services.publish.SerializedEvent;
+import org.apache.isis.applib.services.publish.SerializedEventSink;
+
+/**
+ * An implementation of {@link PublishingService} that decouples the delivery of published events from the
+ * transaction within which they are published.
+ * 
+ * <p>
+ * Each event is {@link EventSerializer serialized} as it is published, and held until the transaction commits
+ * (or discarded if it aborts).  The events are then placed on a bounded queue, from which a single background 
+ * thread delivers them in batches to the registered {@link SerializedEventSink}.  A slow sink therefore no longer 
+ * adds to the time taken to commit, unless the queue fills up; committing threads then block until there is 
+ * room (back-pressure), rather than events being lost.
+ * 
+ * <p>
+ * Events are delivered in the order in which they were committed (and so also in order for any given target).  A 
+ * batch that the sink fails to deliver is retried, backing off between attempts; if every attempt fails then the 
+ * batch is logged and dropped.
+ * 
+ * <p>
+ * This service is opt-in: to use, register it (instead of any other {@link PublishingService}), along with an
+ * implementation of {@link SerializedEventSink} (for testing, {@link SerializedEventSink.InMemory} can be used).
+ * It is configured using:
+ * <ul>
+ * <li><tt>isis.services.publish.outbox.queueCapacity</tt> (default 10000)</li>
+ * <li><tt>isis.services.publish.outbox.batchSize</tt> (default 100)</li>
+ * <li><tt>isis.services.publish.outbox.maxAttempts</tt> (default 5)</li>
+ * <li><tt>isis.services.publish.outbox.retryIntervalMillis</tt> (default 500; doubles with each retry)</li>
+ * <li><tt>isis.services.publish.outbox.shutdownTimeoutMillis</tt> (default 10000)</li>
+ * </ul>
+ */
+public class PublishingServiceOutbox implements PublishingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PublishingServiceOutbox.class);
+
+    //region > constants
+
+    private static final String KEY_PREFIX = "isis.services.publish.outbox.";
+
+    public static final String QUEUE_CAPACITY_KEY = KEY_PREFIX + "queueCapacity";
+    public static final int QUEUE_CAPACITY_DEFAULT = 10000;
+
+    public static final String BATCH_SIZE_KEY = KEY_PREFIX + "batchSize";
+    public static final int BATCH_SIZE_DEFAULT = 100;
+
+    public static final String MAX_ATTEMPTS_KEY = KEY_PREFIX + "maxAttempts";
+    public static final int MAX_ATTEMPTS_DEFAULT = 5;
+
+    public static final String RETRY_INTERVAL_MILLIS_KEY = KEY_PREFIX + "retryIntervalMillis";
+    public static final int RETRY_INTERVAL_MILLIS_DEFAULT = 500;
+
+    public static final String SHUTDOWN_TIMEOUT_MILLIS_KEY = KEY_PREFIX + "shutdownTimeoutMillis";
+    public static final int SHUTDOWN_TIMEOUT_MILLIS_DEFAULT = 10000;
+
+    private static final long MAX_RETRY_INTERVAL_MILLIS = 60000L;
+
+    //endregion
+
+    private static class QueuedEvent {
+        private final SerializedEvent event;
+        private final long enqueuedAt;
+
+        QueuedEvent(final SerializedEvent event) {
+            this.event = event;
+            this.enqueuedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Events published within the current thread's transaction, not yet committed.
+     */
+    private final ThreadLocal<List<SerializedEvent>> pendingEvents = new ThreadLocal<List<SerializedEvent>>() {
+        @Override
+        protected List<SerializedEvent> initialValue() {
+            return Lists.newArrayList();
+        }
+    };
+
+    private EventSerializer eventSerializer = new EventSerializer.Simple();
+    private SerializedEventSink serializedEventSink;
+
+    private BlockingQueue<QueuedEvent> queue;
+    private int batchSize;
+    private int maxAttempts;
+    private long retryIntervalMillis;
+    private long shutdownTimeoutMillis;
+
+    private Thread dispatcher;
+    private volatile boolean shuttingDown;
+
+    /**
+     * When the oldest event in the batch currently being delivered was enqueued, or 0 if none.
+     */
+    private volatile long inFlightEnqueuedAt;
+
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+
+    //region > init, shutdown
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String,String> props) {
+        queue = new ArrayBlockingQueue<QueuedEvent>(intFrom(props, QUEUE_CAPACITY_KEY, QUEUE_CAPACITY_DEFAULT));
+        batchSize = intFrom(props, BATCH_SIZE_KEY, BATCH_SIZE_DEFAULT);
+        maxAttempts = intFrom(props, MAX_ATTEMPTS_KEY, MAX_ATTEMPTS_DEFAULT);
+        retryIntervalMillis = intFrom(props, RETRY_INTERVAL_MILLIS_KEY, RETRY_INTERVAL_MILLIS_DEFAULT);
+        shutdownTimeoutMillis = intFrom(props, SHUTDOWN_TIMEOUT_MILLIS_KEY, SHUTDOWN_TIMEOUT_MILLIS_DEFAULT);
+
+        if(serializedEventSink == null) {
+            LOG.warn("no SerializedEventSink registered; published events will be discarded");
+        }
+
+        shuttingDown = false;
+        dispatcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatch();
+            }
+        }, "PublishingServiceOutbox-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Stops accepting events, and waits (up to the configured timeout) for those already queued to be delivered.
+     */
+    @Programmatic
+    @PreDestroy
+    public void shutdown() {
+        if(dispatcher == null) {
+            return;
+        }
+        shuttingDown = true;
+        try {
+            dispatcher.join(shutdownTimeoutMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if(dispatcher.isAlive()) {
+            LOG.warn("timed out waiting for events to be delivered; {} event(s) undelivered", queue.size());
+            dispatcher.interrupt();
+        }
+        dispatcher = null;
+    }
+
+    private static int intFrom(final Map<String, String> props, final String key, final int defaultValue) {
+        final String value = props != null ? props.get(key) : null;
+        if(value == null) {
+            return defaultValue;
+        }
+        try {
+            final int intValue = Integer.parseInt(value.trim());
+            return intValue > 0 ? intValue : defaultValue;
+        } catch(final NumberFormatException ex) {
+            LOG.warn("invalid value for '{}': '{}'; using default of {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    //endregion
+
+    //region > publish
+
+    /**
+     * Serializes the event, holding onto it until the transaction has {@link #releasePendingEvents() committed}.
+     */
+    @Programmatic
+    @Override
+    public void publish(final EventMetadata metadata, final EventPayload payload) {
+        final Object serializedForm = eventSerializer.serialize(metadata, payload);
+        pendingEvents.get().add(new SerializedEvent(metadata, serializedForm));
+    }
+
+    /**
+     * Called by the framework once the transaction within which events were {@link #publish(EventMetadata, EventPayload) published}
+     * has committed, to queue them for delivery.
+     * 
+     * <p>
+     * Blocks if the queue is full.
+     */
+    @Programmatic
+    public void releasePendingEvents() {
+        final List<SerializedEvent> events = pendingEvents.get();
+        if(events.isEmpty()) {
+            return;
+        }
+        pendingEvents.remove();
+        if(serializedEventSink == null || queue == null) {
+            failedCount.addAndGet(events.size());
+            return;
+        }
+        if(shuttingDown) {
+            LOG.warn("shutting down; {} event(s) discarded", events.size());
+            failedCount.addAndGet(events.size());
+            return;
+        }
+        int queued = 0;
+        try {
+            for (final SerializedEvent event : events) {
+                queue.put(new QueuedEvent(event));
+                queued++;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("interrupted while queuing published events; {} event(s) discarded", events.size() - queued);
+            failedCount.addAndGet(events.size() - queued);
+        }
+    }
+
+    /**
+     * Called by the framework if the transaction within which events were {@link #publish(EventMetadata, EventPayload) published}
+     * is aborted.
+     */
+    @Programmatic
+    public void discardPendingEvents() {
+        pendingEvents.remove();
+    }
+
+    //endregion
+
+    //region > dispatch
+
+    private void dispatch() {
+        try {
+            while(true) {
+                final QueuedEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if(first == null) {
+                    if(shuttingDown) {
+                        return;
+                    }
+                    continue;
+                }
+                final List<QueuedEvent> batch = Lists.newArrayList(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            }
+        } catch (final InterruptedException e) {
+            // shutting down
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deliver(final List<QueuedEvent> batch) throws InterruptedException {
+        final List<SerializedEvent> events = Lists.newArrayListWithCapacity(batch.size());
+        for (final QueuedEvent queuedEvent : batch) {
+            events.add(queuedEvent.event);
+        }
+        inFlightEnqueuedAt = batch.get(0).enqueuedAt;
+        try {
+            long intervalMillis = retryIntervalMillis;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    serializedEventSink.deliver(events);
+                    deliveredCount.addAndGet(events.size());
+                    return;
+                } catch(final RuntimeException ex) {
+                    if(attempt >= maxAttempts) {
+                        failedCount.addAndGet(events.size());
+                        LOG.error("failed to deliver " + events.size() + " event(s) after " + attempt + " attempts; discarding: " + events, ex);
+                        return;
+                    }
+                    retryCount.incrementAndGet();
+                    LOG.warn("failed to deliver " + events.size() + " event(s) (attempt " + attempt + "); will retry in " + intervalMillis + "ms", ex);
+                    Thread.sleep(intervalMillis);
+                    intervalMillis = Math.min(intervalMillis * 2, MAX_RETRY_INTERVAL_MILLIS);
+                }
+            }
+        } finally {
+            inFlightEnqueuedAt = 0;
+        }
+    }
+
+    //endregion
+
+    //region > metrics
+
+    /**
+     * The number of events queued and not yet being delivered.
+     */
+    @Programmatic
+    public int getQueueDepth() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * How long ago the oldest undelivered event was queued, in milliseconds (or 0 if all have been delivered).
+     */
+    @Programmatic
+    public long getLagMillis() {
+        long oldest = inFlightEnqueuedAt;
+        if(oldest == 0 && queue != null) {
+            final QueuedEvent head = queue.peek();
+            oldest = head != null ? head.enqueuedAt : 0;
+        }
+        return oldest != 0 ? Math.max(0, System.currentTimeMillis() - oldest) : 0;
+    }
+
+    @Programmatic
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    /**
+     * The number of events discarded, either because they could not be delivered, or because there was no 
+     * {@link SerializedEventSink} to deliver them to.
+     */
+    @Programmatic
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @Programmatic
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    //endregion
+
+    //region > injected services
+
+    @Programmatic
+    @Override
+    public void setEventSerializer(final EventSerializer eventSerializer) {
+        this.eventSerializer = eventSerializer;
+    }
+
+    @Programmatic
+    public void setSerializedEventSink(final SerializedEventSink serializedEventSink) {
+        this.serializedEventSink = serializedEventSink;
+    }
+
+    //endregion
+}
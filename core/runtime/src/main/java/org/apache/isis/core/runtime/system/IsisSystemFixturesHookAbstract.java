@@ -25,6 +25,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.isis.applib.fixtures.LogonFixture;
+import org.apache.isis.applib.services.classdiscovery.ClasspathScan;
 import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.commons.debug.DebugBuilder;
 import org.apache.isis.core.commons.debug.DebuggableWithTitle;
@@ -121,6 +122,10 @@ public void init() {
 
             serviceInitializer = initializeServices();
 
+            // the types registered by the object store when the first session was opened (eg JDO entities)
+            // have now also been loaded
+            sessionFactory.getSpecificationLoader().bootstrapped();
+
             installFixturesIfRequired();
 
         } catch (final IsisSystemException ex) {
@@ -172,6 +177,9 @@ public void shutdown() {
         shutdownServices(this.serviceInitializer);
         
         IsisContext.closeAllSessions();
+
+        // the scans of the classpath are no longer required (and would otherwise outlive the system)
+        ClasspathScan.clear();
     }
 
     /**
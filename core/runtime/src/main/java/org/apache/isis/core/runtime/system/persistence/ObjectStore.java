@@ -20,6 +20,7 @@
 package org.apache.isis.core.runtime.system.persistence;
 
 import java.util.List;
+import java.util.Map;
 import org.apache.isis.core.commons.components.SessionScopedComponent;
 import org.apache.isis.core.commons.debug.DebuggableWithTitle;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
@@ -114,6 +115,60 @@ public interface ObjectStore extends TransactionalResource, DebuggableWithTitle,
 
     boolean hasInstances(ObjectSpecification specification);
 
+    /**
+     * Returns the number of instances matching the {@link PersistenceQuery} (which will
+     * have no range), without loading them if possible.
+     */
+    long countInstances(PersistenceQuery persistenceQuery);
+
+    /**
+     * Deletes all instances matching the {@link PersistenceQuery} (which will have no range)
+     * in a single set-based operation, without loading them.
+     *
+     * <p>
+     * No {@link PersistenceCommand}s are created, and no lifecycle callbacks are expected to fire.
+     *
+     * @return the number of instances deleted.
+     * @throws org.apache.isis.core.runtime.persistence.UnsupportedFindException
+     *             if not supported for this type of query.
+     */
+    long deleteInstances(PersistenceQuery persistenceQuery);
+
+    /**
+     * As {@link #deleteInstances(PersistenceQuery)}, but setting the specified properties
+     * of the matching instances.
+     *
+     * @param newValueAdapterByPropertyId - new values (<tt>null</tt> to clear), keyed by property id.
+     * @return the number of instances updated.
+     */
+    long updateInstances(PersistenceQuery persistenceQuery, Map<String, ObjectAdapter> newValueAdapterByPropertyId);
+
+    /**
+     * Evicts the provided (previously {@link #loadInstancesAndAdapt(PersistenceQuery) loaded}) instances
+     * from any cache maintained by the object store, so that the memory they use can be reclaimed.
+     *
+     * <p>
+     * Only those instances that can safely be reloaded later (that is, persistent and unmodified within the
+     * current transaction) should be evicted.
+     *
+     * @return the adapters of the instances actually evicted; the caller is expected to then remove these
+     *         adapters from the adapter manager.
+     */
+    List<ObjectAdapter> evictInstances(List<ObjectAdapter> adapters);
+
+    /**
+     * As {@link #evictInstances(List)}, but for instances whose persisted state may just have been changed by a
+     * {@link #deleteInstances(PersistenceQuery) bulk delete} or {@link #updateInstances(PersistenceQuery, Map) update}.
+     *
+     * <p>
+     * The caller flushes the current transaction beforehand, so instances modified within it must also be
+     * evicted (or otherwise discarded): their in-memory state can no longer be trusted.
+     *
+     * @return the adapters of the instances evicted; the caller is expected to then remove these
+     *         adapters from the adapter manager.
+     */
+    List<ObjectAdapter> evictChangedInstances(List<ObjectAdapter> adapters);
+
     // ///////////////////////////////////////////////////////
     // loadInstanceAndAdapt
     // ///////////////////////////////////////////////////////
@@ -49,32 +49,46 @@ public class PersistenceQueryFactory {
     /**
      * Converts the {@link org.apache.isis.applib.query.Query applib representation of a query} into the
      * {@link PersistenceQuery NOF-internal representation}.
+     *
+     * <p>
+     * The range of the resultant query is narrowed according to the {@link QueryCardinality}, so that the
+     * object store fetches (and adapts) no more rows than are required.
      */
     final PersistenceQuery createPersistenceQueryFor(final Query<?> query, final QueryCardinality cardinality) {
+        return createPersistenceQueryFor(query, cardinality, query.getStart(), cardinality.narrow(query.getCount()));
+    }
+
+    /**
+     * As {@link #createPersistenceQueryFor(Query, QueryCardinality)}, but with the range (start and count) of
+     * the resultant query provided explicitly, overriding that of the applib query.
+     *
+     * <p>
+     * Used to fetch the results of a query a chunk at a time.
+     */
+    final PersistenceQuery createPersistenceQueryFor(final Query<?> query, final QueryCardinality cardinality, final long start, final long count) {
         if (LOG.isDebugEnabled()) {
             LOG.debug("createPersistenceQueryFor: " + query.getDescription());
         }
         final ObjectSpecification noSpec = specFor(query);
         if (query instanceof QueryFindAllInstances) {
-            final QueryFindAllInstances<?> queryFindAllInstances = (QueryFindAllInstances<?>) query;
-            return new PersistenceQueryFindAllInstances(noSpec, queryFindAllInstances.getStart(), queryFindAllInstances.getCount());
+            return new PersistenceQueryFindAllInstances(noSpec, start, count);
         }
         if (query instanceof QueryFindByTitle) {
             final QueryFindByTitle<?> queryByTitle = (QueryFindByTitle<?>) query;
             final String title = queryByTitle.getTitle();
-            return new PersistenceQueryFindByTitle(noSpec, title, queryByTitle.getStart(), queryByTitle.getCount());
+            return new PersistenceQueryFindByTitle(noSpec, title, start, count);
         }
         if (query instanceof QueryFindByPattern) {
             final QueryFindByPattern<?> queryByPattern = (QueryFindByPattern<?>) query;
             final Object pattern = queryByPattern.getPattern();
             final ObjectAdapter patternAdapter = adapterManager.adapterFor(pattern);
-            return new PersistenceQueryFindByPattern(noSpec, patternAdapter, queryByPattern.getStart(), queryByPattern.getCount());
+            return new PersistenceQueryFindByPattern(noSpec, patternAdapter, start, count);
         }
         if (query instanceof QueryDefault) {
             final QueryDefault<?> queryDefault = (QueryDefault<?>) query;
             final String queryName = queryDefault.getQueryName();
             final Map<String, ObjectAdapter> argumentsAdaptersByParameterName = wrap(queryDefault.getArgumentsByParameterName());
-            return new PersistenceQueryFindUsingApplibQueryDefault(noSpec, queryName, argumentsAdaptersByParameterName, cardinality, queryDefault.getStart(), queryDefault.getCount());
+            return new PersistenceQueryFindUsingApplibQueryDefault(noSpec, queryName, argumentsAdaptersByParameterName, cardinality, start, count);
         }
         // fallback; generic serializable applib query.
         return new PersistenceQueryFindUsingApplibQuerySerializable(noSpec, query, cardinality);
@@ -18,13 +18,18 @@
  */
 package org.apache.isis.core.runtime.system.persistence;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.isis.applib.annotation.PublishedObject.ChangeKind;
 import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryIterationPolicy;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.components.ApplicationScopedComponent;
 import org.apache.isis.core.commons.components.SessionScopedComponent;
@@ -35,6 +40,7 @@
 import org.apache.isis.core.commons.util.ToString;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapterFactory;
+import org.apache.isis.core.metamodel.adapter.QueryChunkVisitor;
 import org.apache.isis.core.metamodel.adapter.ResolveState;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.adapter.oid.Oid;
@@ -46,17 +52,23 @@
 import org.apache.isis.core.metamodel.services.ServicesInjectorSpi;
 import org.apache.isis.core.metamodel.services.container.query.QueryCardinality;
 import org.apache.isis.core.metamodel.spec.*;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.runtime.persistence.FixturesInstalledFlag;
 import org.apache.isis.core.runtime.persistence.NotPersistableException;
+import org.apache.isis.core.runtime.persistence.PersistenceConstants;
+import org.apache.isis.core.runtime.persistence.UnsupportedFindException;
 import org.apache.isis.core.runtime.persistence.adapter.PojoAdapterFactory;
 import org.apache.isis.core.runtime.persistence.adaptermanager.AdapterManagerDefault;
 import org.apache.isis.core.runtime.persistence.adaptermanager.PojoRecreatorUnified;
 import org.apache.isis.core.runtime.persistence.objectstore.algorithm.PersistAlgorithm;
 import org.apache.isis.core.runtime.persistence.objectstore.algorithm.PersistAlgorithmUnified;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindUsingApplibQuerySerializable;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.CreateObjectCommand;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.DestroyObjectCommand;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.SaveObjectCommand;
 import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
 import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
 import org.apache.isis.core.runtime.system.transaction.TransactionalClosureAbstract;
 import org.apache.isis.core.runtime.system.transaction.TransactionalClosureWithReturnAbstract;
@@ -82,6 +94,7 @@ public class PersistenceSession implements SessionScopedComponent, DebuggableWit
     private final Map<ObjectSpecId, RootOid> servicesByObjectType = Maps.newHashMap();
 
     private final PersistenceQueryFactory persistenceQueryFactory;
+    private final int queryChunkSize;
 
     private IsisTransactionManager transactionManager;
 
@@ -117,11 +130,13 @@ public PersistenceSession(
 
         this.objectAdapterFactory = new PojoAdapterFactory();
         this.oidGenerator = new OidGenerator(new IdentifierGeneratorUnified(configuration));
-        this.adapterManager = new AdapterManagerDefault(new PojoRecreatorUnified(configuration));
+        this.adapterManager = createAdapterManager(configuration);
         this.persistAlgorithm = new PersistAlgorithmUnified(configuration);
         this.objectStore = objectStore;
 
         this.persistenceQueryFactory = new PersistenceQueryFactory(getSpecificationLoader(), adapterManager);
+        final int configuredQueryChunkSize = configuration.getInteger(PersistenceConstants.QUERY_CHUNK_SIZE, PersistenceConstants.QUERY_CHUNK_SIZE_DEFAULT);
+        this.queryChunkSize = configuredQueryChunkSize > 0 ? configuredQueryChunkSize : PersistenceConstants.QUERY_CHUNK_SIZE_DEFAULT;
         this.transactionManager = new IsisTransactionManager(this, objectStore, servicesInjector);
 
         setState(State.NOT_INITIALIZED);
@@ -132,6 +147,14 @@ public PersistenceSession(
 
     }
 
+    /**
+     * Hook, called from the constructor; tests override to provide an adapter manager whose
+     * collaborators are not looked up from the {@link IsisContext}.
+     */
+    protected AdapterManagerDefault createAdapterManager(final IsisConfiguration configuration) {
+        return new AdapterManagerDefault(new PojoRecreatorUnified(configuration));
+    }
+
     // ///////////////////////////////////////////////////////////////////////////
     // PersistenceSessionFactory
     // ///////////////////////////////////////////////////////////////////////////
@@ -397,6 +420,258 @@ public ObjectAdapter findInstances(final PersistenceQuery persistenceQuery) {
         return getAdapterManager().adapterFor(results);
     }
 
+    /**
+     * Counts the instances that match the specified query, ignoring any range
+     * that the query may specify.
+     *
+     * <p>
+     * Object stores are expected to do this without loading the instances
+     * where possible.
+     */
+    public <T> long countInstances(final Query<T> query) {
+        final PersistenceQuery persistenceQuery = persistenceQueryFactory.createPersistenceQueryFor(query, QueryCardinality.MULTIPLE, 0, 0);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("countInstances matching " + persistenceQuery);
+        }
+        return getTransactionManager().executeWithinTransaction(new TransactionalClosureWithReturnAbstract<Long>() {
+            @Override
+            public Long execute() {
+                return objectStore.countInstances(persistenceQuery);
+            }
+        });
+    }
+
+    /**
+     * Fetches the instances matching the specified query a chunk at a time
+     * (as per the {@link QueryIterationPolicy#getChunkSize() policy}, else
+     * {@link PersistenceConstants#QUERY_CHUNK_SIZE}), passing each chunk to the
+     * {@link QueryChunkVisitor visitor} until either it is
+     * {@link QueryChunkVisitor#isComplete() complete} or the matching instances are exhausted.
+     *
+     * <p>
+     * Any range of the query itself is honoured.  After each chunk has been visited, those
+     * instances that were loaded by the chunk (rather than already being in use) and not retained
+     * by the visitor are {@link ObjectStore#evictInstances(List) evicted}
+     * from the object store and their adapters removed from the {@link AdapterManagerDefault adapter manager},
+     * so that memory use is bounded by the chunk size.
+     *
+     * <p>
+     * By default, all chunks are visited within the current transaction (if any); if required by
+     * the policy, pending changes are {@link IsisTransactionManager#flushTransaction() flushed}
+     * before the chunk's instances are released.  Only unmodified instances can be released, so
+     * if the visitor modifies the instances then they remain in memory until that transaction completes.
+     *
+     * <p>
+     * Alternatively, the policy may {@link QueryIterationPolicy#isCommitPerChunk() opt in} to each chunk
+     * being fetched and visited in a transaction of its own, committed before the chunk is released.  This is
+     * only possible if no transaction is already in progress (for example, not from within an action), since
+     * otherwise that transaction would be committed part way through; an {@link IllegalStateException} is
+     * thrown if one is.
+     *
+     * <p>
+     * Chunks are fetched using successive ranges.  Where the query defines no ordering of its own,
+     * the JDO object store orders ranged queries by primary key (or datastore id) so that no instance is
+     * skipped or repeated; a query that does define an ordering should make it a total one.
+     */
+    public <T> void visitInstances(final Query<T> query, final QueryIterationPolicy policy, final QueryChunkVisitor visitor) {
+        final IsisTransactionManager transactionManager = getTransactionManager();
+        if (policy.isCommitPerChunk() && transactionManager.inTransaction()) {
+            throw new IllegalStateException("Cannot commit per chunk while a transaction is already in progress (eg within an action): " + query.getDescription());
+        }
+        final int chunkSize = policy.getChunkSize() > 0 ? policy.getChunkSize() : queryChunkSize;
+        long start = query.getStart();
+        long remaining = query.getCount(); // 0 means unbounded
+        while (true) {
+            final long count = remaining == 0 ? chunkSize : Math.min(remaining, chunkSize);
+            final PersistenceQuery persistenceQuery = persistenceQueryFactory.createPersistenceQueryFor(query, QueryCardinality.MULTIPLE, start, count);
+            if (persistenceQuery instanceof PersistenceQueryFindUsingApplibQuerySerializable) {
+                // has no range of its own, so each chunk would be the entire result
+                throw new UnsupportedFindException("Cannot iterate in chunks over query: " + query.getDescription());
+            }
+            if (policy.isCommitPerChunk()) {
+                transactionManager.startTransaction();
+            }
+            final Set<ObjectAdapter> newlyMapped = adapterManager.startRecordingNewlyMappedRootAdapters();
+            final List<ObjectAdapter> chunk;
+            final List<ObjectAdapter> retained;
+            try {
+                try {
+                    chunk = getInstances(persistenceQuery);
+                } finally {
+                    adapterManager.stopRecordingNewlyMappedRootAdapters(newlyMapped);
+                }
+                retained = visitor.visit(Collections.unmodifiableList(chunk));
+                completeChunk(policy);
+            } catch (final RuntimeException ex) {
+                if (policy.isCommitPerChunk() && transactionManager.inTransaction()) {
+                    transactionManager.abortTransaction();
+                }
+                throw ex;
+            }
+            releaseInstances(chunk, newlyMapped, retained);
+
+            if (visitor.isComplete() || chunk.size() < count) {
+                return;
+            }
+            start += chunk.size();
+            if (remaining != 0) {
+                remaining -= chunk.size();
+                if (remaining == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Commits the chunk's own transaction (if {@link QueryIterationPolicy#isCommitPerChunk() committing per chunk}),
+     * else flushes the current transaction (if {@link QueryIterationPolicy#isFlushPerChunk() flushing per chunk});
+     * a transaction that was in progress before the iteration began is never completed here.
+     */
+    private void completeChunk(final QueryIterationPolicy policy) {
+        final IsisTransactionManager transactionManager = getTransactionManager();
+        if (policy.isCommitPerChunk()) {
+            transactionManager.endTransaction();
+        } else if (policy.isFlushPerChunk() && transactionManager.inTransaction()) {
+            transactionManager.flushTransaction();
+        }
+    }
+
+    /**
+     * Only those adapters first mapped by fetching the chunk are released; any that were already
+     * in use (for example, referenced by the caller before the iteration began) are left alone.
+     */
+    private void releaseInstances(final List<ObjectAdapter> chunk, final Set<ObjectAdapter> newlyMapped, final List<ObjectAdapter> retained) {
+        final Set<ObjectAdapter> retainedSet = Sets.newIdentityHashSet();
+        if (retained != null) {
+            retainedSet.addAll(retained);
+        }
+        final List<ObjectAdapter> releasable = Lists.newArrayList();
+        for (final ObjectAdapter adapter : chunk) {
+            if (newlyMapped.contains(adapter) && !retainedSet.contains(adapter)) {
+                releasable.add(adapter);
+            }
+        }
+        if (releasable.isEmpty()) {
+            return;
+        }
+        final List<ObjectAdapter> evicted = objectStore.evictInstances(releasable);
+        for (final ObjectAdapter adapter : evicted) {
+            adapterManager.removeRootAdapterAndCollectionAdapters(adapter);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("released " + evicted.size() + " of " + chunk.size() + " instances");
+        }
+    }
+
+    // ///////////////////////////////////////////////////////////////////////////
+    // removeAllInstances, updateAllInstances
+    // ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Deletes all instances matching the specified query (ignoring any range) in a
+     * single set-based operation, without loading them.
+     *
+     * <p>
+     * Any changes pending in the current transaction are flushed first, so that the
+     * bulk statement sees them.  The adapters of any affected instances already in memory are discarded (see
+     * {@link #evictAdaptersOfType(ObjectSpecification)}), and the change is
+     * {@link IsisTransaction#enlistBulkChange(ObjectSpecification, ChangeKind, String, long, Map) enlisted}
+     * in the current transaction so that it is audited and published as a whole.
+     *
+     * @return the number of instances deleted.
+     */
+    public <T> long removeAllInstances(final Query<T> query) {
+        return changeAllInstances(query, ChangeKind.DELETE, Collections.<String, Object>emptyMap());
+    }
+
+    /**
+     * As {@link #removeAllInstances(Query)}, but updating the specified persisted
+     * properties of the matching instances rather than deleting them.
+     *
+     * @return the number of instances updated.
+     */
+    public <T> long updateAllInstances(final Query<T> query, final Map<String, Object> newValueByPropertyId) {
+        if (newValueByPropertyId.isEmpty()) {
+            throw new IllegalArgumentException("No properties to update were specified");
+        }
+        return changeAllInstances(query, ChangeKind.UPDATE, newValueByPropertyId);
+    }
+
+    private <T> long changeAllInstances(final Query<T> query, final ChangeKind changeKind, final Map<String, Object> newValueByPropertyId) {
+        final PersistenceQuery persistenceQuery = persistenceQueryFactory.createPersistenceQueryFor(query, QueryCardinality.MULTIPLE, 0, 0);
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+        final Map<String, ObjectAdapter> newValueAdapterByPropertyId = newValueAdaptersFor(specification, newValueByPropertyId);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("bulk " + changeKind + " of instances matching " + persistenceQuery);
+        }
+        return getTransactionManager().executeWithinTransaction(new TransactionalClosureWithReturnAbstract<Long>() {
+            @Override
+            public Long execute() {
+                // the bulk statement runs in the datastore, so must not overtake the xactn's queued commands
+                getTransactionManager().flushTransaction();
+                final long count = changeKind == ChangeKind.DELETE
+                        ? objectStore.deleteInstances(persistenceQuery)
+                        : objectStore.updateInstances(persistenceQuery, newValueAdapterByPropertyId);
+                evictAdaptersOfType(specification);
+                getTransactionManager().getTransaction().enlistBulkChange(
+                        specification, changeKind, query.getDescription(), count, newValueAdapterByPropertyId);
+                return count;
+            }
+        });
+    }
+
+    private Map<String, ObjectAdapter> newValueAdaptersFor(final ObjectSpecification specification, final Map<String, Object> newValueByPropertyId) {
+        final Map<String, ObjectAdapter> newValueAdapterByPropertyId = Maps.newLinkedHashMap();
+        for (final Map.Entry<String, Object> entry : newValueByPropertyId.entrySet()) {
+            final String propertyId = entry.getKey();
+            final ObjectAssociation property = persistedPropertyFor(specification, propertyId);
+            if (property == null) {
+                throw new IllegalArgumentException("No persisted property '" + propertyId + "' for " + specification.getFullIdentifier());
+            }
+            final Object newValue = entry.getValue();
+            newValueAdapterByPropertyId.put(propertyId, newValue != null ? adapterManager.adapterFor(newValue) : null);
+        }
+        return newValueAdapterByPropertyId;
+    }
+
+    private static ObjectAssociation persistedPropertyFor(final ObjectSpecification specification, final String propertyId) {
+        for (final ObjectAssociation property : specification.getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES)) {
+            if (property.getId().equals(propertyId)) {
+                return property.isNotPersisted() ? null : property;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Evicts from the object store (and removes the adapters of) those root instances of the
+     * specified type (or its subtypes) that are currently mapped, so that they are reloaded if
+     * accessed again; used after a bulk change, whose effect on in-memory instances is unknown.
+     *
+     * <p>
+     * Instances modified earlier in the same transaction are discarded too (see
+     * {@link ObjectStore#evictChangedInstances(List)}); the transaction is flushed before the bulk change.
+     */
+    protected void evictAdaptersOfType(final ObjectSpecification specification) {
+        final List<ObjectAdapter> adaptersOfType = Lists.newArrayList();
+        for (final ObjectAdapter adapter : adapterManager) {
+            if (adapter.getOid() instanceof RootOid && adapter.representsPersistent() && adapter.getSpecification().isOfType(specification)) {
+                adaptersOfType.add(adapter);
+            }
+        }
+        if (adaptersOfType.isEmpty()) {
+            return;
+        }
+        final List<ObjectAdapter> evicted = objectStore.evictChangedInstances(adaptersOfType);
+        for (final ObjectAdapter adapter : evicted) {
+            adapterManager.removeRootAdapterAndCollectionAdapters(adapter);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("evicted " + evicted.size() + " of " + adaptersOfType.size() + " instances of " + specification.getFullIdentifier());
+        }
+    }
+
     /**
      * Converts the {@link Query applib representation of a query} into the
      * {@link PersistenceQuery NOF-internal representation}.
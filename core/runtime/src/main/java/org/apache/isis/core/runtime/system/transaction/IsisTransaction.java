@@ -27,6 +27,7 @@
 import java.util.Set;
 import java.util.UUID;
 import com.google.common.base.Function;
+import com.google.common.base.Joiner;
 import com.google.common.base.Objects;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
@@ -44,7 +45,9 @@
 import org.apache.isis.applib.annotation.PublishedObject.ChangeKind;
 import org.apache.isis.applib.clock.Clock;
 import org.apache.isis.applib.services.actinvoc.ActionInvocationContext;
+import org.apache.isis.applib.services.audit.AuditEntry;
 import org.apache.isis.applib.services.audit.AuditingService3;
+import org.apache.isis.applib.services.audit.BatchAuditingService;
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.applib.services.command.Command;
 import org.apache.isis.applib.services.command.Command2;
@@ -55,11 +58,13 @@
 import org.apache.isis.applib.services.publish.EventMetadata;
 import org.apache.isis.applib.services.publish.EventPayload;
 import org.apache.isis.applib.services.publish.EventPayloadForActionInvocation;
+import org.apache.isis.applib.services.publish.EventPayloadForBulkChange;
 import org.apache.isis.applib.services.publish.EventPayloadForObjectChanged;
 import org.apache.isis.applib.services.publish.EventSerializer;
 import org.apache.isis.applib.services.publish.EventType;
 import org.apache.isis.applib.services.publish.ObjectStringifier;
 import org.apache.isis.applib.services.publish.PublishingService;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCacheApplicationScoped;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.authentication.MessageBroker;
 import org.apache.isis.core.commons.components.TransactionScopedComponent;
@@ -83,6 +88,7 @@
 import org.apache.isis.core.metamodel.facets.object.publishedobject.PublishedObjectFacet;
 import org.apache.isis.core.metamodel.runtimecontext.RuntimeContext.TransactionState;
 import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.feature.Contributed;
 import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.runtime.persistence.ObjectPersistenceException;
@@ -93,6 +99,8 @@
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.PublishingServiceWithDefaultPayloadFactories;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.SaveObjectCommand;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.TransactionalResource;
+import org.apache.isis.core.runtime.services.audit.BatchAuditingServiceBackground;
+import org.apache.isis.core.runtime.services.publish.PublishingServiceOutbox;
 import org.apache.isis.core.runtime.system.context.IsisContext;
 
 import static org.apache.isis.core.commons.ensure.Ensure.ensureThatArg;
@@ -232,7 +240,7 @@ public TransactionState getRuntimeContextState() {
     private static final Logger LOG = LoggerFactory.getLogger(IsisTransaction.class);
 
     private final TransactionalResource objectStore;
-    private final List<PersistenceCommand> commands = Lists.newArrayList();
+    private final PersistenceCommandQueue commands = new PersistenceCommandQueue();
     private final IsisTransactionManager transactionManager;
     private final MessageBroker messageBroker;
 
@@ -250,11 +258,26 @@ public TransactionState getRuntimeContextState() {
     /**
      * could be null if none has been registered.
      */
-    private final AuditingService3 auditingService3;
+    private final BatchAuditingService auditingService;
+    /**
+     * Set only if the registered {@link BatchAuditingService} is the {@link BatchAuditingServiceBackground}, in which
+     * case any entries audited are released to it on {@link #commit()} or discarded on {@link #markAsAborted()}.
+     */
+    private final BatchAuditingServiceBackground auditingServiceBackground;
     /**
      * could be null if none has been registered
      */
     private final PublishingServiceWithDefaultPayloadFactories publishingService;
+    /**
+     * Set only if the registered {@link PublishingService} is the {@link PublishingServiceOutbox}, in which case
+     * any events published are released to it on {@link #commit()} or discarded on {@link #markAsAborted()}.
+     */
+    private final PublishingServiceOutbox publishingServiceOutbox;
+    /**
+     * could be null if not registered; if present, then any results depending on the types of objects changed
+     * in this transaction are invalidated on {@link #commit()}.
+     */
+    private final QueryResultsCacheApplicationScoped queryResultsCache;
 
     /**
      * Will be that of the {@link #command} if not <tt>null</tt>, otherwise will be randomly created.
@@ -264,6 +287,12 @@ public TransactionState getRuntimeContextState() {
     private State state;
     private IsisException abortCause;
 
+    private final boolean readOnly;
+    /**
+     * See {@link #isPropertyCaptureRequired()}.
+     */
+    private final boolean propertyCaptureRequired;
+
 
 
 
@@ -272,6 +301,18 @@ public IsisTransaction(
             final MessageBroker messageBroker,
             final TransactionalResource objectStore,
             final ServicesInjector servicesInjector) {
+        this(transactionManager, messageBroker, objectStore, servicesInjector, false);
+    }
+
+    /**
+     * @param readOnly - see {@link #isReadOnly()}.
+     */
+    public IsisTransaction(
+            final IsisTransactionManager transactionManager,
+            final MessageBroker messageBroker,
+            final TransactionalResource objectStore,
+            final ServicesInjector servicesInjector,
+            final boolean readOnly) {
         
         ensureThatArg(transactionManager, is(not(nullValue())), "transaction manager is required");
         ensureThatArg(messageBroker, is(not(nullValue())), "message broker is required");
@@ -282,8 +323,18 @@ public IsisTransaction(
         this.servicesInjector = servicesInjector;
         
         this.commandContext = servicesInjector.lookupService(CommandContext.class);
-        this.auditingService3 = servicesInjector.lookupService(AuditingService3.class);
-        this.publishingService = getPublishingServiceIfAny(servicesInjector);
+        this.auditingService = getAuditingServiceIfAny(servicesInjector);
+        this.auditingServiceBackground =
+                auditingService instanceof BatchAuditingServiceBackground
+                        ? (BatchAuditingServiceBackground) auditingService
+                        : null;
+        final PublishingService publishingServiceIfAny = servicesInjector.lookupService(PublishingService.class);
+        this.publishingService = getPublishingServiceIfAny(publishingServiceIfAny, servicesInjector);
+        this.publishingServiceOutbox =
+                publishingServiceIfAny instanceof PublishingServiceOutbox
+                        ? (PublishingServiceOutbox) publishingServiceIfAny
+                        : null;
+        this.queryResultsCache = servicesInjector.lookupService(QueryResultsCacheApplicationScoped.class);
 
         // determine whether this xactn is taking place in the context of an
         // existing command in which a previous xactn has already occurred.
@@ -302,6 +353,8 @@ public IsisTransaction(
         }
         
         this.state = State.IN_PROGRESS;
+        this.readOnly = readOnly;
+        this.propertyCaptureRequired = auditingService != null || command != null;
 
         this.objectStore = objectStore;
         if (LOG.isDebugEnabled()) {
@@ -310,12 +363,30 @@ public IsisTransaction(
     }
 
     
+    // ///////////////////////////////////////////
+    // Auditing service
+    // ///////////////////////////////////////////
+
+    /**
+     * Prefers a {@link BatchAuditingService} if registered, otherwise adapts any {@link AuditingService3}.
+     */
+    private static BatchAuditingService getAuditingServiceIfAny(final ServicesInjector servicesInjector) {
+        final BatchAuditingService batchAuditingService = servicesInjector.lookupService(BatchAuditingService.class);
+        if(batchAuditingService != null) {
+            return batchAuditingService;
+        }
+        final AuditingService3 auditingService3 = servicesInjector.lookupService(AuditingService3.class);
+        return auditingService3 != null ? new BatchAuditingService.Adapter(auditingService3) : null;
+    }
+
+    
     // ///////////////////////////////////////////
     // Publishing service
     // ///////////////////////////////////////////
 
-    private PublishingServiceWithDefaultPayloadFactories getPublishingServiceIfAny(ServicesInjector servicesInjector) {
-        final PublishingService publishingService = servicesInjector.lookupService(PublishingService.class);
+    private PublishingServiceWithDefaultPayloadFactories getPublishingServiceIfAny(
+            final PublishingService publishingService,
+            final ServicesInjector servicesInjector) {
         if(publishingService == null) {
             return null;
         }
@@ -382,7 +453,29 @@ private void setState(final State state) {
         this.state = state;
     }
 
-    
+
+    // ////////////////////////////////////////////////////////////////
+    // Read-only
+    // ////////////////////////////////////////////////////////////////
+
+    /**
+     * Whether this transaction was {@link IsisTransactionManager#startReadOnlyTransaction() started as read-only}.
+     *
+     * <p>
+     * If so, then no dirty tracking, auditing or publishing is performed, and any attempt to add a
+     * {@link #addCommand(PersistenceCommand) persistence command} or to enlist a changed object fails immediately.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    private void ensureNotReadOnly(final Object target) {
+        if(readOnly) {
+            throw new IsisTransactionManagerException("Cannot modify " + target + " within a read-only transaction");
+        }
+    }
+
+
     // //////////////////////////////////////////////////////////
     // Commands
     // //////////////////////////////////////////////////////////
@@ -395,6 +488,7 @@ public void addCommand(final PersistenceCommand command) {
         if (command == null) {
             return;
         }
+        ensureNotReadOnly(command.onAdapter());
 
         final ObjectAdapter onObject = command.onAdapter();
 
@@ -514,8 +608,7 @@ private void doFlush() {
         do {
             // We take a copy of the commands to be executed (executing these
             // might add to this.commands).
-            final List<PersistenceCommand> commandsPrior = 
-                    Collections.unmodifiableList(Lists.newArrayList(commands));
+            final List<PersistenceCommand> commandsPrior = commands.getCommands();
             try {
                 objectStore.execute(commandsPrior);
                 for (final PersistenceCommand command : commandsPrior) {
@@ -538,8 +631,7 @@ private void doFlush() {
         
         if(!commands.isEmpty()) {
             // must have hit max flush
-            final List<PersistenceCommand> commandsStillToFlush = 
-                    Collections.unmodifiableList(Lists.newArrayList(commands));
+            final List<PersistenceCommand> commandsStillToFlush = commands.getCommands();
             commands.clear();
             throw new ObjectPersistenceException("Failed to flush transaction after " + MAX_FLUSH_ATTEMPTS + " attempts; commands still to flush:\n " + commandsStillToFlush.toString());
         }
@@ -547,20 +639,29 @@ private void doFlush() {
 
     protected void doAudit(final Set<Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties) {
         try {
-            if(auditingService3 == null) {
+            if(auditingService == null) {
                 return;
             }
 
             // else
             final String currentUser = getTransactionManager().getAuthenticationSession().getUserName();
             final java.sql.Timestamp currentTime = Clock.getTimeAsJavaSqlTimestamp();
-            for (Entry<AdapterAndProperty, PreAndPostValues> auditEntry : changedObjectProperties) {
-                auditChangedProperty(currentTime, currentUser, auditEntry);
+            final List<AuditEntry> auditEntries = Lists.newArrayListWithCapacity(changedObjectProperties.size());
+            for (Entry<AdapterAndProperty, PreAndPostValues> changedObjectProperty : changedObjectProperties) {
+                final AuditEntry auditEntry = auditEntryFor(currentTime, currentUser, changedObjectProperty);
+                if(auditEntry != null) {
+                    auditEntries.add(auditEntry);
+                }
+            }
+            if(!auditEntries.isEmpty()) {
+                auditingService.audit(auditEntries);
             }
 
         } finally {
             // not needed in production, but is required for integration testing
             this.changedObjectProperties.clear();
+            this.capturedAdapters.clear();
+            this.enlistedAdaptersNotCaptured.clear();
         }
     }
 
@@ -636,6 +737,46 @@ protected List<ObjectAdapter> publishedChangedObjectsIfRequired(final String cur
         return enlistedAdapters;
     }
 
+    /**
+     * Audits and publishes a single summary for each {@link #enlistBulkChange(ObjectSpecification, ChangeKind, String, long, Map) bulk change},
+     * if the type concerned is audited or published respectively.
+     */
+    protected void auditAndPublishBulkChanges(final String currentUser, final java.sql.Timestamp timestamp) {
+        try {
+            final List<AuditEntry> auditEntries = Lists.newArrayList();
+            for (final BulkChange bulkChange : bulkChanges) {
+                final ObjectSpecification specification = bulkChange.getSpecification();
+                final String targetClass = specification.getFullIdentifier();
+                final Bookmark target = new Bookmark(specification.getSpecId().asString(), BulkChange.ALL_MATCHING);
+
+                final AuditableFacet auditableFacet = specification.getFacet(AuditableFacet.class);
+                if(auditingService != null && auditableFacet != null && !auditableFacet.isDisabled()) {
+                    auditEntries.add(new AuditEntry(
+                            getTransactionId(), targetClass, target, bulkChange.getQueryDescription(), bulkChange.getPropertyIds(),
+                            null, bulkChange.getSummary(), currentUser, timestamp));
+                }
+
+                final PublishedObjectFacet publishedObjectFacet = specification.getFacet(PublishedObjectFacet.class);
+                if(publishingService != null && publishedObjectFacet != null) {
+                    final EventType eventType = bulkChange.getChangeKind() == ChangeKind.DELETE
+                            ? EventType.OBJECTS_BULK_DELETED
+                            : EventType.OBJECTS_BULK_UPDATED;
+                    final String title = targetClass + ": " + bulkChange.getQueryDescription();
+                    final EventMetadata metadata = newEventMetadata(eventType, currentUser, timestamp, title, targetClass, null, target, null);
+                    final EventPayloadForBulkChange payload = new EventPayloadForBulkChange(
+                            targetClass, bulkChange.getChangeKind(), bulkChange.getQueryDescription(), bulkChange.getCount(),
+                            bulkChange.getNewValueByPropertyId());
+                    publishingService.publishBulkChange(metadata, payload, objectStringifier());
+                }
+            }
+            if(!auditEntries.isEmpty()) {
+                auditingService.audit(auditEntries);
+            }
+        } finally {
+            bulkChanges.clear();
+        }
+    }
+
     private static EventType eventTypeFor(ChangeKind changeKind) {
         if(changeKind == ChangeKind.UPDATE) {
             return EventType.OBJECT_UPDATED;
@@ -691,17 +832,38 @@ private int nextEventSequence() {
         return command.next("publishedEvent");
     }
 
+    /**
+     * @deprecated - the changed properties of a transaction are now audited together, as a single call to the
+     *               {@link BatchAuditingService}; see {@link #auditEntryFor(java.sql.Timestamp, String, Entry)}.
+     */
+    @Deprecated
     public void auditChangedProperty(
             final java.sql.Timestamp timestamp,
             final String user,
             final Entry<AdapterAndProperty, PreAndPostValues> auditEntry) {
+        if(auditingService == null) {
+            return;
+        }
+        final AuditEntry entry = auditEntryFor(timestamp, user, auditEntry);
+        if(entry != null) {
+            auditingService.audit(Collections.singletonList(entry));
+        }
+    }
+
+    /**
+     * Returns <tt>null</tt> if the changed object is not auditable.
+     */
+    protected AuditEntry auditEntryFor(
+            final java.sql.Timestamp timestamp,
+            final String user,
+            final Entry<AdapterAndProperty, PreAndPostValues> auditEntry) {
 
         final AdapterAndProperty aap = auditEntry.getKey();
         final ObjectAdapter adapter = aap.getAdapter();
         
         final AuditableFacet auditableFacet = adapter.getSpecification().getFacet(AuditableFacet.class);
         if(auditableFacet == null || auditableFacet.isDisabled()) {
-            return;
+            return null;
         }
 
         final Bookmark target = aap.getBookmark();
@@ -715,7 +877,7 @@ public void auditChangedProperty(
 
         final String targetClass = CommandUtil.targetClassNameFor(adapter);
 
-        auditingService3.audit(getTransactionId(), targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
+        return new AuditEntry(getTransactionId(), targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
     }
 
     private static String asString(Object object) {
@@ -748,6 +910,12 @@ synchronized void preCommit() {
             return;
         }
 
+        if(readOnly) {
+            // nothing can have changed, so nothing to audit, publish or flush
+            closeOtherApplibServicesIfConfigured();
+            return;
+        }
+
         try {
             final Set<Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties = getChangedObjectProperties();
 
@@ -773,7 +941,7 @@ private void ensureCommandsPersistedIfDirtyXactnAndAnySafeSemanticsHonoured(fina
 
         // ensure that any changed objects means that the command should be persisted
         final Set<ObjectAdapter> changedAdapters = findChangedAdapters(changedObjectProperties);
-        if(!changedAdapters.isEmpty() && command.getMemberIdentifier() != null) {
+        if((!changedAdapters.isEmpty() || !bulkChanges.isEmpty()) && command.getMemberIdentifier() != null) {
             command.setPersistHint(true);
         }
 
@@ -858,14 +1026,17 @@ private List<? extends ActionDomainEvent<?>> flushActionDomainEvents(
         return Collections.emptyList();
     }
 
-    private static Set<ObjectAdapter> findChangedAdapters(
+    private Set<ObjectAdapter> findChangedAdapters(
             final Set<Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties) {
-        return Sets.newHashSet(
+        final Set<ObjectAdapter> changedAdapters = Sets.newHashSet(
                 Iterables.filter(
                         Iterables.transform(
                                 changedObjectProperties,
                                 AdapterAndProperty.Functions.GET_ADAPTER),
                         Predicates.not(IS_COMMAND)));
+        // created or deleted, but not audited and so their property values were not captured
+        Iterables.addAll(changedAdapters, Iterables.filter(enlistedAdaptersNotCaptured, Predicates.not(IS_COMMAND)));
+        return changedAdapters;
     }
 
 
@@ -880,6 +1051,9 @@ private void preCommitServices(final Set<Entry<AdapterAndProperty, PreAndPostVal
         
         publishedChangedObjectsIfRequired(currentUser, endTimestamp);
         doFlush();
+
+        auditAndPublishBulkChanges(currentUser, endTimestamp);
+        doFlush();
         
         closeServices();
         doFlush();
@@ -941,6 +1115,16 @@ public synchronized void commit() {
         }
 
         setState(State.COMMITTED);
+
+        if(auditingServiceBackground != null) {
+            auditingServiceBackground.releasePendingEntries();
+        }
+        if(publishingServiceOutbox != null) {
+            publishingServiceOutbox.releasePendingEvents();
+        }
+        if(queryResultsCache != null) {
+            queryResultsCache.invalidateDependentsOf(changedTypes);
+        }
     }
 
 
@@ -956,6 +1140,17 @@ public synchronized final void markAsAborted() {
         }
 
         setState(State.ABORTED);
+
+        if(auditingServiceBackground != null) {
+            auditingServiceBackground.discardPendingEntries();
+        }
+        if(publishingServiceOutbox != null) {
+            publishingServiceOutbox.discardPendingEvents();
+        }
+        if(queryResultsCache != null) {
+            // any results computed within this transaction may reflect its (now discarded) changes
+            queryResultsCache.invalidateDependentsOf(changedTypes);
+        }
     }
 
     
@@ -1002,44 +1197,24 @@ public void clearAbortCause() {
     // Helpers
     // //////////////////////////////////////////////////////////
 
-    private boolean alreadyHasCommand(final Class<?> commandClass, final ObjectAdapter onObject) {
-        return getCommand(commandClass, onObject) != null;
-    }
-
     private boolean alreadyHasCreate(final ObjectAdapter onObject) {
-        return alreadyHasCommand(CreateObjectCommand.class, onObject);
+        return commands.has(CreateObjectCommand.class, onObject);
     }
 
     private boolean alreadyHasDestroy(final ObjectAdapter onObject) {
-        return alreadyHasCommand(DestroyObjectCommand.class, onObject);
+        return commands.has(DestroyObjectCommand.class, onObject);
     }
 
     private boolean alreadyHasSave(final ObjectAdapter onObject) {
-        return alreadyHasCommand(SaveObjectCommand.class, onObject);
-    }
-
-    private PersistenceCommand getCommand(final Class<?> commandClass, final ObjectAdapter onObject) {
-        for (final PersistenceCommand command : commands) {
-            if (command.onAdapter().equals(onObject)) {
-                if (commandClass.isAssignableFrom(command.getClass())) {
-                    return command;
-                }
-            }
-        }
-        return null;
-    }
-
-    private void removeCommand(final Class<?> commandClass, final ObjectAdapter onObject) {
-        final PersistenceCommand toDelete = getCommand(commandClass, onObject);
-        commands.remove(toDelete);
+        return commands.has(SaveObjectCommand.class, onObject);
     }
 
     private void removeCreate(final ObjectAdapter onObject) {
-        removeCommand(CreateObjectCommand.class, onObject);
+        commands.remove(CreateObjectCommand.class, onObject);
     }
 
     private void removeSave(final ObjectAdapter onObject) {
-        removeCommand(SaveObjectCommand.class, onObject);
+        commands.remove(SaveObjectCommand.class, onObject);
     }
 
     // ////////////////////////////////////////////////////////////////
@@ -1256,8 +1431,85 @@ public boolean differ() {
     }
     
    
+    static class BulkChange {
+
+        /**
+         * Used as the identifier of the (notional) target of the summarising audit entry and published event.
+         */
+        static final String ALL_MATCHING = "*";
+
+        private final ObjectSpecification specification;
+        private final ChangeKind changeKind;
+        private final String queryDescription;
+        private final long count;
+        private final Map<String, String> newValueByPropertyId;
+
+        BulkChange(
+                final ObjectSpecification specification,
+                final ChangeKind changeKind,
+                final String queryDescription,
+                final long count,
+                final Map<String, String> newValueByPropertyId) {
+            this.specification = specification;
+            this.changeKind = changeKind;
+            this.queryDescription = queryDescription;
+            this.count = count;
+            this.newValueByPropertyId = newValueByPropertyId;
+        }
+
+        public ObjectSpecification getSpecification() {
+            return specification;
+        }
+
+        public ChangeKind getChangeKind() {
+            return changeKind;
+        }
+
+        public String getQueryDescription() {
+            return queryDescription;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public Map<String, String> getNewValueByPropertyId() {
+            return newValueByPropertyId;
+        }
+
+        /**
+         * The ids of the properties updated, comma-separated; <tt>null</tt> for a delete.
+         */
+        public String getPropertyIds() {
+            return newValueByPropertyId.isEmpty() ? null : Joiner.on(',').join(newValueByPropertyId.keySet());
+        }
+
+        public String getSummary() {
+            return changeKind == ChangeKind.DELETE
+                    ? count + " deleted"
+                    : count + " updated, set " + newValueByPropertyId;
+        }
+    }
+
     private final Map<ObjectAdapter,ChangeKind> changeKindByEnlistedAdapter = Maps.newLinkedHashMap();
     private final Map<AdapterAndProperty, PreAndPostValues> changedObjectProperties = Maps.newLinkedHashMap();
+    /**
+     * Those enlisted adapters for which at least one property's pre-modification value has been captured.
+     */
+    private final Set<ObjectAdapter> capturedAdapters = Sets.newHashSet();
+    /**
+     * Those created or deleted adapters whose property values are not needed (because they are not audited),
+     * or updated adapters if {@link #isPropertyCaptureRequired() not required at all}, and so have not been
+     * captured; these always count as changed.
+     */
+    private final Set<ObjectAdapter> enlistedAdaptersNotCaptured = Sets.newLinkedHashSet();
+
+    private final List<BulkChange> bulkChanges = Lists.newArrayList();
+
+    /**
+     * The types of all objects created, updated or deleted (individually or in bulk) in this transaction.
+     */
+    private final Set<Class<?>> changedTypes = Sets.newHashSet();
 
     private ObjectStringifier objectStringifier;
 
@@ -1276,7 +1528,12 @@ public boolean differ() {
      * Supported by the JDO object store; check documentation for support in other objectstores.
      */
     public void enlistCreated(ObjectAdapter adapter) {
+        ensureNotReadOnly(adapter);
         enlist(adapter, ChangeKind.CREATE);
+        if(!isCaptureRequiredFor(adapter)) {
+            enlistedAdaptersNotCaptured.add(adapter);
+            return;
+        }
         for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES)) {
             final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
             if(property.isNotPersisted()) {
@@ -1285,6 +1542,7 @@ public void enlistCreated(ObjectAdapter adapter) {
             PreAndPostValues papv = PreAndPostValues.pre(Placeholder.NEW);
             changedObjectProperties.put(aap, papv);
         }
+        capturedAdapters.add(adapter);
     }
 
     /**
@@ -1296,18 +1554,82 @@ public void enlistCreated(ObjectAdapter adapter) {
      * which returns the pre- and post- values for each {@link ObjectAdapter} in a map. 
      * 
      * <p>
+     * The values are captured whether or not the object is audited, because they also determine whether the
+     * object was actually changed (and so whether the command is to be persisted); but not at all if
+     * {@link #isPropertyCaptureRequired() neither is needed}.  Nor are they captured if already captured earlier
+     * in the transaction (either by a previous enlistment, or
+     * {@link #enlistUpdatingProperty(ObjectAdapter, String, Object) property by property}).
+     * 
+     * <p>
      * Supported by the JDO object store; check documentation for support in other objectstores.
      */
     public void enlistUpdating(ObjectAdapter adapter) {
+        ensureNotReadOnly(adapter);
         enlist(adapter, ChangeKind.UPDATE);
+        if(!propertyCaptureRequired) {
+            enlistedAdaptersNotCaptured.add(adapter);
+            return;
+        }
+        if(capturedAdapters.contains(adapter)) {
+            return;
+        }
+        capturePreValues(adapter);
+    }
+
+    /**
+     * Auditing and publishing support: for object stores that track modifications field by field, to provide
+     * the value of a single property of an object just before it is first modified.
+     * 
+     * <p>
+     * If called before {@link #enlistUpdating(ObjectAdapter)} for the object, then that method does not
+     * read the object's other properties; their values are instead captured by subsequent calls to this
+     * method as and when they are modified.
+     * 
+     * <p>
+     * If the property cannot be identified, then the values of all of the object's properties are captured
+     * instead, as per {@link #enlistUpdatingAllProperties(ObjectAdapter)}.
+     * 
+     * <p>
+     * Supported by the JDO object store; check documentation for support in other objectstores.
+     */
+    public void enlistUpdatingProperty(ObjectAdapter adapter, String propertyId, Object preValue) {
+        ensureNotReadOnly(adapter);
+        if(!propertyCaptureRequired) {
+            return;
+        }
         for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES)) {
-            final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
-            if(property.isNotPersisted()) {
+            if(!property.getId().equals(propertyId)) {
                 continue;
             }
-            PreAndPostValues papv = PreAndPostValues.pre(aap.getPropertyValue());
-            changedObjectProperties.put(aap, papv);
+            if(property.isNotPersisted()) {
+                return;
+            }
+            final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
+            if(!changedObjectProperties.containsKey(aap)) {
+                changedObjectProperties.put(aap, PreAndPostValues.pre(preValue));
+            }
+            capturedAdapters.add(adapter);
+            return;
+        }
+        // not a property of the object, so cannot tell which of its properties is about to change
+        capturePreValues(adapter);
+    }
+
+    /**
+     * Auditing and publishing support: for object stores that track modifications field by field, to capture
+     * the values of all of the properties of an object (those not already captured) just before one of them
+     * is modified, where that property's current value is not known (for example, because it has not yet been
+     * loaded).
+     * 
+     * <p>
+     * Supported by the JDO object store; check documentation for support in other objectstores.
+     */
+    public void enlistUpdatingAllProperties(ObjectAdapter adapter) {
+        ensureNotReadOnly(adapter);
+        if(!propertyCaptureRequired) {
+            return;
         }
+        capturePreValues(adapter);
     }
 
     /**
@@ -1322,20 +1644,91 @@ public void enlistUpdating(ObjectAdapter adapter) {
      * Supported by the JDO object store; check documentation for support in other objectstores.
      */
     public void enlistDeleting(ObjectAdapter adapter) {
+        ensureNotReadOnly(adapter);
         enlist(adapter, ChangeKind.DELETE);
+        if(!isCaptureRequiredFor(adapter)) {
+            enlistedAdaptersNotCaptured.add(adapter);
+            return;
+        }
+        capturePreValues(adapter);
+    }
+
+    /**
+     * Auditing and publishing support: for the persistence session to record that the instances of a type
+     * matching some query have been deleted or updated in a single set-based operation, without being loaded
+     * (and so without being enlisted individually).
+     * 
+     * <p>
+     * A single summarising audit entry and published event is emitted for each such change.
+     */
+    public void enlistBulkChange(
+            final ObjectSpecification specification,
+            final ChangeKind changeKind,
+            final String queryDescription,
+            final long count,
+            final Map<String, ObjectAdapter> newValueAdapterByPropertyId) {
+        ensureNotReadOnly(specification.getFullIdentifier());
+        final Map<String, String> newValueByPropertyId = Maps.newLinkedHashMap();
+        for (final Entry<String, ObjectAdapter> entry : newValueAdapterByPropertyId.entrySet()) {
+            newValueByPropertyId.put(entry.getKey(), asString(ObjectAdapter.Util.unwrap(entry.getValue())));
+        }
+        bulkChanges.add(new BulkChange(specification, changeKind, queryDescription, count, newValueByPropertyId));
+        changedTypes.add(specification.getCorrespondingClass());
+    }
+
+    /**
+     * Captures the current value of those persisted properties not yet captured.
+     */
+    private void capturePreValues(ObjectAdapter adapter) {
         for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES)) {
-            final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
             if(property.isNotPersisted()) {
                 continue;
             }
+            final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
+            if(changedObjectProperties.containsKey(aap)) {
+                continue;
+            }
             PreAndPostValues papv = PreAndPostValues.pre(aap.getPropertyValue());
             changedObjectProperties.put(aap, papv);
         }
+        capturedAdapters.add(adapter);
+    }
+
+    /**
+     * Whether the pre- and post-modification values of the properties of updated objects are needed at all in
+     * this transaction, that is, if there is an auditing service (to audit them) or a command (to determine
+     * whether it is to be persisted).
+     * 
+     * <p>
+     * Determined once, when the transaction is created, so that object stores that
+     * {@link #enlistUpdatingProperty(ObjectAdapter, String, Object) track modifications field by field} can
+     * cheaply check it for every field written.
+     */
+    public boolean isPropertyCaptureRequired() {
+        return propertyCaptureRequired;
+    }
+
+    /**
+     * The pre- and post-modification values of the properties of created or deleted objects are only needed
+     * in order to audit them.
+     * 
+     * <p>
+     * Publishing of changed objects works from the enlisted objects themselves, and such objects always count
+     * as changed for the command's persistence hint.  (In contrast, the values of updated objects are
+     * captured whenever {@link #isPropertyCaptureRequired() required}; see {@link #enlistUpdating(ObjectAdapter)}.)
+     */
+    private boolean isCaptureRequiredFor(ObjectAdapter adapter) {
+        if(auditingService == null) {
+            return false;
+        }
+        final AuditableFacet auditableFacet = adapter.getSpecification().getFacet(AuditableFacet.class);
+        return auditableFacet != null && !auditableFacet.isDisabled();
     }
 
 
     private void enlist(ObjectAdapter adapter, ChangeKind changeKind) {
         changeKindByEnlistedAdapter.put(adapter, changeKind);
+        changedTypes.add(adapter.getSpecification().getCorrespondingClass());
     }
     
     
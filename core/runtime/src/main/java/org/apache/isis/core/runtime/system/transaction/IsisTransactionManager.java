@@ -233,8 +233,12 @@ public boolean inTransaction() {
      * {@link #getTransaction()}.
      */
     protected final IsisTransaction createTransaction() {
+        return createTransaction(false);
+    }
+
+    private IsisTransaction createTransaction(final boolean readOnly) {
         MessageBroker messageBroker = createMessageBroker();
-        return this.transaction = createTransaction(messageBroker, transactionalResource);
+        return this.transaction = createTransaction(messageBroker, transactionalResource, readOnly);
     }
 
 
@@ -247,10 +251,11 @@ protected final IsisTransaction createTransaction() {
      */
     private IsisTransaction createTransaction(
             final MessageBroker messageBroker,
-            final TransactionalResource transactionalResource) {
+            final TransactionalResource transactionalResource,
+            final boolean readOnly) {
         ensureThatArg(messageBroker, is(not(nullValue())));
 
-        return new IsisTransaction(this, messageBroker, transactionalResource, servicesInjector);
+        return new IsisTransaction(this, messageBroker, transactionalResource, servicesInjector, readOnly);
     }
     
 
@@ -259,6 +264,27 @@ private IsisTransaction createTransaction(
     // //////////////////////////////////////////////////////
 
     public synchronized void startTransaction() {
+        startTransaction(false);
+    }
+
+    /**
+     * As {@link #startTransaction()}, but if no transaction is already in progress then the transaction started is 
+     * {@link IsisTransaction#isReadOnly() read-only}.
+     * 
+     * <p>
+     * A read-only transaction does no dirty tracking, auditing or publishing, and is rolled back rather than 
+     * committed when {@link #endTransaction() ended}.  Any attempt to create, modify or delete a persistent 
+     * object within it fails immediately.  Intended for requests known to be safe, such as <tt>GET</tt>s.
+     * 
+     * <p>
+     * If a transaction is already in progress then it is used as is (so will be read-only only if it was 
+     * started as such).
+     */
+    public synchronized void startReadOnlyTransaction() {
+        startTransaction(true);
+    }
+
+    private void startTransaction(final boolean readOnly) {
 
         boolean noneInProgress = false;
         if (getTransaction() == null || getTransaction().getState().isComplete()) {
@@ -269,7 +295,7 @@ public synchronized void startTransaction() {
             createCommandIfConfigured();
             initOtherApplibServicesIfConfigured();
             
-            IsisTransaction isisTransaction = createTransaction();
+            IsisTransaction isisTransaction = createTransaction(readOnly);
             transactionLevel = 0;
 
             transactionalResource.startTransaction();
@@ -280,7 +306,7 @@ public synchronized void startTransaction() {
         transactionLevel++;
 
         if (LOG.isDebugEnabled()) {
-            LOG.debug("startTransaction: level " + (transactionLevel - 1) + "->" + (transactionLevel) + (noneInProgress ? " (no transaction in progress or was previously completed; transaction created)" : ""));
+            LOG.debug("startTransaction: level " + (transactionLevel - 1) + "->" + (transactionLevel) + (noneInProgress ? " (no transaction in progress or was previously completed; " + (readOnly ? "read-only " : "") + "transaction created)" : ""));
         }
     }
 
@@ -387,7 +413,7 @@ public synchronized boolean flushTransaction() {
             LOG.debug("flushTransaction");
         }
 
-        if (getTransaction() != null) {
+        if (getTransaction() != null && !getTransaction().isReadOnly()) {
             persistenceSession.objectChangedAllDirty();
             getTransaction().flush();
         }
@@ -460,6 +486,11 @@ public synchronized void endTransaction() {
             // once the contract/API for the objectstore is better tied down, hopefully can simplify this...
             //
             
+            if(abortCause == null && transaction.isReadOnly()) {
+                endReadOnlyTransaction(transaction);
+                return;
+            }
+
             if(abortCause == null) {
             
                 if (LOG.isDebugEnabled()) {
@@ -535,6 +566,36 @@ public synchronized void endTransaction() {
     }
 
 
+    /**
+     * Nothing to flush, audit or publish, so just rolls back the underlying resource (guaranteeing that nothing is 
+     * written) before marking the transaction as committed.
+     */
+    private void endReadOnlyTransaction(final IsisTransaction transaction) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("endTransaction: ending read-only transaction");
+        }
+        RuntimeException abortCause = null;
+        try {
+            transaction.preCommit();
+            transactionalResource.abortTransaction();
+            transaction.commit();
+        } catch(RuntimeException ex) {
+            abortCause = ex;
+            transactionLevel = 1; // because the transactionLevel was decremented earlier
+        }
+
+        endRequestOnRequestScopeServices();
+
+        if(abortCause != null) {
+            try {
+                abortTransaction();
+            } catch(RuntimeException ex) {
+                // ignore; want the existing abortCause to be available
+            }
+            throw abortCause;
+        }
+    }
+
     public synchronized void abortTransaction() {
         if (getTransaction() != null) {
             getTransaction().markAsAborted();
@@ -0,0 +1,171 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
+
+/**
+ * The {@link PersistenceCommand}s pending within an {@link IsisTransaction}, held in the order
+ * in which they were added, and also indexed (by identity) against the {@link ObjectAdapter} that
+ * they act upon.
+ * 
+ * <p>
+ * The index means that the checks performed when coalescing commands (is there already a create, 
+ * save or destroy for this object?) do not require a scan of all pending commands, so that
+ * transactions that create or update many objects remain linear in the number of commands.
+ * 
+ * <p>
+ * Commands that are removed are not taken out of the ordered list immediately (which would again
+ * require a scan); instead they are skipped and the list compacted when next read.
+ * 
+ * <p>
+ * Not thread-safe; an {@link IsisTransaction} is only ever used by a single thread.
+ */
+class PersistenceCommandQueue {
+
+    private final List<PersistenceCommand> commands = Lists.newArrayList();
+    private final Map<ObjectAdapter, List<PersistenceCommand>> commandsByAdapter = Maps.newIdentityHashMap();
+    private final Set<PersistenceCommand> removedCommands = Sets.newIdentityHashSet();
+
+    public void add(final PersistenceCommand command) {
+        commands.add(command);
+        final ObjectAdapter onObject = command.onAdapter();
+        List<PersistenceCommand> commandsForAdapter = commandsByAdapter.get(onObject);
+        if(commandsForAdapter == null) {
+            // most objects will only ever have the one command against them
+            commandsForAdapter = Lists.newArrayListWithCapacity(1);
+            commandsByAdapter.put(onObject, commandsForAdapter);
+        }
+        commandsForAdapter.add(command);
+    }
+
+    /**
+     * Whether there is a pending command of the specified type acting upon the object.
+     */
+    public boolean has(final Class<?> commandClass, final ObjectAdapter onObject) {
+        return get(commandClass, onObject) != null;
+    }
+
+    /**
+     * Removes the first pending command of the specified type acting upon the object, if any.
+     */
+    public void remove(final Class<?> commandClass, final ObjectAdapter onObject) {
+        final PersistenceCommand command = get(commandClass, onObject);
+        if(command == null) {
+            return;
+        }
+        unindex(command);
+        removedCommands.add(command);
+    }
+
+    private PersistenceCommand get(final Class<?> commandClass, final ObjectAdapter onObject) {
+        final List<PersistenceCommand> commandsForAdapter = commandsByAdapter.get(onObject);
+        if(commandsForAdapter == null) {
+            return null;
+        }
+        for (final PersistenceCommand command : commandsForAdapter) {
+            if (commandClass.isAssignableFrom(command.getClass())) {
+                return command;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The pending commands, in the order that they were added.
+     */
+    public List<PersistenceCommand> getCommands() {
+        compact();
+        return Collections.unmodifiableList(Lists.newArrayList(commands));
+    }
+
+    /**
+     * Removes the provided commands (typically because they have now been executed), leaving
+     * any that have been added since.
+     */
+    public void removeAll(final List<PersistenceCommand> executedCommands) {
+        for (final PersistenceCommand command : executedCommands) {
+            if(removedCommands.contains(command)) {
+                continue;
+            }
+            unindex(command);
+            removedCommands.add(command);
+        }
+        compact();
+    }
+
+    public void clear() {
+        commands.clear();
+        commandsByAdapter.clear();
+        removedCommands.clear();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int size() {
+        return commands.size() - removedCommands.size();
+    }
+
+    private void unindex(final PersistenceCommand command) {
+        final ObjectAdapter onObject = command.onAdapter();
+        final List<PersistenceCommand> commandsForAdapter = commandsByAdapter.get(onObject);
+        if(commandsForAdapter == null) {
+            return;
+        }
+        for (final Iterator<PersistenceCommand> iter = commandsForAdapter.iterator(); iter.hasNext(); ) {
+            if(iter.next() == command) {
+                iter.remove();
+                break;
+            }
+        }
+        if(commandsForAdapter.isEmpty()) {
+            commandsByAdapter.remove(onObject);
+        }
+    }
+
+    private void compact() {
+        if(removedCommands.isEmpty()) {
+            return;
+        }
+        // rebuild rather than remove in place, which would be quadratic
+        final List<PersistenceCommand> retainedCommands = Lists.newArrayListWithCapacity(commands.size());
+        for (final PersistenceCommand command : commands) {
+            if(!removedCommands.contains(command)) {
+                retainedCommands.add(command);
+            }
+        }
+        commands.clear();
+        commands.addAll(retainedCommands);
+        removedCommands.clear();
+    }
+
+}
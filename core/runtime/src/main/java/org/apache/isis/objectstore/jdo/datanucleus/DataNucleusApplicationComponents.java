@@ -18,6 +18,7 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -27,6 +28,7 @@
 import javax.jdo.PersistenceManagerFactory;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import org.datanucleus.NucleusContext;
@@ -39,6 +41,8 @@
 import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.IsisLifecycleListener;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.PrefetchFetchPlans;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.JdoQueryCache;
 import org.apache.isis.objectstore.jdo.metamodel.facets.object.query.JdoNamedQuery;
 import org.apache.isis.objectstore.jdo.metamodel.facets.object.query.JdoQueryFacet;
 
@@ -83,6 +87,8 @@ public boolean isStale() {
     
     private Map<String, JdoNamedQuery> namedQueryByName;
     private PersistenceManagerFactory persistenceManagerFactory;
+    private JdoQueryCache queryCache;
+    private PrefetchFetchPlans prefetchFetchPlans;
 
     public DataNucleusApplicationComponents(
             final Map<String, String> props, 
@@ -112,7 +118,8 @@ private void init(final Map<String, String> props, final Set<String> persistable
         }
 
         namedQueryByName = catalogNamedQueries(persistableClassNameSet);
-
+        queryCache = new JdoQueryCache(persistenceManagerFactory);
+        prefetchFetchPlans = new PrefetchFetchPlans(persistenceManagerFactory, specificationsFor(persistableClassNameSet));
     }
     
     public PersistenceManagerFactory getPersistenceManagerFactory() {
@@ -135,6 +142,14 @@ private static Properties asProperties(Map<String, String> props) {
         return properties;
     }
 
+    private static List<ObjectSpecification> specificationsFor(Set<String> persistableClassNames) {
+        final List<ObjectSpecification> specifications = Lists.newArrayList();
+        for (final String persistableClassName: persistableClassNames) {
+            specifications.add(IsisContext.getSpecificationLoader().loadSpecification(persistableClassName));
+        }
+        return specifications;
+    }
+
     private static Map<String, JdoNamedQuery> catalogNamedQueries(Set<String> persistableClassNames) {
         final Map<String, JdoNamedQuery> namedQueryByName = Maps.newHashMap();
         for (final String persistableClassName: persistableClassNames) {
@@ -160,6 +175,7 @@ public void init() {
 
     @Override
     public void shutdown() {
+        queryCache.clear();
     }
 
 
@@ -187,6 +203,14 @@ public JdoNamedQuery getNamedQuery(String queryName) {
         return namedQueryByName.get(queryName);
     }
 
+    public JdoQueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    public PrefetchFetchPlans getPrefetchFetchPlans() {
+        return prefetchFetchPlans;
+    }
+
     
     ///////////////////////////////////////////////////////////////////////////
     //
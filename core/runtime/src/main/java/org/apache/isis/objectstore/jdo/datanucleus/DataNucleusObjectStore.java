@@ -22,20 +22,24 @@
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.jdo.FetchGroup;
 import javax.jdo.FetchPlan;
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
 import javax.jdo.spi.PersistenceCapable;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.datanucleus.api.jdo.JDOQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.isis.applib.services.exceprecog.ExceptionRecognizer;
 import org.apache.isis.applib.services.exceprecog.ExceptionRecognizer2;
 import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.commons.debug.DebugBuilder;
-import org.apache.isis.core.commons.exceptions.NotYetImplementedException;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapterFactory;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
@@ -69,15 +73,18 @@
 import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer.CalledFrom;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.PrefetchFetchPlans;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.commands.DataNucleusCommandBatcher;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.commands.DataNucleusCreateObjectCommand;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.commands.DataNucleusDeleteObjectCommand;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.commands.DataNucleusUpdateObjectCommand;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.JdoBulkStatements;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.JdoQueryCache;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.PersistenceQueryFindAllInstancesProcessor;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.PersistenceQueryFindByPatternProcessor;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.PersistenceQueryFindByTitleProcessor;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.PersistenceQueryFindUsingApplibQueryProcessor;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.PersistenceQueryProcessor;
-import org.apache.isis.objectstore.jdo.datanucleus.persistence.queries.QueryUtil;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.spi.JdoObjectIdSerializer;
 import org.apache.isis.objectstore.jdo.metamodel.facets.object.query.JdoNamedQuery;
 
@@ -108,6 +115,37 @@ static enum State {
     public static final String INSTALL_FIXTURES_KEY = OptionHandlerFixtureAbstract.DATANUCLEUS_INSTALL_FIXTURES_KEY;
     public static final boolean INSTALL_FIXTURES_DEFAULT = false;
 
+    /**
+     * The maximum number of consecutive creates (or deletes) to pass to DataNucleus at a time, 
+     * through <tt>makePersistentAll</tt> (or <tt>deletePersistentAll</tt>).
+     * 
+     * <p>
+     * A value of 1 (or less) disables batching, and commands are executed one by one.  The 
+     * size of the JDBC statement batches is configured separately, using the 
+     * <tt>datanucleus.rdbms.statementBatchLimit</tt> property (under {@link #DATANUCLEUS_PROPERTIES_ROOT}).
+     * 
+     * @see DataNucleusCommandBatcher
+     */
+    public static final String COMMAND_BATCH_SIZE_KEY = ROOT_KEY + "commandBatchSize";
+    public static final int COMMAND_BATCH_SIZE_DEFAULT = 100;
+
+    /**
+     * Whether the compiled definitions of queries are cached, across sessions.
+     * 
+     * @see JdoQueryCache
+     */
+    public static final String QUERY_CACHE_KEY = ROOT_KEY + "queryCache";
+    public static final boolean QUERY_CACHE_DEFAULT = true;
+
+    /**
+     * Whether {@link org.apache.isis.applib.annotation.Prefetch} hints are applied to the fetch plans of
+     * queries and object lookups.
+     * 
+     * @see PrefetchFetchPlans
+     */
+    public static final String PREFETCH_KEY = ROOT_KEY + "prefetch";
+    public static final boolean PREFETCH_DEFAULT = true;
+
     static enum TransactionMode {
         /**
          * Requires transactions to be started explicitly.
@@ -127,6 +165,8 @@ static enum TransactionMode {
     private PersistenceManager persistenceManager;
 
     private final Map<Class<?>, PersistenceQueryProcessor<?>> persistenceQueryProcessorByClass = Maps.newHashMap();
+    private DataNucleusCommandBatcher commandBatcher;
+    private PrefetchFetchPlans prefetchFetchPlans;
     private final FrameworkSynchronizer frameworkSynchronizer;
 
     private State state;
@@ -165,6 +205,12 @@ public void open() {
 
         addPersistenceQueryProcessors(persistenceManager);
 
+        final int commandBatchSize = getConfiguration().getInteger(COMMAND_BATCH_SIZE_KEY, COMMAND_BATCH_SIZE_DEFAULT);
+        commandBatcher = new DataNucleusCommandBatcher(persistenceManager, commandBatchSize);
+
+        final boolean prefetch = getConfiguration().getBoolean(PREFETCH_KEY, PREFETCH_DEFAULT);
+        prefetchFetchPlans = prefetch ? applicationComponents.getPrefetchFetchPlans() : null;
+
         state = State.OPEN;
     }
 
@@ -206,10 +252,16 @@ private PersistenceManager openSession() {
     }
 
     private void addPersistenceQueryProcessors(final PersistenceManager persistenceManager) {
-        persistenceQueryProcessorByClass.put(PersistenceQueryFindAllInstances.class, new PersistenceQueryFindAllInstancesProcessor(persistenceManager, frameworkSynchronizer));
-        persistenceQueryProcessorByClass.put(PersistenceQueryFindByTitle.class, new PersistenceQueryFindByTitleProcessor(persistenceManager, frameworkSynchronizer));
-        persistenceQueryProcessorByClass.put(PersistenceQueryFindByPattern.class, new PersistenceQueryFindByPatternProcessor(persistenceManager, frameworkSynchronizer));
-        persistenceQueryProcessorByClass.put(PersistenceQueryFindUsingApplibQueryDefault.class, new PersistenceQueryFindUsingApplibQueryProcessor(persistenceManager, frameworkSynchronizer));
+        final JdoQueryCache queryCache = getQueryCacheIfEnabled();
+        persistenceQueryProcessorByClass.put(PersistenceQueryFindAllInstances.class, new PersistenceQueryFindAllInstancesProcessor(persistenceManager, frameworkSynchronizer, queryCache));
+        persistenceQueryProcessorByClass.put(PersistenceQueryFindByTitle.class, new PersistenceQueryFindByTitleProcessor(persistenceManager, frameworkSynchronizer, queryCache));
+        persistenceQueryProcessorByClass.put(PersistenceQueryFindByPattern.class, new PersistenceQueryFindByPatternProcessor(persistenceManager, frameworkSynchronizer, queryCache));
+        persistenceQueryProcessorByClass.put(PersistenceQueryFindUsingApplibQueryDefault.class, new PersistenceQueryFindUsingApplibQueryProcessor(persistenceManager, frameworkSynchronizer, queryCache));
+    }
+
+    private JdoQueryCache getQueryCacheIfEnabled() {
+        final boolean enabled = getConfiguration().getBoolean(QUERY_CACHE_KEY, QUERY_CACHE_DEFAULT);
+        return enabled ? applicationComponents.getQueryCache() : null;
     }
 
     // ///////////////////////////////////////////////////////////////////////
@@ -367,9 +419,7 @@ public void execute(final List<PersistenceCommand> commands) {
 
     private void executeCommands(final List<PersistenceCommand> commands) {
         
-        for (final PersistenceCommand command : commands) {
-            command.execute(null);
-        }
+        commandBatcher.execute(commands);
         getPersistenceManager().flush();
     }
 
@@ -411,7 +461,12 @@ public Object loadPojo(final TypedOid oid) {
             final PersistenceManager pm = getPersistenceManager();
             FetchPlan fetchPlan = pm.getFetchPlan();
             fetchPlan.addGroup(FetchGroup.DEFAULT);
-            result = pm.getObjectById(cls, jdoObjectId);
+            final PrefetchedFetchPlan prefetched = PrefetchedFetchPlan.apply(this, fetchPlan, cls);
+            try {
+                result = pm.getObjectById(cls, jdoObjectId);
+            } finally {
+                PrefetchedFetchPlan.restore(prefetched);
+            }
         } catch (final RuntimeException e) {
 
             final List<ExceptionRecognizer> exceptionRecognizers = getPersistenceSession().getServicesInjector().lookupServices(ExceptionRecognizer.class);
@@ -495,10 +550,14 @@ public void refreshRoot(final ObjectAdapter adapter) {
             throw new PojoRefreshException(adapter.getOid());
         }
 
+        // the refresh uses the persistence manager's fetch plan, so (as for loadPojo) apply any prefetch hints to it
+        final PrefetchedFetchPlan prefetched = PrefetchedFetchPlan.apply(this, getPersistenceManager().getFetchPlan(), adapter.getSpecification().getCorrespondingClass());
         try {
             getPersistenceManager().refresh(domainObject);
         } catch (final RuntimeException e) {
             throw new PojoRefreshException(adapter.getOid(), e);
+        } finally {
+            PrefetchedFetchPlan.restore(prefetched);
         }
 
         // possibly redundant because also called in the post-load event
@@ -529,6 +588,22 @@ private <Q extends PersistenceQuery> List<ObjectAdapter> processPersistenceQuery
         return persistenceQueryProcessor.process((Q)persistenceQuery);
     }
 
+    public long countInstances(final PersistenceQuery persistenceQuery) {
+        ensureOpened();
+        ensureInTransaction();
+
+        final PersistenceQueryProcessor<? extends PersistenceQuery> processor = persistenceQueryProcessorByClass.get(persistenceQuery.getClass());
+        if (processor == null) {
+            throw new UnsupportedFindException(MessageFormat.format("Unsupported criteria type: {0}", persistenceQuery.getClass().getName()));
+        }
+        return countPersistenceQuery(processor, persistenceQuery);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Q extends PersistenceQuery> long countPersistenceQuery(final PersistenceQueryProcessor<Q> persistenceQueryProcessor, final PersistenceQuery persistenceQuery) {
+        return persistenceQueryProcessor.count((Q)persistenceQuery);
+    }
+
     public boolean hasInstances(final ObjectSpecification specification) {
         ensureOpened();
         ensureInTransaction();
@@ -542,8 +617,153 @@ public boolean hasInstances(final ObjectSpecification specification) {
             return false;
         }
 
-        final Query jdoQuery = QueryUtil.createQuery(getPersistenceManager(), "o", "select o.id", specification, null);
-        throw new NotYetImplementedException();
+        // fetch at most one identity, rather than counting the whole extent
+        final Query jdoQuery = getPersistenceManager().newQuery(specification.getCorrespondingClass());
+        jdoQuery.setResult("JDOHelper.getObjectId(this)");
+        jdoQuery.setRange(0, 1);
+        final List<?> results = (List<?>) jdoQuery.execute();
+        return !results.isEmpty();
+    }
+
+    // ///////////////////////////////////////////////////////////////////////
+    // deleteInstances, updateInstances
+    // ///////////////////////////////////////////////////////////////////////
+
+    /**
+     * Executes a JDOQL bulk <tt>DELETE</tt>; see {@link JdoBulkStatements}.
+     */
+    @Override
+    public long deleteInstances(final PersistenceQuery persistenceQuery) {
+        ensureOpened();
+        ensureInTransaction();
+
+        final Class<?> cls = persistenceQuery.getSpecification().getCorrespondingClass();
+        final String jdoql = JdoBulkStatements.deleteFrom(cls, selectQueryFor(cls, persistenceQuery));
+        return executeBulk(cls, jdoql, argumentsFor(persistenceQuery));
+    }
+
+    /**
+     * Executes a JDOQL bulk <tt>UPDATE</tt>; see {@link JdoBulkStatements}.
+     */
+    @Override
+    public long updateInstances(final PersistenceQuery persistenceQuery, final Map<String, ObjectAdapter> newValueAdapterByPropertyId) {
+        ensureOpened();
+        ensureInTransaction();
+
+        final Class<?> cls = persistenceQuery.getSpecification().getCorrespondingClass();
+        final List<String> propertyIds = Lists.newArrayList(newValueAdapterByPropertyId.keySet());
+        final String jdoql = JdoBulkStatements.update(cls, propertyIds, selectQueryFor(cls, persistenceQuery));
+
+        final Map<String, Object> arguments = argumentsFor(persistenceQuery);
+        for (int i = 0; i < propertyIds.size(); i++) {
+            final ObjectAdapter newValueAdapter = newValueAdapterByPropertyId.get(propertyIds.get(i));
+            arguments.put(JdoBulkStatements.parameterNameFor(i), ObjectAdapter.Util.unwrap(newValueAdapter));
+        }
+        return executeBulk(cls, jdoql, arguments);
+    }
+
+    /**
+     * @return the named query, compiled (so that its components have been parsed), or <tt>null</tt> if all instances.
+     */
+    private org.datanucleus.store.query.Query selectQueryFor(final Class<?> cls, final PersistenceQuery persistenceQuery) {
+        if (persistenceQuery instanceof PersistenceQueryFindAllInstances) {
+            return null;
+        }
+        if (persistenceQuery instanceof PersistenceQueryFindUsingApplibQueryDefault) {
+            final String queryName = ((PersistenceQueryFindUsingApplibQueryDefault) persistenceQuery).getQueryName();
+            if (getNamedQuery(queryName) == null) {
+                throw new UnsupportedFindException(MessageFormat.format("No named query ''{0}'' for bulk change", queryName));
+            }
+            final Query jdoQuery = getPersistenceManager().newNamedQuery(cls, queryName);
+            jdoQuery.compile();
+            return ((JDOQuery) jdoQuery).getInternalQuery();
+        }
+        throw new UnsupportedFindException(MessageFormat.format("Bulk changes not supported for criteria type: {0}", persistenceQuery.getClass().getName()));
+    }
+
+    private static Map<String, Object> argumentsFor(final PersistenceQuery persistenceQuery) {
+        final Map<String, Object> arguments = Maps.newHashMap();
+        if (persistenceQuery instanceof PersistenceQueryFindUsingApplibQueryDefault) {
+            final Map<String, ObjectAdapter> argumentAdapters = ((PersistenceQueryFindUsingApplibQueryDefault) persistenceQuery).getArgumentsAdaptersByParameterName();
+            for (final Map.Entry<String, ObjectAdapter> entry : argumentAdapters.entrySet()) {
+                arguments.put(entry.getKey(), ObjectAdapter.Util.unwrap(entry.getValue()));
+            }
+        }
+        return arguments;
+    }
+
+    private long executeBulk(final Class<?> cls, final String jdoql, final Map<String, Object> arguments) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("bulk: " + jdoql + " ( " + arguments + " )");
+        }
+        final Query jdoQuery = getPersistenceManager().newQuery(jdoql);
+        jdoQuery.addExtension(JdoBulkStatements.ALLOW_ALL_EXTENSION, "true");
+        final Object result = jdoQuery.executeWithMap(arguments);
+
+        // any cached copies are now stale
+        getPersistenceManager().getPersistenceManagerFactory().getDataStoreCache().evictAll(true, cls);
+
+        return result != null ? ((Number) result).longValue() : 0L;
+    }
+
+    // ///////////////////////////////////////////////////////////////////////
+    // evictInstances
+    // ///////////////////////////////////////////////////////////////////////
+
+    /**
+     * Evicts from the {@link PersistenceManager} those persistent entities that have not been
+     * modified in the current transaction; these are subsequently reloaded (and their adapters
+     * {@link #lazilyLoaded(Object) recreated}) if accessed again.
+     */
+    @Override
+    public List<ObjectAdapter> evictInstances(final List<ObjectAdapter> adapters) {
+        ensureOpened();
+
+        final List<ObjectAdapter> evicted = Lists.newArrayList();
+        for (final ObjectAdapter adapter : adapters) {
+            final Object pojo = adapter.getObject();
+            if (!(pojo instanceof PersistenceCapable) || adapter.isParented()) {
+                continue;
+            }
+            if (!JDOHelper.isPersistent(pojo) || JDOHelper.isDirty(pojo) || JDOHelper.isNew(pojo) || JDOHelper.isDeleted(pojo)) {
+                continue;
+            }
+            getPersistenceManager().evict(pojo);
+            evicted.add(adapter);
+        }
+        return evicted;
+    }
+
+    /**
+     * As {@link #evictInstances(List)}, but also discards the state of entities modified in the current
+     * transaction.  The {@link PersistenceManager} ignores requests to evict these, so they are refreshed
+     * instead; their changes have already been flushed, so nothing is lost.
+     */
+    @Override
+    public List<ObjectAdapter> evictChangedInstances(final List<ObjectAdapter> adapters) {
+        ensureOpened();
+
+        final List<ObjectAdapter> evicted = Lists.newArrayList();
+        for (final ObjectAdapter adapter : adapters) {
+            final Object pojo = adapter.getObject();
+            if (!(pojo instanceof PersistenceCapable) || adapter.isParented()) {
+                continue;
+            }
+            if (!JDOHelper.isPersistent(pojo) || JDOHelper.isDeleted(pojo)) {
+                continue;
+            }
+            if (JDOHelper.isDirty(pojo)) {
+                try {
+                    getPersistenceManager().refresh(pojo);
+                } catch (final JDOObjectNotFoundException ex) {
+                    // removed by the bulk delete; the adapter is discarded all the same
+                }
+            } else {
+                getPersistenceManager().evict(pojo);
+            }
+            evicted.add(adapter);
+        }
+        return evicted;
     }
 
     // ///////////////////////////////////////////////////////////////////////
@@ -638,8 +858,8 @@ private void ensureStateIs(final State stateRequired) {
     // ///////////////////////////////////////////////////////////////////////
 
     public void debugData(final DebugBuilder debug) {
-        // no-op
-        debug.append("this object store does not currently provide any debug data");
+        final JdoQueryCache queryCache = applicationComponents.getQueryCache();
+        debug.appendln("Query cache", queryCache);
     }
 
     public String debugTitle() {
@@ -654,6 +874,50 @@ public JdoNamedQuery getNamedQuery(String queryName) {
         return applicationComponents.getNamedQuery(queryName);
     }
 
+    /**
+     * Not API; adds any {@link org.apache.isis.applib.annotation.Prefetch prefetch} hints for the class to
+     * the provided fetch plan (unless disabled through {@link #PREFETCH_KEY}).
+     * 
+     * @return whether the fetch plan was modified.
+     */
+    public boolean applyPrefetch(final FetchPlan fetchPlan, final Class<?> cls) {
+        return prefetchFetchPlans != null && prefetchFetchPlans.applyTo(fetchPlan, cls);
+    }
+
+    /**
+     * The persistence manager's fetch plan, with any prefetch hints temporarily applied; captures its prior
+     * groups and maximum fetch depth so that they can be restored.
+     */
+    private static class PrefetchedFetchPlan {
+
+        /**
+         * @return <tt>null</tt> if there are no prefetch hints for the class (so nothing to restore).
+         */
+        static PrefetchedFetchPlan apply(final DataNucleusObjectStore objectStore, final FetchPlan fetchPlan, final Class<?> cls) {
+            final Set<String> groups = Sets.newHashSet(fetchPlan.getGroups());
+            final int maxFetchDepth = fetchPlan.getMaxFetchDepth();
+            return objectStore.applyPrefetch(fetchPlan, cls) ? new PrefetchedFetchPlan(fetchPlan, groups, maxFetchDepth) : null;
+        }
+
+        static void restore(final PrefetchedFetchPlan prefetched) {
+            if(prefetched == null) {
+                return;
+            }
+            prefetched.fetchPlan.setGroups(prefetched.groups);
+            prefetched.fetchPlan.setMaxFetchDepth(prefetched.maxFetchDepth);
+        }
+
+        private final FetchPlan fetchPlan;
+        private final Set<String> groups;
+        private final int maxFetchDepth;
+
+        private PrefetchedFetchPlan(final FetchPlan fetchPlan, final Set<String> groups, final int maxFetchDepth) {
+            this.fetchPlan = fetchPlan;
+            this.groups = groups;
+            this.maxFetchDepth = maxFetchDepth;
+        }
+    }
+
     /**
      * For testing purposes, to allow fixtures to use JDO to initialize the
      * database without triggering the objectstore.
@@ -19,6 +19,7 @@
 
 package org.apache.isis.objectstore.jdo.datanucleus;
 
+import javax.jdo.JDOHelper;
 import javax.jdo.spi.PersistenceCapable;
 import javax.jdo.spi.StateManager;
 
@@ -31,8 +32,10 @@
 import org.datanucleus.store.FieldValues;
 import org.datanucleus.store.fieldmanager.FieldManager;
 
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.services.ServicesInjectorSpi;
 import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
 import org.apache.isis.objectstore.jdo.datanucleus.service.eventbus.EventBusServiceJdo;
 
 public class JDOStateManagerForIsis extends ReferentialJDOStateManager implements StateManager, ObjectProvider {
@@ -150,6 +153,159 @@ public void postCommit(org.datanucleus.Transaction tx) {
         }
     }
 
+    // //////////////////////////////////////
+    // field modifications
+    // //////////////////////////////////////
+
+    @Override
+    public void setBooleanField(PersistenceCapable pc, int fieldNumber, boolean currentValue, boolean newValue) {
+        final IsisTransaction transaction = capturingTransactionFor(pc);
+        if(transaction != null) {
+            enlistUpdatingField(transaction, pc, fieldNumber, currentValue);
+        }
+        super.setBooleanField(pc, fieldNumber, currentValue, newValue);
+    }
+
+    @Override
+    public void setByteField(PersistenceCapable pc, int fieldNumber, byte currentValue, byte newValue) {
+        final IsisTransaction transaction = capturingTransactionFor(pc);
+        if(transaction != null) {
+            enlistUpdatingField(transaction, pc, fieldNumber, currentValue);
+        }
+        super.setByteField(pc, fieldNumber, currentValue, newValue);
+    }
+
+    @Override
+    public void setCharField(PersistenceCapable pc, int fieldNumber, char currentValue, char newValue) {
+        final IsisTransaction transaction = capturingTransactionFor(pc);
+        if(transaction != null) {
+            enlistUpdatingField(transaction, pc, fieldNumber, currentValue);
+        }
+        super.setCharField(pc, fieldNumber, currentValue, newValue);
+    }
+
+    @Override
+    public void setDoubleField(PersistenceCapable pc, int fieldNumber, double currentValue, double newValue) {
+        final IsisTransaction transaction = capturingTransactionFor(pc);
+        if(transaction != null) {
+            enlistUpdatingField(transaction, pc, fieldNumber, currentValue);
+        }
+        super.setDoubleField(pc, fieldNumber, currentValue, newValue);
+    }
+
+    @Override
+    public void setFloatField(PersistenceCapable pc, int fieldNumber, float currentValue, float newValue) {
+        final IsisTransaction transaction = capturingTransactionFor(pc);
+        if(transaction != null) {
+            enlistUpdatingField(transaction, pc, fieldNumber, currentValue);
+        }
+        super.setFloatField(pc, fieldNumber, currentValue, newValue);
+    }
+
+    @Override
+    public void setIntField(PersistenceCapable pc, int fieldNumber, int currentValue, int newValue) {
+        final IsisTransaction transaction = capturingTransactionFor(pc);
+        if(transaction != null) {
+            enlistUpdatingField(transaction, pc, fieldNumber, currentValue);
+        }
+        super.setIntField(pc, fieldNumber, currentValue, newValue);
+    }
+
+    @Override
+    public void setLongField(PersistenceCapable pc, int fieldNumber, long currentValue, long newValue) {
+        final IsisTransaction transaction = capturingTransactionFor(pc);
+        if(transaction != null) {
+            enlistUpdatingField(transaction, pc, fieldNumber, currentValue);
+        }
+        super.setLongField(pc, fieldNumber, currentValue, newValue);
+    }
+
+    @Override
+    public void setShortField(PersistenceCapable pc, int fieldNumber, short currentValue, short newValue) {
+        final IsisTransaction transaction = capturingTransactionFor(pc);
+        if(transaction != null) {
+            enlistUpdatingField(transaction, pc, fieldNumber, currentValue);
+        }
+        super.setShortField(pc, fieldNumber, currentValue, newValue);
+    }
+
+    @Override
+    public void setStringField(PersistenceCapable pc, int fieldNumber, String currentValue, String newValue) {
+        final IsisTransaction transaction = capturingTransactionFor(pc);
+        if(transaction != null) {
+            enlistUpdatingField(transaction, pc, fieldNumber, currentValue);
+        }
+        super.setStringField(pc, fieldNumber, currentValue, newValue);
+    }
+
+    @Override
+    public void setObjectField(PersistenceCapable pc, int fieldNumber, Object currentValue, Object newValue) {
+        final IsisTransaction transaction = capturingTransactionFor(pc);
+        if(transaction != null) {
+            enlistUpdatingField(transaction, pc, fieldNumber, currentValue);
+        }
+        super.setObjectField(pc, fieldNumber, currentValue, newValue);
+    }
+
+    /**
+     * The current {@link IsisTransaction}, if it {@link IsisTransaction#isPropertyCaptureRequired() requires} the
+     * value of a field of this (persistent) object just before it is modified; otherwise <tt>null</tt>.
+     * 
+     * <p>
+     * Called for every field written, so the field's value is not even boxed unless it is required.
+     */
+    protected IsisTransaction capturingTransactionFor(PersistenceCapable pc) {
+        if(!JDOHelper.isPersistent(pc) || JDOHelper.isNew(pc) || JDOHelper.isDeleted(pc)) {
+            return null;
+        }
+        if(!IsisContext.inSession()) {
+            return null;
+        }
+        return capturing(IsisContext.getCurrentTransaction());
+    }
+
+    static IsisTransaction capturing(final IsisTransaction transaction) {
+        if(transaction == null || transaction.getState().isComplete() || !transaction.isPropertyCaptureRequired()) {
+            return null;
+        }
+        return transaction;
+    }
+
+    /**
+     * Provides the value of the field, just before it is modified, to the current {@link IsisTransaction}.
+     * 
+     * <p>
+     * This happens before DataNucleus fires its <tt>preDirty</tt> callback (for the first modification of the
+     * object), and so means that the transaction need not read all of the object's properties up-front in order 
+     * to determine (and audit) those that are changed.
+     */
+    protected void enlistUpdatingField(IsisTransaction transaction, PersistenceCapable pc, int fieldNumber, Object currentValue) {
+        final ObjectAdapter adapter = IsisContext.getPersistenceSession().getAdapterManager().getAdapterFor(pc);
+        if(adapter == null) {
+            return;
+        }
+        final String fieldName = getClassMetaData().getMetaDataForManagedMemberAtAbsolutePosition(fieldNumber).getName();
+        enlistUpdatingField(transaction, adapter, fieldName, isFieldLoaded(fieldNumber), currentValue);
+    }
+
+    /**
+     * The value passed to the enhanced setter is only the field's actual value if the field has been loaded
+     * (otherwise it is just the default for its type); if not, the transaction instead reads all of the object's
+     * properties (loading the field) before it is written.
+     */
+    static void enlistUpdatingField(
+            final IsisTransaction transaction, 
+            final ObjectAdapter adapter, 
+            final String fieldName, 
+            final boolean loaded, 
+            final Object currentValue) {
+        if(!loaded) {
+            transaction.enlistUpdatingAllProperties(adapter);
+            return;
+        }
+        transaction.enlistUpdatingProperty(adapter, fieldName, currentValue);
+    }
+
     protected void mapIntoIsis(PersistenceCapable pc) {
         getServicesInjector().injectServicesInto(pc);
     }
@@ -0,0 +1,236 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.jdo.FetchGroup;
+import javax.jdo.FetchPlan;
+import javax.jdo.JDOException;
+import javax.jdo.PersistenceManagerFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.apache.isis.core.metamodel.facets.all.prefetch.PrefetchFacet;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+
+/**
+ * Translates the {@link PrefetchFacet}s of persistable classes into JDO fetch groups, registered once against
+ * the {@link PersistenceManagerFactory}, and applies them to {@link FetchPlan}s on demand.
+ *
+ * <p>
+ * For a class annotated with {@link org.apache.isis.applib.annotation.Prefetch @Prefetch}, a fetch group
+ * named <tt>isis-prefetch:&lt;class&gt;</tt> holds the listed members.  For a collection so annotated, the
+ * owning class's group additionally holds the collection, and a group named
+ * <tt>isis-prefetch:&lt;class&gt;#&lt;collection&gt;</tt> holds the listed members of the element type.
+ *
+ * <p>
+ * A class without a plan of its own uses that of its nearest superclass (if any), so that instances of an
+ * un-annotated subclass are still prefetched as per the superclass.
+ *
+ * <p>
+ * Members that cannot be resolved are logged and ignored, rather than failing bootstrap.
+ *
+ * <p>
+ * Thread-safe once constructed.
+ */
+public class PrefetchFetchPlans {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrefetchFetchPlans.class);
+
+    public static final String GROUP_PREFIX = "isis-prefetch:";
+
+    /**
+     * Fetch depth used when a collection's elements are themselves to have members prefetched (owner, then
+     * collection element, then the element's members).
+     */
+    static final int COLLECTION_ELEMENT_FETCH_DEPTH = 2;
+
+    static class Plan {
+        private final List<String> groups;
+        private final int maxFetchDepth;
+
+        Plan(final List<String> groups, final int maxFetchDepth) {
+            this.groups = ImmutableList.copyOf(groups);
+            this.maxFetchDepth = maxFetchDepth;
+        }
+
+        List<String> getGroups() {
+            return groups;
+        }
+
+        int getMaxFetchDepth() {
+            return maxFetchDepth;
+        }
+
+        @Override
+        public String toString() {
+            return groups + (maxFetchDepth > 0 ? ", maxFetchDepth=" + maxFetchDepth : "");
+        }
+    }
+
+    private final Map<Class<?>, Plan> planByClass;
+
+    /**
+     * The plan of the class or, if none, of its nearest superclass; <tt>null</tt> if none.
+     */
+    private final ClassValue<Plan> resolvedPlanByClass = new ClassValue<Plan>() {
+        @Override
+        protected Plan computeValue(final Class<?> cls) {
+            final Plan plan = planByClass.get(cls);
+            if(plan != null) {
+                return plan;
+            }
+            final Class<?> superclass = cls.getSuperclass();
+            return superclass != null ? get(superclass) : null;
+        }
+    };
+
+    public PrefetchFetchPlans(final PersistenceManagerFactory persistenceManagerFactory, final Collection<ObjectSpecification> specifications) {
+        final Map<Class<?>, Plan> planByClass = Maps.newHashMap();
+        final Set<FetchGroup> fetchGroups = Sets.newLinkedHashSet();
+        for (final ObjectSpecification specification : specifications) {
+            final Plan plan = planFor(persistenceManagerFactory, specification, fetchGroups);
+            if(plan != null) {
+                planByClass.put(specification.getCorrespondingClass(), plan);
+            }
+        }
+        if(!fetchGroups.isEmpty()) {
+            persistenceManagerFactory.addFetchGroups(fetchGroups.toArray(new FetchGroup[fetchGroups.size()]));
+        }
+        this.planByClass = Collections.unmodifiableMap(planByClass);
+    }
+
+    private static Plan planFor(
+            final PersistenceManagerFactory persistenceManagerFactory,
+            final ObjectSpecification specification,
+            final Set<FetchGroup> fetchGroups) {
+
+        final Class<?> cls = specification.getCorrespondingClass();
+        final List<String> groupNames = Lists.newArrayList();
+        int maxFetchDepth = 0;
+
+        final List<String> ownerMembers = Lists.newArrayList();
+
+        final PrefetchFacet typeFacet = specification.getFacet(PrefetchFacet.class);
+        if(typeFacet != null) {
+            ownerMembers.addAll(typeFacet.members());
+            groupNames.addAll(typeFacet.fetchGroups());
+            maxFetchDepth = Math.max(maxFetchDepth, typeFacet.maxFetchDepth());
+        }
+
+        final List<ObjectAssociation> collections = specification.getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.COLLECTIONS);
+        for (final ObjectAssociation collection : collections) {
+            final PrefetchFacet collectionFacet = collection.getFacet(PrefetchFacet.class);
+            if(collectionFacet == null) {
+                continue;
+            }
+            ownerMembers.add(collection.getId());
+            groupNames.addAll(collectionFacet.fetchGroups());
+            maxFetchDepth = Math.max(maxFetchDepth, collectionFacet.maxFetchDepth());
+
+            if(!collectionFacet.members().isEmpty()) {
+                final Class<?> elementCls = collection.getSpecification().getCorrespondingClass();
+                final String elementGroupName = GROUP_PREFIX + cls.getName() + "#" + collection.getId();
+                final FetchGroup elementGroup = fetchGroupFor(persistenceManagerFactory, elementCls, elementGroupName, collectionFacet.members());
+                if(elementGroup != null) {
+                    fetchGroups.add(elementGroup);
+                    groupNames.add(elementGroupName);
+                    maxFetchDepth = Math.max(maxFetchDepth, COLLECTION_ELEMENT_FETCH_DEPTH);
+                }
+            }
+        }
+
+        if(!ownerMembers.isEmpty()) {
+            final String ownerGroupName = GROUP_PREFIX + cls.getName();
+            final FetchGroup ownerGroup = fetchGroupFor(persistenceManagerFactory, cls, ownerGroupName, ownerMembers);
+            if(ownerGroup != null) {
+                fetchGroups.add(ownerGroup);
+                groupNames.add(0, ownerGroupName);
+            }
+        }
+
+        return groupNames.isEmpty() && maxFetchDepth == 0 ? null : new Plan(groupNames, maxFetchDepth);
+    }
+
+    /**
+     * @return the fetch group, or <tt>null</tt> if none of the members could be added.
+     */
+    private static FetchGroup fetchGroupFor(
+            final PersistenceManagerFactory persistenceManagerFactory,
+            final Class<?> cls,
+            final String groupName,
+            final List<String> members) {
+        final FetchGroup fetchGroup = persistenceManagerFactory.getFetchGroup(cls, groupName);
+        int added = 0;
+        for (final String member : members) {
+            try {
+                fetchGroup.addMember(member);
+                added++;
+            } catch(final JDOException ex) {
+                LOG.warn("@Prefetch: ignoring member '" + member + "' of " + cls.getName() + " (fetch group '" + groupName + "'): " + ex.getMessage());
+            }
+        }
+        return added > 0 ? fetchGroup : null;
+    }
+
+    // //////////////////////////////////////
+
+    /**
+     * Adds the prefetch groups (if any) for the class, or else for its nearest superclass, to the fetch plan,
+     * raising its maximum fetch depth if required.
+     *
+     * @return whether the fetch plan was modified.
+     */
+    public boolean applyTo(final FetchPlan fetchPlan, final Class<?> cls) {
+        final Plan plan = resolvedPlanByClass.get(cls);
+        if(plan == null) {
+            return false;
+        }
+        for (final String group : plan.getGroups()) {
+            fetchPlan.addGroup(group);
+        }
+        final int maxFetchDepth = plan.getMaxFetchDepth();
+        if(maxFetchDepth > 0 && fetchPlan.getMaxFetchDepth() >= 0 && fetchPlan.getMaxFetchDepth() < maxFetchDepth) {
+            fetchPlan.setMaxFetchDepth(maxFetchDepth);
+        }
+        return true;
+    }
+
+    public boolean hasPlanFor(final Class<?> cls) {
+        return resolvedPlanByClass.get(cls) != null;
+    }
+
+    public int size() {
+        return planByClass.size();
+    }
+
+    @Override
+    public String toString() {
+        return "PrefetchFetchPlans" + planByClass;
+    }
+}
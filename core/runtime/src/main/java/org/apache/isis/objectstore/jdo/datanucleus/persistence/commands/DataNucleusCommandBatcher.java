@@ -0,0 +1,135 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.commands;
+
+import java.util.List;
+
+import javax.jdo.PersistenceManager;
+
+import com.google.common.collect.Lists;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
+
+/**
+ * Executes {@link PersistenceCommand}s, sending consecutive 
+ * {@link DataNucleusCreateObjectCommand create}s through {@link PersistenceManager#makePersistentAll(java.util.Collection)}
+ * and consecutive {@link DataNucleusDeleteObjectCommand delete}s through
+ * {@link PersistenceManager#deletePersistentAll(java.util.Collection)}, so that DataNucleus can batch the
+ * resultant JDBC statements.
+ * 
+ * <p>
+ * Commands are never reordered: a batch is sent as soon as a command of a different kind is encountered
+ * (or the batch size is reached), so that objects are inserted and deleted in the same order as 
+ * previously, as referential integrity may require.  {@link DataNucleusUpdateObjectCommand update}s 
+ * do not write to the datastore, and so do not end the current batch.
+ * 
+ * <p>
+ * A batch size of 1 or less disables batching, in which case each command is simply executed in turn.
+ */
+public class DataNucleusCommandBatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataNucleusCommandBatcher.class);
+
+    static enum Kind {
+        CREATE, DELETE
+    }
+
+    private final PersistenceManager persistenceManager;
+    private final int batchSize;
+
+    private final List<Object> batch = Lists.newArrayList();
+    private Kind batchKind;
+
+    public DataNucleusCommandBatcher(final PersistenceManager persistenceManager, final int batchSize) {
+        this.persistenceManager = persistenceManager;
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void execute(final List<PersistenceCommand> commands) {
+        if(batchSize <= 1) {
+            for (final PersistenceCommand command : commands) {
+                command.execute(null);
+            }
+            return;
+        }
+        try {
+            for (final PersistenceCommand command : commands) {
+                if(command instanceof DataNucleusCreateObjectCommand) {
+                    final ObjectAdapter adapter = command.onAdapter();
+                    if(!adapter.isTransient()) {
+                        // as per DataNucleusCreateObjectCommand, already persisted by reachability
+                        continue;
+                    }
+                    addToBatch(Kind.CREATE, adapter.getObject());
+                } else if(command instanceof DataNucleusDeleteObjectCommand) {
+                    addToBatch(Kind.DELETE, command.onAdapter().getObject());
+                } else if(command instanceof DataNucleusUpdateObjectCommand) {
+                    command.execute(null);
+                } else {
+                    sendBatch();
+                    command.execute(null);
+                }
+            }
+            sendBatch();
+        } finally {
+            batch.clear();
+            batchKind = null;
+        }
+    }
+
+    private void addToBatch(final Kind kind, final Object pojo) {
+        if(batchKind != kind) {
+            sendBatch();
+            batchKind = kind;
+        }
+        batch.add(pojo);
+        if(batch.size() >= batchSize) {
+            sendBatch();
+        }
+    }
+
+    private void sendBatch() {
+        if(batch.isEmpty()) {
+            return;
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("executing batch: " + batchKind + " " + batch.size() + " object(s)");
+        }
+        // a copy, since the batch is reused
+        final List<Object> pojos = Lists.newArrayList(batch);
+        batch.clear();
+        switch (batchKind) {
+        case CREATE:
+            persistenceManager.makePersistentAll(pojos);
+            break;
+        case DELETE:
+            persistenceManager.deletePersistentAll(pojos);
+            break;
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.List;
+import com.google.common.base.Strings;
+import org.datanucleus.store.query.Query;
+import org.apache.isis.core.runtime.persistence.UnsupportedFindException;
+
+/**
+ * Builds the JDOQL bulk <tt>DELETE</tt> and <tt>UPDATE</tt> statements for set-based changes, either
+ * of all instances of a class or of those selected by a named query.
+ *
+ * <p>
+ * A named query is reused by taking the components of its compiled form: its candidate class, and its
+ * filter, variables, parameters and imports.  Any ordering or range is simply not carried over.  Queries
+ * with a result clause or grouping cannot be rewritten.
+ *
+ * <p>
+ * These statements are a DataNucleus extension to JDOQL, so must be executed with the
+ * {@link #ALLOW_ALL_EXTENSION} set.
+ */
+public final class JdoBulkStatements {
+
+    public static final String ALLOW_ALL_EXTENSION = "datanucleus.query.jdoql.allowAll";
+
+    private static final String PARAMETER_PREFIX = "isisBulk";
+
+    private JdoBulkStatements() {
+    }
+
+    /**
+     * @param selectQuery - the (compiled) named query selecting the instances, or <tt>null</tt> for all
+     *                    instances of the class.
+     */
+    public static String deleteFrom(final Class<?> cls, final Query selectQuery) {
+        return "DELETE FROM " + candidateOf(cls, selectQuery) + remainderOf(selectQuery);
+    }
+
+    /**
+     * The new values are passed as implicit parameters, named by {@link #parameterNameFor(int)}
+     * according to the position of the property in the list.
+     *
+     * @param selectQuery - as for {@link #deleteFrom(Class, Query)}.
+     */
+    public static String update(final Class<?> cls, final List<String> propertyIds, final Query selectQuery) {
+        if(selectQuery != null && !selectQuery.isSubclasses()) {
+            throw new UnsupportedFindException("Bulk update is not supported for queries excluding subclasses: " + selectQuery);
+        }
+        if(selectQuery != null && !Strings.isNullOrEmpty(selectQuery.getExplicitParameters())) {
+            throw new UnsupportedFindException("Bulk update is not supported for queries with explicit parameters: " + selectQuery);
+        }
+        final StringBuilder buf = new StringBuilder("UPDATE ").append(candidateOf(cls, selectQuery)).append(" SET ");
+        for (int i = 0; i < propertyIds.size(); i++) {
+            if(i > 0) {
+                buf.append(", ");
+            }
+            buf.append("this.").append(propertyIds.get(i)).append(" = :").append(parameterNameFor(i));
+        }
+        return buf.append(remainderOf(selectQuery)).toString();
+    }
+
+    public static String parameterNameFor(final int i) {
+        return PARAMETER_PREFIX + i;
+    }
+
+    /**
+     * The query's own candidate (which may be a subclass of the class that declares it).
+     */
+    private static String candidateOf(final Class<?> cls, final Query selectQuery) {
+        if(selectQuery == null) {
+            return cls.getName();
+        }
+        if(!Strings.isNullOrEmpty(selectQuery.getCandidateClassName())) {
+            return selectQuery.getCandidateClassName();
+        }
+        final Class<?> candidateClass = selectQuery.getCandidateClass();
+        return candidateClass != null ? candidateClass.getName() : cls.getName();
+    }
+
+    /**
+     * Everything after the candidate class (ie the filter, and any variables, parameters and imports).
+     */
+    private static String remainderOf(final Query selectQuery) {
+        if(selectQuery == null) {
+            return "";
+        }
+        if(!Strings.isNullOrEmpty(selectQuery.getResult()) || selectQuery.getResultClass() != null) {
+            throw new UnsupportedFindException("Bulk changes require a query selecting the candidate instances (no result clause): " + selectQuery);
+        }
+        if(!Strings.isNullOrEmpty(selectQuery.getGrouping()) || !Strings.isNullOrEmpty(selectQuery.getHaving())) {
+            throw new UnsupportedFindException("Bulk changes are not supported for queries with grouping: " + selectQuery);
+        }
+        final StringBuilder buf = new StringBuilder();
+        if(!selectQuery.isSubclasses()) {
+            buf.append(" EXCLUDE SUBCLASSES");
+        }
+        appendClause(buf, "WHERE", selectQuery.getFilter());
+        appendClause(buf, "VARIABLES", selectQuery.getExplicitVariables());
+        appendClause(buf, "PARAMETERS", selectQuery.getExplicitParameters());
+        final String imports = selectQuery.getImports();
+        if(!Strings.isNullOrEmpty(imports)) {
+            buf.append(imports.trim().toLowerCase().startsWith("import ") ? " " : " import ").append(imports.trim());
+        }
+        return buf.toString();
+    }
+
+    private static void appendClause(final StringBuilder buf, final String keyword, final String clause) {
+        if(!Strings.isNullOrEmpty(clause)) {
+            buf.append(' ').append(keyword).append(' ').append(clause.trim());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.PersistenceManagerFactory;
+import javax.jdo.Query;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Application-scoped cache of compiled JDO queries, so that the query processors need not look up named query
+ * metadata, build up filters, or have DataNucleus (re)compile the query on every execution.
+ * 
+ * <p>
+ * Each distinct {@link Key} is compiled once, into a template held against a {@link PersistenceManager} of the 
+ * cache's own (never used to execute anything).  Each {@link #newQuery(PersistenceManager, Key, Factory) request} 
+ * then returns a copy of that template, created using {@link PersistenceManager#newQuery(Object)}, against the 
+ * caller's {@link PersistenceManager}.  The caller is free to set the range on, or to execute, the copy.
+ * 
+ * <p>
+ * Whether the query of a cached key {@link #isOrdered(Key, OrderingInspector) defines its own ordering} is also
+ * held alongside its template, so that it too is determined only once.
+ * 
+ * <p>
+ * The number of templates is capped; once full, queries are created afresh each time (and counted as misses).
+ */
+public class JdoQueryCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JdoQueryCache.class);
+
+    public static final int MAX_SIZE_DEFAULT = 1000;
+
+    /**
+     * Whether the query will be executed with or without a range, or to count the instances that match.
+     */
+    public static enum Shape {
+        ALL,
+        RANGED,
+        COUNT
+    }
+
+    /**
+     * Identifies a query definition; queries with equal keys must be equivalent.
+     */
+    public static final class Key {
+        private final String className;
+        private final String definition;
+        private final Shape shape;
+
+        /**
+         * @param definition - the name of the named query, or a description (such as the filter) that identifies 
+         *                     the query among the other queries for the class.
+         */
+        public Key(final Class<?> cls, final String definition, final Shape shape) {
+            this.className = cls.getName();
+            this.definition = definition;
+            this.shape = shape;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return className.equals(other.className) && 
+                   Objects.equal(definition, other.definition) && 
+                   shape == other.shape;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(className, definition, shape);
+        }
+
+        @Override
+        public String toString() {
+            return className + " # " + definition + " [" + shape + "]";
+        }
+    }
+
+    /**
+     * Creates the query for a {@link Key} not yet cached.
+     */
+    public interface Factory {
+        Query newQuery(PersistenceManager persistenceManager);
+    }
+
+    /**
+     * Determines whether the query for a {@link Key} defines its own ordering, if not yet known.
+     */
+    public interface OrderingInspector {
+        boolean isOrdered();
+    }
+
+    private final PersistenceManagerFactory persistenceManagerFactory;
+    private final int maxSize;
+    private final ConcurrentMap<Key, Query> templateByKey = Maps.newConcurrentMap();
+    private final ConcurrentMap<Key, Boolean> orderedByKey = Maps.newConcurrentMap();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Created lazily, and only accessed while holding the monitor.
+     */
+    private PersistenceManager templatePersistenceManager;
+
+    public JdoQueryCache(final PersistenceManagerFactory persistenceManagerFactory) {
+        this(persistenceManagerFactory, MAX_SIZE_DEFAULT);
+    }
+
+    public JdoQueryCache(final PersistenceManagerFactory persistenceManagerFactory, final int maxSize) {
+        this.persistenceManagerFactory = persistenceManagerFactory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns a new query, against the provided {@link PersistenceManager}, copied from the cached template for
+     * the key (using the factory to create and cache the template if need be).
+     */
+    public Query newQuery(final PersistenceManager persistenceManager, final Key key, final Factory factory) {
+        Query template = templateByKey.get(key);
+        if(template != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+            template = templateFor(key, factory);
+            if(template == null) {
+                return factory.newQuery(persistenceManager);
+            }
+        }
+        return persistenceManager.newQuery(template);
+    }
+
+    /**
+     * Whether the query for the key defines its own ordering, as determined by the inspector; once the key's
+     * template has been cached, this is determined only once (and then held alongside the template).
+     */
+    public boolean isOrdered(final Key key, final OrderingInspector inspector) {
+        final Boolean ordered = orderedByKey.get(key);
+        if(ordered != null) {
+            return ordered;
+        }
+        final boolean inspectedOrdered = inspector.isOrdered();
+        if(templateByKey.containsKey(key)) {
+            // if inspected concurrently by another thread, then either result will do.
+            orderedByKey.put(key, inspectedOrdered);
+        }
+        return inspectedOrdered;
+    }
+
+    private synchronized Query templateFor(final Key key, final Factory factory) {
+        Query template = templateByKey.get(key);
+        if(template != null) {
+            return template;
+        }
+        if(templateByKey.size() >= maxSize) {
+            return null;
+        }
+        if(templatePersistenceManager == null) {
+            templatePersistenceManager = persistenceManagerFactory.getPersistenceManager();
+        }
+        template = factory.newQuery(templatePersistenceManager);
+        template.compile();
+        templateByKey.put(key, template);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("compiled and cached query: " + key);
+        }
+        return template;
+    }
+
+    //region > statistics
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int size() {
+        return templateByKey.size();
+    }
+
+    //endregion
+
+    /**
+     * Discards all templates (eg if the metadata has changed), resetting the statistics.
+     */
+    public synchronized void clear() {
+        templateByKey.clear();
+        orderedByKey.clear();
+        hitCount.set(0);
+        missCount.set(0);
+        if(templatePersistenceManager != null) {
+            templatePersistenceManager.close();
+            templatePersistenceManager = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JdoQueryCache[size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + "]";
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.util.Collections;
 import java.util.List;
 
 import javax.jdo.PersistenceManager;
@@ -35,20 +36,34 @@ public class PersistenceQueryFindAllInstancesProcessor extends PersistenceQueryP
 
     private static final Logger LOG = LoggerFactory.getLogger(PersistenceQueryFindAllInstancesProcessor.class);
 
+    private static final String DEFINITION = "#allInstances";
+
     public PersistenceQueryFindAllInstancesProcessor(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer) {
         super(persistenceManager, frameworkSynchronizer);
     }
 
+    public PersistenceQueryFindAllInstancesProcessor(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer, final JdoQueryCache queryCache) {
+        super(persistenceManager, frameworkSynchronizer, queryCache);
+    }
+
     public List<ObjectAdapter> process(final PersistenceQueryFindAllInstances persistenceQuery) {
 
         final ObjectSpecification specification = persistenceQuery.getSpecification();
         
-        Class<?> cls = specification.getCorrespondingClass();
-        final Query jdoQuery = getPersistenceManager().newQuery(cls);
+        final Class<?> cls = specification.getCorrespondingClass();
+        final Query jdoQuery = newQuery(cls, DEFINITION, shapeOf(persistenceQuery), new JdoQueryCache.Factory() {
+            @Override
+            public Query newQuery(final PersistenceManager persistenceManager) {
+                return persistenceManager.newQuery(cls);
+            }
+        });
         
         // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
         jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+        applyPrefetch(jdoQuery, specification);
         
+        applyRange(jdoQuery, persistenceQuery, false);
+
         if (LOG.isDebugEnabled()) {
             LOG.debug("allInstances(): class=" + specification.getFullIdentifier());
         }
@@ -56,4 +71,27 @@ public List<ObjectAdapter> process(final PersistenceQueryFindAllInstances persis
         final List<?> pojos = (List<?>) jdoQuery.execute();
         return loadAdapters(specification, pojos);
     }
+
+    @Override
+    public long count(final PersistenceQueryFindAllInstances persistenceQuery) {
+        if(persistenceQuery.hasRange()) {
+            return super.count(persistenceQuery);
+        }
+
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+
+        final Class<?> cls = specification.getCorrespondingClass();
+        final Query jdoQuery = newQuery(cls, DEFINITION, JdoQueryCache.Shape.COUNT, new JdoQueryCache.Factory() {
+            @Override
+            public Query newQuery(final PersistenceManager persistenceManager) {
+                return configureForCount(persistenceManager.newQuery(cls));
+            }
+        });
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("count(): class=" + specification.getFullIdentifier());
+        }
+
+        return executeCount(jdoQuery, Collections.<String, Object>emptyMap());
+    }
 }
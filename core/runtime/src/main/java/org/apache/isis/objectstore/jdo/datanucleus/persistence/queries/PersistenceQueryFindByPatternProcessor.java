@@ -19,24 +19,134 @@
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
 import java.util.List;
+import java.util.Map;
 
 import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import org.apache.isis.core.commons.exceptions.NotYetImplementedException;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByPattern;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 
+/**
+ * Translates the non-null persisted properties of the pattern object into a JDOQL filter,
+ * so that matching (and any range) is performed by the datastore.
+ * 
+ * <p>
+ * Value properties are compared for equality, as per {@link PersistenceQueryFindByPattern#matches(ObjectAdapter)}.
+ * References to other entities are also compared for equality (that is, by identity), rather
+ * than by a substring match of their titles as is done in memory; the latter cannot be expressed in JDOQL. 
+ */
 public class PersistenceQueryFindByPatternProcessor extends
         PersistenceQueryProcessorAbstract<PersistenceQueryFindByPattern> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PersistenceQueryFindByPatternProcessor.class);
+
     public PersistenceQueryFindByPatternProcessor(
             final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer) {
         super(persistenceManager, frameworkSynchronizer);
     }
 
+    public PersistenceQueryFindByPatternProcessor(
+            final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer, final JdoQueryCache queryCache) {
+        super(persistenceManager, frameworkSynchronizer, queryCache);
+    }
+
     public List<ObjectAdapter> process(
             final PersistenceQueryFindByPattern persistenceQuery) {
-        throw new NotYetImplementedException();
+
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+        final Map<String, Object> argumentsByParameterName = Maps.newLinkedHashMap();
+        final Query jdoQuery = newJdoQuery(persistenceQuery, shapeOf(persistenceQuery), argumentsByParameterName);
+
+        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
+        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+        applyPrefetch(jdoQuery, specification);
+
+        applyRange(jdoQuery, persistenceQuery, false);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("findByPattern(): class=" + specification.getFullIdentifier() + ", filter=" + jdoQuery);
+        }
+
+        final List<?> pojos = (List<?>) jdoQuery.executeWithMap(argumentsByParameterName);
+        return loadAdapters(specification, pojos);
+    }
+
+    @Override
+    public long count(final PersistenceQueryFindByPattern persistenceQuery) {
+        if(persistenceQuery.hasRange()) {
+            return super.count(persistenceQuery);
+        }
+        final Map<String, Object> argumentsByParameterName = Maps.newLinkedHashMap();
+        final Query jdoQuery = newJdoQuery(persistenceQuery, JdoQueryCache.Shape.COUNT, argumentsByParameterName);
+        return executeCount(jdoQuery, argumentsByParameterName);
+    }
+
+    /**
+     * Creates the query, populating the supplied map with the arguments of the parameters
+     * referenced in its filter.
+     */
+    private Query newJdoQuery(
+            final PersistenceQueryFindByPattern persistenceQuery, 
+            final JdoQueryCache.Shape shape,
+            final Map<String, Object> argumentsByParameterName) {
+
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+        final ObjectAdapter pattern = persistenceQuery.getPattern();
+
+        final Class<?> cls = specification.getCorrespondingClass();
+        final String filter = filterFor(pattern, argumentsByParameterName);
+
+        // the filter depends only on which properties of the pattern are set, so can be used as the definition
+        return newQuery(cls, "#pattern " + filter, shape, new JdoQueryCache.Factory() {
+            @Override
+            public Query newQuery(final PersistenceManager persistenceManager) {
+                final Query jdoQuery = persistenceManager.newQuery(cls);
+                if(filter.length() > 0) {
+                    jdoQuery.setFilter(filter);
+                }
+                return shape == JdoQueryCache.Shape.COUNT ? configureForCount(jdoQuery) : jdoQuery;
+            }
+        });
+    }
+
+    static String filterFor(final ObjectAdapter pattern, final Map<String, Object> argumentsByParameterName) {
+        final StringBuilder filter = new StringBuilder();
+        final List<ObjectAssociation> fields = pattern.getSpecification().getAssociations(Contributed.EXCLUDED);
+        for (final ObjectAssociation fld : fields) {
+
+            // as per PersistenceQueryFindByPattern#matchesPattern, ignore
+            // collections and non-persisted properties
+            if (fld.isNotPersisted() || !fld.isOneToOneAssociation()) {
+                continue;
+            }
+
+            // an empty value in the pattern matches anything
+            if (fld.isEmpty(pattern)) {
+                continue;
+            }
+            final ObjectAdapter reqd = fld.get(pattern);
+            if (reqd == null || reqd.getObject() == null) {
+                continue;
+            }
+
+            final String parameterName = "p" + argumentsByParameterName.size();
+            argumentsByParameterName.put(parameterName, reqd.getObject());
+
+            if(filter.length() > 0) {
+                filter.append(" && ");
+            }
+            filter.append("this.").append(fld.getId()).append(" == :").append(parameterName);
+        }
+        return filter.toString();
     }
 }
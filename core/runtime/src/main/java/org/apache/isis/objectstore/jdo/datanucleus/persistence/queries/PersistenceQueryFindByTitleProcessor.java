@@ -18,29 +18,203 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import org.apache.isis.core.commons.exceptions.NotYetImplementedException;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet;
+import org.apache.isis.core.metamodel.facets.object.title.TitleFacet;
+import org.apache.isis.core.metamodel.facets.object.title.annotation.TitleFacetViaTitleAnnotation;
+import org.apache.isis.core.metamodel.facets.object.title.annotation.TitleFacetViaTitleAnnotation.TitleComponent;
+import org.apache.isis.core.metamodel.facets.propcoll.accessor.PropertyOrCollectionAccessorFacet;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByTitle;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 
+/**
+ * Where the title of the entity is derived from a single {@link org.apache.isis.applib.annotation.Title @Title}
+ * annotated persisted string property, the (case-insensitive) title search is performed by the datastore,
+ * along with any range.
+ * 
+ * <p>
+ * Otherwise, all instances are loaded and their titles matched in memory.
+ */
 public class PersistenceQueryFindByTitleProcessor extends PersistenceQueryProcessorAbstract<PersistenceQueryFindByTitle> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PersistenceQueryFindByTitleProcessor.class);
+
     public PersistenceQueryFindByTitleProcessor(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer) {
         super(persistenceManager, frameworkSynchronizer);
     }
 
+    public PersistenceQueryFindByTitleProcessor(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer, final JdoQueryCache queryCache) {
+        super(persistenceManager, frameworkSynchronizer, queryCache);
+    }
+
     public List<ObjectAdapter> process(final PersistenceQueryFindByTitle persistenceQuery) {
-        final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
-        final Class<?> correspondingClass = objectSpec.getCorrespondingClass();
-        return process(persistenceQuery, correspondingClass);
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+        final Class<?> cls = specification.getCorrespondingClass();
+
+        final String title = persistenceQuery.getTitle();
+        final ObjectAssociation titleProperty = titlePropertyFor(specification);
+        if(title.length() > 0 && titleProperty == null) {
+            // cannot be expressed in JDOQL, so match the titles in memory
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("findByTitle(): class=" + specification.getFullIdentifier() + ", matching titles in memory");
+            }
+            final Query jdoQuery = newJdoQuery(cls, null, JdoQueryCache.Shape.ALL);
+
+            // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
+            jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+            applyPrefetch(jdoQuery, specification);
+            if(persistenceQuery.hasRange()) {
+                // the range is applied in memory, but still relies on a stable ordering
+                jdoQuery.setOrdering(orderingByIdFor(specification));
+            }
+
+            final List<?> pojos = (List<?>) jdoQuery.execute();
+            return matchInMemory(persistenceQuery, loadAdapters(specification, pojos));
+        }
+
+        final Map<String, Object> argumentsByParameterName = Maps.newHashMap();
+        final Query jdoQuery = newJdoQuery(cls, filteredBy(title, titleProperty, argumentsByParameterName), shapeOf(persistenceQuery));
+
+        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
+        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+        applyPrefetch(jdoQuery, specification);
+
+        applyRange(jdoQuery, persistenceQuery, false);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("findByTitle(): class=" + specification.getFullIdentifier() + ", title=" + title);
+        }
+
+        final List<?> pojos = (List<?>) jdoQuery.executeWithMap(argumentsByParameterName);
+        return loadAdapters(specification, pojos);
+    }
+
+    @Override
+    public long count(final PersistenceQueryFindByTitle persistenceQuery) {
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+        final String title = persistenceQuery.getTitle();
+        final ObjectAssociation titleProperty = titlePropertyFor(specification);
+        if(persistenceQuery.hasRange() || (title.length() > 0 && titleProperty == null)) {
+            return super.count(persistenceQuery);
+        }
+
+        final Class<?> cls = specification.getCorrespondingClass();
+        final Map<String, Object> argumentsByParameterName = Maps.newHashMap();
+        final Query jdoQuery = newJdoQuery(cls, filteredBy(title, titleProperty, argumentsByParameterName), JdoQueryCache.Shape.COUNT);
+        return executeCount(jdoQuery, argumentsByParameterName);
+    }
+
+    /**
+     * The title property to filter by (if any), populating the argument for the filter's parameter.
+     */
+    private static ObjectAssociation filteredBy(
+            final String title, 
+            final ObjectAssociation titleProperty, 
+            final Map<String, Object> argumentsByParameterName) {
+        if(title.length() == 0) {
+            return null;
+        }
+        argumentsByParameterName.put("title", title);
+        return titleProperty;
+    }
+
+    /**
+     * @param titleProperty - if not <tt>null</tt>, then the query filters by this property, using a 
+     *                        <tt>title</tt> parameter.
+     */
+    private Query newJdoQuery(
+            final Class<?> cls, 
+            final ObjectAssociation titleProperty, 
+            final JdoQueryCache.Shape shape) {
+        final String filter = titleProperty != null ? titleFilterFor(titleProperty) : null;
+        return newQuery(cls, "#title " + (filter != null ? filter : ""), shape, new JdoQueryCache.Factory() {
+            @Override
+            public Query newQuery(final PersistenceManager persistenceManager) {
+                final Query jdoQuery = persistenceManager.newQuery(cls);
+                if(filter != null) {
+                    jdoQuery.setFilter(filter);
+                }
+                return shape == JdoQueryCache.Shape.COUNT ? configureForCount(jdoQuery) : jdoQuery;
+            }
+        });
+    }
+
+    /**
+     * Case-insensitive substring match, as per {@link PersistenceQueryFindByTitle#matches(String)}
+     * (the title held by the query is already lower case).
+     */
+    private static String titleFilterFor(final ObjectAssociation titleProperty) {
+        final String field = "this." + titleProperty.getId();
+        return field + " != null && " + field + ".toLowerCase().indexOf(:title) >= 0";
+    }
+
+    /**
+     * The persisted string property from which the title is derived, provided that the title is derived
+     * solely from that property (with no abbreviation); else <tt>null</tt>.
+     * 
+     * <p>
+     * Any text prepended or appended to the property's value does not participate in the search.
+     */
+    static ObjectAssociation titlePropertyFor(final ObjectSpecification specification) {
+        final TitleFacet titleFacet = specification.getFacet(TitleFacet.class);
+        if(!(titleFacet instanceof TitleFacetViaTitleAnnotation)) {
+            return null;
+        }
+        final List<TitleComponent> components = ((TitleFacetViaTitleAnnotation) titleFacet).getComponents();
+        if(components.size() != 1) {
+            return null;
+        }
+        final TitleComponent component = components.get(0);
+        if(component.getAbbreviateTo() != Integer.MAX_VALUE) {
+            return null;
+        }
+        final Method method = component.getMethod();
+        final List<ObjectAssociation> associations = specification.getAssociations(Contributed.EXCLUDED);
+        for (final ObjectAssociation association : associations) {
+            if(!association.isOneToOneAssociation() || association.isNotPersisted()) {
+                continue;
+            }
+            if(association.getSpecification().getCorrespondingClass() != String.class) {
+                continue;
+            }
+            final PropertyOrCollectionAccessorFacet accessorFacet = association.getFacet(PropertyOrCollectionAccessorFacet.class);
+            final ImperativeFacet imperativeFacet = accessorFacet != null ? ImperativeFacet.Util.getImperativeFacet(accessorFacet) : null;
+            if(imperativeFacet != null && imperativeFacet.getMethods().contains(method)) {
+                return association;
+            }
+        }
+        return null;
     }
 
-    private <Z> List<ObjectAdapter> process(final PersistenceQueryFindByTitle persistenceQuery, Class<Z> correspondingClass) {
-        throw new NotYetImplementedException();
+    private static List<ObjectAdapter> matchInMemory(final PersistenceQueryFindByTitle persistenceQuery, final List<ObjectAdapter> adapters) {
+        final List<ObjectAdapter> matching = Lists.newArrayList();
+        for (final ObjectAdapter adapter : adapters) {
+            if(persistenceQuery.matches(adapter.titleString())) {
+                matching.add(adapter);
+            }
+        }
+        if(!persistenceQuery.hasRange()) {
+            return matching;
+        }
+        final int start = (int) Math.min(persistenceQuery.getStart(), matching.size());
+        final int end = (int) Math.min(persistenceQuery.getEnd(), matching.size());
+        return start < end ? matching.subList(start, end) : Collections.<ObjectAdapter>emptyList();
     }
 }
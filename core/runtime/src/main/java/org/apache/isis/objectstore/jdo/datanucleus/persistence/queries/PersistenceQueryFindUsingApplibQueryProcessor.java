@@ -18,12 +18,14 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
+import javax.jdo.metadata.QueryMetadata;
+import javax.jdo.metadata.TypeMetadata;
 
 import com.google.common.collect.Maps;
 
@@ -31,7 +33,6 @@
 import org.slf4j.LoggerFactory;
 
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
-import org.apache.isis.core.metamodel.services.container.query.QueryCardinality;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindUsingApplibQueryDefault;
@@ -42,10 +43,21 @@ public class PersistenceQueryFindUsingApplibQueryProcessor extends PersistenceQu
     
     private static final Logger LOG = LoggerFactory.getLogger(PersistenceQueryFindUsingApplibQueryProcessor.class);
 
+    private static final Pattern ORDER_BY = Pattern.compile("\\border\\s+by\\b", Pattern.CASE_INSENSITIVE);
+    /**
+     * A single-string JDOQL query with a result clause, ie <tt>SELECT [UNIQUE] &lt;result&gt; FROM ...</tt>.
+     */
+    private static final Pattern RESULT = Pattern.compile("^\\s*select\\s+(?!(unique\\s+)?from\\b)\\S", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INTO_GROUP_BY_OR_RANGE = Pattern.compile("\\b(into|group\\s+by|range)\\b", Pattern.CASE_INSENSITIVE);
+
     public PersistenceQueryFindUsingApplibQueryProcessor(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer) {
         super(persistenceManager, frameworkSynchronizer);
     }
 
+    public PersistenceQueryFindUsingApplibQueryProcessor(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer, final JdoQueryCache queryCache) {
+        super(persistenceManager, frameworkSynchronizer, queryCache);
+    }
+
     public List<ObjectAdapter> process(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
         final String queryName = persistenceQuery.getQueryName();
         final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
@@ -60,6 +72,30 @@ public List<ObjectAdapter> process(final PersistenceQueryFindUsingApplibQueryDef
         return loadAdapters(objectSpec, results);
     }
 
+    @Override
+    public long count(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
+        final String queryName = persistenceQuery.getQueryName();
+        final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
+
+        if((objectSpec.getFullIdentifier() + "#pk").equals(queryName)) {
+            return getResultsPk(persistenceQuery).size();
+        }
+
+        final Class<?> cls = objectSpec.getCorrespondingClass();
+        if(persistenceQuery.hasRange() || !isCountable(queryMetadataFor(cls, queryName))) {
+            return super.count(persistenceQuery);
+        }
+
+        final Map<String, Object> argumentsByParameterName = unwrap(persistenceQuery.getArgumentsAdaptersByParameterName());
+        final Query jdoQuery = newNamedQuery(cls, queryName, JdoQueryCache.Shape.COUNT);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(cls.getName() + " # " + queryName + " ( " + argumentsByParameterName + " ) [count]");
+        }
+
+        return executeCount(jdoQuery, argumentsByParameterName);
+    }
+
     // special case handling
     private List<?> getResultsPk(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
 
@@ -78,6 +114,7 @@ private List<?> getResultsPk(final PersistenceQueryFindUsingApplibQueryDefault p
 
         // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
         jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+        applyPrefetch(jdoQuery, objectSpec);
         
         if (LOG.isDebugEnabled()) {
             LOG.debug(cls.getName() + " # " + queryName + " ( " + filter + " )");
@@ -90,29 +127,106 @@ private List<?> getResults(final PersistenceQueryFindUsingApplibQueryDefault per
         
         final String queryName = persistenceQuery.getQueryName();
         final Map<String, Object> argumentsByParameterName = unwrap(persistenceQuery.getArgumentsAdaptersByParameterName());
-        final QueryCardinality cardinality = persistenceQuery.getCardinality();
         final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
 
-        final PersistenceManager persistenceManager = getJdoObjectStore().getPersistenceManager();
         final Class<?> cls = objectSpec.getCorrespondingClass();
-        final Query jdoQuery = persistenceManager.newNamedQuery(cls, queryName);
+        final JdoQueryCache.Shape shape = shapeOf(persistenceQuery);
+        final Query jdoQuery = newNamedQuery(cls, queryName, shape);
         
         // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
         jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+        applyPrefetch(jdoQuery, objectSpec);
         
+        // for SINGLE or UNIQUE cardinality, the range will have been narrowed
+        // (see PersistenceQueryFactory) so that only the rows required are fetched
         if(persistenceQuery.hasRange()) {
-            jdoQuery.setRange(persistenceQuery.getStart(), persistenceQuery.getEnd());
+            applyRange(jdoQuery, persistenceQuery, isOrdered(cls, queryName, shape));
         }
         
         if (LOG.isDebugEnabled()) {
             LOG.debug(cls.getName() + " # " + queryName + " ( " + argumentsByParameterName + " )");
         }
         
-        final List<?> results = (List<?>) jdoQuery.executeWithMap(argumentsByParameterName);
-        if (cardinality == QueryCardinality.MULTIPLE) {
-            return results;
+        return (List<?>) jdoQuery.executeWithMap(argumentsByParameterName);
+    }
+
+    private Query newNamedQuery(final Class<?> cls, final String queryName, final JdoQueryCache.Shape shape) {
+        return newQuery(cls, queryName, shape, new JdoQueryCache.Factory() {
+            @Override
+            public Query newQuery(final PersistenceManager persistenceManager) {
+                final Query jdoQuery = persistenceManager.newNamedQuery(cls, queryName);
+                return shape == JdoQueryCache.Shape.COUNT ? configureForCount(jdoQuery) : jdoQuery;
+            }
+        });
+    }
+
+    private boolean isOrdered(final Class<?> cls, final String queryName, final JdoQueryCache.Shape shape) {
+        return isOrdered(cls, queryName, shape, new JdoQueryCache.OrderingInspector() {
+            @Override
+            public boolean isOrdered() {
+                return PersistenceQueryFindUsingApplibQueryProcessor.isOrdered(queryMetadataFor(cls, queryName));
+            }
+        });
+    }
+
+    /**
+     * The metadata of the named query, searching up the class hierarchy; <tt>null</tt> if not found.
+     */
+    private QueryMetadata queryMetadataFor(final Class<?> cls, final String queryName) {
+        for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass()) {
+            final TypeMetadata typeMetadata = getTypeMetadata(c.getName());
+            final QueryMetadata[] queries = typeMetadata != null ? typeMetadata.getQueries() : null;
+            if(queries == null) {
+                continue;
+            }
+            for (final QueryMetadata queryMetadata : queries) {
+                if(queryName.equals(queryMetadata.getName())) {
+                    return queryMetadata;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether the named query defines its own ordering.
+     *
+     * <p>
+     * If the query cannot be inspected (no metadata, or not JDOQL), then it is assumed to do so, so that
+     * its ordering is never overridden.
+     */
+    private static boolean isOrdered(final QueryMetadata queryMetadata) {
+        if(!isJdoql(queryMetadata)) {
+            return true;
+        }
+        final String query = queryMetadata.getQuery();
+        return query != null && ORDER_BY.matcher(query).find();
+    }
+
+    /**
+     * Whether the named query can be {@link #configureForCount(Query) converted} to count its matches, that is
+     * a JDOQL query that defines no result (nor result class), grouping or range of its own.
+     *
+     * <p>
+     * If the query cannot be inspected (no metadata, or not JDOQL), then it is assumed not to be.
+     */
+    static boolean isCountable(final QueryMetadata queryMetadata) {
+        if(!isJdoql(queryMetadata)) {
+            return false;
+        }
+        final String query = queryMetadata.getQuery();
+        return query != null &&
+               queryMetadata.getResultClass() == null &&
+               !RESULT.matcher(query).find() &&
+               !INTO_GROUP_BY_OR_RANGE.matcher(query).find();
+    }
+
+    static boolean isJdoql(final QueryMetadata queryMetadata) {
+        if(queryMetadata == null) {
+            return false;
         }
-        return results.isEmpty()?Collections.emptyList():results.subList(0, 1);
+        final String language = queryMetadata.getLanguage();
+        return language == null || language.toUpperCase().endsWith("JDOQL");
     }
 
     private static Map<String, Object> unwrap(final Map<String, ObjectAdapter> argumentAdaptersByParameterName) {
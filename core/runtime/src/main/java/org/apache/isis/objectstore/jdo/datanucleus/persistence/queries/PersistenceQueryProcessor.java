@@ -25,6 +25,12 @@
 
 public interface PersistenceQueryProcessor<T extends PersistenceQuery> {
 	List<ObjectAdapter> process(T query);
+
+    /**
+     * The number of instances that {@link #process(PersistenceQuery)} would return
+     * (ignoring any range).
+     */
+    long count(T query);
 }
 
 // Copyright (c) Naked Objects Group Ltd.
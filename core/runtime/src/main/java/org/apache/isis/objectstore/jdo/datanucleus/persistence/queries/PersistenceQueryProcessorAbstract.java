@@ -19,16 +19,22 @@
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
 import java.util.List;
+import java.util.Map;
 import javax.jdo.PersistenceManager;
 import javax.jdo.PersistenceManagerFactory;
+import javax.jdo.Query;
 import javax.jdo.listener.InstanceLifecycleEvent;
 import javax.jdo.metadata.TypeMetadata;
 import javax.jdo.spi.PersistenceCapable;
+import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import org.apache.isis.core.commons.ensure.Assert;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryAbstract;
 import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.core.runtime.system.persistence.PersistenceQuery;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
@@ -36,16 +42,26 @@
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer.CalledFrom;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.IsisLifecycleListener;
+import org.apache.isis.objectstore.jdo.metamodel.util.JdoPrimaryKeyPropertyFilter;
 
 public abstract class PersistenceQueryProcessorAbstract<T extends PersistenceQuery>
         implements PersistenceQueryProcessor<T> {
 
     private final PersistenceManager persistenceManager;
     private final FrameworkSynchronizer frameworkSynchronizer;
+    private final JdoQueryCache queryCache;
 
     protected PersistenceQueryProcessorAbstract(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer) {
+        this(persistenceManager, frameworkSynchronizer, null);
+    }
+
+    /**
+     * @param queryCache - if <tt>null</tt>, then queries are created afresh for every execution.
+     */
+    protected PersistenceQueryProcessorAbstract(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer, final JdoQueryCache queryCache) {
         this.persistenceManager = persistenceManager;
         this.frameworkSynchronizer = frameworkSynchronizer;
+        this.queryCache = queryCache;
     }
 
     protected PersistenceManager getPersistenceManager() {
@@ -53,10 +69,96 @@ protected PersistenceManager getPersistenceManager() {
     }
     
     
+    /**
+     * Default implementation, which loads the matching instances and counts them; subclasses
+     * should override to count within the datastore where the query allows.
+     */
+    @Override
+    public long count(final T persistenceQuery) {
+        return process(persistenceQuery).size();
+    }
+
     // /////////////////////////////////////////////////////////////
     // helpers for subclasses
     // /////////////////////////////////////////////////////////////
 
+    /**
+     * Obtains the query from the {@link JdoQueryCache query cache} (if there is one), otherwise creates it
+     * using the factory.
+     */
+    protected Query newQuery(
+            final Class<?> cls, 
+            final String definition, 
+            final JdoQueryCache.Shape shape, 
+            final JdoQueryCache.Factory factory) {
+        if(queryCache == null) {
+            return factory.newQuery(getPersistenceManager());
+        }
+        return queryCache.newQuery(getPersistenceManager(), new JdoQueryCache.Key(cls, definition, shape), factory);
+    }
+
+    /**
+     * Whether the query defines its own ordering, as determined by the inspector; held in the
+     * {@link JdoQueryCache query cache} (if there is one) alongside the query's template, so that it is
+     * determined only once.
+     */
+    protected boolean isOrdered(
+            final Class<?> cls, 
+            final String definition, 
+            final JdoQueryCache.Shape shape, 
+            final JdoQueryCache.OrderingInspector inspector) {
+        if(queryCache == null) {
+            return inspector.isOrdered();
+        }
+        return queryCache.isOrdered(new JdoQueryCache.Key(cls, definition, shape), inspector);
+    }
+
+    protected static JdoQueryCache.Shape shapeOf(final PersistenceQueryAbstract persistenceQuery) {
+        return persistenceQuery.hasRange() ? JdoQueryCache.Shape.RANGED : JdoQueryCache.Shape.ALL;
+    }
+
+    /**
+     * Restricts the query to the range of the persistence query, if it has one.
+     *
+     * <p>
+     * Unless the query defines its own ordering, it is ordered by {@link #orderingByIdFor(ObjectSpecification) id},
+     * so that successive ranges (as used when iterating over the instances in chunks) neither skip nor repeat
+     * instances.
+     */
+    protected static void applyRange(final Query jdoQuery, final PersistenceQueryAbstract persistenceQuery, final boolean ordered) {
+        if(!persistenceQuery.hasRange()) {
+            return;
+        }
+        if(!ordered) {
+            jdoQuery.setOrdering(orderingByIdFor(persistenceQuery.getSpecification()));
+        }
+        jdoQuery.setRange(persistenceQuery.getStart(), persistenceQuery.getEnd());
+    }
+
+    /**
+     * Orders by the {@link javax.jdo.annotations.PrimaryKey primary key} properties of the entity, or
+     * by its datastore id if it has none.
+     */
+    static String orderingByIdFor(final ObjectSpecification specification) {
+        final List<? extends ObjectAssociation> primaryKeyProperties = specification.getAssociations(Contributed.EXCLUDED, new JdoPrimaryKeyPropertyFilter());
+        if(primaryKeyProperties.isEmpty()) {
+            return "JDOHelper.getObjectId(this) ascending";
+        }
+        final List<String> orderings = Lists.newArrayList();
+        for (final ObjectAssociation primaryKeyProperty : primaryKeyProperties) {
+            orderings.add("this." + primaryKeyProperty.getId() + " ascending");
+        }
+        return Joiner.on(", ").join(orderings);
+    }
+
+    /**
+     * Adds any {@link org.apache.isis.applib.annotation.Prefetch prefetch} hints for the queried type to the
+     * query's fetch plan.
+     */
+    protected void applyPrefetch(final Query jdoQuery, final ObjectSpecification specification) {
+        getJdoObjectStore().applyPrefetch(jdoQuery.getFetchPlan(), specification.getCorrespondingClass());
+    }
+
     protected PersistenceManagerFactory getPersistenceManagerFactory() {
         return getPersistenceManager().getPersistenceManagerFactory();
     }
@@ -64,7 +166,36 @@ protected PersistenceManagerFactory getPersistenceManagerFactory() {
     protected TypeMetadata getTypeMetadata(final String classFullName) {
         return getPersistenceManagerFactory().getMetadata(classFullName);
     }
+
+    /**
+     * Converts the query to return the count of its matches, executing it with the provided
+     * arguments.
+     *
+     * <p>
+     * As per {@link #configureForCount(Query)}; the caller must ensure that the query is suitable.
+     */
+    protected static long executeCount(final Query jdoQuery, final Map<String, Object> argumentsByParameterName) {
+        configureForCount(jdoQuery);
+        final Object result = jdoQuery.executeWithMap(argumentsByParameterName);
+        return result != null ? ((Number) result).longValue() : 0L;
+    }
     
+    /**
+     * Converts the query to return the count of its matches.
+     *
+     * <p>
+     * Its result, ordering and uniqueness are overwritten, so this is only suitable for a query that defines
+     * none of its own (nor a range or grouping, which would be applied to the count rather than to the matches);
+     * nor, since no range is applied, for a {@link PersistenceQueryAbstract#hasRange() ranged} persistence query.
+     * In any other case, use the {@link #count(PersistenceQuery) default} implementation instead.
+     */
+    protected static Query configureForCount(final Query jdoQuery) {
+        jdoQuery.setResult("count(this)");
+        jdoQuery.setOrdering(null);
+        jdoQuery.setUnique(true);
+        return jdoQuery;
+    }
+
     /**
      * Traversing the provided list causes (or should cause) the
      * {@link IsisLifecycleListener#postLoad(InstanceLifecycleEvent) {
@@ -18,6 +18,8 @@
  */
 package org.apache.isis.objectstore.jdo.service;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.PostConstruct;
@@ -28,10 +30,11 @@
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
-import org.reflections.Reflections;
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.isis.applib.annotation.Hidden;
+import org.apache.isis.applib.services.classdiscovery.ClasspathScan;
 import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
 import org.apache.isis.core.runtime.system.context.IsisContext;
 
@@ -64,19 +67,24 @@ public void shutdown() {
     private void registerAllPersistenceCapables() {
 
         for (final String packagePrefix : Iterables.transform(Splitter.on(",").split(packagePrefixes), trim())) {
-            Reflections reflections = new Reflections(packagePrefix);
-            
-            Set<Class<?>> entityTypes = 
-                    reflections.getTypesAnnotatedWith(PersistenceCapable.class);
+            Set<Class<?>> entityTypes =
+                    ClasspathScan.findTypesAnnotatedWith(PersistenceCapable.class, Collections.singletonList(packagePrefix));
             
             if(noEntitiesIn(entityTypes)) {
                 throw new IllegalStateException("Could not locate any @PersistenceCapable entities in package " + packagePrefix);
             }
+            final List<Class<?>> entityTypesToLoad = Lists.newArrayList();
             for (Class<?> entityType : entityTypes) {
                 if(ignore(entityType)) {
                     // ignore (probably a testing class)
                     continue;
                 }
+                entityTypesToLoad.add(entityType);
+            }
+            // loaded together, so can be introspected in parallel if so configured
+            getSpecificationLoader().loadSpecifications(entityTypesToLoad);
+            for (Class<?> entityType : entityTypesToLoad) {
+                // already loaded; ensures that each is also looked up by its object type
                 getSpecificationLoader().loadSpecification(entityType);
             }
         }
@@ -105,7 +113,7 @@ public String apply(String input) {
     }
 
     /**
-     * {@link Reflections} seems to return a set with 1 null element if none can be found.
+     * {@link ClasspathScan} (ie <tt>Reflections</tt>) seems to return a set with 1 null element if none can be found.
      */
     private static boolean noEntitiesIn(Set<Class<?>> entityTypes) {
         return Iterables.filter(entityTypes, nullClass()).iterator().hasNext();
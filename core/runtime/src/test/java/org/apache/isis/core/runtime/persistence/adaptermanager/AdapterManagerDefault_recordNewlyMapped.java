@@ -0,0 +1,183 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.persistence.adaptermanager;
+
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.annotation.MemberOrder;
+import org.apache.isis.applib.profiles.Localization;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapterFactory;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.app.IsisMetaModel;
+import org.apache.isis.core.metamodel.runtimecontext.RuntimeContext;
+import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.core.runtime.persistence.adapter.PojoAdapterFactory;
+import org.apache.isis.core.runtime.system.persistence.OidGenerator;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class AdapterManagerDefault_recordNewlyMapped {
+
+    public static class Customer {
+        // {{ Name (property)
+        private String name;
+
+        @MemberOrder(sequence = "1")
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+        // }}
+    }
+
+    public static class CustomerRepository {
+        public Customer x() { return null; }
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private RuntimeContext mockRuntimeContext;
+
+    @Mock
+    private OidGenerator mockOidGenerator;
+
+    @Mock
+    protected Localization mockLocalization;
+
+    @Mock
+    private AuthenticationSession mockAuthenticationSession;
+
+    @Mock
+    private IsisConfiguration mockConfiguration;
+
+    private IsisMetaModel isisMetaModel;
+
+    private ObjectAdapterFactory adapterFactory;
+
+    private AdapterManagerDefault adapterManager;
+
+    private ObjectAdapter alreadyMappedAdapter;
+
+    @Before
+    public void setUp() throws Exception {
+        org.apache.log4j.Logger.getRootLogger().setLevel(org.apache.log4j.Level.OFF);
+
+        context.ignoring(mockRuntimeContext);
+        context.ignoring(mockAuthenticationSession);
+        context.ignoring(mockConfiguration);
+        context.ignoring(mockOidGenerator);
+
+        isisMetaModel = new IsisMetaModel(
+                                mockRuntimeContext,
+                                new ProgrammingModelFacetsJava5(),
+                                Lists.newArrayList(new CustomerRepository()));
+        isisMetaModel.init();
+
+        adapterFactory = new PojoAdapterFactory() {
+            @Override
+            protected Localization getLocalization() {
+                return mockLocalization;
+            }
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return isisMetaModel.getSpecificationLoader();
+            }
+            @Override
+            protected AuthenticationSession getAuthenticationSession() {
+                return mockAuthenticationSession;
+            }
+        };
+
+        adapterManager = new AdapterManagerDefault(new PojoRecreatorDefault()) {
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return isisMetaModel.getSpecificationLoader();
+            }
+            @Override
+            protected ObjectAdapterFactory getObjectAdapterFactory() {
+                return adapterFactory;
+            }
+            @Override
+            public OidGenerator getOidGenerator() {
+                return mockOidGenerator;
+            }
+            @Override
+            protected ServicesInjector getServicesInjector() {
+                return isisMetaModel.getDependencyInjector();
+            }
+        };
+
+        alreadyMappedAdapter = adapterManager.mapRecreatedPojo(RootOidDefault.create(ObjectSpecId.of("CUS"), "1"), new Customer());
+    }
+
+    @Test
+    public void recordsOnlyThoseMappedForTheFirstTime() throws Exception {
+        final Set<ObjectAdapter> newlyMapped = adapterManager.startRecordingNewlyMappedRootAdapters();
+
+        final ObjectAdapter existing = adapterManager.mapRecreatedPojo(RootOidDefault.create(ObjectSpecId.of("CUS"), "1"), new Customer());
+        final ObjectAdapter added = adapterManager.mapRecreatedPojo(RootOidDefault.create(ObjectSpecId.of("CUS"), "2"), new Customer());
+
+        adapterManager.stopRecordingNewlyMappedRootAdapters(newlyMapped);
+
+        assertThat(existing == alreadyMappedAdapter, is(true));
+        assertThat(newlyMapped.contains(alreadyMappedAdapter), is(false));
+        assertThat(newlyMapped.contains(added), is(true));
+        assertThat(newlyMapped.size(), is(1));
+    }
+
+    @Test
+    public void stopsRecording() throws Exception {
+        final Set<ObjectAdapter> newlyMapped = adapterManager.startRecordingNewlyMappedRootAdapters();
+        adapterManager.stopRecordingNewlyMappedRootAdapters(newlyMapped);
+
+        adapterManager.mapRecreatedPojo(RootOidDefault.create(ObjectSpecId.of("CUS"), "2"), new Customer());
+
+        assertThat(newlyMapped.isEmpty(), is(true));
+    }
+
+    @Test
+    public void forgetsThoseSinceRemoved() throws Exception {
+        final Set<ObjectAdapter> newlyMapped = adapterManager.startRecordingNewlyMappedRootAdapters();
+        final ObjectAdapter added = adapterManager.mapRecreatedPojo(RootOidDefault.create(ObjectSpecId.of("CUS"), "2"), new Customer());
+
+        adapterManager.removeAdapter(added);
+        adapterManager.stopRecordingNewlyMappedRootAdapters(newlyMapped);
+
+        assertThat(newlyMapped.isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.proxy;
+
+import java.io.Serializable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+
+public class ProxyClassCacheTest {
+
+    public static class Customer {
+    }
+
+    public static class Order {
+    }
+
+    /**
+     * Doesn't actually create a proxy class, just counts invocations.
+     */
+    static class CountingFactory implements ProxyClassCache.ProxyClassFactory {
+        int count;
+        @Override
+        public Class<?> createProxyClass(Class<?> toProxyClass, Class<?>... auxiliaryTypes) {
+            count++;
+            return toProxyClass;
+        }
+    }
+
+    static class OtherCountingFactory extends CountingFactory {
+    }
+
+    private ProxyClassCache cache;
+    private CountingFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new ProxyClassCache(ProxyClassCache.MAX_PROXIED_CLASSES_DEFAULT);
+        factory = new CountingFactory();
+    }
+
+    @Test
+    public void createsOnlyOncePerClass() throws Exception {
+        final Class<Customer> first = cache.proxyClassFor(Customer.class, factory, Serializable.class);
+        final Class<Customer> second = cache.proxyClassFor(Customer.class, factory, Serializable.class);
+
+        Assert.assertThat(second, is(sameInstance(first)));
+        Assert.assertThat(factory.count, is(1));
+        Assert.assertThat(cache.size(), is(1L));
+    }
+
+    @Test
+    public void distinguishesByProxiedClass() throws Exception {
+        cache.proxyClassFor(Customer.class, factory, Serializable.class);
+        cache.proxyClassFor(Order.class, factory, Serializable.class);
+
+        Assert.assertThat(factory.count, is(2));
+        Assert.assertThat(cache.size(), is(2L));
+    }
+
+    @Test
+    public void distinguishesByAuxiliaryTypes() throws Exception {
+        cache.proxyClassFor(Customer.class, factory, Serializable.class);
+        cache.proxyClassFor(Customer.class, factory);
+
+        Assert.assertThat(factory.count, is(2));
+    }
+
+    @Test
+    public void distinguishesByFactory() throws Exception {
+        final CountingFactory otherFactory = new OtherCountingFactory();
+        cache.proxyClassFor(Customer.class, factory, Serializable.class);
+        cache.proxyClassFor(Customer.class, otherFactory, Serializable.class);
+
+        Assert.assertThat(factory.count, is(1));
+        Assert.assertThat(otherFactory.count, is(1));
+    }
+
+    @Test
+    public void clear() throws Exception {
+        cache.proxyClassFor(Customer.class, factory, Serializable.class);
+        cache.clear();
+        cache.proxyClassFor(Customer.class, factory, Serializable.class);
+
+        Assert.assertThat(factory.count, is(2));
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.audit;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import com.google.common.collect.Lists;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.audit.AuditEntry;
+import org.apache.isis.applib.services.audit.AuditingService3;
+import org.apache.isis.applib.services.audit.BatchAuditingService;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BatchAuditingServiceBackgroundTest {
+
+    private static class CollectingAuditingService3 implements AuditingService3 {
+        private final List<String> propertyNames = Lists.newArrayList();
+        private Thread calledOn;
+
+        @Override
+        public synchronized void audit(
+                final UUID transactionId, final String targetClassName, final Bookmark target,
+                final String memberIdentifier, final String propertyName,
+                final String preValue, final String postValue,
+                final String user, final Timestamp timestamp) {
+            calledOn = Thread.currentThread();
+            propertyNames.add(propertyName);
+            notifyAll();
+        }
+
+        synchronized List<String> awaitPropertyNames(final int count) throws InterruptedException {
+            final long deadline = System.currentTimeMillis() + 5000;
+            while(propertyNames.size() < count && System.currentTimeMillis() < deadline) {
+                wait(100);
+            }
+            return Lists.newArrayList(propertyNames);
+        }
+    }
+
+    private CollectingAuditingService3 auditingService3;
+    private BatchAuditingServiceBackground service;
+
+    @Before
+    public void setUp() throws Exception {
+        auditingService3 = new CollectingAuditingService3();
+        service = new BatchAuditingServiceBackground() {
+            @Override
+            protected void writeInSession(final List<AuditEntry> batch) {
+                new BatchAuditingService.Adapter(getAuditingService3()).audit(batch);
+            }
+        };
+        service.setAuditingService3(auditingService3);
+        service.init(Collections.<String, String>emptyMap());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        service.shutdown();
+    }
+
+    @Test
+    public void writesOnBackgroundThreadInOrder() throws Exception {
+        service.audit(Arrays.asList(entry("name"), entry("age")));
+        service.releasePendingEntries();
+        service.audit(Arrays.asList(entry("dob")));
+        service.releasePendingEntries();
+
+        assertThat(auditingService3.awaitPropertyNames(3), is((List<String>) Arrays.asList("name", "age", "dob")));
+        assertThat(auditingService3.calledOn == Thread.currentThread(), is(false));
+        assertThat(service.getWrittenCount(), is(3L));
+    }
+
+    @Test
+    public void shutdownWritesQueuedEntries() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            service.audit(Arrays.asList(entry("p" + i)));
+            service.releasePendingEntries();
+        }
+        service.shutdown();
+
+        assertThat(auditingService3.propertyNames.size(), is(100));
+        assertThat(service.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void discardsOnceShutDown() throws Exception {
+        service.shutdown();
+        service.audit(Arrays.asList(entry("name")));
+        service.releasePendingEntries();
+
+        assertThat(service.getFailedCount(), is(1L));
+        assertThat(auditingService3.propertyNames.size(), is(0));
+    }
+
+    @Test
+    public void holdsEntriesUntilReleased() throws Exception {
+        service.audit(Arrays.asList(entry("name")));
+        service.shutdown();
+
+        assertThat(auditingService3.propertyNames.size(), is(0));
+    }
+
+    @Test
+    public void discardsEntriesOfAbortedTransaction() throws Exception {
+        service.audit(Arrays.asList(entry("name")));
+        service.discardPendingEntries();
+        service.audit(Arrays.asList(entry("age")));
+        service.releasePendingEntries();
+
+        assertThat(auditingService3.awaitPropertyNames(1), is((List<String>) Arrays.asList("age")));
+    }
+
+    private static AuditEntry entry(final String propertyName) {
+        return new AuditEntry(
+                UUID.randomUUID(), "CUS", new Bookmark("CUS", "1"), "Customer#" + propertyName, propertyName,
+                "before", "after", "sven", new Timestamp(0L));
+    }
+}
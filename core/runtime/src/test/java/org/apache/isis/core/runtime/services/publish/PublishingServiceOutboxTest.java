@@ -0,0 +1,173 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.publish;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.google.common.collect.Maps;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.publish.EventMetadata;
+import org.apache.isis.applib.services.publish.EventPayload;
+import org.apache.isis.applib.services.publish.EventSerializer;
+import org.apache.isis.applib.services.publish.EventType;
+import org.apache.isis.applib.services.publish.ObjectStringifier;
+import org.apache.isis.applib.services.publish.SerializedEvent;
+import org.apache.isis.applib.services.publish.SerializedEventSink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PublishingServiceOutboxTest {
+
+    private static class FailingSink extends SerializedEventSink.InMemory {
+        private int failuresRemaining;
+
+        FailingSink(final int failures) {
+            this.failuresRemaining = failures;
+        }
+
+        @Override
+        public synchronized void deliver(final List<SerializedEvent> events) {
+            if(failuresRemaining-- > 0) {
+                throw new RuntimeException("unavailable");
+            }
+            super.deliver(events);
+        }
+    }
+
+    private static final EventPayload PAYLOAD = new EventPayload() {
+        @Override
+        public void withStringifier(final ObjectStringifier stringifier) {
+        }
+    };
+
+    private PublishingServiceOutbox outbox;
+    private Map<String, String> props;
+
+    @Before
+    public void setUp() throws Exception {
+        outbox = new PublishingServiceOutbox();
+        outbox.setEventSerializer(new EventSerializer() {
+            @Override
+            public Object serialize(final EventMetadata metadata, final EventPayload payload) {
+                return metadata.getTitle();
+            }
+        });
+        props = Maps.newHashMap();
+        props.put(PublishingServiceOutbox.RETRY_INTERVAL_MILLIS_KEY, "10");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        outbox.shutdown();
+    }
+
+    @Test
+    public void deliversInOrderOnlyOnceReleased() throws Exception {
+        final SerializedEventSink.InMemory sink = new SerializedEventSink.InMemory();
+        outbox.setSerializedEventSink(sink);
+        outbox.init(props);
+
+        final EventMetadata metadata1 = publish(0, "first");
+        publish(1, "second");
+        publish(2, "third");
+
+        Thread.sleep(200);
+        assertThat(sink.getEvents().size(), is(0));
+
+        outbox.releasePendingEvents();
+
+        final List<SerializedEvent> events = sink.awaitEvents(3, 5000);
+        assertThat(events.size(), is(3));
+        assertThat(events.get(0).getMetadata(), is(sameInstance(metadata1)));
+        assertThat((String) events.get(0).getSerializedForm(), is("first"));
+        assertThat((String) events.get(1).getSerializedForm(), is("second"));
+        assertThat((String) events.get(2).getSerializedForm(), is("third"));
+        assertThat(outbox.getDeliveredCount(), is(3L));
+        assertThat(outbox.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void discardedIfAborted() throws Exception {
+        final SerializedEventSink.InMemory sink = new SerializedEventSink.InMemory();
+        outbox.setSerializedEventSink(sink);
+        outbox.init(props);
+
+        publish(0, "aborted");
+        outbox.discardPendingEvents();
+        publish(0, "committed");
+        outbox.releasePendingEvents();
+
+        final List<SerializedEvent> events = sink.awaitEvents(1, 5000);
+        outbox.shutdown();
+
+        assertThat(sink.getEvents().size(), is(1));
+        assertThat((String) events.get(0).getSerializedForm(), is("committed"));
+    }
+
+    @Test
+    public void retriesFailedDelivery() throws Exception {
+        final FailingSink sink = new FailingSink(2);
+        outbox.setSerializedEventSink(sink);
+        outbox.init(props);
+
+        publish(0, "retried");
+        outbox.releasePendingEvents();
+
+        final List<SerializedEvent> events = sink.awaitEvents(1, 5000);
+        assertThat(events.size(), is(1));
+        assertThat(outbox.getRetryCount(), is(2L));
+        assertThat(outbox.getFailedCount(), is(0L));
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() throws Exception {
+        final FailingSink sink = new FailingSink(2);
+        outbox.setSerializedEventSink(sink);
+        props.put(PublishingServiceOutbox.MAX_ATTEMPTS_KEY, "2");
+        outbox.init(props);
+
+        publish(0, "dropped");
+        outbox.releasePendingEvents();
+        final long deadline = System.currentTimeMillis() + 5000;
+        while(outbox.getFailedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        publish(0, "delivered");
+        outbox.releasePendingEvents();
+
+        final List<SerializedEvent> events = sink.awaitEvents(1, 5000);
+        assertThat(events.size(), is(1));
+        assertThat((String) events.get(0).getSerializedForm(), is("delivered"));
+        assertThat(outbox.getFailedCount(), is(1L));
+    }
+
+    private EventMetadata publish(final int sequence, final String title) {
+        final EventMetadata metadata = new EventMetadata(UUID.randomUUID(), sequence, EventType.OBJECT_UPDATED, "sven", System.currentTimeMillis(), title);
+        outbox.publish(metadata, PAYLOAD);
+        return metadata;
+    }
+}
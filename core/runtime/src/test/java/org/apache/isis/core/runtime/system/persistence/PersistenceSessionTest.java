@@ -20,12 +20,17 @@
 package org.apache.isis.core.runtime.system.persistence;
 
 import java.util.Collections;
+import java.util.List;
+import com.google.common.collect.Lists;
 import org.jmock.Expectations;
 import org.jmock.Sequence;
 import org.jmock.auto.Mock;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryIterationPolicy;
+import org.apache.isis.applib.profiles.Localization;
 import org.apache.isis.applib.services.audit.AuditingService3;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.authentication.MessageBroker;
@@ -33,11 +38,16 @@
 import org.apache.isis.core.commons.matchers.IsisMatchers;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapterFactory;
+import org.apache.isis.core.metamodel.adapter.QueryChunkVisitor;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
 import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.core.metamodel.app.IsisMetaModel;
 import org.apache.isis.core.metamodel.runtimecontext.RuntimeContext;
+import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
 import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
 import org.apache.isis.core.metamodel.services.container.DomainObjectContainerDefault;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
 import org.apache.isis.core.metamodel.specloader.InjectorMethodEvaluatorDefault;
 import org.apache.isis.core.runtime.persistence.adapter.PojoAdapter;
@@ -53,6 +63,9 @@
 import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
 
 public class PersistenceSessionTest {
 
@@ -98,6 +111,12 @@ public class PersistenceSessionTest {
 
     @Mock
     private IsisConfiguration mockConfiguration;
+
+    @Mock
+    private Localization mockLocalization;
+
+    @Mock
+    private OidGenerator mockOidGenerator;
     
     @Mock
     private MessageBroker mockMessageBroker;
@@ -105,6 +124,7 @@ public class PersistenceSessionTest {
     
     private IsisMetaModel isisMetaModel;
 
+    private final List<ObjectSpecification> evictedSpecs = Lists.newArrayList();
 
 
     public static class Customer {
@@ -121,6 +141,7 @@ public void setUp() throws Exception {
         context.ignoring(mockRuntimeContext);
         context.ignoring(mockConfiguration);
         context.ignoring(mockAuditingService3);
+        context.ignoring(mockOidGenerator);
 
         isisMetaModel = new IsisMetaModel(mockRuntimeContext, new ProgrammingModelFacetsJava5(), new CustomerRepository());
         isisMetaModel.init();
@@ -149,14 +170,54 @@ public void setUp() throws Exception {
 
         servicesInjector = new ServicesInjectorDefault(new InjectorMethodEvaluatorDefault());
 
-        adapterManager = new AdapterManagerDefault(new PojoRecreatorUnified(mockConfiguration));
-        adapterFactory = new PojoAdapterFactory();
+        adapterFactory = new PojoAdapterFactory() {
+            @Override
+            protected Localization getLocalization() {
+                return mockLocalization;
+            }
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return isisMetaModel.getSpecificationLoader();
+            }
+            @Override
+            protected AuthenticationSession getAuthenticationSession() {
+                return mockAuthenticationSession;
+            }
+        };
+        adapterManager = new AdapterManagerDefault(new PojoRecreatorUnified(mockConfiguration)) {
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return isisMetaModel.getSpecificationLoader();
+            }
+            @Override
+            protected ObjectAdapterFactory getObjectAdapterFactory() {
+                return adapterFactory;
+            }
+            @Override
+            public OidGenerator getOidGenerator() {
+                return mockOidGenerator;
+            }
+            @Override
+            protected ServicesInjector getServicesInjector() {
+                return servicesInjector;
+            }
+        };
         persistenceSession = new PersistenceSession(mockPersistenceSessionFactory, servicesInjector, mockObjectStore, mockConfiguration) {
             @Override
             protected SpecificationLoaderSpi getSpecificationLoader() {
                 return isisMetaModel.getSpecificationLoader();
             }
-            
+
+            @Override
+            protected AdapterManagerDefault createAdapterManager(final IsisConfiguration configuration) {
+                return adapterManager;
+            }
+
+            @Override
+            protected void evictAdaptersOfType(final ObjectSpecification specification) {
+                evictedSpecs.add(specification);
+                super.evictAdaptersOfType(specification);
+            }
         };
         
         servicesInjector.setServices(Collections.<Object>singletonList(container));
@@ -238,6 +299,78 @@ public void destroyObject_thenCommit() {
         transactionManager.endTransaction();
     }
 
+    @Test
+    public void removeAllInstances_flushesPendingChangesFirst_thenEvicts() {
+
+        final Sequence tran = context.sequence("tran");
+        context.checking(new Expectations() {
+            {
+                oneOf(mockObjectStore).startTransaction();
+                inSequence(tran);
+
+                oneOf(mockObjectStore).createDestroyObjectCommand(persistentAdapter);
+                inSequence(tran);
+                will(returnValue(destroyObjectCommand));
+
+                // the pending destroy is flushed before the bulk delete
+                oneOf(mockObjectStore).execute(with(IsisMatchers.listContaining((PersistenceCommand)destroyObjectCommand)));
+                inSequence(tran);
+
+                oneOf(mockObjectStore).deleteInstances(with(any(PersistenceQuery.class)));
+                inSequence(tran);
+                will(returnValue(3L));
+
+                never(mockObjectStore).endTransaction();
+            }
+        });
+
+        transactionManager.startTransaction();
+        persistenceSession.destroyObject(persistentAdapter);
+        final long count = persistenceSession.removeAllInstances(new QueryFindAllInstances<Customer>(Customer.class));
+
+        assertThat(count, is(3L));
+        assertThat(evictedSpecs.size(), is(1));
+        assertThat(evictedSpecs.get(0).getCorrespondingClass(), equalTo((Object)Customer.class));
+    }
+
+    @Test
+    public void removeAllInstances_discardsAdaptersOfInstancesModifiedInTransaction() {
+
+        final Customer customer = new Customer();
+        final ObjectAdapter modifiedAdapter = adapterManager.mapRecreatedPojo(RootOidDefault.create(ObjectSpecId.of("CUS"), "3"), customer);
+
+        final Sequence tran = context.sequence("tran");
+        context.checking(new Expectations() {
+            {
+                oneOf(mockObjectStore).startTransaction();
+                inSequence(tran);
+
+                oneOf(mockObjectStore).createSaveObjectCommand(modifiedAdapter);
+                inSequence(tran);
+                will(returnValue(saveObjectCommand));
+
+                oneOf(mockObjectStore).execute(with(IsisMatchers.listContaining((PersistenceCommand)saveObjectCommand)));
+                inSequence(tran);
+
+                oneOf(mockObjectStore).deleteInstances(with(any(PersistenceQuery.class)));
+                inSequence(tran);
+                will(returnValue(1L));
+
+                // modified, yet still handed over to be evicted
+                oneOf(mockObjectStore).evictChangedInstances(with(IsisMatchers.listContaining(modifiedAdapter)));
+                inSequence(tran);
+                will(returnValue(Collections.singletonList(modifiedAdapter)));
+            }
+        });
+
+        transactionManager.startTransaction();
+        persistenceSession.objectChanged(modifiedAdapter);
+        persistenceSession.removeAllInstances(new QueryFindAllInstances<Customer>(Customer.class));
+
+        assertThat(adapterManager.getAdapterFor(customer), is(nullValue()));
+        assertThat(adapterManager.getAdapterFor(modifiedAdapter.getOid()), is(nullValue()));
+    }
+
     @Test
     public void makePersistent_happyCase() {
 
@@ -265,4 +398,56 @@ public void makePersistent_happyCase() {
         persistenceSession.makePersistent(transientAdapter);
         transactionManager.endTransaction();
     }
+
+    @Test(expected=IllegalStateException.class)
+    public void visitInstances_commitPerChunk_whenAlreadyInTransaction() {
+
+        context.checking(new Expectations() {
+            {
+                oneOf(mockObjectStore).startTransaction();
+                never(mockObjectStore).loadInstancesAndAdapt(with(any(PersistenceQuery.class)));
+                never(mockObjectStore).endTransaction();
+            }
+        });
+
+        transactionManager.startTransaction();
+        persistenceSession.visitInstances(
+                new QueryFindAllInstances<Customer>(Customer.class), 
+                QueryIterationPolicy.DEFAULT.withCommitPerChunk(), 
+                new NoopQueryChunkVisitor());
+    }
+
+    @Test
+    public void visitInstances_withinTransaction_doesNotCompleteIt() {
+
+        context.checking(new Expectations() {
+            {
+                oneOf(mockObjectStore).startTransaction();
+                
+                oneOf(mockObjectStore).loadInstancesAndAdapt(with(any(PersistenceQuery.class)));
+                will(returnValue(Collections.<ObjectAdapter>emptyList()));
+
+                never(mockObjectStore).endTransaction();
+            }
+        });
+
+        transactionManager.startTransaction();
+        persistenceSession.visitInstances(
+                new QueryFindAllInstances<Customer>(Customer.class), 
+                QueryIterationPolicy.DEFAULT, 
+                new NoopQueryChunkVisitor());
+
+        assertThat(transactionManager.inTransaction(), is(true));
+    }
+
+    private static class NoopQueryChunkVisitor implements QueryChunkVisitor {
+        @Override
+        public List<ObjectAdapter> visit(final List<ObjectAdapter> chunk) {
+            return Collections.emptyList();
+        }
+        @Override
+        public boolean isComplete() {
+            return false;
+        }
+    }
 }
@@ -29,6 +29,7 @@
 import org.apache.isis.applib.annotation.PublishedAction;
 import org.apache.isis.applib.annotation.PublishedObject;
 import org.apache.isis.applib.services.audit.AuditingService3;
+import org.apache.isis.applib.services.audit.BatchAuditingService;
 import org.apache.isis.applib.services.command.CommandContext;
 import org.apache.isis.applib.services.command.spi.CommandService;
 import org.apache.isis.applib.services.publish.EventSerializer;
@@ -192,6 +193,9 @@ public void setUp() throws Exception {
             allowing(mockServicesInjector).lookupService(CommandService.class);
             will(returnValue(mockCommandService));
 
+            allowing(mockServicesInjector).lookupService(BatchAuditingService.class);
+            will(returnValue(null));
+
             allowing(mockServicesInjector).lookupService(AuditingService3.class);
             will(returnValue(mockAuditingService3));
 
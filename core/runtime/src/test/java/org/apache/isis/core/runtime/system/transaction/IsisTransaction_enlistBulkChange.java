@@ -0,0 +1,180 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import com.google.common.collect.Lists;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.annotation.PublishedObject.ChangeKind;
+import org.apache.isis.applib.services.audit.AuditEntry;
+import org.apache.isis.applib.services.audit.BatchAuditingService;
+import org.apache.isis.applib.services.command.Command;
+import org.apache.isis.applib.services.command.CommandContext;
+import org.apache.isis.applib.services.publish.EventMetadata;
+import org.apache.isis.applib.services.publish.EventPayload;
+import org.apache.isis.applib.services.publish.EventPayloadForBulkChange;
+import org.apache.isis.applib.services.publish.EventSerializer;
+import org.apache.isis.applib.services.publish.EventType;
+import org.apache.isis.applib.services.publish.PublishingService;
+import org.apache.isis.core.commons.authentication.MessageBroker;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facets.object.audit.AuditableFacet;
+import org.apache.isis.core.metamodel.facets.object.publishedobject.PublishedObjectFacet;
+import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.runtime.system.persistence.ObjectStore;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class IsisTransaction_enlistBulkChange {
+
+    public static class Customer {
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+    @Mock
+    private MessageBroker mockMessageBroker;
+    @Mock
+    private ObjectStore mockObjectStore;
+    @Mock
+    private ServicesInjector mockServicesInjector;
+    @Mock
+    private CommandContext mockCommandContext;
+    @Mock
+    private Command mockCommand;
+    @Mock
+    private ObjectSpecification mockSpec;
+    @Mock
+    private AuditableFacet mockAuditableFacet;
+    @Mock
+    private PublishedObjectFacet mockPublishedObjectFacet;
+
+    private final List<AuditEntry> audited = Lists.newArrayList();
+    private final List<EventMetadata> publishedMetadata = Lists.newArrayList();
+    private final List<EventPayload> publishedPayloads = Lists.newArrayList();
+
+    private final Timestamp timestamp = new Timestamp(0L);
+
+    private IsisTransaction transaction;
+
+    @Before
+    public void setUp() throws Exception {
+        final BatchAuditingService auditingService = new BatchAuditingService() {
+            @Override
+            public void audit(final List<AuditEntry> entries) {
+                audited.addAll(entries);
+            }
+        };
+        final PublishingService publishingService = new PublishingService() {
+            @Override
+            public void publish(final EventMetadata metadata, final EventPayload payload) {
+                publishedMetadata.add(metadata);
+                publishedPayloads.add(payload);
+            }
+            @Override
+            public void setEventSerializer(final EventSerializer eventSerializer) {
+            }
+        };
+        context.checking(new Expectations() {
+            {
+                allowing(mockServicesInjector).lookupService(BatchAuditingService.class);
+                will(returnValue(auditingService));
+                allowing(mockServicesInjector).lookupService(PublishingService.class);
+                will(returnValue(publishingService));
+                allowing(mockServicesInjector).lookupService(CommandContext.class);
+                will(returnValue(mockCommandContext));
+                allowing(mockServicesInjector).lookupService(with(any(Class.class)));
+                will(returnValue(null));
+
+                allowing(mockCommandContext).getCommand();
+                will(returnValue(mockCommand));
+                allowing(mockCommand).getTransactionId();
+                will(returnValue(null));
+                allowing(mockCommand).next("publishedEvent");
+                will(returnValue(0));
+
+                allowing(mockSpec).getFullIdentifier();
+                will(returnValue(Customer.class.getName()));
+                allowing(mockSpec).getSpecId();
+                will(returnValue(ObjectSpecId.of("CUS")));
+                allowing(mockSpec).getCorrespondingClass();
+                will(returnValue(Customer.class));
+                allowing(mockSpec).getFacet(AuditableFacet.class);
+                will(returnValue(mockAuditableFacet));
+                allowing(mockSpec).getFacet(PublishedObjectFacet.class);
+                will(returnValue(mockPublishedObjectFacet));
+
+                allowing(mockAuditableFacet).isDisabled();
+                will(returnValue(false));
+            }
+        });
+        transaction = new IsisTransaction(mockTransactionManager, mockMessageBroker, mockObjectStore, mockServicesInjector);
+    }
+
+    @Test
+    public void whenDeleted_thenSingleSummaryAuditedAndPublished() throws Exception {
+        transaction.enlistBulkChange(mockSpec, ChangeKind.DELETE, "all customers", 3L, Collections.<String, ObjectAdapter>emptyMap());
+
+        transaction.auditAndPublishBulkChanges("sven", timestamp);
+
+        assertThat(audited.size(), is(1));
+        final AuditEntry auditEntry = audited.get(0);
+        assertThat(auditEntry.getTargetClassName(), is(Customer.class.getName()));
+        assertThat(auditEntry.getTarget().getObjectType(), is("CUS"));
+        assertThat(auditEntry.getTarget().getIdentifier(), is("*"));
+        assertThat(auditEntry.getMemberIdentifier(), is("all customers"));
+        assertThat(auditEntry.getPreValue(), is(nullValue()));
+        assertThat(auditEntry.getPostValue(), is("3 deleted"));
+        assertThat(auditEntry.getUser(), is("sven"));
+
+        assertThat(publishedMetadata.size(), is(1));
+        assertThat(publishedMetadata.get(0).getEventType(), is(EventType.OBJECTS_BULK_DELETED));
+        assertThat(publishedMetadata.get(0).getTarget().getIdentifier(), is("*"));
+        final EventPayloadForBulkChange payload = (EventPayloadForBulkChange) publishedPayloads.get(0);
+        assertThat(payload.getChangeKind(), is(ChangeKind.DELETE));
+        assertThat(payload.getCount(), is(3L));
+    }
+
+    @Test
+    public void whenAuditedAndPublished_thenNotRepeated() throws Exception {
+        transaction.enlistBulkChange(mockSpec, ChangeKind.DELETE, "all customers", 3L, Collections.<String, ObjectAdapter>emptyMap());
+        transaction.auditAndPublishBulkChanges("sven", timestamp);
+
+        transaction.auditAndPublishBulkChanges("sven", timestamp);
+
+        assertThat(audited.size(), is(1));
+        assertThat(publishedMetadata.size(), is(1));
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.Arrays;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.services.audit.AuditingService3;
+import org.apache.isis.applib.services.command.Command;
+import org.apache.isis.applib.services.command.CommandContext;
+import org.apache.isis.core.commons.authentication.MessageBroker;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facets.object.audit.AuditableFacet;
+import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
+import org.apache.isis.core.runtime.system.persistence.ObjectStore;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IsisTransaction_enlistUpdating {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+    @Mock
+    private MessageBroker mockMessageBroker;
+    @Mock
+    private ObjectStore mockObjectStore;
+    @Mock
+    private ServicesInjector mockServicesInjector;
+    @Mock
+    private AuditingService3 mockAuditingService3;
+    @Mock
+    private AuditableFacet mockAuditableFacet;
+    @Mock
+    private CommandContext mockCommandContext;
+    @Mock
+    private Command mockCommand;
+
+    @Mock
+    private ObjectSpecification mockSpec;
+    @Mock
+    private ObjectAssociation mockNameProperty;
+    @Mock
+    private ObjectAssociation mockAgeProperty;
+
+    private ObjectAdapter adapter;
+
+    @Before
+    public void setUp() throws Exception {
+        adapter = PojoAdapterBuilder.create().with(Persistence.PERSISTENT).withIdentifier("1").with(mockSpec).build();
+        context.checking(new Expectations() {
+            {
+                allowing(mockNameProperty).getId();
+                will(returnValue("name"));
+                allowing(mockNameProperty).isNotPersisted();
+                will(returnValue(false));
+
+                allowing(mockAgeProperty).getId();
+                will(returnValue("age"));
+                allowing(mockAgeProperty).isNotPersisted();
+                will(returnValue(false));
+            }
+        });
+    }
+
+    @Test
+    public void whenNotAudited_andPropertyAlreadyEnlisted_thenOtherPropertiesNotRead() throws Exception {
+        final IsisTransaction transaction = newTransaction(null, mockCommandContext);
+        allowingProperties();
+        context.checking(new Expectations() {
+            {
+                never(mockNameProperty).get(adapter);
+                never(mockAgeProperty).get(adapter);
+            }
+        });
+
+        transaction.enlistUpdatingProperty(adapter, "name", "Fred");
+        transaction.enlistUpdating(adapter);
+    }
+
+    @Test
+    public void whenPropertyNotIdentified_thenAllPropertiesRead() throws Exception {
+        final IsisTransaction transaction = newTransaction(null, mockCommandContext);
+        allowingProperties();
+        context.checking(new Expectations() {
+            {
+                oneOf(mockNameProperty).get(adapter);
+                oneOf(mockAgeProperty).get(adapter);
+            }
+        });
+
+        transaction.enlistUpdatingProperty(adapter, "unknownField", "Fred");
+        transaction.enlistUpdating(adapter);
+    }
+
+    @Test
+    public void whenEnlistedWithoutChange_thenCommandNotHintedToPersist() throws Exception {
+        final IsisTransaction transaction = newTransaction(null, mockCommandContext);
+        allowingProperties();
+        context.checking(new Expectations() {
+            {
+                // post-values
+                allowing(mockNameProperty).get(adapter);
+                will(returnValue(null));
+
+                never(mockCommand).setPersistHint(true);
+            }
+        });
+
+        // the pre-value is unchanged by the time the transaction commits
+        transaction.enlistUpdatingProperty(adapter, "name", null);
+        transaction.enlistUpdating(adapter);
+
+        transaction.preCommit();
+    }
+
+    @Test
+    public void whenEnlistedWithChange_thenCommandHintedToPersist() throws Exception {
+        final IsisTransaction transaction = newTransaction(null, mockCommandContext);
+        allowingProperties();
+        context.checking(new Expectations() {
+            {
+                // post-values
+                allowing(mockNameProperty).get(adapter);
+                will(returnValue(null));
+
+                oneOf(mockCommand).setPersistHint(true);
+            }
+        });
+
+        transaction.enlistUpdatingProperty(adapter, "name", "Fred");
+        transaction.enlistUpdating(adapter);
+
+        transaction.preCommit();
+    }
+
+    @Test
+    public void whenAudited_andPropertyAlreadyEnlisted_thenOtherPropertiesNotRead() throws Exception {
+        final IsisTransaction transaction = newTransaction(mockAuditingService3);
+        expectAudited();
+        context.checking(new Expectations() {
+            {
+                never(mockNameProperty).get(adapter);
+                never(mockAgeProperty).get(adapter);
+            }
+        });
+
+        transaction.enlistUpdatingProperty(adapter, "name", "Fred");
+        transaction.enlistUpdating(adapter);
+    }
+
+    @Test
+    public void whenAudited_andNoPropertyEnlisted_thenAllPropertiesRead() throws Exception {
+        final IsisTransaction transaction = newTransaction(mockAuditingService3);
+        expectAudited();
+        context.checking(new Expectations() {
+            {
+                oneOf(mockNameProperty).get(adapter);
+                oneOf(mockAgeProperty).get(adapter);
+            }
+        });
+
+        transaction.enlistUpdating(adapter);
+        // already captured, so not read again
+        transaction.enlistUpdating(adapter);
+    }
+
+    @Test
+    public void whenNeitherAuditedNorCommand_thenNoPropertiesCaptured() throws Exception {
+        final IsisTransaction transaction = newTransaction(null);
+        allowingProperties();
+        context.checking(new Expectations() {
+            {
+                never(mockNameProperty).get(adapter);
+                never(mockAgeProperty).get(adapter);
+            }
+        });
+
+        assertThat(transaction.isPropertyCaptureRequired(), is(false));
+
+        transaction.enlistUpdatingProperty(adapter, "unknownField", "Fred");
+        transaction.enlistUpdatingAllProperties(adapter);
+        transaction.enlistUpdating(adapter);
+    }
+
+    @Test
+    public void whenAuditedOrCommand_thenPropertyCaptureRequired() throws Exception {
+        assertThat(newTransaction(mockAuditingService3).isPropertyCaptureRequired(), is(true));
+        assertThat(newTransaction(null, mockCommandContext).isPropertyCaptureRequired(), is(true));
+    }
+
+    private void expectAudited() {
+        context.checking(new Expectations() {
+            {
+                allowing(mockSpec).getFacet(AuditableFacet.class);
+                will(returnValue(mockAuditableFacet));
+                allowing(mockAuditableFacet).isDisabled();
+                will(returnValue(false));
+            }
+        });
+        allowingProperties();
+    }
+
+    private void allowingProperties() {
+        context.checking(new Expectations() {
+            {
+                allowing(mockSpec).getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES);
+                will(returnValue(Arrays.asList(mockNameProperty, mockAgeProperty)));
+                allowing(mockSpec).getCorrespondingClass();
+                will(returnValue(Object.class));
+            }
+        });
+    }
+
+    private IsisTransaction newTransaction(final AuditingService3 auditingService3) {
+        return newTransaction(auditingService3, null);
+    }
+
+    private IsisTransaction newTransaction(final AuditingService3 auditingService3, final CommandContext commandContext) {
+        context.checking(new Expectations() {
+            {
+                allowing(mockServicesInjector).lookupService(AuditingService3.class);
+                will(returnValue(auditingService3));
+                allowing(mockServicesInjector).lookupService(CommandContext.class);
+                will(returnValue(commandContext));
+                allowing(mockServicesInjector).lookupService(with(any(Class.class)));
+                will(returnValue(null));
+
+                allowing(mockCommandContext).getCommand();
+                will(returnValue(mockCommand));
+                allowing(mockCommand).getTransactionId();
+                will(returnValue(null));
+                allowing(mockCommand).getMemberIdentifier();
+                will(returnValue("Customer#updateName()"));
+            }
+        });
+        return new IsisTransaction(mockTransactionManager, mockMessageBroker, mockObjectStore, mockServicesInjector);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.transaction;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache.Key;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCacheApplicationScoped;
+import org.apache.isis.core.commons.authentication.MessageBroker;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
+import org.apache.isis.core.runtime.system.persistence.ObjectStore;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class IsisTransaction_queryResultsCache {
+
+    public static class Customer {
+    }
+
+    public static class Product {
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+    @Mock
+    private MessageBroker mockMessageBroker;
+    @Mock
+    private ObjectStore mockObjectStore;
+    @Mock
+    private ServicesInjector mockServicesInjector;
+    @Mock
+    private ObjectSpecification mockSpec;
+
+    private QueryResultsCacheApplicationScoped queryResultsCache;
+    private ObjectAdapter adapter;
+    private IsisTransaction transaction;
+
+    private final Key customersKey = new Key(IsisTransaction_queryResultsCache.class, "customers");
+    private final Key productsKey = new Key(IsisTransaction_queryResultsCache.class, "products");
+
+    @Before
+    public void setUp() throws Exception {
+        queryResultsCache = new QueryResultsCacheApplicationScoped();
+        adapter = PojoAdapterBuilder.create().with(Persistence.PERSISTENT).withIdentifier("1").with(mockSpec).build();
+        context.checking(new Expectations() {
+            {
+                allowing(mockServicesInjector).lookupService(QueryResultsCacheApplicationScoped.class);
+                will(returnValue(queryResultsCache));
+                allowing(mockServicesInjector).lookupService(with(any(Class.class)));
+                will(returnValue(null));
+
+                allowing(mockSpec).getCorrespondingClass();
+                will(returnValue(Customer.class));
+            }
+        });
+        transaction = new IsisTransaction(mockTransactionManager, mockMessageBroker, mockObjectStore, mockServicesInjector);
+    }
+
+    @Test
+    public void whenAborted_thenResultsDependingOnChangedTypesInvalidated() throws Exception {
+        // a result computed within the transaction, after it created a customer
+        transaction.enlistCreated(adapter);
+        queryResultsCache.put(customersKey, 1, Customer.class);
+        queryResultsCache.put(productsKey, 0, Product.class);
+
+        transaction.markAsAborted();
+
+        assertThat(queryResultsCache.get(customersKey), is(nullValue()));
+        assertThat(queryResultsCache.get(productsKey), is(notNullValue()));
+    }
+
+    @Test
+    public void whenAbortedWithoutChanges_thenNothingInvalidated() throws Exception {
+        queryResultsCache.put(customersKey, 1, Customer.class);
+
+        transaction.markAsAborted();
+
+        assertThat(queryResultsCache.get(customersKey), is(notNullValue()));
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.Arrays;
+import java.util.List;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.persistence.ObjectPersistenceException;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.CreateObjectCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommandContext;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.SaveObjectCommand;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceCommandQueueTest {
+
+    private PersistenceCommandQueue queue;
+
+    private ObjectAdapter adapter1;
+    private ObjectAdapter adapter2;
+
+    @Before
+    public void setUp() throws Exception {
+        queue = new PersistenceCommandQueue();
+        adapter1 = PojoAdapterBuilder.create().with(Persistence.TRANSIENT).withIdentifier("1").build();
+        adapter2 = PojoAdapterBuilder.create().with(Persistence.TRANSIENT).withIdentifier("2").build();
+    }
+
+    @Test
+    public void has_whenAdded() throws Exception {
+        queue.add(createCommand(adapter1));
+
+        assertThat(queue.has(CreateObjectCommand.class, adapter1), is(true));
+        assertThat(queue.has(SaveObjectCommand.class, adapter1), is(false));
+        assertThat(queue.has(CreateObjectCommand.class, adapter2), is(false));
+    }
+
+    @Test
+    public void remove_retainsOrderOfOthers() throws Exception {
+        final PersistenceCommand create1 = createCommand(adapter1);
+        final PersistenceCommand create2 = createCommand(adapter2);
+        final PersistenceCommand save1 = saveCommand(adapter1);
+        queue.add(create1);
+        queue.add(create2);
+        queue.add(save1);
+
+        queue.remove(CreateObjectCommand.class, adapter1);
+
+        assertThat(queue.has(CreateObjectCommand.class, adapter1), is(false));
+        assertThat(queue.has(SaveObjectCommand.class, adapter1), is(true));
+        assertThat(queue.size(), is(2));
+        assertThat(queue.getCommands(), is(equalTo(Arrays.asList(create2, save1))));
+    }
+
+    @Test
+    public void removeAll_leavesCommandsAddedSince() throws Exception {
+        final PersistenceCommand create1 = createCommand(adapter1);
+        queue.add(create1);
+        final List<PersistenceCommand> executed = queue.getCommands();
+
+        final PersistenceCommand create2 = createCommand(adapter2);
+        queue.add(create2);
+        queue.removeAll(executed);
+
+        assertThat(queue.has(CreateObjectCommand.class, adapter1), is(false));
+        assertThat(queue.getCommands(), is(equalTo(Arrays.<PersistenceCommand>asList(create2))));
+    }
+
+    @Test
+    public void clear() throws Exception {
+        queue.add(createCommand(adapter1));
+        queue.clear();
+
+        assertThat(queue.isEmpty(), is(true));
+        assertThat(queue.has(CreateObjectCommand.class, adapter1), is(false));
+    }
+
+    @Test
+    public void createsThenRemovals_retainOrderOfRemainingCommands() throws Exception {
+        final int numObjects = 10;
+        final List<ObjectAdapter> adapters = Lists.newArrayListWithCapacity(numObjects);
+        final List<PersistenceCommand> creates = Lists.newArrayListWithCapacity(numObjects);
+        for (int i = 0; i < numObjects; i++) {
+            final ObjectAdapter adapter = PojoAdapterBuilder.create().with(Persistence.TRANSIENT).withIdentifier("" + i).build();
+            adapters.add(adapter);
+            // as IsisTransaction#addCommand, a create and subsequent (ignored) save
+            if(!queue.has(CreateObjectCommand.class, adapter) && !queue.has(SaveObjectCommand.class, adapter)) {
+                final PersistenceCommand create = createCommand(adapter);
+                creates.add(create);
+                queue.add(create);
+            }
+            if(!queue.has(CreateObjectCommand.class, adapter) && !queue.has(SaveObjectCommand.class, adapter)) {
+                queue.add(saveCommand(adapter));
+            }
+        }
+
+        // and then destroy every other object (cancelling out its create)
+        final List<PersistenceCommand> expected = Lists.newArrayList();
+        for (int i = 0; i < numObjects; i++) {
+            if(i % 2 == 0) {
+                queue.remove(CreateObjectCommand.class, adapters.get(i));
+            } else {
+                expected.add(creates.get(i));
+            }
+        }
+
+        final List<PersistenceCommand> commands = queue.getCommands();
+        assertThat(commands, is(equalTo(expected)));
+
+        queue.removeAll(commands);
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    private static CreateObjectCommand createCommand(final ObjectAdapter object) {
+        return new CreateObjectCommand() {
+            @Override
+            public void execute(final PersistenceCommandContext context) throws ObjectPersistenceException {
+            }
+
+            @Override
+            public ObjectAdapter onAdapter() {
+                return object;
+            }
+        };
+    }
+
+    private static SaveObjectCommand saveCommand(final ObjectAdapter object) {
+        return new SaveObjectCommand() {
+            @Override
+            public void execute(final PersistenceCommandContext context) throws ObjectPersistenceException {
+            }
+
+            @Override
+            public ObjectAdapter onAdapter() {
+                return object;
+            }
+        };
+    }
+}
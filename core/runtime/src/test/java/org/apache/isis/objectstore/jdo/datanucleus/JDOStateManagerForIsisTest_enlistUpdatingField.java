@@ -0,0 +1,111 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class JDOStateManagerForIsisTest_enlistUpdatingField {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private IsisTransaction mockTransaction;
+    @Mock
+    private ObjectAdapter mockAdapter;
+
+    @Test
+    public void whenFieldLoaded_thenCurrentValueUsedAsPreValue() throws Exception {
+        context.checking(new Expectations() {
+            {
+                oneOf(mockTransaction).enlistUpdatingProperty(mockAdapter, "name", "Fred");
+                never(mockTransaction).enlistUpdatingAllProperties(mockAdapter);
+            }
+        });
+
+        JDOStateManagerForIsis.enlistUpdatingField(mockTransaction, mockAdapter, "name", true, "Fred");
+    }
+
+    @Test
+    public void whenFieldNotLoaded_thenAllPropertiesCaptured() throws Exception {
+        context.checking(new Expectations() {
+            {
+                // the value passed to the setter is just the default, so must not be used
+                never(mockTransaction).enlistUpdatingProperty(mockAdapter, "name", null);
+                oneOf(mockTransaction).enlistUpdatingAllProperties(mockAdapter);
+            }
+        });
+
+        JDOStateManagerForIsis.enlistUpdatingField(mockTransaction, mockAdapter, "name", false, null);
+    }
+
+    @Test
+    public void whenCaptureNotRequired_thenTransactionNotUsed() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockTransaction).getState();
+                will(returnValue(IsisTransaction.State.IN_PROGRESS));
+                allowing(mockTransaction).isPropertyCaptureRequired();
+                will(returnValue(false));
+            }
+        });
+
+        assertThat(JDOStateManagerForIsis.capturing(mockTransaction), is(nullValue()));
+    }
+
+    @Test
+    public void whenCaptureRequired_thenTransactionUsed() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockTransaction).getState();
+                will(returnValue(IsisTransaction.State.IN_PROGRESS));
+                allowing(mockTransaction).isPropertyCaptureRequired();
+                will(returnValue(true));
+            }
+        });
+
+        assertThat(JDOStateManagerForIsis.capturing(mockTransaction), is(sameInstance(mockTransaction)));
+    }
+
+    @Test
+    public void whenTransactionComplete_thenTransactionNotUsed() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockTransaction).getState();
+                will(returnValue(IsisTransaction.State.COMMITTED));
+                never(mockTransaction).isPropertyCaptureRequired();
+            }
+        });
+
+        assertThat(JDOStateManagerForIsis.capturing(mockTransaction), is(nullValue()));
+        assertThat(JDOStateManagerForIsis.capturing(null), is(nullValue()));
+    }
+}
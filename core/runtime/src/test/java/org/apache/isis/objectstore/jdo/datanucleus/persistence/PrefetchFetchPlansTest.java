@@ -0,0 +1,125 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence;
+
+import java.util.Collections;
+import javax.jdo.FetchGroup;
+import javax.jdo.FetchPlan;
+import javax.jdo.PersistenceManagerFactory;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.metamodel.facets.all.prefetch.PrefetchFacet;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PrefetchFetchPlansTest {
+
+    public static class Customer {}
+    public static class PreferredCustomer extends Customer {}
+    public static class Order {}
+
+    private static final String CUSTOMER_GROUP = PrefetchFetchPlans.GROUP_PREFIX + Customer.class.getName();
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_ONLY);
+
+    @Mock
+    private PersistenceManagerFactory mockPersistenceManagerFactory;
+    @Mock
+    private FetchGroup mockFetchGroup;
+    @Mock
+    private FetchPlan mockFetchPlan;
+    @Mock
+    private ObjectSpecification mockCustomerSpec;
+    @Mock
+    private PrefetchFacet mockPrefetchFacet;
+
+    private PrefetchFetchPlans prefetchFetchPlans;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockCustomerSpec).getCorrespondingClass();
+                will(returnValue(Customer.class));
+                allowing(mockCustomerSpec).getFacet(PrefetchFacet.class);
+                will(returnValue(mockPrefetchFacet));
+                allowing(mockCustomerSpec).getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.COLLECTIONS);
+                will(returnValue(Collections.emptyList()));
+
+                allowing(mockPrefetchFacet).members();
+                will(returnValue(Collections.singletonList("name")));
+                allowing(mockPrefetchFacet).fetchGroups();
+                will(returnValue(Collections.emptyList()));
+                allowing(mockPrefetchFacet).maxFetchDepth();
+                will(returnValue(3));
+
+                oneOf(mockPersistenceManagerFactory).getFetchGroup(Customer.class, CUSTOMER_GROUP);
+                will(returnValue(mockFetchGroup));
+                oneOf(mockFetchGroup).addMember("name");
+                oneOf(mockPersistenceManagerFactory).addFetchGroups(with(any(FetchGroup[].class)));
+            }
+        });
+        prefetchFetchPlans = new PrefetchFetchPlans(mockPersistenceManagerFactory, Collections.singletonList(mockCustomerSpec));
+    }
+
+    @Test
+    public void appliesPlanOfClass() throws Exception {
+        expectPlanApplied();
+
+        assertThat(prefetchFetchPlans.applyTo(mockFetchPlan, Customer.class), is(true));
+    }
+
+    @Test
+    public void appliesPlanOfSuperclass() throws Exception {
+        expectPlanApplied();
+
+        assertThat(prefetchFetchPlans.hasPlanFor(PreferredCustomer.class), is(true));
+        assertThat(prefetchFetchPlans.applyTo(mockFetchPlan, PreferredCustomer.class), is(true));
+    }
+
+    @Test
+    public void whenNoPlan_fetchPlanUnchanged() throws Exception {
+        // no interactions with the fetch plan are expected
+        assertThat(prefetchFetchPlans.hasPlanFor(Order.class), is(false));
+        assertThat(prefetchFetchPlans.applyTo(mockFetchPlan, Order.class), is(false));
+    }
+
+    private void expectPlanApplied() {
+        context.checking(new Expectations() {
+            {
+                oneOf(mockFetchPlan).addGroup(CUSTOMER_GROUP);
+                will(returnValue(mockFetchPlan));
+                allowing(mockFetchPlan).getMaxFetchDepth();
+                will(returnValue(1));
+                oneOf(mockFetchPlan).setMaxFetchDepth(3);
+                will(returnValue(mockFetchPlan));
+            }
+        });
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.commands;
+
+import java.util.Arrays;
+import java.util.List;
+import javax.jdo.PersistenceManager;
+import org.jmock.Expectations;
+import org.jmock.Sequence;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PojoAdapterBuilder.Persistence;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+public class DataNucleusCommandBatcherTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceManager mockPersistenceManager;
+
+    private ObjectAdapter transientAdapter1;
+    private ObjectAdapter transientAdapter2;
+    private ObjectAdapter transientAdapter3;
+    private ObjectAdapter persistentAdapter1;
+    private ObjectAdapter persistentAdapter2;
+
+    @Before
+    public void setUp() throws Exception {
+        transientAdapter1 = PojoAdapterBuilder.create().with(Persistence.TRANSIENT).withIdentifier("1").build();
+        transientAdapter2 = PojoAdapterBuilder.create().with(Persistence.TRANSIENT).withIdentifier("2").build();
+        transientAdapter3 = PojoAdapterBuilder.create().with(Persistence.TRANSIENT).withIdentifier("3").build();
+        persistentAdapter1 = PojoAdapterBuilder.create().with(Persistence.PERSISTENT).withIdentifier("4").build();
+        persistentAdapter2 = PojoAdapterBuilder.create().with(Persistence.PERSISTENT).withIdentifier("5").build();
+    }
+
+    @Test
+    public void consecutiveCreates_areBatchedUpToBatchSize() throws Exception {
+        final Sequence batches = context.sequence("batches");
+        context.checking(new Expectations() {
+            {
+                oneOf(mockPersistenceManager).makePersistentAll(Arrays.asList(pojoOf(transientAdapter1), pojoOf(transientAdapter2)));
+                inSequence(batches);
+                oneOf(mockPersistenceManager).makePersistentAll(Arrays.asList(pojoOf(transientAdapter3)));
+                inSequence(batches);
+            }
+        });
+
+        new DataNucleusCommandBatcher(mockPersistenceManager, 2).execute(commands(
+                create(transientAdapter1), create(transientAdapter2), create(transientAdapter3)));
+    }
+
+    @Test
+    public void changeOfKind_endsBatch_preservingOrder() throws Exception {
+        final Sequence batches = context.sequence("batches");
+        context.checking(new Expectations() {
+            {
+                oneOf(mockPersistenceManager).makePersistentAll(Arrays.asList(pojoOf(transientAdapter1), pojoOf(transientAdapter2)));
+                inSequence(batches);
+                oneOf(mockPersistenceManager).deletePersistentAll(Arrays.asList(pojoOf(persistentAdapter1), pojoOf(persistentAdapter2)));
+                inSequence(batches);
+                oneOf(mockPersistenceManager).makePersistentAll(Arrays.asList(pojoOf(transientAdapter3)));
+                inSequence(batches);
+            }
+        });
+
+        new DataNucleusCommandBatcher(mockPersistenceManager, 100).execute(commands(
+                create(transientAdapter1), 
+                update(persistentAdapter1), // does not end the batch
+                create(transientAdapter2), 
+                delete(persistentAdapter1), 
+                delete(persistentAdapter2), 
+                create(transientAdapter3)));
+    }
+
+    @Test
+    public void createOfAlreadyPersistentObject_isIgnored() throws Exception {
+        context.checking(new Expectations() {
+            {
+                oneOf(mockPersistenceManager).makePersistentAll(Arrays.asList(pojoOf(transientAdapter1)));
+            }
+        });
+
+        new DataNucleusCommandBatcher(mockPersistenceManager, 100).execute(commands(
+                create(transientAdapter1), create(persistentAdapter1)));
+    }
+
+    @Test
+    public void batchSizeOfOne_executesEachCommand() throws Exception {
+        final Sequence commands = context.sequence("commands");
+        context.checking(new Expectations() {
+            {
+                oneOf(mockPersistenceManager).makePersistent(pojoOf(transientAdapter1));
+                inSequence(commands);
+                oneOf(mockPersistenceManager).deletePersistent(pojoOf(persistentAdapter1));
+                inSequence(commands);
+            }
+        });
+
+        new DataNucleusCommandBatcher(mockPersistenceManager, 1).execute(commands(
+                create(transientAdapter1), delete(persistentAdapter1)));
+    }
+
+    private static Object pojoOf(final ObjectAdapter adapter) {
+        return adapter.getObject();
+    }
+
+    private PersistenceCommand create(final ObjectAdapter adapter) {
+        return new DataNucleusCreateObjectCommand(adapter, mockPersistenceManager);
+    }
+
+    private PersistenceCommand update(final ObjectAdapter adapter) {
+        return new DataNucleusUpdateObjectCommand(adapter, mockPersistenceManager);
+    }
+
+    private PersistenceCommand delete(final ObjectAdapter adapter) {
+        return new DataNucleusDeleteObjectCommand(adapter, mockPersistenceManager);
+    }
+
+    private static List<PersistenceCommand> commands(final PersistenceCommand... commands) {
+        return Arrays.asList(commands);
+    }
+}
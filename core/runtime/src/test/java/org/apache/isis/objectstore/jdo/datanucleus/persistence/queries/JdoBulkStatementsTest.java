@@ -0,0 +1,179 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.datanucleus.store.query.Query;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.runtime.persistence.UnsupportedFindException;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class JdoBulkStatementsTest {
+
+    public static class Customer {}
+
+    public static class SpecialCustomer extends Customer {}
+
+    private static final String CUSTOMER = Customer.class.getName();
+    private static final String SPECIAL_CUSTOMER = SpecialCustomer.class.getName();
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private Query mockQuery;
+
+    private String candidateClassName;
+    private boolean subclasses;
+    private String filter;
+    private String variables;
+    private String parameters;
+    private String result;
+    private String grouping;
+
+    @Before
+    public void setUp() throws Exception {
+        candidateClassName = CUSTOMER;
+        subclasses = true;
+    }
+
+    private Query compiledQuery() {
+        context.checking(new Expectations() {
+            {
+                allowing(mockQuery).getCandidateClassName();
+                will(returnValue(candidateClassName));
+                allowing(mockQuery).isSubclasses();
+                will(returnValue(subclasses));
+                allowing(mockQuery).getFilter();
+                will(returnValue(filter));
+                allowing(mockQuery).getExplicitVariables();
+                will(returnValue(variables));
+                allowing(mockQuery).getExplicitParameters();
+                will(returnValue(parameters));
+                allowing(mockQuery).getImports();
+                will(returnValue(null));
+                allowing(mockQuery).getResult();
+                will(returnValue(result));
+                allowing(mockQuery).getResultClass();
+                will(returnValue(null));
+                allowing(mockQuery).getGrouping();
+                will(returnValue(grouping));
+                allowing(mockQuery).getHaving();
+                will(returnValue(null));
+
+                // the ordering and range are never consulted
+                never(mockQuery).getOrdering();
+                never(mockQuery).getRange();
+            }
+        });
+        return mockQuery;
+    }
+
+    @Test
+    public void deleteAllInstances() throws Exception {
+        assertThat(JdoBulkStatements.deleteFrom(Customer.class, null), is("DELETE FROM " + CUSTOMER));
+    }
+
+    @Test
+    public void deleteUsingNamedQuery() throws Exception {
+        filter = "lastSeen < :cutoff";
+        final String jdoql = JdoBulkStatements.deleteFrom(Customer.class, compiledQuery());
+        assertThat(jdoql, is("DELETE FROM " + CUSTOMER + " WHERE lastSeen < :cutoff"));
+    }
+
+    @Test
+    public void deleteUsingNamedQuery_whenFilterMentionsOrderingAndRange() throws Exception {
+        filter = "notes == 'order by range 0,10'";
+        final String jdoql = JdoBulkStatements.deleteFrom(Customer.class, compiledQuery());
+        assertThat(jdoql, is("DELETE FROM " + CUSTOMER + " WHERE notes == 'order by range 0,10'"));
+    }
+
+    @Test
+    public void deleteUsingNamedQuery_candidateIsQuerysOwn() throws Exception {
+        candidateClassName = SPECIAL_CUSTOMER;
+        filter = "lastSeen < :cutoff";
+        final String jdoql = JdoBulkStatements.deleteFrom(Customer.class, compiledQuery());
+        assertThat(jdoql, is("DELETE FROM " + SPECIAL_CUSTOMER + " WHERE lastSeen < :cutoff"));
+    }
+
+    @Test
+    public void deleteUsingNamedQuery_keepsParametersAndVariables() throws Exception {
+        filter = "name == n && orders.contains(o) && o.total > 0";
+        variables = "Order o";
+        parameters = "String n";
+        final String jdoql = JdoBulkStatements.deleteFrom(Customer.class, compiledQuery());
+        assertThat(jdoql, is("DELETE FROM " + CUSTOMER
+                + " WHERE name == n && orders.contains(o) && o.total > 0 VARIABLES Order o PARAMETERS String n"));
+    }
+
+    @Test
+    public void deleteUsingNamedQuery_excludingSubclasses() throws Exception {
+        subclasses = false;
+        final String jdoql = JdoBulkStatements.deleteFrom(Customer.class, compiledQuery());
+        assertThat(jdoql, is("DELETE FROM " + CUSTOMER + " EXCLUDE SUBCLASSES"));
+    }
+
+    @Test
+    public void updateAllInstances() throws Exception {
+        final String jdoql = JdoBulkStatements.update(Customer.class, Arrays.asList("status", "archived"), null);
+        assertThat(jdoql, is("UPDATE " + CUSTOMER + " SET this.status = :isisBulk0, this.archived = :isisBulk1"));
+    }
+
+    @Test
+    public void updateUsingNamedQuery() throws Exception {
+        filter = "lastSeen < :cutoff";
+        final String jdoql = JdoBulkStatements.update(Customer.class, Collections.singletonList("status"), compiledQuery());
+        assertThat(jdoql, is("UPDATE " + CUSTOMER + " SET this.status = :isisBulk0 WHERE lastSeen < :cutoff"));
+    }
+
+    @Test(expected=UnsupportedFindException.class)
+    public void whenResultClause() throws Exception {
+        result = "name";
+        JdoBulkStatements.deleteFrom(Customer.class, compiledQuery());
+    }
+
+    @Test(expected=UnsupportedFindException.class)
+    public void whenGrouping() throws Exception {
+        grouping = "name";
+        JdoBulkStatements.deleteFrom(Customer.class, compiledQuery());
+    }
+
+    @Test(expected=UnsupportedFindException.class)
+    public void updateWhenExplicitParameters() throws Exception {
+        filter = "name == n";
+        parameters = "String n";
+        JdoBulkStatements.update(Customer.class, Collections.singletonList("status"), compiledQuery());
+    }
+
+    @Test(expected=UnsupportedFindException.class)
+    public void updateWhenExcludingSubclasses() throws Exception {
+        subclasses = false;
+        JdoBulkStatements.update(Customer.class, Collections.singletonList("status"), compiledQuery());
+    }
+
+}
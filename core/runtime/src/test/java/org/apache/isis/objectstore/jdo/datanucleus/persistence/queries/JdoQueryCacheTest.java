@@ -0,0 +1,203 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.PersistenceManagerFactory;
+import javax.jdo.Query;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class JdoQueryCacheTest {
+
+    public static class Customer {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceManagerFactory mockPersistenceManagerFactory;
+    @Mock
+    private PersistenceManager mockTemplatePersistenceManager;
+    @Mock
+    private PersistenceManager mockPersistenceManager;
+    @Mock
+    private Query mockTemplateQuery;
+    @Mock
+    private Query mockQuery;
+    @Mock
+    private Query mockOtherQuery;
+
+    private JdoQueryCache queryCache;
+    private int factoryCalls;
+
+    private final JdoQueryCache.Factory factory = new JdoQueryCache.Factory() {
+        @Override
+        public Query newQuery(final PersistenceManager persistenceManager) {
+            factoryCalls++;
+            return persistenceManager.newNamedQuery(Customer.class, "findByName");
+        }
+    };
+
+    private int inspections;
+
+    private final JdoQueryCache.OrderingInspector orderingInspector = new JdoQueryCache.OrderingInspector() {
+        @Override
+        public boolean isOrdered() {
+            inspections++;
+            return true;
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        queryCache = new JdoQueryCache(mockPersistenceManagerFactory, 1);
+    }
+
+    @Test
+    public void compilesOnceThenCopies() throws Exception {
+        context.checking(new Expectations() {
+            {
+                oneOf(mockPersistenceManagerFactory).getPersistenceManager();
+                will(returnValue(mockTemplatePersistenceManager));
+
+                oneOf(mockTemplatePersistenceManager).newNamedQuery(Customer.class, "findByName");
+                will(returnValue(mockTemplateQuery));
+
+                oneOf(mockTemplateQuery).compile();
+
+                exactly(2).of(mockPersistenceManager).newQuery(mockTemplateQuery);
+                will(returnValue(mockQuery));
+            }
+        });
+
+        final JdoQueryCache.Key key = new JdoQueryCache.Key(Customer.class, "findByName", JdoQueryCache.Shape.ALL);
+        assertThat(queryCache.newQuery(mockPersistenceManager, key, factory), is(sameInstance(mockQuery)));
+        assertThat(queryCache.newQuery(mockPersistenceManager, new JdoQueryCache.Key(Customer.class, "findByName", JdoQueryCache.Shape.ALL), factory), is(sameInstance(mockQuery)));
+
+        assertThat(factoryCalls, is(1));
+        assertThat(queryCache.getMissCount(), is(1L));
+        assertThat(queryCache.getHitCount(), is(1L));
+        assertThat(queryCache.size(), is(1));
+    }
+
+    @Test
+    public void whenFull_createsAfresh() throws Exception {
+        context.checking(new Expectations() {
+            {
+                oneOf(mockPersistenceManagerFactory).getPersistenceManager();
+                will(returnValue(mockTemplatePersistenceManager));
+
+                oneOf(mockTemplatePersistenceManager).newNamedQuery(Customer.class, "findByName");
+                will(returnValue(mockTemplateQuery));
+
+                oneOf(mockTemplateQuery).compile();
+
+                oneOf(mockPersistenceManager).newQuery(mockTemplateQuery);
+                will(returnValue(mockQuery));
+
+                oneOf(mockPersistenceManager).newNamedQuery(Customer.class, "findByName");
+                will(returnValue(mockOtherQuery));
+            }
+        });
+
+        queryCache.newQuery(mockPersistenceManager, new JdoQueryCache.Key(Customer.class, "findByName", JdoQueryCache.Shape.ALL), factory);
+        final Query query = queryCache.newQuery(mockPersistenceManager, new JdoQueryCache.Key(Customer.class, "findByName", JdoQueryCache.Shape.RANGED), factory);
+
+        assertThat(query, is(sameInstance(mockOtherQuery)));
+        assertThat(queryCache.getMissCount(), is(2L));
+        assertThat(queryCache.size(), is(1));
+    }
+
+    @Test
+    public void ordering_inspectedOnceTemplateCached() throws Exception {
+        context.checking(new Expectations() {
+            {
+                oneOf(mockPersistenceManagerFactory).getPersistenceManager();
+                will(returnValue(mockTemplatePersistenceManager));
+
+                oneOf(mockTemplatePersistenceManager).newNamedQuery(Customer.class, "findByName");
+                will(returnValue(mockTemplateQuery));
+
+                oneOf(mockTemplateQuery).compile();
+
+                oneOf(mockPersistenceManager).newQuery(mockTemplateQuery);
+                will(returnValue(mockQuery));
+            }
+        });
+
+        final JdoQueryCache.Key key = new JdoQueryCache.Key(Customer.class, "findByName", JdoQueryCache.Shape.RANGED);
+        queryCache.newQuery(mockPersistenceManager, key, factory);
+
+        assertThat(queryCache.isOrdered(key, orderingInspector), is(true));
+        assertThat(queryCache.isOrdered(new JdoQueryCache.Key(Customer.class, "findByName", JdoQueryCache.Shape.RANGED), orderingInspector), is(true));
+
+        assertThat(inspections, is(1));
+    }
+
+    @Test
+    public void ordering_inspectedEachTimeIfNoTemplate() throws Exception {
+        final JdoQueryCache.Key key = new JdoQueryCache.Key(Customer.class, "findByName", JdoQueryCache.Shape.RANGED);
+
+        assertThat(queryCache.isOrdered(key, orderingInspector), is(true));
+        assertThat(queryCache.isOrdered(key, orderingInspector), is(true));
+
+        assertThat(inspections, is(2));
+    }
+
+    @Test
+    public void ordering_discardedWhenCleared() throws Exception {
+        context.checking(new Expectations() {
+            {
+                oneOf(mockPersistenceManagerFactory).getPersistenceManager();
+                will(returnValue(mockTemplatePersistenceManager));
+
+                oneOf(mockTemplatePersistenceManager).newNamedQuery(Customer.class, "findByName");
+                will(returnValue(mockTemplateQuery));
+
+                oneOf(mockTemplateQuery).compile();
+
+                oneOf(mockPersistenceManager).newQuery(mockTemplateQuery);
+                will(returnValue(mockQuery));
+
+                oneOf(mockTemplatePersistenceManager).close();
+            }
+        });
+
+        final JdoQueryCache.Key key = new JdoQueryCache.Key(Customer.class, "findByName", JdoQueryCache.Shape.RANGED);
+        queryCache.newQuery(mockPersistenceManager, key, factory);
+        queryCache.isOrdered(key, orderingInspector);
+
+        queryCache.clear();
+        queryCache.isOrdered(key, orderingInspector);
+
+        assertThat(inspections, is(2));
+    }
+}
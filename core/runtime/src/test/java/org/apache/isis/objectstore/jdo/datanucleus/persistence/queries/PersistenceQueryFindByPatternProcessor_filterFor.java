@@ -0,0 +1,152 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import com.google.common.collect.Maps;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryFindByPatternProcessor_filterFor {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ObjectAdapter mockPattern;
+    @Mock
+    private ObjectSpecification mockSpec;
+
+    @Mock
+    private ObjectAssociation mockNameProperty;
+    @Mock
+    private ObjectAssociation mockAgeProperty;
+    @Mock
+    private ObjectAssociation mockEmptyProperty;
+    @Mock
+    private ObjectAssociation mockNotPersistedProperty;
+    @Mock
+    private ObjectAssociation mockCollection;
+
+    @Mock
+    private ObjectAdapter mockNameAdapter;
+    @Mock
+    private ObjectAdapter mockAgeAdapter;
+
+    private Map<String, Object> argumentsByParameterName;
+
+    @Before
+    public void setUp() throws Exception {
+        argumentsByParameterName = Maps.newLinkedHashMap();
+        context.checking(new Expectations() {
+            {
+                allowing(mockPattern).getSpecification();
+                will(returnValue(mockSpec));
+
+                allowing(mockNameProperty).isNotPersisted();
+                will(returnValue(false));
+                allowing(mockNameProperty).isOneToOneAssociation();
+                will(returnValue(true));
+                allowing(mockNameProperty).isEmpty(mockPattern);
+                will(returnValue(false));
+                allowing(mockNameProperty).get(mockPattern);
+                will(returnValue(mockNameAdapter));
+                allowing(mockNameProperty).getId();
+                will(returnValue("name"));
+                allowing(mockNameAdapter).getObject();
+                will(returnValue("Fred"));
+
+                allowing(mockAgeProperty).isNotPersisted();
+                will(returnValue(false));
+                allowing(mockAgeProperty).isOneToOneAssociation();
+                will(returnValue(true));
+                allowing(mockAgeProperty).isEmpty(mockPattern);
+                will(returnValue(false));
+                allowing(mockAgeProperty).get(mockPattern);
+                will(returnValue(mockAgeAdapter));
+                allowing(mockAgeProperty).getId();
+                will(returnValue("age"));
+                allowing(mockAgeAdapter).getObject();
+                will(returnValue(42));
+
+                allowing(mockEmptyProperty).isNotPersisted();
+                will(returnValue(false));
+                allowing(mockEmptyProperty).isOneToOneAssociation();
+                will(returnValue(true));
+                allowing(mockEmptyProperty).isEmpty(mockPattern);
+                will(returnValue(true));
+
+                allowing(mockNotPersistedProperty).isNotPersisted();
+                will(returnValue(true));
+
+                allowing(mockCollection).isNotPersisted();
+                will(returnValue(false));
+                allowing(mockCollection).isOneToOneAssociation();
+                will(returnValue(false));
+            }
+        });
+    }
+
+    @Test
+    public void whenPropertiesSet() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockSpec).getAssociations(Contributed.EXCLUDED);
+                will(returnValue(Arrays.asList(
+                        mockNameProperty, mockEmptyProperty, mockNotPersistedProperty, mockCollection, mockAgeProperty)));
+            }
+        });
+
+        final String filter = PersistenceQueryFindByPatternProcessor.filterFor(mockPattern, argumentsByParameterName);
+
+        assertThat(filter, is("this.name == :p0 && this.age == :p1"));
+        assertThat(argumentsByParameterName.size(), is(2));
+        assertThat(argumentsByParameterName.get("p0"), is((Object)"Fred"));
+        assertThat(argumentsByParameterName.get("p1"), is((Object)42));
+    }
+
+    @Test
+    public void whenNoPropertiesSet() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockSpec).getAssociations(Contributed.EXCLUDED);
+                will(returnValue(Collections.singletonList(mockEmptyProperty)));
+            }
+        });
+
+        final String filter = PersistenceQueryFindByPatternProcessor.filterFor(mockPattern, argumentsByParameterName);
+
+        assertThat(filter, is(""));
+        assertThat(argumentsByParameterName.isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import javax.jdo.metadata.QueryMetadata;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryFindUsingApplibQueryProcessor_isCountable {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_ONLY);
+
+    @Mock
+    private QueryMetadata mockQueryMetadata;
+
+    @Test
+    public void plainJdoql() throws Exception {
+        assertThat(isCountable("SELECT FROM com.mycompany.Customer WHERE name == :name ORDER BY name ascending"), is(true));
+    }
+
+    @Test
+    public void unique() throws Exception {
+        assertThat(isCountable("SELECT UNIQUE FROM com.mycompany.Customer WHERE name == :name"), is(true));
+    }
+
+    @Test
+    public void withResult() throws Exception {
+        assertThat(isCountable("SELECT name FROM com.mycompany.Customer"), is(false));
+    }
+
+    @Test
+    public void withUniqueResult() throws Exception {
+        assertThat(isCountable("SELECT UNIQUE max(age) FROM com.mycompany.Customer"), is(false));
+    }
+
+    @Test
+    public void withDistinctResult_lowerCase() throws Exception {
+        assertThat(isCountable("select distinct this.name from com.mycompany.Customer"), is(false));
+    }
+
+    @Test
+    public void withGrouping() throws Exception {
+        assertThat(isCountable("SELECT FROM com.mycompany.Customer GROUP BY name"), is(false));
+    }
+
+    @Test
+    public void withRange() throws Exception {
+        assertThat(isCountable("SELECT FROM com.mycompany.Customer ORDER BY name ascending RANGE 0,10"), is(false));
+    }
+
+    @Test
+    public void withResultClass() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockQueryMetadata).getLanguage();
+                will(returnValue("javax.jdo.query.JDOQL"));
+                allowing(mockQueryMetadata).getQuery();
+                will(returnValue("SELECT FROM com.mycompany.Customer"));
+                allowing(mockQueryMetadata).getResultClass();
+                will(returnValue("com.mycompany.CustomerSummary"));
+            }
+        });
+        assertThat(PersistenceQueryFindUsingApplibQueryProcessor.isCountable(mockQueryMetadata), is(false));
+    }
+
+    @Test
+    public void sql() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockQueryMetadata).getLanguage();
+                will(returnValue("javax.jdo.query.SQL"));
+            }
+        });
+        assertThat(PersistenceQueryFindUsingApplibQueryProcessor.isCountable(mockQueryMetadata), is(false));
+    }
+
+    @Test
+    public void noMetadata() throws Exception {
+        assertThat(PersistenceQueryFindUsingApplibQueryProcessor.isCountable(null), is(false));
+    }
+
+    private boolean isCountable(final String query) {
+        context.checking(new Expectations() {
+            {
+                allowing(mockQueryMetadata).getLanguage();
+                will(returnValue(null));
+                allowing(mockQueryMetadata).getQuery();
+                will(returnValue(query));
+                allowing(mockQueryMetadata).getResultClass();
+                will(returnValue(null));
+            }
+        });
+        return PersistenceQueryFindUsingApplibQueryProcessor.isCountable(mockQueryMetadata);
+    }
+
+}
@@ -24,19 +24,37 @@
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
 
 import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
 
+/**
+ * Runs each request within an Isis transaction.
+ * 
+ * <p>
+ * If the <tt>readOnlyGets</tt> init-param is set to <tt>true</tt>, then <tt>GET</tt> and <tt>HEAD</tt> requests
+ * (which per the Restful Objects spec only ever render objects or invoke actions with safe semantics) are run
+ * within a {@link IsisTransactionManager#startReadOnlyTransaction() read-only transaction}.
+ */
 public class IsisTransactionFilterForRestfulObjects implements Filter {
 
+    public static final String READ_ONLY_GETS_KEY = "readOnlyGets";
+
+    private boolean readOnlyGets;
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
+        readOnlyGets = Boolean.parseBoolean(filterConfig.getInitParameter(READ_ONLY_GETS_KEY));
     }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
-        getTransactionManager().startTransaction();
+        if(readOnlyGets && isSafe(request)) {
+            getTransactionManager().startReadOnlyTransaction();
+        } else {
+            getTransactionManager().startTransaction();
+        }
         try {
             chain.doFilter(request, response);
         } finally {
@@ -44,6 +62,14 @@ public void doFilter(ServletRequest request, ServletResponse response, FilterCha
         }
     }
 
+    private static boolean isSafe(final ServletRequest request) {
+        if(!(request instanceof HttpServletRequest)) {
+            return false;
+        }
+        final String method = ((HttpServletRequest) request).getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
     protected IsisTransactionManager getTransactionManager() {
         return IsisContext.getTransactionManager();
     }
@@ -41,7 +41,6 @@
 import org.apache.isis.core.metamodel.facetapi.DecoratingFacet;
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facets.ImperativeFacet;
-import org.apache.isis.core.metamodel.facets.ImperativeFacet.Intent;
 import org.apache.isis.core.metamodel.interactions.ObjectTitleContext;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.SpecificationLoader;
@@ -53,6 +52,22 @@
 
 public class DomainObjectInvocationHandler<T> extends DelegatingInvocationHandlerDefault<T> {
 
+    private static final Method WRAPPER_OBJECT_SAVE_METHOD = wrapperObjectMethod("__isis_save");
+    private static final Method WRAPPER_OBJECT_WRAPPED_METHOD = wrapperObjectMethod("__isis_wrapped");
+    private static final Method WRAPPER_OBJECT_EXECUTION_MODE_METHOD = wrapperObjectMethod("__isis_executionMode");
+    private static final Method WRAPPER_OBJECT_DEPRECATED_SAVE_METHOD = wrapperObjectMethod("save");
+    private static final Method WRAPPER_OBJECT_DEPRECATED_WRAPPED_METHOD = wrapperObjectMethod("wrapped");
+
+    private static Method wrapperObjectMethod(final String methodName) {
+        try {
+            return WrapperObject.class.getMethod(methodName, new Class[]{});
+        } catch (final NoSuchMethodException nsme) {
+            throw new IllegalStateException(
+                    "Could not locate reserved declared methods in the WrappingObject and WrappedObject interfaces",
+                    nsme);
+        }
+    }
+
     private final Map<Method, Collection<?>> collectionViewObjectsByMethod = new HashMap<Method, Collection<?>>();
     private final Map<Method, Map<?, ?>> mapViewObjectsByMethod = new HashMap<Method, Map<?, ?>>();
 
@@ -119,17 +134,11 @@ public DomainObjectInvocationHandler(
         } catch (final NoSuchMethodException e) {
             // ignore
         }
-        try {
-            __isis_saveMethod = WrapperObject.class.getMethod("__isis_save", new Class[]{});
-            __isis_wrappedMethod = WrapperObject.class.getMethod("__isis_wrapped", new Class[]{});
-            __isis_executionMode = WrapperObject.class.getMethod("__isis_executionMode", new Class[]{});
-            saveMethod = WrapperObject.class.getMethod("save", new Class[] {});
-            wrappedMethod = WrapperObject.class.getMethod("wrapped", new Class[] {});
-        } catch (final NoSuchMethodException nsme) {
-            throw new IllegalStateException(
-                    "Could not locate reserved declared methods in the WrappingObject and WrappedObject interfaces",
-                    nsme);
-        }
+        __isis_saveMethod = WRAPPER_OBJECT_SAVE_METHOD;
+        __isis_wrappedMethod = WRAPPER_OBJECT_WRAPPED_METHOD;
+        __isis_executionMode = WRAPPER_OBJECT_EXECUTION_MODE_METHOD;
+        saveMethod = WRAPPER_OBJECT_DEPRECATED_SAVE_METHOD;
+        wrappedMethod = WRAPPER_OBJECT_DEPRECATED_WRAPPED_METHOD;
     }
 
     @Override
@@ -139,29 +148,6 @@ public Object invoke(final Object proxyObject, final Method method, final Object
             return delegate(method, args);
         }
 
-        // workaround for JDO-enhanced..
-        if(isJdoMethod(method)) {
-            return delegate(method, args);
-        }
-
-        if(isInjectMethod(method)) {
-            return delegate(method, args);
-        }
-
-        final ObjectAdapter targetAdapter = getAdapterManager().adapterFor(getDelegate());
-
-        if (isTitleMethod(method)) {
-            return handleTitleMethod(method, args, targetAdapter);
-        }
-
-
-        final ObjectSpecification targetNoSpec = targetAdapter.getSpecification();
-
-        // save method, through the proxy
-        if (isSaveMethod(method)) {
-            return handleSaveMethod(getAuthenticationSession(), targetAdapter, targetNoSpec);
-        }
-
         if (isWrappedMethod(method)) {
             return getDelegate();
         }
@@ -170,80 +156,49 @@ public Object invoke(final Object proxyObject, final Method method, final Object
             return executionMode;
         }
 
-        final ObjectMember objectMember = locateAndCheckMember(method);
-
-        final String memberName = objectMember.getName();
-
-        final Intent intent = ImperativeFacet.Util.getIntent(objectMember, method);
-        if(intent == Intent.CHECK_IF_HIDDEN || intent == Intent.CHECK_IF_DISABLED) {
-            throw new UnsupportedOperationException(String.format("Cannot invoke supporting method '%s'", memberName));
-        }
-
-        final String methodName = method.getName();
-
-        if (intent == Intent.DEFAULTS || intent == Intent.CHOICES_OR_AUTOCOMPLETE) {
-            return method.invoke(getDelegate(), args);
+        // save method, through the proxy
+        if (isSaveMethod(method)) {
+            final ObjectAdapter targetAdapter = getAdapterManager().adapterFor(getDelegate());
+            return handleSaveMethod(getAuthenticationSession(), targetAdapter, targetAdapter.getSpecification());
         }
 
-        if (objectMember.isOneToOneAssociation()) {
-
-            if (intent == Intent.CHECK_IF_VALID || intent == Intent.MODIFY_PROPERTY_SUPPORTING) {
-                throw new UnsupportedOperationException(String.format("Cannot invoke supporting method for '%s'; use only property accessor/mutator", memberName));
-            }
-
-            final OneToOneAssociation otoa = (OneToOneAssociation) objectMember;
-            
-            if (intent == Intent.ACCESSOR) {
-                return handleGetterMethodOnProperty(args, targetAdapter, otoa, methodName);
-            }
-            
-            if (intent == Intent.MODIFY_PROPERTY || intent == Intent.INITIALIZATION) {
-                return handleSetterMethodOnProperty(args, getAuthenticationSession(), targetAdapter, otoa, methodName);
-            }
+        final MemberDispatchTable.Entry dispatchEntry = locateDispatchEntry(method);
+        if (dispatchEntry.getKind() == MemberDispatchTable.Kind.PASS_THROUGH) {
+            return delegate(method, args);
         }
-        if (objectMember.isOneToManyAssociation()) {
 
-            if (intent == Intent.CHECK_IF_VALID) {
-                throw new UnsupportedOperationException(String.format("Cannot invoke supporting method '%s'; use only collection accessor/mutator", memberName));
-            }
+        final ObjectAdapter targetAdapter = getAdapterManager().adapterFor(getDelegate());
 
-            final OneToManyAssociation otma = (OneToManyAssociation) objectMember;
-            if (intent == Intent.ACCESSOR) {
-                return handleGetterMethodOnCollection(method, args, targetAdapter, otma, memberName);
-            }
-            if (intent == Intent.MODIFY_COLLECTION_ADD) {
-                return handleCollectionAddToMethod(args, targetAdapter, otma, methodName);
-            }
-            if (intent == Intent.MODIFY_COLLECTION_REMOVE) {
-                return handleCollectionRemoveFromMethod(args, targetAdapter, otma, methodName);
-            }
+        if (isTitleMethod(method)) {
+            return handleTitleMethod(method, args, targetAdapter);
         }
 
-        if (objectMember instanceof ObjectAction) {
+        final ObjectMember objectMember = dispatchEntry.getMember();
 
-            if (intent == Intent.CHECK_IF_VALID) {
-                throw new UnsupportedOperationException(String.format("Cannot invoke supporting method '%s'; use only the 'invoke' method", memberName));
-            }
+        final String methodName = method.getName();
 
-            final ObjectAction noa = (ObjectAction) objectMember;
-            return handleActionMethod(args, getAuthenticationSession(), targetAdapter, noa, memberName);
+        switch (dispatchEntry.getKind()) {
+            case REJECT:
+                throw new UnsupportedOperationException(dispatchEntry.getRejectionMessage());
+            case DELEGATE:
+                return method.invoke(getDelegate(), args);
+            case PROPERTY_ACCESSOR:
+                return handleGetterMethodOnProperty(args, targetAdapter, (OneToOneAssociation) objectMember, methodName);
+            case PROPERTY_MODIFY:
+                return handleSetterMethodOnProperty(args, getAuthenticationSession(), targetAdapter, (OneToOneAssociation) objectMember, methodName);
+            case COLLECTION_ACCESSOR:
+                return handleGetterMethodOnCollection(method, args, targetAdapter, (OneToManyAssociation) objectMember, objectMember.getName());
+            case COLLECTION_ADD_TO:
+                return handleCollectionAddToMethod(args, targetAdapter, (OneToManyAssociation) objectMember, methodName);
+            case COLLECTION_REMOVE_FROM:
+                return handleCollectionRemoveFromMethod(args, targetAdapter, (OneToManyAssociation) objectMember, methodName);
+            case ACTION:
+                return handleActionMethod(args, getAuthenticationSession(), targetAdapter, (ObjectAction) objectMember, objectMember.getName());
+            default:
+                throw new UnsupportedOperationException(String.format("Unknown member type '%s'", objectMember));
         }
-
-        throw new UnsupportedOperationException(String.format("Unknown member type '%s'", objectMember));
-    }
-
-    private boolean isJdoMethod(final Method method) {
-        return methodStartsWith(method, "jdo");
     }
 
-    private boolean isInjectMethod(final Method method) {
-        return methodStartsWith(method, "inject");
-    }
-
-    private boolean methodStartsWith(final Method method, final String prefix) {
-        return method.getName().startsWith(prefix);
-    }
-    
     public List<Facet> getImperativeFacets(final ObjectMember objectMember, final Method method) {
         final List<Facet> imperativeFacets = objectMember.getFacets(new Filter<Facet>() {
             @Override
@@ -652,15 +607,9 @@ private InteractionException toException(final InteractionEvent interactionEvent
     // switching
     // /////////////////////////////////////////////////////////////////
 
-    private ObjectMember locateAndCheckMember(final Method method) {
+    private MemberDispatchTable.Entry locateDispatchEntry(final Method method) {
         final ObjectSpecificationDefault objectSpecificationDefault = getJavaSpecificationOfOwningClass(method);
-        final ObjectMember member = objectSpecificationDefault.getMember(method);
-        
-        if (member == null) {
-            final String methodName = method.getName();
-            throw new UnsupportedOperationException("Method '" + methodName + "' being invoked does not correspond to any of the object's fields or actions.");
-        }
-        return member;
+        return MemberDispatchTable.forSpecification(objectSpecificationDefault).entryFor(method);
     }
 
     protected boolean isTitleMethod(final Method method) {
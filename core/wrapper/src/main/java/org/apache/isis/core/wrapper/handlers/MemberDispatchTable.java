@@ -0,0 +1,204 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.wrapper.handlers;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import com.google.common.collect.Maps;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet.Intent;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectMember;
+import org.apache.isis.core.metamodel.specloader.specimpl.dflt.ObjectSpecificationDefault;
+
+/**
+ * For a single {@link ObjectSpecification}, maps each {@link Method} invoked through a wrapper onto the
+ * {@link ObjectMember} it represents, its {@link Intent}, and how the {@link DomainObjectInvocationHandler}
+ * should handle it.
+ *
+ * <p>
+ * Each entry is computed the first time its method is invoked through any wrapper, thereafter the
+ * {@link DomainObjectInvocationHandler} need only look it up rather than search the metamodel.  Each table is
+ * held against the class of its specification (so lives no longer than that class does), and is replaced if the
+ * specification of that class is, for example because it was invalidated.
+ */
+class MemberDispatchTable {
+
+    enum Kind {
+        /**
+         * Methods added by the JDO enhancer, or for injecting services; invoked on the underlying domain object
+         * without consulting the metamodel (nor even obtaining its adapter).
+         */
+        PASS_THROUGH,
+        /**
+         * Defaults or choices; just invoked on the underlying domain object.
+         */
+        DELEGATE,
+        PROPERTY_ACCESSOR,
+        PROPERTY_MODIFY,
+        COLLECTION_ACCESSOR,
+        COLLECTION_ADD_TO,
+        COLLECTION_REMOVE_FROM,
+        ACTION,
+        /**
+         * Not allowed to be invoked through the wrapper; see {@link Entry#getRejectionMessage()}.
+         */
+        REJECT
+    }
+
+    static class Entry {
+        private final ObjectMember member;
+        private final Intent intent;
+        private final Kind kind;
+        private final String rejectionMessage;
+
+        private Entry(final ObjectMember member, final Intent intent, final Kind kind, final String rejectionMessage) {
+            this.member = member;
+            this.intent = intent;
+            this.kind = kind;
+            this.rejectionMessage = rejectionMessage;
+        }
+
+        /**
+         * Will be <tt>null</tt> if the method does not correspond to any member (in which case will be
+         * {@link Kind#REJECT rejected}).
+         */
+        ObjectMember getMember() {
+            return member;
+        }
+
+        Intent getIntent() {
+            return intent;
+        }
+
+        Kind getKind() {
+            return kind;
+        }
+
+        String getRejectionMessage() {
+            return rejectionMessage;
+        }
+    }
+
+    private static final ClassValue<AtomicReference<MemberDispatchTable>> TABLE_BY_CLASS = new ClassValue<AtomicReference<MemberDispatchTable>>() {
+        @Override
+        protected AtomicReference<MemberDispatchTable> computeValue(final Class<?> type) {
+            return new AtomicReference<MemberDispatchTable>();
+        }
+    };
+
+    static MemberDispatchTable forSpecification(final ObjectSpecificationDefault specification) {
+        final AtomicReference<MemberDispatchTable> tableReference = TABLE_BY_CLASS.get(specification.getCorrespondingClass());
+        final MemberDispatchTable table = tableReference.get();
+        if(table != null && table.specification == specification) {
+            return table;
+        }
+        final MemberDispatchTable newTable = new MemberDispatchTable(specification);
+        // if created concurrently by another thread, then either table will do.
+        tableReference.set(newTable);
+        return newTable;
+    }
+
+    private final ObjectSpecificationDefault specification;
+    private final Map<Method, Entry> entryByMethod = Maps.newConcurrentMap();
+
+    private MemberDispatchTable(final ObjectSpecificationDefault specification) {
+        this.specification = specification;
+    }
+
+    Entry entryFor(final Method method) {
+        Entry entry = entryByMethod.get(method);
+        if(entry == null) {
+            entry = createEntry(method);
+            // if computed concurrently by another thread, then either entry will do.
+            entryByMethod.put(method, entry);
+        }
+        return entry;
+    }
+
+    private Entry createEntry(final Method method) {
+        final String methodName = method.getName();
+        // workaround for JDO-enhanced..
+        if (methodName.startsWith("jdo") || methodName.startsWith("inject")) {
+            return new Entry(null, null, Kind.PASS_THROUGH, null);
+        }
+
+        final ObjectMember member = specification.getMember(method);
+        if (member == null) {
+            return reject(null, null, "Method '" + methodName + "' being invoked does not correspond to any of the object's fields or actions.");
+        }
+
+        final String memberName = member.getName();
+
+        final Intent intent = ImperativeFacet.Util.getIntent(member, method);
+        if(intent == Intent.CHECK_IF_HIDDEN || intent == Intent.CHECK_IF_DISABLED) {
+            return reject(member, intent, String.format("Cannot invoke supporting method '%s'", memberName));
+        }
+
+        if (intent == Intent.DEFAULTS || intent == Intent.CHOICES_OR_AUTOCOMPLETE) {
+            return new Entry(member, intent, Kind.DELEGATE, null);
+        }
+
+        if (member.isOneToOneAssociation()) {
+
+            if (intent == Intent.CHECK_IF_VALID || intent == Intent.MODIFY_PROPERTY_SUPPORTING) {
+                return reject(member, intent, String.format("Cannot invoke supporting method for '%s'; use only property accessor/mutator", memberName));
+            }
+            if (intent == Intent.ACCESSOR) {
+                return new Entry(member, intent, Kind.PROPERTY_ACCESSOR, null);
+            }
+            if (intent == Intent.MODIFY_PROPERTY || intent == Intent.INITIALIZATION) {
+                return new Entry(member, intent, Kind.PROPERTY_MODIFY, null);
+            }
+        }
+        if (member.isOneToManyAssociation()) {
+
+            if (intent == Intent.CHECK_IF_VALID) {
+                return reject(member, intent, String.format("Cannot invoke supporting method '%s'; use only collection accessor/mutator", memberName));
+            }
+            if (intent == Intent.ACCESSOR) {
+                return new Entry(member, intent, Kind.COLLECTION_ACCESSOR, null);
+            }
+            if (intent == Intent.MODIFY_COLLECTION_ADD) {
+                return new Entry(member, intent, Kind.COLLECTION_ADD_TO, null);
+            }
+            if (intent == Intent.MODIFY_COLLECTION_REMOVE) {
+                return new Entry(member, intent, Kind.COLLECTION_REMOVE_FROM, null);
+            }
+        }
+
+        if (member instanceof ObjectAction) {
+
+            if (intent == Intent.CHECK_IF_VALID) {
+                return reject(member, intent, String.format("Cannot invoke supporting method '%s'; use only the 'invoke' method", memberName));
+            }
+            return new Entry(member, intent, Kind.ACTION, null);
+        }
+
+        return reject(member, intent, String.format("Unknown member type '%s'", member));
+    }
+
+    private static Entry reject(final ObjectMember member, final Intent intent, final String rejectionMessage) {
+        return new Entry(member, intent, Kind.REJECT, rejectionMessage);
+    }
+
+}
@@ -34,6 +34,7 @@
 
 import org.apache.isis.applib.services.wrapper.WrapperObject;
 import org.apache.isis.core.metamodel.specloader.classsubstitutor.CglibEnhanced;
+import org.apache.isis.core.runtime.proxy.ProxyClassCache;
 import org.apache.isis.core.wrapper.handlers.DelegatingInvocationHandler;
 import org.apache.isis.core.wrapper.internal.util.Util;
 
@@ -68,24 +69,30 @@ public <T> T instantiateProxy(final DelegatingInvocationHandler<T> handler) {
         if (clazz.isInterface()) {
             return Util.createInstance(clazz, handler, WrapperObject.class);
         } else {
-            final Class<T> enhancedClass = createEnhancedClass(clazz, handler, WrapperObject.class);
-            return Util.createInstance(enhancedClass);
+            final Class<T> enhancedClass = ProxyClassCache.getInstance().proxyClassFor(clazz, PROXY_CLASS_FACTORY, WrapperObject.class);
+            final T proxy = Util.createInstance(enhancedClass);
+            // the enhanced class is shared, so the callback is set on the instance (rather than registered against the class)
+            ((Factory) proxy).setCallbacks(new Callback[] { newMethodInterceptor(handler) });
+            return proxy;
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> Class<T> createEnhancedClass(final Class<T> toProxyClass, final InvocationHandler handler, final Class<?>... auxiliaryTypes) {
+    private static final ProxyClassCache.ProxyClassFactory PROXY_CLASS_FACTORY = new ProxyClassCache.ProxyClassFactory() {
+        @Override
+        public Class<?> createProxyClass(final Class<?> toProxyClass, final Class<?>... auxiliaryTypes) {
+            return createEnhancedClass(toProxyClass, auxiliaryTypes);
+        }
+    };
+
+    private static Class<?> createEnhancedClass(final Class<?> toProxyClass, final Class<?>... auxiliaryTypes) {
 
         // Create the proxy
         final Enhancer enhancer = new Enhancer();
         enhancer.setSuperclass(toProxyClass);
         enhancer.setInterfaces(auxiliaryTypes);
-        enhancer.setCallbackType(newMethodInterceptor(handler).getClass());
-
-        final Class<?> enhancedClass = enhancer.createClass();
+        enhancer.setCallbackType(MethodInterceptor.class);
 
-        Enhancer.registerCallbacks(enhancedClass, new Callback[] { newMethodInterceptor(handler) });
-        return (Class<T>) enhancedClass;
+        return enhancer.createClass();
     }
 
     private static <T> MethodInterceptor newMethodInterceptor(final InvocationHandler handler) {
@@ -19,7 +19,6 @@
 
 package org.apache.isis.core.wrapper.proxy;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
 import javassist.util.proxy.MethodFilter;
@@ -29,6 +28,7 @@
 
 import org.apache.isis.applib.services.wrapper.WrapperObject;
 import org.apache.isis.core.commons.lang.ArrayExtensions;
+import org.apache.isis.core.runtime.proxy.ProxyClassCache;
 import org.apache.isis.core.wrapper.handlers.DelegatingInvocationHandler;
 import org.apache.isis.core.wrapper.internal.util.Util;
 
@@ -44,7 +44,7 @@ public <T> T instantiateProxy(final DelegatingInvocationHandler<T> handler) {
         if (clazz.isInterface()) {
             return Util.createInstance(clazz, handler, WrapperObject.class);
         } else {
-            final Class<T> enhancedClass = createEnhancedClass(clazz, handler, WrapperObject.class);
+            final Class<T> enhancedClass = ProxyClassCache.getInstance().proxyClassFor(clazz, PROXY_CLASS_FACTORY, WrapperObject.class);
             ProxyObject proxyObject = (ProxyObject) Util.createInstance(enhancedClass);
             proxyObject.setHandler(new MethodHandler() {
                 @Override
@@ -56,8 +56,14 @@ public Object invoke(Object self, Method thisMethod, Method proceed, Object[] ar
         }
     }
     
-    @SuppressWarnings("unchecked")
-    private static <T> Class<T> createEnhancedClass(final Class<T> toProxyClass, final InvocationHandler handler, final Class<?>... auxiliaryTypes) {
+    private static final ProxyClassCache.ProxyClassFactory PROXY_CLASS_FACTORY = new ProxyClassCache.ProxyClassFactory() {
+        @Override
+        public Class<?> createProxyClass(final Class<?> toProxyClass, final Class<?>... auxiliaryTypes) {
+            return createEnhancedClass(toProxyClass, auxiliaryTypes);
+        }
+    };
+
+    private static Class<?> createEnhancedClass(final Class<?> toProxyClass, final Class<?>... auxiliaryTypes) {
         
         final ProxyFactory proxyFactory = new ProxyFactory();
         proxyFactory.setSuperclass(toProxyClass);
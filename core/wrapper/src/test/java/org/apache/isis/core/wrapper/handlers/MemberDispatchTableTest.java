@@ -0,0 +1,318 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.wrapper.handlers;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.filter.Filter;
+import org.apache.isis.core.metamodel.facetapi.Facet;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet;
+import org.apache.isis.core.metamodel.facets.ImperativeFacet.Intent;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectMember;
+import org.apache.isis.core.metamodel.spec.feature.OneToManyAssociation;
+import org.apache.isis.core.metamodel.spec.feature.OneToOneAssociation;
+import org.apache.isis.core.metamodel.specloader.specimpl.dflt.ObjectSpecificationDefault;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class MemberDispatchTableTest {
+
+    public static class Customer {
+        public String getName() {
+            return null;
+        }
+        public void setName(final String name) {
+        }
+        public String validateName(final String name) {
+            return null;
+        }
+        public List<Object> getOrders() {
+            return null;
+        }
+        public void addToOrders(final Object order) {
+        }
+        public void removeFromOrders(final Object order) {
+        }
+        public void placeOrder() {
+        }
+        public String validatePlaceOrder() {
+            return null;
+        }
+        public List<Object> choices0PlaceOrder() {
+            return null;
+        }
+        public boolean hidePlaceOrder() {
+            return false;
+        }
+        public void jdoReplaceField(final int fieldNumber) {
+        }
+        public void injectContainer(final Object container) {
+        }
+    }
+
+    public static class Supplier {
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ObjectSpecificationDefault mockSpecification;
+    @Mock
+    private ObjectSpecificationDefault mockOtherSpecification;
+    @Mock
+    private OneToOneAssociation mockProperty;
+    @Mock
+    private OneToManyAssociation mockCollection;
+    @Mock
+    private ObjectAction mockAction;
+    @Mock
+    private ImperativeFacet mockImperativeFacet;
+
+    private Method getNameMethod;
+
+    @Before
+    public void setUp() throws Exception {
+        getNameMethod = Customer.class.getMethod("getName");
+
+        context.checking(new Expectations() {
+            {
+                allowing(mockSpecification).getCorrespondingClass();
+                will(returnValue(Customer.class));
+
+                allowing(mockProperty).isOneToOneAssociation();
+                will(returnValue(true));
+                allowing(mockProperty).isOneToManyAssociation();
+                will(returnValue(false));
+                allowing(mockProperty).getName();
+                will(returnValue("Name"));
+
+                allowing(mockCollection).isOneToOneAssociation();
+                will(returnValue(false));
+                allowing(mockCollection).isOneToManyAssociation();
+                will(returnValue(true));
+                allowing(mockCollection).getName();
+                will(returnValue("Orders"));
+
+                allowing(mockAction).isOneToOneAssociation();
+                will(returnValue(false));
+                allowing(mockAction).isOneToManyAssociation();
+                will(returnValue(false));
+                allowing(mockAction).getName();
+                will(returnValue("Place Order"));
+            }
+        });
+    }
+
+    @Test
+    public void tableCreatedOnceForSpecification() throws Exception {
+        final MemberDispatchTable table = MemberDispatchTable.forSpecification(mockSpecification);
+
+        assertThat(MemberDispatchTable.forSpecification(mockSpecification), is(sameInstance(table)));
+    }
+
+    @Test
+    public void tableNotSharedBetweenSpecifications() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockOtherSpecification).getCorrespondingClass();
+                will(returnValue(Supplier.class));
+            }
+        });
+
+        final MemberDispatchTable table = MemberDispatchTable.forSpecification(mockSpecification);
+        final MemberDispatchTable otherTable = MemberDispatchTable.forSpecification(mockOtherSpecification);
+
+        assertThat(otherTable, is(not(sameInstance(table))));
+        assertThat(MemberDispatchTable.forSpecification(mockSpecification), is(sameInstance(table)));
+    }
+
+    @Test
+    public void tableReplacedAlongWithSpecification() throws Exception {
+        context.checking(new Expectations() {
+            {
+                // eg once the spec of the class has been invalidated
+                allowing(mockOtherSpecification).getCorrespondingClass();
+                will(returnValue(Customer.class));
+            }
+        });
+
+        final MemberDispatchTable table = MemberDispatchTable.forSpecification(mockSpecification);
+        final MemberDispatchTable replacementTable = MemberDispatchTable.forSpecification(mockOtherSpecification);
+
+        assertThat(replacementTable, is(not(sameInstance(table))));
+        assertThat(MemberDispatchTable.forSpecification(mockOtherSpecification), is(sameInstance(replacementTable)));
+    }
+
+    @Test
+    public void entryComputedOnlyOnce() throws Exception {
+        final MemberDispatchTable table = MemberDispatchTable.forSpecification(mockSpecification);
+        context.checking(new Expectations() {
+            {
+                oneOf(mockSpecification).getMember(getNameMethod);
+                will(returnValue(null));
+            }
+        });
+
+        final MemberDispatchTable.Entry entry = table.entryFor(getNameMethod);
+
+        assertThat(entry.getKind(), is(MemberDispatchTable.Kind.REJECT));
+        assertThat(entry.getMember(), is(nullValue()));
+        assertThat(table.entryFor(getNameMethod), is(sameInstance(entry)));
+    }
+
+    @Test
+    public void jdoAndInjectMethodsPassedThroughWithoutConsultingMetamodel() throws Exception {
+        final MemberDispatchTable table = MemberDispatchTable.forSpecification(mockSpecification);
+        context.checking(new Expectations() {
+            {
+                never(mockSpecification).getMember(with(any(Method.class)));
+            }
+        });
+
+        final Method jdoMethod = Customer.class.getMethod("jdoReplaceField", int.class);
+        final Method injectMethod = Customer.class.getMethod("injectContainer", Object.class);
+
+        assertThat(table.entryFor(jdoMethod).getKind(), is(MemberDispatchTable.Kind.PASS_THROUGH));
+        assertThat(table.entryFor(injectMethod).getKind(), is(MemberDispatchTable.Kind.PASS_THROUGH));
+    }
+
+    @Test
+    public void propertyAccessor() throws Exception {
+        final MemberDispatchTable.Entry entry = entryFor(getNameMethod, mockProperty, Intent.ACCESSOR);
+
+        assertThat(entry.getKind(), is(MemberDispatchTable.Kind.PROPERTY_ACCESSOR));
+        assertThat(entry.getMember(), is((ObjectMember) mockProperty));
+        assertThat(entry.getIntent(), is(Intent.ACCESSOR));
+    }
+
+    @Test
+    public void propertyModify() throws Exception {
+        final Method setNameMethod = Customer.class.getMethod("setName", String.class);
+
+        assertThat(entryFor(setNameMethod, mockProperty, Intent.MODIFY_PROPERTY).getKind(), is(MemberDispatchTable.Kind.PROPERTY_MODIFY));
+    }
+
+    @Test
+    public void propertyInitialization() throws Exception {
+        final Method setNameMethod = Customer.class.getMethod("setName", String.class);
+
+        assertThat(entryFor(setNameMethod, mockProperty, Intent.INITIALIZATION).getKind(), is(MemberDispatchTable.Kind.PROPERTY_MODIFY));
+    }
+
+    @Test
+    public void propertyValidateRejected() throws Exception {
+        final Method validateNameMethod = Customer.class.getMethod("validateName", String.class);
+
+        final MemberDispatchTable.Entry entry = entryFor(validateNameMethod, mockProperty, Intent.CHECK_IF_VALID);
+
+        assertThat(entry.getKind(), is(MemberDispatchTable.Kind.REJECT));
+        assertThat(entry.getRejectionMessage(), is("Cannot invoke supporting method for 'Name'; use only property accessor/mutator"));
+    }
+
+    @Test
+    public void collectionAccessor() throws Exception {
+        final Method getOrdersMethod = Customer.class.getMethod("getOrders");
+
+        assertThat(entryFor(getOrdersMethod, mockCollection, Intent.ACCESSOR).getKind(), is(MemberDispatchTable.Kind.COLLECTION_ACCESSOR));
+    }
+
+    @Test
+    public void collectionAddTo() throws Exception {
+        final Method addToOrdersMethod = Customer.class.getMethod("addToOrders", Object.class);
+
+        assertThat(entryFor(addToOrdersMethod, mockCollection, Intent.MODIFY_COLLECTION_ADD).getKind(), is(MemberDispatchTable.Kind.COLLECTION_ADD_TO));
+    }
+
+    @Test
+    public void collectionRemoveFrom() throws Exception {
+        final Method removeFromOrdersMethod = Customer.class.getMethod("removeFromOrders", Object.class);
+
+        assertThat(entryFor(removeFromOrdersMethod, mockCollection, Intent.MODIFY_COLLECTION_REMOVE).getKind(), is(MemberDispatchTable.Kind.COLLECTION_REMOVE_FROM));
+    }
+
+    @Test
+    public void action() throws Exception {
+        final Method placeOrderMethod = Customer.class.getMethod("placeOrder");
+
+        final MemberDispatchTable.Entry entry = entryFor(placeOrderMethod, mockAction, Intent.EXECUTE);
+
+        assertThat(entry.getKind(), is(MemberDispatchTable.Kind.ACTION));
+        assertThat(entry.getMember(), is((ObjectMember) mockAction));
+    }
+
+    @Test
+    public void actionValidateRejected() throws Exception {
+        final Method validatePlaceOrderMethod = Customer.class.getMethod("validatePlaceOrder");
+
+        final MemberDispatchTable.Entry entry = entryFor(validatePlaceOrderMethod, mockAction, Intent.CHECK_IF_VALID);
+
+        assertThat(entry.getKind(), is(MemberDispatchTable.Kind.REJECT));
+        assertThat(entry.getRejectionMessage(), is("Cannot invoke supporting method 'Place Order'; use only the 'invoke' method"));
+    }
+
+    @Test
+    public void actionChoicesDelegated() throws Exception {
+        final Method choicesMethod = Customer.class.getMethod("choices0PlaceOrder");
+
+        assertThat(entryFor(choicesMethod, mockAction, Intent.CHOICES_OR_AUTOCOMPLETE).getKind(), is(MemberDispatchTable.Kind.DELEGATE));
+    }
+
+    @Test
+    public void hideRejected() throws Exception {
+        final Method hideMethod = Customer.class.getMethod("hidePlaceOrder");
+
+        final MemberDispatchTable.Entry entry = entryFor(hideMethod, mockAction, Intent.CHECK_IF_HIDDEN);
+
+        assertThat(entry.getKind(), is(MemberDispatchTable.Kind.REJECT));
+        assertThat(entry.getRejectionMessage(), is("Cannot invoke supporting method 'Place Order'"));
+    }
+
+    private MemberDispatchTable.Entry entryFor(final Method method, final ObjectMember member, final Intent intent) {
+        context.checking(new Expectations() {
+            {
+                allowing(mockSpecification).getMember(method);
+                will(returnValue(member));
+
+                allowing(member).getFacets(with(any(Filter.class)));
+                will(returnValue(Collections.<Facet>singletonList(mockImperativeFacet)));
+
+                allowing(mockImperativeFacet).getMethods();
+                will(returnValue(Collections.singletonList(method)));
+                allowing(mockImperativeFacet).getIntent(method);
+                will(returnValue(intent));
+            }
+        });
+        return MemberDispatchTable.forSpecification(mockSpecification).entryFor(method);
+    }
+
+}